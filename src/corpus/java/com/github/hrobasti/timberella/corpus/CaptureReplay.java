@@ -0,0 +1,223 @@
+package com.github.hrobasti.timberella.corpus;
+
+import com.github.hrobasti.timberella.metrics.LatencyHistogram;
+import com.github.hrobasti.timberella.metrics.SlowFellingTracer;
+import com.github.hrobasti.timberella.tree.BlockPos;
+import com.github.hrobasti.timberella.tree.CaptureCodec;
+import com.github.hrobasti.timberella.tree.FellingCapture;
+import com.github.hrobasti.timberella.tree.LeafFrontier;
+import com.github.hrobasti.timberella.tree.ReplantPlanner;
+import com.github.hrobasti.timberella.tree.Species;
+import com.github.hrobasti.timberella.tree.TreeScanner;
+import com.github.hrobasti.timberella.tree.VoxelGrid;
+import org.bukkit.Material;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Replays production felling captures ({@code captures/*.tbc} written by the plugin's felling recorder) through
+ * scan, leaf decay and replant planning, and reports how long each stage took and where the current engine fells a
+ * different number of logs than the server did. Leaf decay runs without the leaf mappings, like the golden results.
+ * <p>
+ * Run with {@code ./gradlew replayCaptures -Pcaptures="path/to/captures [more files or directories]"}.
+ */
+public final class CaptureReplay {
+    private static final int ITERATIONS = 5;
+
+    public record Outcome(int logs, boolean truncated, int leaves, int saplings,
+                          long scanNanos, long decayNanos, long replantNanos) {}
+
+    private CaptureReplay() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        for (String arg : args) {
+            paths.add(Path.of(arg));
+        }
+        if (paths.isEmpty()) {
+            System.err.println("Pass capture files or directories, e.g. -Pcaptures=\"run/plugins/Timberella/captures\"");
+            System.exit(2);
+        }
+        List<FellingCapture> captures = load(paths);
+        if (captures.isEmpty()) {
+            System.err.println("No captures found in " + paths);
+            System.exit(2);
+        }
+        // One untimed pass so the JIT has seen every path before anything is measured.
+        for (FellingCapture capture : captures) {
+            replay(capture);
+        }
+        LatencyHistogram scan = new LatencyHistogram();
+        LatencyHistogram decay = new LatencyHistogram();
+        LatencyHistogram replant = new LatencyHistogram();
+        Map<String, Integer> perSpecies = new HashMap<>();
+        List<String> differences = new ArrayList<>();
+        for (FellingCapture capture : captures) {
+            Outcome outcome = null;
+            for (int i = 0; i < ITERATIONS; i++) {
+                outcome = replay(capture);
+                scan.record(outcome.scanNanos());
+                decay.record(outcome.decayNanos());
+                replant.record(outcome.replantNanos());
+            }
+            perSpecies.merge(capture.species() != null ? capture.species() : "other", 1, Integer::sum);
+            if (outcome.logs() != capture.logs() || outcome.truncated() != capture.truncated()) {
+                differences.add(String.format(Locale.ROOT, "%s %d,%d,%d %s: server felled %d%s, replay %d%s",
+                    capture.world(), capture.startX(), capture.startY(), capture.startZ(),
+                    capture.species() != null ? capture.species() : "other",
+                    capture.logs(), capture.truncated() ? " (truncated)" : "",
+                    outcome.logs(), outcome.truncated() ? " (truncated)" : ""));
+            }
+        }
+
+        System.out.println("Replayed " + captures.size() + " captures " + ITERATIONS + "x each: " + perSpecies);
+        print("scan", scan);
+        print("leaf decay", decay);
+        print("replant", replant);
+        if (!differences.isEmpty()) {
+            System.out.println(differences.size() + " capture(s) fell differently than on the server:");
+            differences.stream().limit(20).forEach(line -> System.out.println("  " + line));
+        }
+    }
+
+    private static void print(String stage, LatencyHistogram histogram) {
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        System.out.printf(Locale.ROOT, "  %-10s p50 %s  p99 %s  max %s%n", stage,
+            SlowFellingTracer.millis(snapshot.percentile(50)), SlowFellingTracer.millis(snapshot.percentile(99)),
+            SlowFellingTracer.millis(snapshot.max()));
+    }
+
+    /** Reads every capture in the given files and {@code *.tbc} files of the given directories. */
+    public static List<FellingCapture> load(List<Path> paths) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path path : paths) {
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> listing = Files.list(path)) {
+                    listing.filter(file -> file.getFileName().toString().endsWith(".tbc")).sorted().forEach(files::add);
+                }
+            } else {
+                files.add(path);
+            }
+        }
+        List<FellingCapture> captures = new ArrayList<>();
+        for (Path file : files) {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+                CaptureCodec.readHeader(in);
+                FellingCapture capture;
+                while ((capture = CaptureCodec.read(in)) != null) {
+                    captures.add(capture);
+                }
+            }
+        }
+        return captures;
+    }
+
+    /** Fells the captured tree on a fresh grid with the settings it was captured under. */
+    public static Outcome replay(FellingCapture capture) {
+        VoxelGrid grid = capture.toGrid();
+        FellingCapture.Settings settings = capture.settings();
+        int x = capture.startX();
+        int y = capture.startY();
+        int z = capture.startZ();
+
+        long scanStart = System.nanoTime();
+        TreeScanner scanner = new TreeScanner(capture.treeMaterials(), settings.includeDiagonals());
+        TreeScanner.Result scan = scanner.scan(grid, x, y, z, settings.maxBlocks(), settings.horizontalRadius(),
+            settings.verticalRadius());
+        long scanNanos = System.nanoTime() - scanStart;
+        if (scan.size() == 0) {
+            scan = scanner.single(grid, x, y, z);
+        }
+        long[] logs = scan.positions();
+        for (long log : logs) {
+            grid.set(BlockPos.x(log), BlockPos.y(log), BlockPos.z(log), Material.AIR);
+        }
+
+        long decayStart = System.nanoTime();
+        int leaves = 0;
+        if (settings.leafRadius() > 0) {
+            LeafFrontier frontier = new LeafFrontier(grid, null, settings.includeDiagonals(), settings.leafRadius(),
+                settings.leafMaxDistanceSquared());
+            frontier.seed(scan);
+            LeafFrontier.Entry entry;
+            while ((entry = frontier.poll()) != null) {
+                long pos = entry.pos();
+                if (!frontier.accepts(grid.type(pos))) continue;
+                grid.set(BlockPos.x(pos), BlockPos.y(pos), BlockPos.z(pos), Material.AIR);
+                leaves++;
+                frontier.expand(entry);
+            }
+        }
+        long decayNanos = System.nanoTime() - decayStart;
+
+        long replantStart = System.nanoTime();
+        ReplantPlanner planner = new ReplantPlanner(ReplantPlanner.defaultSaplingMappings(), CorpusSettings.ALLOWED_SAPLINGS);
+        ReplantPlanner.Plan plan = planner.plan(scan);
+        long replantNanos = System.nanoTime() - replantStart;
+
+        return new Outcome(scan.size(), scan.truncated(), leaves, plan != null ? plan.spots().length : 0,
+            scanNanos, decayNanos, replantNanos);
+    }
+
+    /**
+     * Captures a corpus tree the way the plugin captures a production felling, using the first corpus variant.
+     * Lets benchmarks and the codec run without production files.
+     */
+    public static FellingCapture capture(TreeFixture fixture) {
+        CorpusSettings.Variant variant = CorpusSettings.VARIANTS.get(0);
+        VoxelGrid grid = fixture.grid();
+        Species species = Species.detect(grid, fixture.startX(), fixture.startY(), fixture.startZ());
+        int maxBlocks = variant.maxBlocks(species);
+        int horizontalRadius = variant.horizontalRadius(species);
+        int verticalRadius = variant.verticalRadius(species);
+        TreeScanner.Result scan = variant.scanner().scan(grid, fixture.startX(), fixture.startY(), fixture.startZ(),
+            maxBlocks, horizontalRadius, verticalRadius);
+        long[] logs = scan.size() > 0 ? scan.positions()
+            : new long[] {BlockPos.pack(fixture.startX(), fixture.startY(), fixture.startZ())};
+
+        int pad = CorpusSettings.LEAF_DECAY_RADIUS;
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (long log : logs) {
+            minX = Math.min(minX, BlockPos.x(log) - pad);
+            minY = Math.min(minY, BlockPos.y(log) - pad);
+            minZ = Math.min(minZ, BlockPos.z(log) - pad);
+            maxX = Math.max(maxX, BlockPos.x(log) + pad);
+            maxY = Math.max(maxY, BlockPos.y(log) + pad);
+            maxZ = Math.max(maxZ, BlockPos.z(log) + pad);
+        }
+        int sizeX = maxX - minX + 1;
+        int sizeY = maxY - minY + 1;
+        int sizeZ = maxZ - minZ + 1;
+        Material[] blocks = new Material[sizeX * sizeY * sizeZ];
+        Set<Material> fellable = EnumSet.noneOf(Material.class);
+        int index = 0;
+        for (int y = minY; y <= maxY; y++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int x = minX; x <= maxX; x++) {
+                    Material type = grid.type(x, y, z);
+                    blocks[index++] = type;
+                    if (CorpusSettings.TREE_MATERIALS.contains(type)) fellable.add(type);
+                }
+            }
+        }
+        return new FellingCapture(0L, "corpus", species != null ? species.configKey() : null,
+            minX, minY, minZ, sizeX, sizeY, sizeZ, blocks, fellable, fixture.startX(), fixture.startY(), fixture.startZ(),
+            new FellingCapture.Settings(variant.includeDiagonals(), maxBlocks, horizontalRadius, verticalRadius,
+                CorpusSettings.LEAF_DECAY_RADIUS, CorpusSettings.LEAF_MAX_DISTANCE_SQUARED),
+            logs.length, scan.truncated());
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.hrobasti.timberella.corpus;
+
+import com.github.hrobasti.timberella.tree.Species;
+import com.github.hrobasti.timberella.tree.TreeScanner;
+import org.bukkit.Material;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Plugin settings the golden results are recorded under. Material lists mirror the shipped {@code config.yml}
+ * defaults; each {@link Variant} switches diagonals and the built-in species limits.
+ */
+public final class CorpusSettings {
+    public static final int MAX_BLOCKS = 1024;
+    public static final int LEAF_DECAY_RADIUS = 5;
+    public static final int LEAF_MAX_DISTANCE_SQUARED = 16;
+
+    /** {@code categories.logs} and {@code categories.additions} entries enabled by default. */
+    public static final Set<Material> TREE_MATERIALS = EnumSet.of(
+        Material.OAK_LOG, Material.PALE_OAK_LOG, Material.SPRUCE_LOG, Material.BIRCH_LOG, Material.JUNGLE_LOG,
+        Material.ACACIA_LOG, Material.DARK_OAK_LOG, Material.MANGROVE_LOG, Material.MANGROVE_ROOTS,
+        Material.CHERRY_LOG, Material.CRIMSON_STEM, Material.WARPED_STEM, Material.MUSHROOM_STEM,
+        Material.BROWN_MUSHROOM_BLOCK, Material.RED_MUSHROOM_BLOCK,
+        Material.BEE_NEST, Material.BEEHIVE, Material.CREAKING_HEART
+    );
+
+    /** Default {@code replant.saplings}; nether fungi are not replanted out of the box. */
+    public static final Set<Material> ALLOWED_SAPLINGS = EnumSet.of(
+        Material.OAK_SAPLING, Material.PALE_OAK_SAPLING, Material.SPRUCE_SAPLING, Material.BIRCH_SAPLING,
+        Material.JUNGLE_SAPLING, Material.ACACIA_SAPLING, Material.DARK_OAK_SAPLING, Material.CHERRY_SAPLING,
+        Material.MANGROVE_PROPAGULE
+    );
+
+    public record Variant(String name, boolean includeDiagonals, boolean speciesLimits) {
+        public TreeScanner scanner() {
+            return new TreeScanner(TREE_MATERIALS, includeDiagonals);
+        }
+
+        /** Block cap for a tree, the same way the listener combines the global and the species limit. */
+        public int maxBlocks(Species species) {
+            if (speciesLimits && species != null && species.defaultEnabled()
+                    && species.defaultMaxBlocks() > 0 && species.defaultMaxBlocks() < MAX_BLOCKS) {
+                return species.defaultMaxBlocks();
+            }
+            return MAX_BLOCKS;
+        }
+
+        public int horizontalRadius(Species species) {
+            return speciesLimits && species != null && species.defaultEnabled() ? species.defaultHorizontalRadius() : -1;
+        }
+
+        public int verticalRadius(Species species) {
+            return speciesLimits && species != null && species.defaultEnabled() ? species.defaultVerticalRadius() : -1;
+        }
+    }
+
+    public static final List<Variant> VARIANTS = List.of(
+        new Variant("diagonals+limits", true, true),
+        new Variant("diagonals", true, false),
+        new Variant("faces+limits", false, true),
+        new Variant("faces", false, false)
+    );
+
+    private CorpusSettings() {
+    }
+}
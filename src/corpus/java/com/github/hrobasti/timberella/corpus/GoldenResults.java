@@ -0,0 +1,179 @@
+package com.github.hrobasti.timberella.corpus;
+
+import com.github.hrobasti.timberella.tree.BlockAccess;
+import com.github.hrobasti.timberella.tree.BlockPos;
+import com.github.hrobasti.timberella.tree.LeafFrontier;
+import com.github.hrobasti.timberella.tree.ReplantPlanner;
+import com.github.hrobasti.timberella.tree.ScanStrategy;
+import com.github.hrobasti.timberella.tree.Species;
+import com.github.hrobasti.timberella.tree.TreeScanner;
+import com.github.hrobasti.timberella.tree.VoxelGrid;
+import org.bukkit.Material;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Fells every corpus tree under every {@link CorpusSettings.Variant} and compares the outcome with
+ * {@code corpus/golden.txt}: detected species, felled logs, decayed leaves and replant spots. Block sets are
+ * recorded as an order-independent hash so a scan may change its visiting order without failing the check.
+ * <p>
+ * {@code GoldenResultsTest} checks, {@code ./gradlew updateTreeCorpus} rewrites the golden file after an intended
+ * behaviour change.
+ */
+public final class GoldenResults {
+    private static final String RESOURCE = "/corpus/golden.txt";
+
+    private GoldenResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2 || !args[0].equals("update")) {
+            System.err.println("Usage: GoldenResults update <golden.txt>");
+            System.exit(2);
+        }
+        List<String> actual = compute();
+        Path target = Path.of(args[1]);
+        Files.createDirectories(target.getParent());
+        List<String> file = new ArrayList<>();
+        file.add("# Golden results for the tree corpus. Regenerate with ./gradlew updateTreeCorpus");
+        file.add("# <fixture> <variant> species logs truncated logs-hash leaves leaves-hash replant");
+        file.addAll(actual);
+        Files.write(target, file, StandardCharsets.UTF_8);
+        System.out.println("Wrote " + actual.size() + " golden results to " + target);
+    }
+
+    public static List<String> compute() {
+        List<String> lines = new ArrayList<>();
+        for (TreeFixture fixture : TreeCorpus.fixtures()) {
+            for (CorpusSettings.Variant variant : CorpusSettings.VARIANTS) {
+                lines.add(fixture.name() + ' ' + variant.name() + ' ' + fell(fixture, variant));
+            }
+        }
+        return lines;
+    }
+
+    /** Runs scan, felling, full leaf decay and replant planning on a copy of the fixture's grid. */
+    static String fell(TreeFixture fixture, CorpusSettings.Variant variant) {
+        VoxelGrid grid = fixture.grid().copy();
+        int x = fixture.startX();
+        int y = fixture.startY();
+        int z = fixture.startZ();
+        Species species = Species.detect(grid, x, y, z);
+        // Through the species' scan strategy, as the listener scans.
+        BlockAccess view = ScanStrategy.forSpecies(species).view(grid, y, variant.verticalRadius(species));
+        TreeScanner.Result scan = variant.scanner().scan(view, x, y, z, variant.maxBlocks(species),
+            variant.horizontalRadius(species), variant.verticalRadius(species));
+        if (scan.size() == 0) {
+            scan = variant.scanner().single(grid, x, y, z);
+        }
+        long[] logs = scan.positions();
+        for (long log : logs) {
+            grid.set(BlockPos.x(log), BlockPos.y(log), BlockPos.z(log), Material.AIR);
+        }
+
+        // After a timber felling the origin is already air, so every leaf type may decay.
+        LeafFrontier frontier = new LeafFrontier(grid, null, variant.includeDiagonals(),
+            CorpusSettings.LEAF_DECAY_RADIUS, CorpusSettings.LEAF_MAX_DISTANCE_SQUARED);
+        frontier.seed(scan);
+        List<Long> leaves = new ArrayList<>();
+        LeafFrontier.Entry entry;
+        while ((entry = frontier.poll()) != null) {
+            long pos = entry.pos();
+            if (!frontier.accepts(grid.type(pos))) continue;
+            grid.set(BlockPos.x(pos), BlockPos.y(pos), BlockPos.z(pos), Material.AIR);
+            leaves.add(pos);
+            frontier.expand(entry);
+        }
+
+        ReplantPlanner planner = new ReplantPlanner(ReplantPlanner.defaultSaplingMappings(), CorpusSettings.ALLOWED_SAPLINGS);
+        ReplantPlanner.Plan plan = planner.plan(scan);
+
+        StringBuilder out = new StringBuilder(160);
+        out.append("species=").append(species != null ? species.configKey() : "none")
+            .append(" logs=").append(logs.length)
+            .append(" truncated=").append(scan.truncated())
+            .append(" logs-hash=").append(hash(logs))
+            .append(" leaves=").append(leaves.size())
+            .append(" leaves-hash=").append(hash(leaves.stream().mapToLong(Long::longValue).toArray()))
+            .append(" replant=");
+        if (plan == null) {
+            out.append("none");
+        } else {
+            out.append(plan.sapling().name().toLowerCase(Locale.ROOT));
+            long[] spots = plan.spots().clone();
+            Arrays.sort(spots);
+            for (long spot : spots) {
+                out.append('@').append(BlockPos.x(spot)).append(',').append(BlockPos.y(spot)).append(',').append(BlockPos.z(spot));
+            }
+        }
+        return out.toString();
+    }
+
+    /** FNV-1a over the sorted positions. */
+    static String hash(long[] positions) {
+        long[] sorted = positions.clone();
+        Arrays.sort(sorted);
+        long hash = 0xcbf29ce484222325L;
+        for (long pos : sorted) {
+            for (int shift = 0; shift < 64; shift += 8) {
+                hash ^= (pos >>> shift) & 0xFF;
+                hash *= 0x100000001b3L;
+            }
+        }
+        return String.format(Locale.ROOT, "%016x", hash);
+    }
+
+    /** Differences between the golden and the computed lines, one line per side; empty when they match. */
+    static List<String> compare(List<String> expected, List<String> actual) {
+        Map<String, String> byCase = new HashMap<>();
+        for (String line : expected) {
+            byCase.put(caseKey(line), line);
+        }
+        List<String> failures = new ArrayList<>();
+        for (String line : actual) {
+            String golden = byCase.remove(caseKey(line));
+            if (golden == null) {
+                failures.add("NEW      " + line);
+            } else if (!golden.equals(line)) {
+                failures.add("EXPECTED " + golden);
+                failures.add("ACTUAL   " + line);
+            }
+        }
+        byCase.values().forEach(line -> failures.add("MISSING  " + line));
+        return failures;
+    }
+
+    private static String caseKey(String line) {
+        int first = line.indexOf(' ');
+        int second = line.indexOf(' ', first + 1);
+        return second < 0 ? line : line.substring(0, second);
+    }
+
+    static List<String> readGolden() throws IOException {
+        try (InputStream in = GoldenResults.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IOException("Missing " + RESOURCE + "; run ./gradlew updateTreeCorpus first");
+            }
+            List<String> lines = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank() && !line.startsWith("#")) lines.add(line);
+                }
+            }
+            return lines;
+        }
+    }
+}
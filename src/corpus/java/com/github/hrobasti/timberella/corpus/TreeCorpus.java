@@ -0,0 +1,308 @@
+package com.github.hrobasti.timberella.corpus;
+
+import com.github.hrobasti.timberella.tree.Species;
+import com.github.hrobasti.timberella.tree.VoxelGrid;
+import org.bukkit.Material;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Generated reference trees covering every {@link Species}: vanilla-like shapes including 2x2 mega trunks, mangrove
+ * root systems, huge mushrooms and nether fungi, plus a few shapes that exercise the scan limits. Every fixture is
+ * built the same way on every run, so golden results and benchmarks stay comparable.
+ * <p>
+ * All trees stand on a ground layer at y = 63 and are broken at their lowest trunk block.
+ */
+public final class TreeCorpus {
+    static final int GROUND = 63;
+    private static final int BASE = GROUND + 1;
+    private static final List<TreeFixture> FIXTURES = build();
+
+    private TreeCorpus() {
+    }
+
+    public static List<TreeFixture> fixtures() {
+        return FIXTURES;
+    }
+
+    public static TreeFixture fixture(String name) {
+        for (TreeFixture fixture : FIXTURES) {
+            if (fixture.name().equals(name)) return fixture;
+        }
+        throw new IllegalArgumentException("Unknown tree fixture: " + name);
+    }
+
+    private static List<TreeFixture> build() {
+        List<TreeFixture> out = new ArrayList<>();
+        out.add(oak());
+        out.add(fancyOak());
+        out.add(tallCustomOak());
+        out.add(oakPair());
+        out.add(birch());
+        out.add(spruce());
+        out.add(megaSpruce());
+        out.add(jungle());
+        out.add(megaJungle());
+        out.add(darkOak());
+        out.add(paleOak());
+        out.add(acacia());
+        out.add(cherry());
+        out.add(mangrove());
+        out.add(brownMushroom());
+        out.add(redMushroom());
+        out.add(warpedFungus());
+        out.add(crimsonFungus());
+        return Collections.unmodifiableList(out);
+    }
+
+    private static VoxelGrid ground(Material soil) {
+        VoxelGrid grid = new VoxelGrid(-16, GROUND - 2, -16, 33, 56, 33);
+        grid.fill(-16, GROUND - 2, -16, 16, GROUND - 1, 16, Material.DIRT);
+        grid.fill(-16, GROUND, -16, 16, GROUND, 16, soil);
+        return grid;
+    }
+
+    private static TreeFixture oak() {
+        VoxelGrid grid = ground(Material.GRASS_BLOCK);
+        column(grid, 0, BASE, 0, 5, Material.OAK_LOG);
+        canopy(grid, 0, BASE + 4, 0, 2, Material.OAK_LEAVES);
+        return new TreeFixture("oak", Species.OAK, grid, 0, BASE, 0);
+    }
+
+    /** Large oak whose branch blocks only touch each other diagonally. */
+    private static TreeFixture fancyOak() {
+        VoxelGrid grid = ground(Material.GRASS_BLOCK);
+        column(grid, 0, BASE, 0, 10, Material.OAK_LOG);
+        int[][] directions = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+        for (int i = 0; i < directions.length; i++) {
+            int y = BASE + 4 + i;
+            branch(grid, 0, y, 0, directions[i][0], directions[i][1], 3, Material.OAK_LOG);
+            canopy(grid, directions[i][0] * 3, y + 3, directions[i][1] * 3, 2, Material.OAK_LEAVES);
+        }
+        canopy(grid, 0, BASE + 10, 0, 2, Material.OAK_LEAVES);
+        return new TreeFixture("oak_fancy", Species.OAK, grid, 0, BASE, 0);
+    }
+
+    /** Player-built 40 block trunk with a bee nest, taller than the oak vertical limit. */
+    private static TreeFixture tallCustomOak() {
+        VoxelGrid grid = ground(Material.GRASS_BLOCK);
+        column(grid, 0, BASE, 0, 40, Material.OAK_LOG);
+        grid.set(1, BASE + 20, 0, Material.BEE_NEST);
+        canopy(grid, 0, BASE + 39, 0, 2, Material.OAK_LEAVES);
+        return new TreeFixture("oak_tall_custom", Species.OAK, grid, 0, BASE, 0);
+    }
+
+    /** Two oaks whose branches meet diagonally; only the 26-neighbour scan joins them. */
+    private static TreeFixture oakPair() {
+        VoxelGrid grid = ground(Material.GRASS_BLOCK);
+        column(grid, 0, BASE, 0, 6, Material.OAK_LOG);
+        column(grid, 5, BASE, 0, 6, Material.OAK_LOG);
+        grid.set(1, BASE + 4, 0, Material.OAK_LOG);
+        grid.set(2, BASE + 5, 0, Material.OAK_LOG);
+        grid.set(3, BASE + 4, 1, Material.OAK_LOG);
+        grid.set(4, BASE + 4, 0, Material.OAK_LOG);
+        canopy(grid, 0, BASE + 5, 0, 2, Material.OAK_LEAVES);
+        canopy(grid, 5, BASE + 5, 0, 2, Material.OAK_LEAVES);
+        return new TreeFixture("oak_pair", Species.OAK, grid, 0, BASE, 0);
+    }
+
+    private static TreeFixture birch() {
+        VoxelGrid grid = ground(Material.GRASS_BLOCK);
+        column(grid, 0, BASE, 0, 7, Material.BIRCH_LOG);
+        canopy(grid, 0, BASE + 6, 0, 2, Material.BIRCH_LEAVES);
+        return new TreeFixture("birch", Species.BIRCH, grid, 0, BASE, 0);
+    }
+
+    private static TreeFixture spruce() {
+        VoxelGrid grid = ground(Material.PODZOL);
+        column(grid, 0, BASE, 0, 14, Material.SPRUCE_LOG);
+        for (int dy = 3; dy < 14; dy += 2) {
+            ring(grid, 0, BASE + dy, 0, dy < 10 ? 2 : 1, Material.SPRUCE_LEAVES);
+        }
+        grid.setIfAir(0, BASE + 14, 0, Material.SPRUCE_LEAVES);
+        return new TreeFixture("spruce", Species.SPRUCE, grid, 0, BASE, 0);
+    }
+
+    private static TreeFixture megaSpruce() {
+        VoxelGrid grid = ground(Material.PODZOL);
+        square(grid, 0, BASE, 0, 28, Material.SPRUCE_LOG);
+        for (int dy = 10; dy < 28; dy += 2) {
+            int radius = dy < 18 ? 4 : dy < 24 ? 3 : 2;
+            ring(grid, 0, BASE + dy, 0, radius, Material.SPRUCE_LEAVES);
+            ring(grid, 1, BASE + dy, 1, radius, Material.SPRUCE_LEAVES);
+        }
+        canopy(grid, 0, BASE + 28, 0, 1, Material.SPRUCE_LEAVES);
+        return new TreeFixture("spruce_mega", Species.SPRUCE, grid, 0, BASE, 0);
+    }
+
+    private static TreeFixture jungle() {
+        VoxelGrid grid = ground(Material.GRASS_BLOCK);
+        column(grid, 0, BASE, 0, 12, Material.JUNGLE_LOG);
+        canopy(grid, 0, BASE + 11, 0, 2, Material.JUNGLE_LEAVES);
+        return new TreeFixture("jungle", Species.JUNGLE, grid, 0, BASE, 0);
+    }
+
+    private static TreeFixture megaJungle() {
+        VoxelGrid grid = ground(Material.GRASS_BLOCK);
+        square(grid, 0, BASE, 0, 26, Material.JUNGLE_LOG);
+        int[][] corners = {{-1, -1}, {1, 1}, {-1, 1}, {1, -1}};
+        for (int i = 0; i < corners.length; i++) {
+            int sx = corners[i][0] < 0 ? -1 : 2;
+            int sz = corners[i][1] < 0 ? -1 : 2;
+            int y = BASE + 12 + i * 3;
+            for (int step = 0; step < 4; step++) {
+                grid.set(sx + step * corners[i][0], y + step, sz + step * corners[i][1], Material.JUNGLE_LOG);
+            }
+            canopy(grid, sx + 4 * corners[i][0], y + 4, sz + 4 * corners[i][1], 2, Material.JUNGLE_LEAVES);
+        }
+        canopy(grid, 0, BASE + 26, 0, 4, Material.JUNGLE_LEAVES);
+        return new TreeFixture("jungle_mega", Species.JUNGLE, grid, 0, BASE, 0);
+    }
+
+    private static TreeFixture darkOak() {
+        VoxelGrid grid = ground(Material.GRASS_BLOCK);
+        square(grid, 0, BASE, 0, 7, Material.DARK_OAK_LOG);
+        grid.set(-1, BASE + 5, 0, Material.DARK_OAK_LOG);
+        grid.set(2, BASE + 5, 1, Material.DARK_OAK_LOG);
+        grid.set(0, BASE + 6, 2, Material.DARK_OAK_LOG);
+        canopy(grid, 0, BASE + 7, 0, 3, Material.DARK_OAK_LEAVES);
+        canopy(grid, 1, BASE + 7, 1, 3, Material.DARK_OAK_LEAVES);
+        return new TreeFixture("dark_oak", Species.DARK_OAK, grid, 0, BASE, 0);
+    }
+
+    private static TreeFixture paleOak() {
+        VoxelGrid grid = ground(Material.GRASS_BLOCK);
+        square(grid, 0, BASE, 0, 8, Material.PALE_OAK_LOG);
+        grid.set(2, BASE + 3, 0, Material.CREAKING_HEART);
+        canopy(grid, 0, BASE + 8, 0, 3, Material.PALE_OAK_LEAVES);
+        canopy(grid, 1, BASE + 8, 1, 3, Material.PALE_OAK_LEAVES);
+        return new TreeFixture("pale_oak", Species.PALE_OAK, grid, 0, BASE, 0);
+    }
+
+    /** Trunk that bends diagonally and forks, as generated in savannas. */
+    private static TreeFixture acacia() {
+        VoxelGrid grid = ground(Material.GRASS_BLOCK);
+        column(grid, 0, BASE, 0, 3, Material.ACACIA_LOG);
+        branch(grid, 0, BASE + 2, 0, 1, 0, 3, Material.ACACIA_LOG);
+        branch(grid, 0, BASE + 2, 0, -1, 1, 2, Material.ACACIA_LOG);
+        canopy(grid, 3, BASE + 6, 0, 2, Material.ACACIA_LEAVES);
+        canopy(grid, -2, BASE + 5, 2, 2, Material.ACACIA_LEAVES);
+        return new TreeFixture("acacia", Species.ACACIA, grid, 0, BASE, 0);
+    }
+
+    /** Short trunk with two arms that run sideways before turning up. */
+    private static TreeFixture cherry() {
+        VoxelGrid grid = ground(Material.GRASS_BLOCK);
+        column(grid, 0, BASE, 0, 4, Material.CHERRY_LOG);
+        for (int step = 1; step <= 3; step++) {
+            grid.set(step, BASE + 3, 0, Material.CHERRY_LOG);
+            grid.set(-step, BASE + 3, 0, Material.CHERRY_LOG);
+        }
+        column(grid, 3, BASE + 4, 0, 3, Material.CHERRY_LOG);
+        column(grid, -3, BASE + 4, 0, 3, Material.CHERRY_LOG);
+        canopy(grid, 3, BASE + 7, 0, 3, Material.CHERRY_LEAVES);
+        canopy(grid, -3, BASE + 7, 0, 3, Material.CHERRY_LEAVES);
+        return new TreeFixture("cherry", Species.CHERRY, grid, 0, BASE, 0);
+    }
+
+    /** Trunk raised on arching roots that end in muddy roots and shallow water. */
+    private static TreeFixture mangrove() {
+        VoxelGrid grid = ground(Material.MUD);
+        grid.fill(-4, GROUND, 2, -2, GROUND, 4, Material.WATER);
+        int trunkBase = BASE + 3;
+        column(grid, 0, trunkBase, 0, 9, Material.MANGROVE_LOG);
+        int[][] legs = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {-1, -1}};
+        for (int[] leg : legs) {
+            for (int step = 1; step <= 3; step++) {
+                grid.set(leg[0] * step, trunkBase - step, leg[1] * step, Material.MANGROVE_ROOTS);
+            }
+            grid.set(leg[0] * 3, GROUND, leg[1] * 3, Material.MUDDY_MANGROVE_ROOTS);
+        }
+        canopy(grid, 0, trunkBase + 8, 0, 3, Material.MANGROVE_LEAVES);
+        return new TreeFixture("mangrove", Species.MANGROVE, grid, 0, trunkBase, 0);
+    }
+
+    private static TreeFixture brownMushroom() {
+        VoxelGrid grid = ground(Material.MYCELIUM);
+        column(grid, 0, BASE, 0, 5, Material.MUSHROOM_STEM);
+        for (int dx = -3; dx <= 3; dx++) {
+            for (int dz = -3; dz <= 3; dz++) {
+                if (Math.abs(dx) == 3 && Math.abs(dz) == 3) continue;
+                grid.set(dx, BASE + 5, dz, Material.BROWN_MUSHROOM_BLOCK);
+            }
+        }
+        return new TreeFixture("mushroom_brown", Species.MUSHROOM_BROWN, grid, 0, BASE, 0);
+    }
+
+    private static TreeFixture redMushroom() {
+        VoxelGrid grid = ground(Material.MYCELIUM);
+        column(grid, 0, BASE, 0, 5, Material.MUSHROOM_STEM);
+        for (int dy = 2; dy <= 4; dy++) {
+            for (int dx = -2; dx <= 2; dx++) {
+                for (int dz = -2; dz <= 2; dz++) {
+                    boolean side = Math.abs(dx) == 2 || Math.abs(dz) == 2;
+                    if (side && Math.abs(dx) != Math.abs(dz)) {
+                        grid.set(dx, BASE + dy, dz, Material.RED_MUSHROOM_BLOCK);
+                    }
+                }
+            }
+        }
+        grid.fill(-1, BASE + 5, -1, 1, BASE + 5, 1, Material.RED_MUSHROOM_BLOCK);
+        return new TreeFixture("mushroom_red", Species.MUSHROOM_RED, grid, 0, BASE, 0);
+    }
+
+    private static TreeFixture warpedFungus() {
+        VoxelGrid grid = ground(Material.WARPED_NYLIUM);
+        column(grid, 0, BASE, 0, 8, Material.WARPED_STEM);
+        wartCap(grid, BASE + 5, Material.WARPED_WART_BLOCK);
+        return new TreeFixture("warped", Species.WARPED, grid, 0, BASE, 0);
+    }
+
+    private static TreeFixture crimsonFungus() {
+        VoxelGrid grid = ground(Material.CRIMSON_NYLIUM);
+        column(grid, 0, BASE, 0, 8, Material.CRIMSON_STEM);
+        wartCap(grid, BASE + 5, Material.NETHER_WART_BLOCK);
+        return new TreeFixture("crimson", Species.CRIMSON, grid, 0, BASE, 0);
+    }
+
+    private static void wartCap(VoxelGrid grid, int y, Material wart) {
+        for (int dy = 0; dy <= 3; dy++) {
+            ring(grid, 0, y + dy, 0, dy < 3 ? 2 : 1, wart);
+        }
+        grid.set(2, y + 1, 0, Material.SHROOMLIGHT);
+        grid.set(-1, y + 2, -2, Material.SHROOMLIGHT);
+    }
+
+    private static void column(VoxelGrid grid, int x, int y, int z, int height, Material log) {
+        grid.fill(x, y, z, x, y + height - 1, z, log);
+    }
+
+    /** 2x2 trunk with its north-west corner at x/z. */
+    private static void square(VoxelGrid grid, int x, int y, int z, int height, Material log) {
+        grid.fill(x, y, z, x + 1, y + height - 1, z + 1, log);
+    }
+
+    /** Branch rising one block per step; neighbouring branch blocks only touch at an edge. */
+    private static void branch(VoxelGrid grid, int x, int y, int z, int stepX, int stepZ, int length, Material log) {
+        for (int step = 1; step <= length; step++) {
+            grid.set(x + step * stepX, y + step, z + step * stepZ, log);
+        }
+    }
+
+    private static void canopy(VoxelGrid grid, int cx, int cy, int cz, int radius, Material leaves) {
+        for (int dy = -1; dy <= 1; dy++) {
+            ring(grid, cx, cy + dy, cz, dy == 1 ? Math.max(1, radius - 1) : radius, leaves);
+        }
+    }
+
+    private static void ring(VoxelGrid grid, int cx, int y, int cz, int radius, Material block) {
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dz = -radius; dz <= radius; dz++) {
+                if (radius > 1 && Math.abs(dx) == radius && Math.abs(dz) == radius) continue;
+                grid.setIfAir(cx + dx, y, cz + dz, block);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.github.hrobasti.timberella.corpus;
+
+import com.github.hrobasti.timberella.tree.Species;
+import com.github.hrobasti.timberella.tree.VoxelGrid;
+
+/**
+ * One reference tree: a grid holding the tree and its ground, the block a player would break and the species the
+ * plugin is expected to detect there. The grid is shared; take a {@link VoxelGrid#copy()} before changing it.
+ */
+public record TreeFixture(String name, Species species, VoxelGrid grid, int startX, int startY, int startZ) {
+}
@@ -0,0 +1,104 @@
+package com.github.hrobasti.timberella.i18n;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous per-call MiniMessage parsing in {@link MessageService} with pre-parsed
+ * {@link MessageTemplate}s. Messages are copied from {@code lang/en_US.yml}.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageTemplateBenchmark {
+    private static final MiniMessage MINI = MiniMessage.miniMessage();
+    private static final PlainTextComponentSerializer PLAIN = PlainTextComponentSerializer.plainText();
+    private static final String PREFIX = "<light_purple>[<prefix_label>]</light_purple>";
+    private static final String ACTIONBAR = "<light_red>Felling already running</light_red>";
+    private static final String TOGGLE_SELF = "<prefix> <white>Timberella enabled.</white>";
+    private static final String TOGGLE_OTHER = "<prefix> <white>Enabled for <gold><player></gold>.</white>";
+
+    private Map<String, String> replacements;
+    private MessageTemplate actionbar;
+    private MessageTemplate toggleSelf;
+    private MessageTemplate toggleOther;
+
+    @Setup
+    public void setup() {
+        replacements = Map.of("player", "Notch");
+        TagResolver fixed = TagResolver.resolver(
+            Placeholder.parsed("prefix", PREFIX),
+            Placeholder.unparsed("prefix_label", "Timberella"));
+        actionbar = MessageTemplate.compile(MINI, ACTIONBAR, fixed);
+        toggleSelf = MessageTemplate.compile(MINI, TOGGLE_SELF, fixed);
+        toggleOther = MessageTemplate.compile(MINI, TOGGLE_OTHER, fixed);
+    }
+
+    // Previous MessageService behaviour: a fresh resolver set and a full parse on every call.
+    private static TagResolver prefixResolvers() {
+        TagResolver.Builder builder = TagResolver.builder();
+        builder.resolver(Placeholder.parsed("prefix", PREFIX));
+        builder.resolver(Placeholder.unparsed("prefix_label", "Timberella"));
+        return builder.build();
+    }
+
+    @Benchmark
+    public Component parseActionbar() {
+        return MINI.deserialize(ACTIONBAR, prefixResolvers());
+    }
+
+    @Benchmark
+    public Component templateActionbar() {
+        return actionbar.component();
+    }
+
+    @Benchmark
+    public Component parseToggleSelf() {
+        return MINI.deserialize(TOGGLE_SELF, prefixResolvers());
+    }
+
+    @Benchmark
+    public Component templateToggleSelf() {
+        return toggleSelf.component();
+    }
+
+    @Benchmark
+    public Component parseToggleOther() {
+        TagResolver.Builder builder = TagResolver.builder();
+        builder.resolver(prefixResolvers());
+        for (Map.Entry<String, String> e : replacements.entrySet()) {
+            builder.resolver(Placeholder.unparsed(e.getKey(), e.getValue()));
+        }
+        return MINI.deserialize(TOGGLE_OTHER, builder.build());
+    }
+
+    @Benchmark
+    public Component templateToggleOther() {
+        return toggleOther.render(replacements);
+    }
+
+    @Benchmark
+    public String parsePlain() {
+        return PLAIN.serialize(MINI.deserialize(TOGGLE_SELF, prefixResolvers()));
+    }
+
+    @Benchmark
+    public String templatePlain() {
+        return toggleSelf.plain();
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.hrobasti.timberella.tree;
+
+import com.github.hrobasti.timberella.corpus.CaptureReplay;
+import com.github.hrobasti.timberella.corpus.TreeCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a whole set of felling captures per operation: production captures when the {@code captures} parameter
+ * points at a file or directory, otherwise every corpus tree round-tripped through the capture format.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CaptureReplayBenchmark {
+    @Param({""})
+    public String captures;
+
+    private List<FellingCapture> workload;
+
+    @Setup
+    public void setup() throws IOException {
+        if (!captures.isBlank()) {
+            workload = CaptureReplay.load(List.of(Path.of(captures)));
+            return;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CaptureCodec.writeHeader(out);
+        TreeCorpus.fixtures().forEach(fixture -> {
+            try {
+                out.write(CaptureCodec.encode(CaptureReplay.capture(fixture)));
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        workload = new ArrayList<>();
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        CaptureCodec.readHeader(in);
+        FellingCapture capture;
+        while ((capture = CaptureCodec.read(in)) != null) {
+            workload.add(capture);
+        }
+    }
+
+    @Benchmark
+    public int replayAll() {
+        int logs = 0;
+        for (FellingCapture capture : workload) {
+            logs += CaptureReplay.replay(capture).logs();
+        }
+        return logs;
+    }
+}
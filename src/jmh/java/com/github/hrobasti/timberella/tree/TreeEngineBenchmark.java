@@ -0,0 +1,81 @@
+package com.github.hrobasti.timberella.tree;
+
+import com.github.hrobasti.timberella.corpus.CorpusSettings;
+import com.github.hrobasti.timberella.corpus.TreeCorpus;
+import com.github.hrobasti.timberella.corpus.TreeFixture;
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scan, leaf frontier and replant planning on trees from the reference {@link TreeCorpus}. Allocation rates come
+ * from the {@code gc} profiler configured in {@code build.gradle}; any corpus fixture name can be passed as
+ * {@code fixture}.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TreeEngineBenchmark {
+    @Param({"oak", "oak_tall_custom", "spruce_mega", "jungle_mega", "mangrove", "mushroom_brown"})
+    public String fixture;
+
+    @Param({"true", "false"})
+    public boolean includeDiagonals;
+
+    private TreeFixture tree;
+    private VoxelGrid standing;
+    private VoxelGrid felled;
+    private TreeScanner scanner;
+    private ReplantPlanner planner;
+    private TreeScanner.Result scanned;
+
+    @Setup
+    public void setup() {
+        tree = TreeCorpus.fixture(fixture);
+        standing = tree.grid();
+        scanner = new TreeScanner(CorpusSettings.TREE_MATERIALS, includeDiagonals);
+        planner = new ReplantPlanner(ReplantPlanner.defaultSaplingMappings(), CorpusSettings.ALLOWED_SAPLINGS);
+
+        scanned = scanner.scan(standing, tree.startX(), tree.startY(), tree.startZ(), CorpusSettings.MAX_BLOCKS, -1, -1);
+        felled = standing.copy();
+        for (long log : scanned.positions()) {
+            felled.set(BlockPos.x(log), BlockPos.y(log), BlockPos.z(log), Material.AIR);
+        }
+    }
+
+    @Benchmark
+    public TreeScanner.Result scan() {
+        return scanner.scan(standing, tree.startX(), tree.startY(), tree.startZ(), CorpusSettings.MAX_BLOCKS, -1, -1);
+    }
+
+    /** Seeds the frontier around the felled logs and drains it; leaves stay in place, visited ones are skipped. */
+    @Benchmark
+    public int leafFrontier() {
+        LeafFrontier frontier = new LeafFrontier(felled, null, includeDiagonals, CorpusSettings.LEAF_DECAY_RADIUS,
+            CorpusSettings.LEAF_MAX_DISTANCE_SQUARED);
+        frontier.seed(scanned);
+        int decayed = 0;
+        LeafFrontier.Entry entry;
+        while ((entry = frontier.poll()) != null) {
+            if (!frontier.accepts(felled.type(entry.pos()))) continue;
+            frontier.expand(entry);
+            decayed++;
+        }
+        return decayed;
+    }
+
+    @Benchmark
+    public ReplantPlanner.Plan replantPlan() {
+        return planner.plan(scanned);
+    }
+}
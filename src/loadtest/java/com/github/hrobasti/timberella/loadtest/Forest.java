@@ -0,0 +1,74 @@
+package com.github.hrobasti.timberella.loadtest;
+
+import com.github.hrobasti.timberella.corpus.TreeCorpus;
+import com.github.hrobasti.timberella.corpus.TreeFixture;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import java.util.List;
+
+/**
+ * Plants reference trees from the {@link TreeCorpus} into a world: one row per virtual player, each tree in its own
+ * cell so scans and leaf decay never reach into a neighbour.
+ */
+final class Forest {
+    static final int GROUND_Y = 63;
+    private static final int SPACING = 16;
+    private static final int HALF_CELL = SPACING / 2 - 1;
+    private static final int CELL_HEIGHT = 48;
+
+    private final World world;
+    private final List<TreeFixture> fixtures;
+
+    Forest(World world, List<TreeFixture> fixtures) {
+        this.world = world;
+        this.fixtures = fixtures;
+    }
+
+    World world() {
+        return world;
+    }
+
+    private TreeFixture fixture(int row, int tree) {
+        return fixtures.get((row + tree) % fixtures.size());
+    }
+
+    Block base(int row, int tree) {
+        TreeFixture fixture = fixture(row, tree);
+        return world.getBlockAt(treeX(tree) + fixture.startX(), fixture.startY(), rowZ(row) + fixture.startZ());
+    }
+
+    private int treeX(int tree) {
+        return tree * SPACING;
+    }
+
+    private int rowZ(int row) {
+        return row * SPACING;
+    }
+
+    /** Clears the tree's cell and copies the fixture into it again. */
+    void grow(int row, int tree) {
+        int cx = treeX(tree);
+        int cz = rowZ(row);
+        for (int y = GROUND_Y + 1; y <= GROUND_Y + CELL_HEIGHT; y++) {
+            for (int z = cz - HALF_CELL; z <= cz + HALF_CELL; z++) {
+                for (int x = cx - HALF_CELL; x <= cx + HALF_CELL; x++) {
+                    Block block = world.getBlockAt(x, y, z);
+                    if (block.getType() != Material.AIR) {
+                        block.setType(Material.AIR);
+                    }
+                }
+            }
+        }
+        fixture(row, tree).grid().forEachBlock((x, y, z, material) -> {
+            if (y < GROUND_Y || Math.abs(x) > HALF_CELL || Math.abs(z) > HALF_CELL) return;
+            world.getBlockAt(cx + x, y, cz + z).setType(material);
+        });
+    }
+
+    boolean isStanding(int row, int tree) {
+        TreeFixture fixture = fixture(row, tree);
+        return base(row, tree).getType() == fixture.grid().type(fixture.startX(), fixture.startY(), fixture.startZ());
+    }
+}
@@ -0,0 +1,228 @@
+package com.github.hrobasti.timberella.loadtest;
+
+import com.github.hrobasti.timberella.TimberellaPlugin;
+import com.github.hrobasti.timberella.corpus.TreeCorpus;
+import com.github.hrobasti.timberella.corpus.TreeFixture;
+import com.github.hrobasti.timberella.metrics.LatencyHistogram;
+import com.github.hrobasti.timberella.metrics.RuntimeStats;
+import com.github.hrobasti.timberella.session.PlayerSession;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+import org.mockbukkit.mockbukkit.world.WorldMock;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Headless load test: loads the plugin into a MockBukkit server, lets N virtual players fell trees at a fixed rate
+ * and reports what every tick cost. Run with {@code ./gradlew loadTest -PloadTestArgs="--players=50"}.
+ * <p>
+ * Options (all optional): {@code --players}, {@code --ticks}, {@code --warmup-ticks}, {@code --chop-interval}
+ * (ticks between a player's fellings), {@code --trees-per-player}, {@code --trees} (comma-separated corpus
+ * fixture names, or {@code all}),
+ * {@code --sneak}, {@code --break-interval-ticks}, {@code --include-diagonals}.
+ * <p>
+ * Timings include MockBukkit's own overhead, so compare runs against each other rather than against a real server.
+ */
+public final class LoadTest {
+    private LoadTest() {
+    }
+
+    private record VirtualPlayer(PlayerMock player, int row, int offset) {}
+
+    public static void main(String[] args) {
+        Map<String, String> options = parse(args);
+        int players = intOption(options, "players", 50);
+        int ticks = intOption(options, "ticks", 1200);
+        int warmupTicks = intOption(options, "warmup-ticks", 200);
+        int chopInterval = Math.max(1, intOption(options, "chop-interval", 60));
+        int treesPerPlayer = Math.max(1, intOption(options, "trees-per-player", 4));
+        String treeNames = options.getOrDefault("trees", "oak,birch,spruce,oak_fancy");
+        List<TreeFixture> trees = new ArrayList<>();
+        if (treeNames.equals("all")) {
+            trees.addAll(TreeCorpus.fixtures());
+        } else {
+            for (String name : treeNames.split(",")) {
+                trees.add(TreeCorpus.fixture(name.trim()));
+            }
+        }
+        boolean sneak = Boolean.parseBoolean(options.getOrDefault("sneak", "true"));
+
+        ServerMock server = MockBukkit.mock();
+        try {
+            TimberellaPlugin plugin = MockBukkit.load(TimberellaPlugin.class);
+            configure(plugin, options, sneak);
+
+            WorldMock world = server.addSimpleWorld("loadtest");
+            Forest forest = new Forest(world, trees);
+
+            List<VirtualPlayer> virtualPlayers = new ArrayList<>(players);
+            for (int i = 0; i < players; i++) {
+                PlayerMock player = server.addPlayer("chopper" + i);
+                player.setSneaking(sneak);
+                player.getInventory().setItemInMainHand(new ItemStack(Material.NETHERITE_AXE));
+                // Spread the first fellings over the interval instead of starting all players on the same tick.
+                virtualPlayers.add(new VirtualPlayer(player, i, (int) ((long) i * chopInterval / players)));
+                for (int tree = 0; tree < treesPerPlayer; tree++) {
+                    forest.grow(i, tree);
+                }
+            }
+
+            System.out.printf(Locale.ROOT, "Timberella load test: %d players, trees %s, one felling per player every %d ticks%n",
+                players, treeNames, chopInterval);
+            run(server, plugin, forest, virtualPlayers, warmupTicks, chopInterval, treesPerPlayer, null);
+            plugin.stats().reset();
+
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            System.gc();
+            long heapBefore = memory.getHeapMemoryUsage().getUsed();
+            Report report = new Report();
+            run(server, plugin, forest, virtualPlayers, ticks, chopInterval, treesPerPlayer, report);
+            report.peakHeap = Math.max(report.peakHeap, memory.getHeapMemoryUsage().getUsed());
+            System.gc();
+            long heapAfter = memory.getHeapMemoryUsage().getUsed();
+            report.print(plugin.stats(), ticks, heapBefore, heapAfter);
+        } finally {
+            MockBukkit.unmock();
+        }
+    }
+
+    static void configure(TimberellaPlugin plugin, Map<String, String> options, boolean sneak) {
+        var config = plugin.getConfig();
+        // Keep the run self-contained: no network, no background exporters, no config watcher.
+        config.set("update-check.enabled", false);
+        config.set("metrics-enabled", false);
+        config.set("jmx.enabled", false);
+        config.set("prometheus.enabled", false);
+        config.set("config-watch-enabled", false);
+        config.set("sneak-mode", sneak ? 0 : 1);
+        if (options.containsKey("break-interval-ticks")) {
+            config.set("break-interval-ticks", intOption(options, "break-interval-ticks", 2));
+        }
+        if (options.containsKey("include-diagonals")) {
+            config.set("include-diagonals", Boolean.parseBoolean(options.get("include-diagonals")));
+        }
+        plugin.saveConfig();
+        // The reload applies its result in a scheduled task, so tick until it has.
+        CompletableFuture<Void> reload = plugin.reloadAndMergeConfig();
+        while (!reload.isDone()) {
+            MockBukkit.getMock().getScheduler().performOneTick();
+            Thread.onSpinWait();
+        }
+        reload.join();
+    }
+
+    private static void run(ServerMock server, TimberellaPlugin plugin, Forest forest, List<VirtualPlayer> players,
+                            int ticks, int chopInterval, int treesPerPlayer, Report report) {
+        var scheduler = server.getScheduler();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int tick = 0; tick < ticks; tick++) {
+            // Regrowing is world setup, not plugin work, so it stays outside the measured window.
+            List<VirtualPlayer> choppers = new ArrayList<>();
+            for (VirtualPlayer vp : players) {
+                if ((tick + vp.offset()) % chopInterval != 0) continue;
+                PlayerSession session = plugin.sessions().peek(vp.player().getUniqueId());
+                if (session != null && session.hasActiveFelling()) continue;
+                int tree = (tick / chopInterval) % treesPerPlayer;
+                if (!forest.isStanding(vp.row(), tree)) {
+                    forest.grow(vp.row(), tree);
+                }
+                choppers.add(vp);
+            }
+
+            long start = System.nanoTime();
+            for (VirtualPlayer vp : choppers) {
+                int tree = (tick / chopInterval) % treesPerPlayer;
+                vp.player().simulateBlockBreak(forest.base(vp.row(), tree));
+            }
+            scheduler.performOneTick();
+            long elapsed = System.nanoTime() - start;
+
+            if (report != null) {
+                report.tickNanos.record(elapsed);
+                report.fellingsRequested += choppers.size();
+                int tasks = scheduler.getPendingTasks().size();
+                report.taskSum += tasks;
+                report.maxTasks = Math.max(report.maxTasks, tasks);
+                int entities = forest.world().getEntities().size();
+                report.maxEntities = Math.max(report.maxEntities, entities);
+                report.lastEntities = entities;
+                if ((tick & 63) == 0) {
+                    report.peakHeap = Math.max(report.peakHeap, memory.getHeapMemoryUsage().getUsed());
+                }
+            }
+        }
+    }
+
+    private static final class Report {
+        final LatencyHistogram tickNanos = new LatencyHistogram();
+        long fellingsRequested;
+        long taskSum;
+        int maxTasks;
+        int maxEntities;
+        int lastEntities;
+        long peakHeap;
+
+        void print(RuntimeStats stats, int ticks, long heapBefore, long heapAfter) {
+            LatencyHistogram.Snapshot snapshot = tickNanos.snapshot();
+            System.out.printf(Locale.ROOT, "Ticks measured:      %d%n", ticks);
+            System.out.printf(Locale.ROOT, "Plugin time / tick:  mean %s  p50 %s  p95 %s  p99 %s  max %s%n",
+                ms(snapshot.mean()), ms(snapshot.percentile(50)), ms(snapshot.percentile(95)),
+                ms(snapshot.percentile(99)), ms(snapshot.max()));
+            System.out.printf(Locale.ROOT, "Ticks over 5ms:      %d%n", snapshot.count() - snapshot.countAtOrBelow(5_000_000L));
+            System.out.printf(Locale.ROOT, "Fellings:            %d requested, %d started, %d aborted%n", fellingsRequested,
+                stats.count(RuntimeStats.Counter.FELLINGS_STARTED), stats.count(RuntimeStats.Counter.FELLINGS_ABORTED));
+            System.out.printf(Locale.ROOT, "Blocks broken:       %d logs, %d leaves, %d leaf events%n",
+                stats.count(RuntimeStats.Counter.BLOCKS_BROKEN), stats.count(RuntimeStats.Counter.LEAVES_DECAYED),
+                stats.count(RuntimeStats.Counter.EVENTS_FIRED));
+            System.out.printf(Locale.ROOT, "Scheduler tasks:     mean %.1f  max %d%n", (double) taskSum / Math.max(1, ticks), maxTasks);
+            System.out.printf(Locale.ROOT, "Entities:            max %d  at end %d%n", maxEntities, lastEntities);
+            System.out.printf(Locale.ROOT, "Heap:                %s before, %s after GC, peak %s (growth %s)%n",
+                mib(heapBefore), mib(heapAfter), mib(peakHeap), mib(heapAfter - heapBefore));
+            for (RuntimeStats.Phase phase : RuntimeStats.Phase.values()) {
+                LatencyHistogram.Snapshot phaseSnapshot = stats.snapshot(phase);
+                if (phaseSnapshot.count() == 0) continue;
+                System.out.printf(Locale.ROOT, "  %-13s n=%-7d p50 %s  p99 %s  max %s%n", phase.label(), phaseSnapshot.count(),
+                    ms(phaseSnapshot.percentile(50)), ms(phaseSnapshot.percentile(99)), ms(phaseSnapshot.max()));
+            }
+        }
+    }
+
+    private static String ms(long nanos) {
+        return String.format(Locale.ROOT, "%.3fms", nanos / 1_000_000.0);
+    }
+
+    private static String mib(long bytes) {
+        return String.format(Locale.ROOT, "%.1fMiB", bytes / (1024.0 * 1024.0));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+
+    private static int intOption(Map<String, String> options, String key, int fallback) {
+        String value = options.get(key);
+        return value == null ? fallback : Integer.parseInt(value);
+    }
+}
@@ -1,20 +1,44 @@
 package com.github.hrobasti.timberella;
 
 import com.github.hrobasti.turtlelib.helper.ConfigWatcher;
-import com.github.hrobasti.turtlelib.helper.MessageService;
 import com.github.hrobasti.turtlelib.helper.ServerMatcher;
 import com.github.hrobasti.turtlelib.helper.StartupBanner;
 import com.github.hrobasti.turtlelib.helper.UpdateChecker;
+import com.github.hrobasti.timberella.api.TimberellaApi;
+import com.github.hrobasti.timberella.i18n.MessageService;
+import com.github.hrobasti.timberella.journal.FellingJournal;
+import com.github.hrobasti.timberella.journal.RollbackTask;
+import com.github.hrobasti.timberella.metrics.ConfigReloadEvent;
+import com.github.hrobasti.timberella.metrics.FellingRecorder;
+import com.github.hrobasti.timberella.metrics.JmxExporter;
 import com.github.hrobasti.timberella.metrics.Metrics;
+import com.github.hrobasti.timberella.metrics.PerformanceCharts;
+import com.github.hrobasti.timberella.metrics.PrometheusExporter;
+import com.github.hrobasti.timberella.metrics.RuntimeStats;
+import com.github.hrobasti.timberella.metrics.SlowFellingTracer;
+import com.github.hrobasti.timberella.bench.TreeBench;
 import com.github.hrobasti.timberella.commands.TimberellaCommand;
+import com.github.hrobasti.timberella.listeners.PlayerConnectionListener;
 import com.github.hrobasti.timberella.listeners.TreeChopListener;
 import com.github.hrobasti.timberella.listeners.UpdateNotifyListener;
+import com.github.hrobasti.timberella.session.FellingAdmission;
+import com.github.hrobasti.timberella.session.PlayerSession;
+import com.github.hrobasti.timberella.session.SessionRegistry;
+import com.github.hrobasti.timberella.toggles.LogToggleStore;
+import com.github.hrobasti.timberella.toggles.PdcToggleStore;
+import com.github.hrobasti.timberella.toggles.ToggleMigration;
+import com.github.hrobasti.timberella.toggles.ToggleStore;
+import com.github.hrobasti.timberella.toggles.YamlToggleStore;
+import com.github.hrobasti.timberella.update.ConditionalFeed;
+import com.github.hrobasti.timberella.update.UpdateCache;
+import com.github.hrobasti.timberella.update.UpdateSnapshot;
 import io.papermc.paper.command.brigadier.BasicCommand;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitTask;
 
@@ -34,6 +58,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.logging.Level;
 import java.util.zip.CRC32;
@@ -45,17 +70,48 @@ public class TimberellaPlugin extends JavaPlugin {
     private static final String SUPPORTED_VERSION_MAX = "1.21.11";
     private static final String SUPPORTED_VERSION_LABEL = SUPPORTED_VERSION_MIN + " - " + SUPPORTED_VERSION_MAX;
     private static final String STARTUP_BANNER_RESOURCE = "banner.txt";
+    private static final int FILE_IO_THREADS = 4;
+    private static final String MODRINTH_FEED = "https://api.modrinth.com/v2/project/timberella/version";
+    private static final String HANGAR_FEED = "https://hangar.papermc.io/api/v1/projects/hro_basti/timberella/versions";
     private record MergeResult(String fileName, java.util.List<String> addedKeys) {}
+    private record MergedFile(MergeResult result, YamlConfiguration yaml) {}
+    private record LocaleFile(MergeResult result, String locale, String fileName, int hash, YamlConfiguration yaml) {}
+    private record LoadedFiles(YamlConfiguration config, Map<String, String> localeMessages,
+                               Map<String, String> englishMessages, java.util.List<MergeResult> merges,
+                               YamlConfiguration leafMappings, Map<String, String> leafSnapshot,
+                               Map<String, Integer> localeHashes) {}
     private MessageService messages;
     private UpdateChecker updateChecker;
     private TreeChopListener treeChopListener;
     private Metrics metrics;
+    private JmxExporter jmxExporter;
+    private PrometheusExporter prometheusExporter;
+    private String prometheusEndpoint;
     private ConfigWatcher configWatcher;
+    private java.util.concurrent.ExecutorService fileIo;
+    private java.util.concurrent.CompletableFuture<Void> pendingReload = java.util.concurrent.CompletableFuture.completedFuture(null);
     private ServerMatcher serverMatcher;
     private BukkitTask periodicUpdateTask;
-    private volatile UpdateChecker.UpdateInfo pendingUpdateInfo;
+    private UpdateCache updateCache;
+    private ConditionalFeed updateFeed;
+    private volatile List<String> updateFeedUrls = List.of();
+    private volatile String updateFingerprint;
+    private volatile UpdateSnapshot pendingUpdateInfo;
+    private volatile YamlConfiguration leafMappingsFile;
+    // config.yml as merged and parsed by the last file pipeline; null until then and after reloadConfig().
+    private volatile YamlConfiguration config;
     private volatile boolean announceNextUpdateSummary = true;
-    private final java.util.Set<java.util.UUID> disabledPlayers = java.util.Collections.synchronizedSet(new java.util.HashSet<>());
+    private volatile ToggleStore toggleStore;
+    private final SessionRegistry sessions = new SessionRegistry();
+    private final RuntimeStats stats = new RuntimeStats();
+    private final PerformanceCharts performanceCharts = new PerformanceCharts();
+    private SlowFellingTracer tracer;
+    private FellingRecorder recorder;
+    private TreeBench activeBench;
+    private FellingJournal journal;
+    private RollbackTask activeRollback;
+    private final FellingAdmission admission = new FellingAdmission(() -> getServer().getAverageTickTime());
+    private BukkitTask admissionTask;
     private Map<String, String> lastConfigSnapshot = new LinkedHashMap<>();
     private Map<String, String> lastLeafSnapshot = new LinkedHashMap<>();
     private Map<String, Integer> lastLocaleHashes = new LinkedHashMap<>();
@@ -71,11 +127,18 @@ public class TimberellaPlugin extends JavaPlugin {
         }
         // Messages
         this.messages = new MessageService(this, "<light_purple>[<prefix_label>]</light_purple>", "Timberella");
+        // The only place that waits for the file pipeline; reloads apply its result from a main-thread callback.
+        LoadedFiles files = loadFiles().join();
+        applyLoadedFiles(files);
         String lang = getConfig().getString("language", "en_US");
-        this.messages.load(lang);
         applyChatPrefixLabel();
+        applyPerPlayerLocale();
+        stats.setTimingEnabled(getConfig().getBoolean("stats.timing-enabled", true));
+        applyTraceSettings();
+        applyCaptureSettings();
+        applyJournalSettings();
+        applyAdmissionSettings();
         setupServerMatcher();
-        syncAllYamlDefaults(lang);
         getLogger().info(messages.plain("plugin.language-set", Map.of("code", lang)));
 
         // Register command + tab completion
@@ -85,11 +148,17 @@ public class TimberellaPlugin extends JavaPlugin {
         // Merge any new default config keys without overriding user values
         initializeConfigWatcher();
 
+        // Load player toggles (before listeners so joins always find a store)
+        setupToggleStore();
+
         // Register events (keep reference for refresh on reload)
         PluginManager pm = Bukkit.getPluginManager();
         this.treeChopListener = new TreeChopListener(this);
         pm.registerEvents(this.treeChopListener, this);
+        pm.registerEvents(new PlayerConnectionListener(this), this);
         pm.registerEvents(new UpdateNotifyListener(this), this);
+        getServer().getServicesManager().register(TimberellaApi.class, new TimberellaService(this), this,
+            ServicePriority.Normal);
 
         // Update checker (fail-safe)
         announceNextUpdateSummary = true;
@@ -100,28 +169,62 @@ public class TimberellaPlugin extends JavaPlugin {
             configWatcher.start();
         }
 
-        // Load player toggles
-        loadToggles();
-
         // bStats metrics (opt-in via config)
         setupMetrics();
+        setupJmx();
+        setupPrometheus();
 
         logModuleStates();
         updateChangeTrackingSnapshots(
             flattenConfiguration(getConfig()),
-            loadLeafMappingsSnapshot(),
-            computeLocaleFingerprints()
+            files.leafSnapshot(),
+            files.localeHashes()
         );
         getLogger().info(messages.plain("plugin.enabled"));
     }
 
     @Override
     public void onDisable() {
+        if (activeBench != null) {
+            activeBench.shutdown();
+        }
         shutdownMetrics();
+        shutdownJmx();
+        shutdownPrometheus();
+        if (tracer != null) {
+            tracer.shutdown();
+        }
+        if (recorder != null) {
+            recorder.shutdown();
+        }
+        if (activeRollback != null) {
+            activeRollback.abort();
+            activeRollback = null;
+        }
+        if (admissionTask != null) {
+            admissionTask.cancel();
+            admissionTask = null;
+        }
+        admission.cancelAll();
+        if (journal != null) {
+            journal.shutdown();
+        }
         cancelScheduledUpdateChecks();
+        getServer().getServicesManager().unregisterAll(this);
         if (configWatcher != null) {
             configWatcher.stop();
         }
+        if (toggleStore != null) {
+            toggleStore.close();
+            toggleStore = null;
+        }
+        synchronized (this) {
+            if (fileIo != null) {
+                fileIo.shutdownNow();
+                fileIo = null;
+            }
+        }
+        sessions.clear();
         getLogger().info(messages.plain("plugin.disabled"));
     }
 
@@ -129,29 +232,88 @@ public class TimberellaPlugin extends JavaPlugin {
         return messages;
     }
 
-    public void reloadAndMergeConfig() {
+    /** The config.yml the last startup or reload parsed, so applying a reload does not parse it a second time. */
+    @Override
+    public org.bukkit.configuration.file.FileConfiguration getConfig() {
+        YamlConfiguration current = config;
+        return current != null ? current : super.getConfig();
+    }
+
+    @Override
+    public void reloadConfig() {
+        config = null;
+        super.reloadConfig();
+    }
+
+    /**
+     * Re-reads and merges the configuration files off the main thread, then applies them in one main-thread task.
+     * The returned future completes on the main thread once the new settings are live. A reload requested while
+     * one is running starts after it, so the latest file contents always win.
+     */
+    public synchronized java.util.concurrent.CompletableFuture<Void> reloadAndMergeConfig() {
+        pendingReload = pendingReload.handle((ignored, error) -> null).thenCompose(ignored -> startReload());
+        return pendingReload;
+    }
+
+    private java.util.concurrent.CompletableFuture<Void> startReload() {
+        ConfigReloadEvent reloadEvent = new ConfigReloadEvent();
+        reloadEvent.begin();
+        java.util.concurrent.CompletableFuture<Void> applied = new java.util.concurrent.CompletableFuture<>();
+        loadFiles().whenComplete((files, error) -> {
+            if (error != null) {
+                getLogger().warning("Could not reload configuration files: " + error);
+                applied.completeExceptionally(error);
+                return;
+            }
+            try {
+                getServer().getScheduler().runTask(this, () -> {
+                    try {
+                        applyReload(files, reloadEvent);
+                        applied.complete(null);
+                    } catch (RuntimeException ex) {
+                        applied.completeExceptionally(ex);
+                        throw ex;
+                    }
+                });
+            } catch (RuntimeException ex) {
+                // Plugin disabled while the files were loading.
+                applied.completeExceptionally(ex);
+            }
+        });
+        return applied;
+    }
+
+    private void applyReload(LoadedFiles files, ConfigReloadEvent reloadEvent) {
+        long reloadStart = System.nanoTime();
         Map<String, String> previousConfigSnapshot = new LinkedHashMap<>(lastConfigSnapshot);
         Map<String, String> previousLeafSnapshot = new LinkedHashMap<>(lastLeafSnapshot);
         Map<String, Integer> previousLocaleHashes = new LinkedHashMap<>(lastLocaleHashes);
         boolean baselineReady = changeTrackingInitialized;
-        reloadConfig();
-        // Reload language after potential changes
+        applyLoadedFiles(files);
         String lang = getConfig().getString("language", "en_US");
-        messages.load(lang);
         applyChatPrefixLabel();
+        applyPerPlayerLocale();
+        stats.setTimingEnabled(getConfig().getBoolean("stats.timing-enabled", true));
+        applyTraceSettings();
+        applyCaptureSettings();
+        applyJournalSettings();
+        applyAdmissionSettings();
         setupServerMatcher();
-        syncAllYamlDefaults(lang);
         getLogger().info(messages.plain("plugin.language-set", Map.of("code", lang)));
         getLogger().info("Language set to " + lang + ".");
         // Refresh listener material sets
         if (treeChopListener != null) treeChopListener.refresh();
+        sessions.prune(id -> getServer().getPlayer(id) != null);
+        setupToggleStore();
         setupMetrics();
+        setupJmx();
+        setupPrometheus();
         announceNextUpdateSummary = true;
         configureUpdateChecker();
         logModuleStates();
         Map<String, String> currentConfigSnapshot = flattenConfiguration(getConfig());
-        Map<String, String> currentLeafSnapshot = loadLeafMappingsSnapshot();
-        Map<String, Integer> currentLocaleFingerprints = computeLocaleFingerprints();
+        Map<String, String> currentLeafSnapshot = files.leafSnapshot();
+        Map<String, Integer> currentLocaleFingerprints = files.localeHashes();
         if (baselineReady) {
             logFileChangeSummary(
                 previousConfigSnapshot,
@@ -166,30 +328,26 @@ public class TimberellaPlugin extends JavaPlugin {
         if (configWatcher != null) {
             configWatcher.refreshBaseline();
         }
-    }
-
-    private MergeResult mergeMissingConfigKeys() {
-        InputStream in = getResource("config.yml");
-        if (in == null) return new MergeResult("config.yml", java.util.Collections.emptyList());
-        YamlConfiguration defaults = YamlConfiguration.loadConfiguration(new InputStreamReader(in, StandardCharsets.UTF_8));
-        FileConfiguration current = getConfig();
-        java.util.List<String> addedKeys = new java.util.ArrayList<>();
-        mergeSections(current, defaults, "", addedKeys);
-        if (!addedKeys.isEmpty()) {
-            saveConfig();
+        // Main-thread share of the reload; the file pipeline before it runs on the file pool.
+        stats.record(RuntimeStats.Phase.RELOAD, System.nanoTime() - reloadStart);
+        reloadEvent.end();
+        if (reloadEvent.shouldCommit()) {
+            reloadEvent.language = lang;
+            reloadEvent.commit();
         }
-        return new MergeResult("config.yml", addedKeys);
     }
 
-    private MergeResult mergeYamlResource(String relativePath) {
-        ensureResourceExists(relativePath);
+    private MergedFile mergeYamlResource(String relativePath) {
+        File targetFile = new File(getDataFolder(), relativePath);
         InputStream in = getResource(relativePath);
         if (in == null) {
-            return new MergeResult(relativePath, java.util.Collections.emptyList());
+            // Not bundled, e.g. a custom locale: nothing to merge, just parse what is there.
+            return new MergedFile(new MergeResult(relativePath, java.util.Collections.emptyList()),
+                YamlConfiguration.loadConfiguration(targetFile));
         }
-        YamlConfiguration defaults = YamlConfiguration.loadConfiguration(new InputStreamReader(in, StandardCharsets.UTF_8));
-        File targetFile = new File(getDataFolder(), relativePath);
+        ensureResourceExists(relativePath);
         YamlConfiguration current = YamlConfiguration.loadConfiguration(targetFile);
+        YamlConfiguration defaults = YamlConfiguration.loadConfiguration(new InputStreamReader(in, StandardCharsets.UTF_8));
         java.util.List<String> addedKeys = new java.util.ArrayList<>();
         mergeSections(current, defaults, "", addedKeys);
         if (!addedKeys.isEmpty()) {
@@ -199,23 +357,174 @@ public class TimberellaPlugin extends JavaPlugin {
                 getLogger().fine("Could not save " + relativePath + ": " + e.getMessage());
             }
         }
-        return new MergeResult(relativePath, addedKeys);
+        // The merged document is the file's content now, so it doubles as the one parse per reload.
+        return new MergedFile(new MergeResult(relativePath, addedKeys), current);
     }
 
-    private void syncAllYamlDefaults(String primaryLocale) {
-        logMergeReport(mergeMissingConfigKeys());
-        logMergeReport(mergeYamlResource("leaf_mappings.yml"));
-        if (messages == null) {
-            return;
+    /**
+     * The main-thread half of loading: installs the documents the pipeline parsed, config.yml and the server
+     * locale with its en_US fallback, and publishes the rest. Nothing here reads or parses a file again.
+     */
+    private void applyLoadedFiles(LoadedFiles files) {
+        if (files.config() != null) {
+            config = files.config();
         }
-        Set<String> locales = new LinkedHashSet<>(MessageService.getBundledLocales(this));
-        if (primaryLocale != null && !primaryLocale.isBlank()) {
-            locales.add(primaryLocale);
+        String lang = getConfig().getString("language", "en_US");
+        if (files.localeMessages() != null) {
+            messages.load(lang, files.localeMessages(), files.englishMessages());
+        } else {
+            // The locale could not be read on the pool; fall back to reading it here.
+            messages.load(lang);
+        }
+        for (MergeResult merge : files.merges()) {
+            logMergeReport(merge);
         }
-        for (String locale : locales) {
-            java.util.List<String> added = messages.syncLocaleFile(locale);
-            logMergeReport(new MergeResult("lang/" + locale + ".yml", added));
+        leafMappingsFile = files.leafMappings();
+    }
+
+    /** Pool for the file pipeline, created on first use and kept until the plugin is disabled. */
+    private synchronized java.util.concurrent.ExecutorService fileIo() {
+        if (fileIo == null) {
+            int threads = Math.max(1, Math.min(FILE_IO_THREADS, Runtime.getRuntime().availableProcessors()));
+            fileIo = java.util.concurrent.Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "Timberella-FileIO");
+                thread.setDaemon(true);
+                return thread;
+            });
         }
+        return fileIo;
+    }
+
+    /**
+     * Merges bundled defaults into config.yml, leaf_mappings.yml and every locale file and hashes the locale files for
+     * change tracking. Each file is parsed once; the parsed config.yml and the server and en_US messages are handed
+     * to the apply step as they are. Everything runs on the file pool, locales once config.yml has named the
+     * language; no task waits for another, and nothing here touches live plugin state.
+     */
+    private java.util.concurrent.CompletableFuture<LoadedFiles> loadFiles() {
+        long start = System.nanoTime();
+        java.util.concurrent.ExecutorService io = fileIo();
+        Map<String, Long> stageNanos = new java.util.concurrent.ConcurrentHashMap<>();
+        java.util.concurrent.CompletableFuture<MergedFile> config = java.util.concurrent.CompletableFuture
+            .supplyAsync(() -> timed(stageNanos, "config.yml", () -> mergeYamlResource("config.yml")), io)
+            .exceptionally(ex -> failed("config.yml", ex, null));
+        java.util.concurrent.CompletableFuture<MergedFile> leaf = java.util.concurrent.CompletableFuture
+            .supplyAsync(() -> timed(stageNanos, "leaf_mappings.yml", () -> mergeYamlResource("leaf_mappings.yml")), io)
+            .exceptionally(ex -> failed("leaf_mappings.yml", ex, null));
+        java.util.concurrent.CompletableFuture<Map<String, Integer>> extraHashes = java.util.concurrent.CompletableFuture
+            .supplyAsync(this::hashCustomLocales, io)
+            .exceptionally(ex -> failed("lang", ex, Map.of()));
+        java.util.concurrent.CompletableFuture<java.util.List<LocaleFile>> locales = config.thenCompose(merged -> {
+            long localeStart = System.nanoTime();
+            Set<String> names = new LinkedHashSet<>();
+            if (messages != null) {
+                names.addAll(MessageService.getBundledLocales(this));
+                String primary = merged != null ? merged.yaml().getString("language", "en_US")
+                    : getConfig().getString("language", "en_US");
+                if (primary != null && !primary.isBlank()) {
+                    names.add(primary);
+                }
+            }
+            java.util.List<java.util.concurrent.CompletableFuture<LocaleFile>> files = new java.util.ArrayList<>();
+            for (String locale : names) {
+                files.add(java.util.concurrent.CompletableFuture.supplyAsync(() -> mergeLocale(locale), io)
+                    .exceptionally(ex -> failed("lang/" + locale + ".yml", ex, null)));
+            }
+            return java.util.concurrent.CompletableFuture.allOf(files.toArray(new java.util.concurrent.CompletableFuture[0]))
+                .thenApply(done -> {
+                    stageNanos.put("lang", System.nanoTime() - localeStart);
+                    java.util.List<LocaleFile> loaded = new java.util.ArrayList<>();
+                    for (java.util.concurrent.CompletableFuture<LocaleFile> file : files) {
+                        LocaleFile locale = file.join();
+                        if (locale != null) loaded.add(locale);
+                    }
+                    return loaded;
+                });
+        });
+        return java.util.concurrent.CompletableFuture.allOf(config, leaf, extraHashes, locales).thenApplyAsync(done -> {
+            MergedFile mergedConfig = config.join();
+            MergedFile mergedLeaf = leaf.join();
+            java.util.List<MergeResult> merges = new java.util.ArrayList<>();
+            if (mergedConfig != null) merges.add(mergedConfig.result());
+            if (mergedLeaf != null) merges.add(mergedLeaf.result());
+            String language = mergedConfig != null ? mergedConfig.yaml().getString("language", "en_US")
+                : getConfig().getString("language", "en_US");
+            Map<String, String> localeMessages = null;
+            Map<String, String> englishMessages = Map.of();
+            Map<String, Integer> localeHashes = new java.util.TreeMap<>();
+            for (LocaleFile locale : locales.join()) {
+                merges.add(locale.result());
+                localeHashes.put(locale.fileName(), locale.hash());
+                // Flattened here, on the pool, so the main thread only compiles templates.
+                if (locale.locale().equals(language)) localeMessages = MessageService.messages(locale.yaml());
+                if (locale.locale().equals("en_US")) englishMessages = MessageService.messages(locale.yaml());
+            }
+            // Custom locale files that are not bundled still take part in change tracking.
+            extraHashes.join().forEach(localeHashes::putIfAbsent);
+            YamlConfiguration leafYaml = mergedLeaf != null ? mergedLeaf.yaml()
+                : YamlConfiguration.loadConfiguration(new File(getDataFolder(), "leaf_mappings.yml"));
+            getLogger().info(String.format(Locale.ROOT,
+                "Loaded files in %.1f ms (config.yml %.1f ms, leaf_mappings.yml %.1f ms, lang %d files %.1f ms)",
+                (System.nanoTime() - start) / 1_000_000.0,
+                stageNanos.getOrDefault("config.yml", 0L) / 1_000_000.0,
+                stageNanos.getOrDefault("leaf_mappings.yml", 0L) / 1_000_000.0,
+                localeHashes.size(),
+                stageNanos.getOrDefault("lang", 0L) / 1_000_000.0));
+            return new LoadedFiles(mergedConfig != null ? mergedConfig.yaml() : null, localeMessages, englishMessages,
+                merges, leafYaml, flattenConfiguration(leafYaml), localeHashes);
+        }, io);
+    }
+
+    private LocaleFile mergeLocale(String locale) {
+        String fileName = locale + ".yml";
+        MergedFile merged = mergeYamlResource("lang/" + fileName);
+        int hash = computeFileHash(new File(new File(getDataFolder(), "lang"), fileName));
+        return new LocaleFile(merged.result(), locale, fileName, hash, merged.yaml());
+    }
+
+    private Map<String, Integer> hashCustomLocales() {
+        Set<String> bundled = new java.util.HashSet<>();
+        if (messages != null) {
+            for (String locale : MessageService.getBundledLocales(this)) {
+                bundled.add(locale + ".yml");
+            }
+        }
+        File[] files = new File(getDataFolder(), "lang")
+            .listFiles((dir, name) -> name.toLowerCase(Locale.ROOT).endsWith(".yml") && !bundled.contains(name));
+        Map<String, Integer> hashes = new java.util.HashMap<>();
+        if (files != null) {
+            for (File file : files) {
+                hashes.put(file.getName(), computeFileHash(file));
+            }
+        }
+        return hashes;
+    }
+
+    private static <T> T timed(Map<String, Long> stageNanos, String stage, java.util.function.Supplier<T> task) {
+        long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            stageNanos.put(stage, System.nanoTime() - start);
+        }
+    }
+
+    private <T> T failed(String file, Throwable error, T fallback) {
+        Throwable cause = error instanceof java.util.concurrent.CompletionException && error.getCause() != null
+            ? error.getCause() : error;
+        getLogger().warning("Could not load " + file + ": " + cause);
+        return fallback;
+    }
+
+    /** leaf_mappings.yml as parsed by the last startup or reload; parsed here only before the first one. */
+    public YamlConfiguration leafMappingsFile() {
+        YamlConfiguration file = leafMappingsFile;
+        if (file == null) {
+            ensureResourceExists("leaf_mappings.yml");
+            file = YamlConfiguration.loadConfiguration(new File(getDataFolder(), "leaf_mappings.yml"));
+            leafMappingsFile = file;
+        }
+        return file;
     }
 
     private void initializeConfigWatcher() {
@@ -224,13 +533,10 @@ public class TimberellaPlugin extends JavaPlugin {
             .fileSupplier(() -> new File(getDataFolder(), "config.yml"))
             .enabledSupplier(() -> getConfig().getBoolean("config-watch-enabled", true))
             .intervalSeconds(intervalSeconds)
-            .onChange(() -> {
-                try {
-                    reloadAndMergeConfig();
-                } catch (Exception ex) {
-                    getLogger().fine("Config watcher callback failed: " + ex.getMessage());
-                }
-            })
+            .onChange(() -> reloadAndMergeConfig().exceptionally(ex -> {
+                getLogger().fine("Config watcher reload failed: " + ex.getMessage());
+                return null;
+            }))
             .build();
     }
 
@@ -241,48 +547,185 @@ public class TimberellaPlugin extends JavaPlugin {
 
     // ===== Player toggle management =====
     public boolean isEnabledFor(java.util.UUID uuid) {
-        return !disabledPlayers.contains(uuid);
+        return !toggleStore.isDisabled(uuid);
     }
     public void setEnabledFor(java.util.UUID uuid, boolean enabled) {
-        if (enabled) disabledPlayers.remove(uuid); else disabledPlayers.add(uuid);
-        saveToggles();
+        toggleStore.setDisabled(uuid, !enabled);
+        PlayerSession session = sessions.peek(uuid);
+        if (session != null) {
+            session.invalidateEligibility();
+        }
     }
     public boolean toggleEnabled(java.util.UUID uuid) {
-        boolean now = !disabledPlayers.contains(uuid);
+        boolean now = isEnabledFor(uuid);
         setEnabledFor(uuid, !now);
         return !now;
     }
 
-    private java.io.File togglesFile() {
-        return new java.io.File(getDataFolder(), "toggles.yml");
+    public ToggleStore toggleStore() {
+        return toggleStore;
     }
-    private void loadToggles() {
-        try {
-            var f = togglesFile();
-            if (!f.exists()) return;
-            var cfg = org.bukkit.configuration.file.YamlConfiguration.loadConfiguration(f);
-            var list = cfg.getStringList("disabled");
-            disabledPlayers.clear();
-            for (String s : list) {
-                try { disabledPlayers.add(java.util.UUID.fromString(s)); } catch (Exception ignored) {}
+
+    public SessionRegistry sessions() {
+        return sessions;
+    }
+
+    public RuntimeStats stats() {
+        return stats;
+    }
+
+    public PerformanceCharts performanceCharts() {
+        return performanceCharts;
+    }
+
+    public TreeChopListener treeChopListener() {
+        return treeChopListener;
+    }
+
+    public SlowFellingTracer tracer() {
+        return tracer;
+    }
+
+    public FellingRecorder recorder() {
+        return recorder;
+    }
+
+    public FellingJournal journal() {
+        return journal;
+    }
+
+    public FellingAdmission admission() {
+        return admission;
+    }
+
+    public RollbackTask activeRollback() {
+        return activeRollback;
+    }
+
+    public void startRollback(RollbackTask rollback) {
+        activeRollback = rollback;
+        rollback.runTaskTimer(this, 1L, 1L);
+    }
+
+    public void rollbackFinished(RollbackTask rollback) {
+        if (activeRollback == rollback) {
+            activeRollback = null;
+        }
+    }
+
+    public TreeBench activeBench() {
+        return activeBench;
+    }
+
+    public void startBench(TreeBench bench) {
+        activeBench = bench;
+        bench.start();
+    }
+
+    public void benchFinished(TreeBench bench) {
+        if (activeBench == bench) {
+            activeBench = null;
+        }
+    }
+
+    private void applyAdmissionSettings() {
+        admission.configure(FellingAdmission.Settings.of(
+            getConfig().getBoolean("admission.enabled", true),
+            getConfig().getInt("admission.max-concurrent-fellings", 16),
+            getConfig().getInt("admission.max-queued-blocks", 16384),
+            getConfig().getInt("admission.max-waiting", 64),
+            getConfig().getInt("admission.max-leaf-decay-jobs", 32),
+            getConfig().getInt("admission.pressure.memory-percent", 90),
+            getConfig().getDouble("admission.pressure.tick-ms", 45.0),
+            getConfig().getInt("admission.pressure.max-defer-seconds", 30)));
+        if (admissionTask == null) {
+            admissionTask = getServer().getScheduler().runTaskTimer(this, this::notifyWaitingFellings, 20L, 20L);
+        }
+    }
+
+    /** Refreshes the queue position in waiting players' actionbars and drops fellings of players who left. */
+    private void notifyWaitingFellings() {
+        if (admission.waitingCount() == 0) return;
+        for (UUID playerId : admission.waitingPlayers()) {
+            Player player = getServer().getPlayer(playerId);
+            if (player == null || !player.isOnline()) {
+                admission.cancel(playerId);
+                continue;
+            }
+            int position = admission.position(playerId);
+            if (position <= 0) continue;
+            try {
+                player.sendActionBar(messages.format(player, "ui.felling-waiting",
+                    Map.of("position", String.valueOf(position))));
+            } catch (Throwable ignored) {
+                // Best-effort only (compat across server APIs)
             }
-        } catch (Exception e) {
-            getLogger().fine("Failed to load toggles.yml: " + e.getMessage());
         }
     }
-    private void saveToggles() {
-        try {
-            var f = togglesFile();
-            if (!f.getParentFile().exists()) f.getParentFile().mkdirs();
-            var cfg = new org.bukkit.configuration.file.YamlConfiguration();
-            java.util.List<String> list = new java.util.ArrayList<>();
-            synchronized (disabledPlayers) {
-                for (java.util.UUID u : disabledPlayers) list.add(u.toString());
+
+    private void applyTraceSettings() {
+        if (tracer == null) {
+            tracer = new SlowFellingTracer(getLogger(), getDataFolder().toPath());
+        }
+        tracer.configure(
+            getConfig().getBoolean("trace.enabled", true),
+            getConfig().getDouble("trace.scan-threshold-ms", 2.0),
+            getConfig().getDouble("trace.total-threshold-ms", 5.0),
+            getConfig().getInt("trace.buffer-size", 50),
+            getConfig().getBoolean("trace.log-file", true),
+            getConfig().getInt("trace.log-max-size-mb", 4),
+            getConfig().getInt("trace.log-max-files", 3));
+    }
+
+    private void applyJournalSettings() {
+        if (journal == null) {
+            journal = new FellingJournal(getLogger(), getDataFolder().toPath());
+        }
+        journal.configure(
+            getConfig().getBoolean("rollback-journal.enabled", false),
+            getConfig().getInt("rollback-journal.segment-size-mb", 8),
+            getConfig().getInt("rollback-journal.max-segments", 8));
+    }
+
+    private void applyCaptureSettings() {
+        if (recorder == null) {
+            recorder = new FellingRecorder(getLogger(), getDataFolder().toPath());
+        }
+        recorder.configure(
+            getConfig().getBoolean("capture.enabled", false),
+            getConfig().getDouble("capture.sample-rate", 0.1),
+            getConfig().getInt("capture.max-file-size-mb", 16),
+            getConfig().getInt("capture.max-files", 10));
+    }
+
+    private void setupToggleStore() {
+        String type = getConfig().getString("toggles.storage", YamlToggleStore.ID);
+        type = type == null ? YamlToggleStore.ID : type.trim().toLowerCase(Locale.ROOT);
+        ToggleStore next = switch (type) {
+            case PdcToggleStore.ID -> new PdcToggleStore(this);
+            case LogToggleStore.ID -> new LogToggleStore(this,
+                getConfig().getInt("toggles.log.shards", 16),
+                getConfig().getInt("toggles.log.compact-threshold", 4096));
+            case YamlToggleStore.ID -> new YamlToggleStore(this);
+            default -> {
+                getLogger().warning("Unknown toggles.storage '" + type + "', falling back to yaml.");
+                yield new YamlToggleStore(this);
             }
-            cfg.set("disabled", list);
-            cfg.save(f);
-        } catch (Exception e) {
-            getLogger().fine("Failed to save toggles.yml: " + e.getMessage());
+        };
+        if (toggleStore != null && toggleStore.id().equals(next.id())) {
+            return;
+        }
+        next.open();
+        ToggleMigration.migrateLegacyYaml(this, next);
+        for (Player online : getServer().getOnlinePlayers()) {
+            // Same order as a real join: preload reads the player's stored state, onJoin caches it.
+            next.preload(online.getUniqueId());
+            next.onJoin(online);
+        }
+        ToggleStore previous = toggleStore;
+        toggleStore = next;
+        if (previous != null) {
+            previous.close();
         }
     }
 
@@ -385,6 +828,15 @@ public class TimberellaPlugin extends JavaPlugin {
         messages.setPrefixLabel(label);
     }
 
+    private void applyPerPlayerLocale() {
+        if (messages == null) {
+            return;
+        }
+        messages.configurePlayerLocales(
+            getConfig().getBoolean("per-player-locale.enabled", false),
+            getConfig().getInt("per-player-locale.max-cached-bundles", 4));
+    }
+
     private void shutdownMetrics() {
         if (metrics != null) {
             metrics.shutdown();
@@ -392,6 +844,55 @@ public class TimberellaPlugin extends JavaPlugin {
         }
     }
 
+    private void setupJmx() {
+        if (!getConfig().getBoolean("jmx.enabled", true)) {
+            shutdownJmx();
+            return;
+        }
+        if (jmxExporter != null) {
+            return;
+        }
+        jmxExporter = new JmxExporter(getLogger());
+        jmxExporter.register(stats, sessions, this::messages);
+    }
+
+    private void setupPrometheus() {
+        if (!getConfig().getBoolean("prometheus.enabled", false)) {
+            shutdownPrometheus();
+            return;
+        }
+        String bind = getConfig().getString("prometheus.bind", "127.0.0.1");
+        if (bind == null || bind.isBlank()) {
+            bind = "127.0.0.1";
+        }
+        int port = getConfig().getInt("prometheus.port", 9464);
+        String endpoint = bind.trim() + ":" + port;
+        if (prometheusExporter != null && endpoint.equals(prometheusEndpoint)) {
+            return;
+        }
+        shutdownPrometheus();
+        PrometheusExporter exporter = new PrometheusExporter(getLogger(), stats, sessions);
+        if (exporter.start(bind.trim(), port)) {
+            prometheusExporter = exporter;
+            prometheusEndpoint = endpoint;
+        }
+    }
+
+    private void shutdownPrometheus() {
+        if (prometheusExporter != null) {
+            prometheusExporter.stop();
+            prometheusExporter = null;
+            prometheusEndpoint = null;
+        }
+    }
+
+    private void shutdownJmx() {
+        if (jmxExporter != null) {
+            jmxExporter.unregister();
+            jmxExporter = null;
+        }
+    }
+
     private void registerMetricsCharts(Metrics metricsInstance) {
         metricsInstance.addCustomChart(new Metrics.SimplePie("language", () -> getConfig().getString("language", "en_US")));
         metricsInstance.addCustomChart(new Metrics.SimplePie("sneak_mode", () -> switch (getConfig().getInt("sneak-mode", 0)) {
@@ -415,10 +916,18 @@ public class TimberellaPlugin extends JavaPlugin {
         metricsInstance.addCustomChart(new Metrics.SimplePie("config_watch", () -> getConfig().getBoolean("config-watch-enabled", true) ? "enabled" : "disabled"));
         metricsInstance.addCustomChart(new Metrics.SingleLineChart("max_blocks_limit", () -> getConfig().getInt("max-blocks", 1024)));
         metricsInstance.addCustomChart(new Metrics.SimplePie("player_toggle_usage", () -> {
-            synchronized (disabledPlayers) {
-                return disabledPlayers.isEmpty() ? "all_enabled" : "some_disabled";
-            }
+            ToggleStore store = toggleStore;
+            return store == null || !store.hasAnyDisabled() ? "all_enabled" : "some_disabled";
+        }));
+        metricsInstance.addCustomChart(new Metrics.SimplePie("toggle_storage", () -> {
+            ToggleStore store = toggleStore;
+            return store == null ? YamlToggleStore.ID : store.id();
         }));
+        // Performance charts: each callable drains its own window collected on the main thread since the last submission.
+        metricsInstance.addCustomChart(new Metrics.DrilldownPie("felled_tree_size", performanceCharts::drainTreeSizes));
+        metricsInstance.addCustomChart(new Metrics.SimplePie("median_scan_time", performanceCharts::drainMedianScanBucket));
+        metricsInstance.addCustomChart(new Metrics.SingleLineChart("leaves_decayed", performanceCharts::drainLeaves));
+        metricsInstance.addCustomChart(new Metrics.AdvancedPie("fellings_truncated", performanceCharts::drainTruncation));
     }
 
     private void configureUpdateChecker() {
@@ -433,6 +942,21 @@ public class TimberellaPlugin extends JavaPlugin {
         boolean filterByServerVersion = readUpdateBoolean("filter-by-server-version", true);
         this.updateChecker = new UpdateChecker(this, provider, includePrereleases, filterByServerVersion,
             "timberella", "hro_basti/timberella");
+        this.updateFeedUrls = switch (provider) {
+            case 1 -> List.of(MODRINTH_FEED);
+            case 2 -> List.of(HANGAR_FEED);
+            default -> List.of(MODRINTH_FEED, HANGAR_FEED);
+        };
+        String version = getDescription().getVersion();
+        // A cached result only counts for the settings and versions it was checked with.
+        this.updateFingerprint = provider + "|" + includePrereleases + "|" + filterByServerVersion + "|"
+            + version + "|" + getServer().getMinecraftVersion();
+        if (updateCache == null) {
+            updateCache = new UpdateCache(new File(getDataFolder(), "update-cache.yml"), getLogger()).load();
+        }
+        if (updateFeed == null) {
+            updateFeed = new ConditionalFeed("Timberella/" + version);
+        }
         scheduleUpdateChecks();
     }
 
@@ -441,9 +965,17 @@ public class TimberellaPlugin extends JavaPlugin {
             return;
         }
         long hours = Math.max(1L, readUpdateLong("interval-hours", 24L));
+        long intervalMillis = hours * 60L * 60L * 1000L;
         long ticks = hours * 60L * 60L * 20L;
-        triggerUpdateCheck();
-        periodicUpdateTask = Bukkit.getScheduler().runTaskTimerAsynchronously(this, this::triggerUpdateCheck, ticks, ticks);
+        long delay = 0L;
+        UpdateSnapshot cached = updateCache.snapshot(updateFingerprint);
+        if (cached != null) {
+            // Serve the last result right away; restarts and reloads only ask the providers once it is due.
+            handleUpdateInfo(cached);
+            long age = Math.max(0L, System.currentTimeMillis() - cached.checkedAt());
+            delay = Math.max(0L, intervalMillis - age) / 50L;
+        }
+        periodicUpdateTask = Bukkit.getScheduler().runTaskTimerAsynchronously(this, this::triggerUpdateCheck, delay, ticks);
     }
 
     private void cancelScheduledUpdateChecks() {
@@ -453,16 +985,48 @@ public class TimberellaPlugin extends JavaPlugin {
         }
     }
 
+    // Runs on the async scheduler: the feed probes block.
     private void triggerUpdateCheck() {
-        if (updateChecker == null) {
+        UpdateChecker checker = updateChecker;
+        if (checker == null) {
             return;
         }
-        updateChecker
+        String fingerprint = updateFingerprint;
+        UpdateSnapshot cached = updateCache.snapshot(fingerprint);
+        Map<String, ConditionalFeed.Validators> validators = new HashMap<>();
+        boolean unchanged = cached != null;
+        // HEAD probes only: when a feed changed, the checker below is the one request that downloads it.
+        for (String url : updateFeedUrls) {
+            ConditionalFeed.Probe probe = updateFeed.probe(url, updateCache.validators(url));
+            validators.put(url, probe.validators());
+            if (probe.status() != ConditionalFeed.Status.UNCHANGED) {
+                unchanged = false;
+            }
+        }
+        if (unchanged) {
+            UpdateSnapshot confirmed = cached.confirmedAt(System.currentTimeMillis());
+            updateCache.store(confirmed, validators);
+            handleUpdateInfo(confirmed);
+            return;
+        }
+        checker
             .checkAsync()
-            .thenAccept(this::handleUpdateInfo);
+            .thenAccept(info -> {
+                if (info == null) {
+                    return;
+                }
+                UpdateSnapshot snapshot = UpdateSnapshot.of(info, fingerprint, System.currentTimeMillis());
+                if (snapshot.anySuccess()) {
+                    // Validators are only committed with a result, so a failed check is retried in full next time.
+                    updateCache.store(snapshot, validators);
+                } else if (cached != null) {
+                    return;
+                }
+                handleUpdateInfo(snapshot);
+            });
     }
 
-    private void handleUpdateInfo(UpdateChecker.UpdateInfo info) {
+    private void handleUpdateInfo(UpdateSnapshot info) {
         if (info == null) {
             return;
         }
@@ -485,7 +1049,7 @@ public class TimberellaPlugin extends JavaPlugin {
         }
     }
 
-    public UpdateChecker.UpdateInfo getPendingUpdateInfo() {
+    public UpdateSnapshot getPendingUpdateInfo() {
         return pendingUpdateInfo;
     }
 
@@ -493,9 +1057,9 @@ public class TimberellaPlugin extends JavaPlugin {
         return readUpdateBoolean("notify-op-join", true);
     }
 
-    private void logUpdateSummary(UpdateChecker.UpdateInfo info) {
+    private void logUpdateSummary(UpdateSnapshot info) {
         if (info == null) return;
-        java.util.List<UpdateChecker.ProviderResult> providers =
+        java.util.List<UpdateSnapshot.ProviderStatus> providers =
             info.providers() == null ? java.util.Collections.emptyList() : info.providers();
         boolean hasProviderDetails = !providers.isEmpty();
         boolean shouldBracketLog = info.hasUpdate() || hasProviderDetails;
@@ -514,7 +1078,7 @@ public class TimberellaPlugin extends JavaPlugin {
         }
 
         if (hasProviderDetails) {
-            for (UpdateChecker.ProviderResult result : providers) {
+            for (UpdateSnapshot.ProviderStatus result : providers) {
                 logProviderResult(result);
             }
         }
@@ -528,12 +1092,12 @@ public class TimberellaPlugin extends JavaPlugin {
         getLogger().info("=======================");
     }
 
-    private void logProviderResult(UpdateChecker.ProviderResult result) {
+    private void logProviderResult(UpdateSnapshot.ProviderStatus result) {
         if (result == null) {
             return;
         }
         java.util.Map<String, String> placeholders = new java.util.HashMap<>();
-        placeholders.put("provider", result.provider().displayName());
+        placeholders.put("provider", result.provider());
         if (!result.success()) {
             logLocalized(Level.INFO,
                 "- {provider}: Failed to fetch.",
@@ -662,39 +1226,10 @@ public class TimberellaPlugin extends JavaPlugin {
         return defaultValue;
     }
 
-    private Map<String, String> loadLeafMappingsSnapshot() {
-        File file = new File(getDataFolder(), "leaf_mappings.yml");
-        if (!file.exists()) {
-            return Collections.emptyMap();
-        }
-        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(file);
-        return flattenConfiguration(yaml);
-    }
-
-    private Map<String, Integer> computeLocaleFingerprints() {
-        Map<String, Integer> hashes = new LinkedHashMap<>();
-        File langDir = new File(getDataFolder(), "lang");
-        if (!langDir.exists()) {
-            return hashes;
-        }
-        File[] files = langDir.listFiles((dir, name) -> name.toLowerCase(Locale.ROOT).endsWith(".yml"));
-        if (files == null) {
-            return hashes;
-        }
-        for (File file : files) {
-            hashes.put(file.getName(), computeFileHash(file));
-        }
-        return hashes;
-    }
-
     private int computeFileHash(File file) {
         CRC32 crc = new CRC32();
-        try (var in = Files.newInputStream(file.toPath())) {
-            byte[] buffer = new byte[1024];
-            int read;
-            while ((read = in.read(buffer)) != -1) {
-                crc.update(buffer, 0, read);
-            }
+        try {
+            crc.update(Files.readAllBytes(file.toPath()));
             return (int) crc.getValue();
         } catch (IOException ex) {
             return -1;
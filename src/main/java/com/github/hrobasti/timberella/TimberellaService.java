@@ -0,0 +1,44 @@
+package com.github.hrobasti.timberella;
+
+import com.github.hrobasti.timberella.api.TimberellaApi;
+import com.github.hrobasti.timberella.api.TreeShape;
+import com.github.hrobasti.timberella.listeners.TreeChopListener;
+import org.bukkit.Bukkit;
+import org.bukkit.block.Block;
+
+import java.util.concurrent.CompletableFuture;
+
+/** {@link TimberellaApi} backed by the live listener, so scans always use the settings of the last reload. */
+final class TimberellaService implements TimberellaApi {
+    private final TimberellaPlugin plugin;
+
+    TimberellaService(TimberellaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public CompletableFuture<TreeShape> scan(Block block) {
+        if (Bukkit.isPrimaryThread()) {
+            return CompletableFuture.completedFuture(scanNow(block));
+        }
+        CompletableFuture<TreeShape> result = new CompletableFuture<>();
+        try {
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                try {
+                    result.complete(scanNow(block));
+                } catch (RuntimeException ex) {
+                    result.completeExceptionally(ex);
+                }
+            });
+        } catch (RuntimeException ex) {
+            // Plugin disabled in the meantime
+            result.completeExceptionally(ex);
+        }
+        return result;
+    }
+
+    private TreeShape scanNow(Block block) {
+        TreeChopListener listener = plugin.treeChopListener();
+        return listener != null ? listener.scanTree(block) : TreeShape.empty(block.getWorld());
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.hrobasti.timberella.api;
+
+import org.bukkit.block.Block;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Timberella's public service, registered with the server's {@link org.bukkit.plugin.ServicesManager}:
+ * <pre>{@code
+ * TimberellaApi api = Bukkit.getServicesManager().load(TimberellaApi.class);
+ * }</pre>
+ * Fellings themselves are announced through {@link TreeFellEvent}.
+ */
+public interface TimberellaApi {
+
+    /**
+     * Scans the tree containing {@code block} with the server's current settings (tree materials, diagonals,
+     * block and species limits). The world is read on the main thread: called from it, the future is already
+     * complete; called from another thread, it completes on the next tick. Completes with an empty shape when the
+     * block is not a fellable tree block.
+     */
+    CompletableFuture<TreeShape> scan(Block block);
+}
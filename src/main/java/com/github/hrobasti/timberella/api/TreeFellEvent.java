@@ -0,0 +1,137 @@
+package com.github.hrobasti.timberella.api;
+
+import com.github.hrobasti.timberella.tree.Species;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Fired once before Timberella fells a tree, with the whole plan instead of one event per broken log, after the
+ * felling passed the server-wide admission and the player's rate limit. Cancelling it skips the felling; the block
+ * the player broke is left to vanilla. Listeners can also trim the plan with
+ * {@link #exclude(Block)}, {@link #removeIf(Predicate)} and {@link #limit(int)}. The first block, the one the
+ * player broke, always stays.
+ */
+public class TreeFellEvent extends Event implements Cancellable {
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final Player player;
+    private final TreeShape shape;
+    private final ItemStack tool;
+    private final BitSet excluded = new BitSet();
+    private int limit;
+    private boolean cancelled;
+    private List<ItemStack> drops;
+
+    public TreeFellEvent(Player player, TreeShape shape, ItemStack tool) {
+        this.player = player;
+        this.shape = shape;
+        this.tool = tool;
+        this.limit = shape.size();
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    /** The tree as scanned, before any trimming. */
+    public TreeShape getShape() {
+        return shape;
+    }
+
+    public @Nullable Species getSpecies() {
+        return shape.species();
+    }
+
+    /** A copy of the axe the tree is felled with. */
+    public ItemStack getTool() {
+        return tool.clone();
+    }
+
+    /** What the planned blocks drop when broken with the tool; computed on first call after the plan changed. */
+    public List<ItemStack> getDrops() {
+        if (drops == null) {
+            List<ItemStack> list = new ArrayList<>();
+            for (int i = 0; i < limit; i++) {
+                if (excluded.get(i)) continue;
+                list.addAll(shape.block(i).getDrops(tool, player));
+            }
+            drops = Collections.unmodifiableList(list);
+        }
+        return drops;
+    }
+
+    /** Removes a block from the plan; false when it is not planned or is the block the player broke. */
+    public boolean exclude(Block block) {
+        int index = shape.indexOf(block);
+        if (index <= 0 || index >= limit || excluded.get(index)) return false;
+        excluded.set(index);
+        drops = null;
+        return true;
+    }
+
+    /** Removes every planned block matching the filter, except the block the player broke. */
+    public int removeIf(Predicate<Block> filter) {
+        int removed = 0;
+        for (int i = 1; i < limit; i++) {
+            if (!excluded.get(i) && filter.test(shape.block(i))) {
+                excluded.set(i);
+                removed++;
+            }
+        }
+        if (removed > 0) drops = null;
+        return removed;
+    }
+
+    /** Keeps only the first {@code maxBlocks} blocks in felling order (at least the broken block). */
+    public void limit(int maxBlocks) {
+        int clamped = Math.max(1, Math.min(limit, maxBlocks));
+        if (clamped != limit) {
+            limit = clamped;
+            drops = null;
+        }
+    }
+
+    public boolean isPlanned(Block block) {
+        int index = shape.indexOf(block);
+        return index >= 0 && index < limit && !excluded.get(index);
+    }
+
+    /** The blocks that will be felled, in felling order. */
+    public List<Block> getPlannedBlocks() {
+        List<Block> planned = new ArrayList<>(limit);
+        for (int i = 0; i < limit; i++) {
+            if (!excluded.get(i)) planned.add(shape.block(i));
+        }
+        return planned;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancel) {
+        this.cancelled = cancel;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.hrobasti.timberella.api;
+
+import com.github.hrobasti.timberella.tree.BlockPos;
+import com.github.hrobasti.timberella.tree.Species;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A tree as Timberella's engine found it: the connected tree blocks in felling order, starting with the block the
+ * scan began at. Immutable; the blocks are the positions at scan time and may have changed since.
+ */
+public final class TreeShape {
+    private final World world;
+    private final Species species;
+    private final long[] positions;
+    private final boolean truncated;
+    private List<Block> blocks;
+    /** Open-addressing table of felling order index + 1 by position (0 = empty); built on the first lookup. */
+    private int[] index;
+
+    public TreeShape(World world, @Nullable Species species, long[] positions, boolean truncated) {
+        this.world = world;
+        this.species = species;
+        this.positions = positions.clone();
+        this.truncated = truncated;
+    }
+
+    public static TreeShape empty(World world) {
+        return new TreeShape(world, null, new long[0], false);
+    }
+
+    public World world() {
+        return world;
+    }
+
+    /** Detected species, or null for trees that match none (custom logs, fences). */
+    public @Nullable Species species() {
+        return species;
+    }
+
+    public int size() {
+        return positions.length;
+    }
+
+    public boolean isEmpty() {
+        return positions.length == 0;
+    }
+
+    /** True when the scan stopped at the block limit or skipped blocks outside the radius limits. */
+    public boolean truncated() {
+        return truncated;
+    }
+
+    public Block block(int index) {
+        long pos = positions[index];
+        return world.getBlockAt(BlockPos.x(pos), BlockPos.y(pos), BlockPos.z(pos));
+    }
+
+    /** The blocks in felling order; unmodifiable. */
+    public List<Block> blocks() {
+        if (blocks == null) {
+            List<Block> list = new ArrayList<>(positions.length);
+            for (int i = 0; i < positions.length; i++) {
+                list.add(block(i));
+            }
+            blocks = Collections.unmodifiableList(list);
+        }
+        return blocks;
+    }
+
+    /** Felling order index of the block, or -1 when it is not part of this tree. */
+    public int indexOf(Block block) {
+        if (block == null || !block.getWorld().equals(world)) return -1;
+        long pos = BlockPos.pack(block.getX(), block.getY(), block.getZ());
+        int[] table = index;
+        if (table == null) {
+            table = buildIndex();
+            index = table;
+        }
+        int mask = table.length - 1;
+        int slot = mix(pos) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (positions[entry - 1] == pos) return entry - 1;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    public boolean contains(Block block) {
+        return indexOf(block) >= 0;
+    }
+
+    private int[] buildIndex() {
+        // At most half full, so probes stay short.
+        int[] table = new int[Math.max(2, Integer.highestOneBit(Math.max(1, positions.length) * 2 - 1) << 1)];
+        int mask = table.length - 1;
+        for (int i = 0; i < positions.length; i++) {
+            int slot = mix(positions[i]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+        return table;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
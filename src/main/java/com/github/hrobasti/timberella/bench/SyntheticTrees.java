@@ -0,0 +1,188 @@
+package com.github.hrobasti.timberella.bench;
+
+import com.github.hrobasti.timberella.tree.Species;
+import com.github.hrobasti.timberella.tree.VoxelGrid;
+import org.bukkit.Material;
+
+/**
+ * Simple parametric trees for {@code /timberella bench}. Shapes are vanilla-like rather than exact: what matters for
+ * a benchmark is that every run fells the same number of logs and leaves.
+ * <p>
+ * Coordinates are relative: the soil layer is at y = -1 and the tree is broken at (0, 0, 0).
+ */
+public final class SyntheticTrees {
+    public static final int MIN_HEIGHT = 4;
+    public static final int MAX_HEIGHT = 48;
+    /** Horizontal reach of every generated tree around its trunk, canopy included. */
+    public static final int HALF_WIDTH = 8;
+    /** Blocks above the trunk top that a canopy may use. */
+    public static final int CROWN_HEIGHT = 8;
+
+    /** A generated tree; {@code logs} are the blocks a scan can fell (mushroom caps included), {@code leaves} the rest. */
+    public record Shape(VoxelGrid grid, int logs, int leaves) {}
+
+    private SyntheticTrees() {
+    }
+
+    public static int defaultHeight(Species species) {
+        return switch (species) {
+            case JUNGLE, SPRUCE -> 12;
+            case MANGROVE, DARK_OAK, PALE_OAK -> 8;
+            default -> 6;
+        };
+    }
+
+    public static Shape build(Species species, int height) {
+        int h = Math.max(MIN_HEIGHT, Math.min(MAX_HEIGHT, height));
+        VoxelGrid grid = new VoxelGrid(-HALF_WIDTH, -1, -HALF_WIDTH, 2 * HALF_WIDTH + 2, h + CROWN_HEIGHT + 2,
+            2 * HALF_WIDTH + 2);
+        Material log = log(species);
+        Material leaves = leaves(species);
+        grid.fill(-HALF_WIDTH, -1, -HALF_WIDTH, HALF_WIDTH + 1, -1, HALF_WIDTH + 1, soil(species));
+        int width = trunkWidth(species, h);
+        grid.fill(0, 0, 0, width - 1, h - 1, width - 1, log);
+        int radius = Math.max(2, Math.min(HALF_WIDTH - 2, h / 4 + width));
+        switch (species) {
+            case SPRUCE -> cone(grid, width, h, radius, leaves);
+            case MUSHROOM_BROWN -> disc(grid, h, 3, leaves);
+            case MUSHROOM_RED -> dome(grid, h, 2, leaves);
+            case MANGROVE -> {
+                roots(grid);
+                blob(grid, width, h, radius, leaves);
+            }
+            default -> blob(grid, width, h, radius, leaves);
+        }
+        int[] counts = new int[2];
+        grid.forEachBlock((x, y, z, material) -> {
+            if (y < 0) return;
+            if (Species.of(material) != null || material == Material.MUSHROOM_STEM) counts[0]++;
+            else counts[1]++;
+        });
+        return new Shape(grid, counts[0], counts[1]);
+    }
+
+    private static int trunkWidth(Species species, int height) {
+        return switch (species) {
+            case DARK_OAK, PALE_OAK -> 2;
+            case SPRUCE, JUNGLE -> height >= 16 ? 2 : 1;
+            default -> 1;
+        };
+    }
+
+    /** Rounded canopy around the top of the trunk. */
+    private static void blob(VoxelGrid grid, int width, int height, int radius, Material leaves) {
+        int top = height - 1;
+        double cx = (width - 1) / 2.0;
+        for (int dy = -radius + 1; dy <= 2; dy++) {
+            for (int x = -radius; x <= radius + width - 1; x++) {
+                for (int z = -radius; z <= radius + width - 1; z++) {
+                    double distance = square(x - cx) + square(z - cx) + square(dy);
+                    if (distance <= radius * radius + 1) {
+                        grid.setIfAir(x, top + dy, z, leaves);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Narrowing layers from a third of the trunk height up to a tip above it. */
+    private static void cone(VoxelGrid grid, int width, int height, int radius, Material leaves) {
+        int bottom = Math.max(2, height / 3);
+        int tip = height + 1;
+        for (int y = bottom; y <= tip; y++) {
+            int r = Math.max(0, (int) Math.round(radius * (double) (tip - y) / (tip - bottom)));
+            for (int x = -r; x <= r + width - 1; x++) {
+                for (int z = -r; z <= r + width - 1; z++) {
+                    grid.setIfAir(x, y, z, leaves);
+                }
+            }
+        }
+    }
+
+    /** Flat brown mushroom cap on top of the stem. */
+    private static void disc(VoxelGrid grid, int height, int radius, Material cap) {
+        for (int x = -radius; x <= radius; x++) {
+            for (int z = -radius; z <= radius; z++) {
+                if (Math.abs(x) == radius && Math.abs(z) == radius) continue;
+                grid.setIfAir(x, height, z, cap);
+            }
+        }
+    }
+
+    /** Red mushroom cap: a roof with hanging sides. */
+    private static void dome(VoxelGrid grid, int height, int radius, Material cap) {
+        grid.fill(-radius + 1, height, -radius + 1, radius - 1, height, radius - 1, cap);
+        for (int y = height - 3; y < height; y++) {
+            for (int x = -radius; x <= radius; x++) {
+                for (int z = -radius; z <= radius; z++) {
+                    if (Math.abs(x) == radius ^ Math.abs(z) == radius) {
+                        grid.setIfAir(x, y, z, cap);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Arched mangrove roots reaching out from the trunk base into the mud. */
+    private static void roots(VoxelGrid grid) {
+        int[][] directions = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+        for (int[] d : directions) {
+            grid.set(d[0], 1, d[1], Material.MANGROVE_ROOTS);
+            grid.set(2 * d[0], 0, 2 * d[1], Material.MANGROVE_ROOTS);
+        }
+    }
+
+    private static Material log(Species species) {
+        return switch (species) {
+            case MANGROVE -> Material.MANGROVE_LOG;
+            case JUNGLE -> Material.JUNGLE_LOG;
+            case SPRUCE -> Material.SPRUCE_LOG;
+            case PALE_OAK -> byName("PALE_OAK_LOG", Material.DARK_OAK_LOG);
+            case DARK_OAK -> Material.DARK_OAK_LOG;
+            case BIRCH -> Material.BIRCH_LOG;
+            case ACACIA -> Material.ACACIA_LOG;
+            case CHERRY -> Material.CHERRY_LOG;
+            case MUSHROOM_BROWN, MUSHROOM_RED -> Material.MUSHROOM_STEM;
+            case WARPED -> Material.WARPED_STEM;
+            case CRIMSON -> Material.CRIMSON_STEM;
+            default -> Material.OAK_LOG;
+        };
+    }
+
+    private static Material leaves(Species species) {
+        return switch (species) {
+            case MANGROVE -> Material.MANGROVE_LEAVES;
+            case JUNGLE -> Material.JUNGLE_LEAVES;
+            case SPRUCE -> Material.SPRUCE_LEAVES;
+            case PALE_OAK -> byName("PALE_OAK_LEAVES", Material.DARK_OAK_LEAVES);
+            case DARK_OAK -> Material.DARK_OAK_LEAVES;
+            case BIRCH -> Material.BIRCH_LEAVES;
+            case ACACIA -> Material.ACACIA_LEAVES;
+            case CHERRY -> Material.CHERRY_LEAVES;
+            case MUSHROOM_BROWN -> Material.BROWN_MUSHROOM_BLOCK;
+            case MUSHROOM_RED -> Material.RED_MUSHROOM_BLOCK;
+            case WARPED -> Material.WARPED_WART_BLOCK;
+            case CRIMSON -> Material.NETHER_WART_BLOCK;
+            default -> Material.OAK_LEAVES;
+        };
+    }
+
+    private static Material soil(Species species) {
+        return switch (species) {
+            case MANGROVE -> Material.MUD;
+            case MUSHROOM_BROWN, MUSHROOM_RED -> Material.MYCELIUM;
+            case WARPED -> Material.WARPED_NYLIUM;
+            case CRIMSON -> Material.CRIMSON_NYLIUM;
+            default -> Material.GRASS_BLOCK;
+        };
+    }
+
+    private static Material byName(String name, Material fallback) {
+        Material material = Material.matchMaterial(name);
+        return material != null ? material : fallback;
+    }
+
+    private static double square(double value) {
+        return value * value;
+    }
+}
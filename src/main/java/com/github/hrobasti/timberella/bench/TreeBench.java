@@ -0,0 +1,314 @@
+package com.github.hrobasti.timberella.bench;
+
+import com.github.hrobasti.timberella.TimberellaPlugin;
+import com.github.hrobasti.timberella.metrics.LatencyHistogram;
+import com.github.hrobasti.timberella.metrics.RuntimeStats;
+import com.github.hrobasti.timberella.metrics.RuntimeStats.Gauge;
+import com.github.hrobasti.timberella.metrics.RuntimeStats.Phase;
+import com.github.hrobasti.timberella.session.PlayerSession;
+import com.github.hrobasti.timberella.tree.Species;
+import com.github.hrobasti.timberella.tree.VoxelGrid;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Item;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.util.BoundingBox;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Runs {@code /timberella bench}: grows a synthetic tree, breaks its lowest log as the admin through a regular
+ * {@link BlockBreakEvent} (so protection plugins and Timberella's own listener handle it like any other break), waits
+ * until felling, leaf decay and replanting are done and starts over. Latencies are the {@link RuntimeStats}
+ * histograms compared before and after the bench. The area is restored when the bench ends. Main thread only.
+ */
+public final class TreeBench {
+    // Replanting runs two ticks after the last log; wait one more before the area is reset.
+    private static final int SETTLE_TICKS = 3;
+
+    /** {@code height} must already be within {@link SyntheticTrees#MIN_HEIGHT} and {@link SyntheticTrees#MAX_HEIGHT}. */
+    public record Options(Species species, int height, int runs, int timeoutTicks) {}
+
+    private enum State { PLANT, FELLING, SETTLE }
+
+    private final TimberellaPlugin plugin;
+    private final RuntimeStats stats;
+    private final Player player;
+    private final Options options;
+    private final World world;
+    private final int originX;
+    private final int originY;
+    private final int originZ;
+    private final SyntheticTrees.Shape shape;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private BlockData[] original;
+    private final Set<UUID> entitiesBefore = new HashSet<>();
+    private final Map<Phase, LatencyHistogram.Snapshot> baseline = new EnumMap<>(Phase.class);
+    private final LatencyHistogram runTicks = new LatencyHistogram();
+    private final long startedAt = System.nanoTime();
+    private boolean timingWasEnabled;
+    private BukkitTask task;
+    private State state = State.PLANT;
+    private boolean stopRequested;
+    private int completedRuns;
+    private int ticks;
+    private int settleTicks;
+    private long pendingLeavesBefore;
+    private int entitiesSpawned;
+
+    public TreeBench(TimberellaPlugin plugin, Player player, World world, int x, int y, int z, Options options) {
+        this.plugin = plugin;
+        this.stats = plugin.stats();
+        this.player = player;
+        this.world = world;
+        this.originX = x;
+        this.originY = y;
+        this.originZ = z;
+        this.options = options;
+        this.shape = SyntheticTrees.build(options.species(), options.height());
+        this.minX = x - SyntheticTrees.HALF_WIDTH;
+        this.minY = y - 1;
+        this.minZ = z - SyntheticTrees.HALF_WIDTH;
+        this.sizeX = 2 * SyntheticTrees.HALF_WIDTH + 2;
+        this.sizeY = options.height() + SyntheticTrees.CROWN_HEIGHT + 2;
+        this.sizeZ = 2 * SyntheticTrees.HALF_WIDTH + 2;
+    }
+
+    public SyntheticTrees.Shape shape() {
+        return shape;
+    }
+
+    /** Whether the bench breaks its trees as this player. */
+    public boolean drives(Player other) {
+        return other != null && player.getUniqueId().equals(other.getUniqueId());
+    }
+
+    /** Whether the area fits into the world's build height. */
+    public boolean fitsWorld() {
+        return minY >= world.getMinHeight() && minY + sizeY <= world.getMaxHeight();
+    }
+
+    public void start() {
+        original = new BlockData[sizeX * sizeY * sizeZ];
+        forEachPosition((index, x, y, z) -> original[index] = world.getBlockAt(x, y, z).getBlockData());
+        for (Entity entity : world.getNearbyEntities(area())) {
+            entitiesBefore.add(entity.getUniqueId());
+        }
+        for (Phase phase : Phase.values()) {
+            baseline.put(phase, stats.snapshot(phase));
+        }
+        timingWasEnabled = stats.isTimingEnabled();
+        stats.setTimingEnabled(true);
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /** Stops after the run in progress; the area is restored once its felling and leaf decay are done. */
+    public void requestStop() {
+        stopRequested = true;
+    }
+
+    /** Stops at once and restores the area; used when the plugin disables. */
+    public void shutdown() {
+        finish("bench.cancelled");
+    }
+
+    private void tick() {
+        if (!player.isOnline()) {
+            finish(null);
+            return;
+        }
+        PlayerSession session = plugin.sessions().get(player);
+        switch (state) {
+            case PLANT -> {
+                if (stopRequested) {
+                    finish("bench.cancelled");
+                    return;
+                }
+                // A felling the admin started by hand has to finish first.
+                if (session.hasActiveFelling()) return;
+                plant();
+                pendingLeavesBefore = stats.value(Gauge.PENDING_LEAVES);
+                if (breakAsPlayer(world.getBlockAt(originX, originY, originZ))) {
+                    finish("bench.protected");
+                    return;
+                }
+                if (!session.hasActiveFelling()) {
+                    finish("bench.not-started");
+                    return;
+                }
+                ticks = 0;
+                state = State.FELLING;
+            }
+            case FELLING -> {
+                ticks++;
+                if (session.hasActiveFelling() || stats.value(Gauge.PENDING_LEAVES) > pendingLeavesBefore) {
+                    if (ticks > options.timeoutTicks()) {
+                        finish("bench.timeout");
+                    }
+                    return;
+                }
+                settleTicks = 0;
+                state = State.SETTLE;
+            }
+            case SETTLE -> {
+                ticks++;
+                if (++settleTicks < SETTLE_TICKS) return;
+                runTicks.record(ticks);
+                entitiesSpawned += removeNewItems();
+                completedRuns++;
+                if (completedRuns >= options.runs()) {
+                    finish(null);
+                    return;
+                }
+                state = State.PLANT;
+            }
+        }
+    }
+
+    /** Breaks the block the way a player would; returns true when another plugin cancelled the break. */
+    private boolean breakAsPlayer(Block base) {
+        PlayerSession session = plugin.sessions().get(player);
+        PlayerInventory inventory = player.getInventory();
+        ItemStack held = inventory.getItemInMainHand().clone();
+        boolean sneaking = player.isSneaking();
+        // A fresh axe and the sneak state sneak-mode asks for, only for the duration of this event.
+        ItemStack axe = new ItemStack(Material.NETHERITE_AXE);
+        inventory.setItemInMainHand(axe);
+        player.setSneaking(plugin.getConfig().getInt("sneak-mode", 0) != 1);
+        // Neither swap fires an event, so the cached eligibility would still describe the admin's own hand.
+        session.invalidateEligibility();
+        try {
+            BlockBreakEvent event = new BlockBreakEvent(base, player);
+            plugin.getServer().getPluginManager().callEvent(event);
+            if (event.isCancelled()) {
+                return true;
+            }
+            if (event.isDropItems()) {
+                base.breakNaturally(axe, true);
+            } else {
+                base.setType(Material.AIR);
+            }
+            return false;
+        } finally {
+            inventory.setItemInMainHand(held);
+            player.setSneaking(sneaking);
+            session.invalidateEligibility();
+        }
+    }
+
+    private void plant() {
+        VoxelGrid grid = shape.grid();
+        forEachPosition((index, x, y, z) -> {
+            Material target = grid.type(x - originX, y - originY, z - originZ);
+            Block block = world.getBlockAt(x, y, z);
+            if (block.getType() != target) {
+                block.setType(target, false);
+            }
+        });
+    }
+
+    private void restore() {
+        if (original == null) return;
+        forEachPosition((index, x, y, z) -> world.getBlockAt(x, y, z).setBlockData(original[index], false));
+        original = null;
+    }
+
+    private int removeNewItems() {
+        int removed = 0;
+        for (Entity entity : world.getNearbyEntities(area())) {
+            if (entity instanceof Item && !entitiesBefore.contains(entity.getUniqueId())) {
+                entity.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private BoundingBox area() {
+        return new BoundingBox(minX, minY, minZ, minX + sizeX, minY + sizeY, minZ + sizeZ);
+    }
+
+    private interface PositionVisitor {
+        void visit(int index, int x, int y, int z);
+    }
+
+    private void forEachPosition(PositionVisitor visitor) {
+        int index = 0;
+        for (int y = 0; y < sizeY; y++) {
+            for (int z = 0; z < sizeZ; z++) {
+                for (int x = 0; x < sizeX; x++) {
+                    visitor.visit(index++, minX + x, minY + y, minZ + z);
+                }
+            }
+        }
+    }
+
+    private void finish(String reasonKey) {
+        if (task == null) return;
+        task.cancel();
+        task = null;
+        entitiesSpawned += removeNewItems();
+        restore();
+        stats.setTimingEnabled(timingWasEnabled);
+        plugin.benchFinished(this);
+        if (!player.isOnline()) return;
+
+        var messages = plugin.messages();
+        if (reasonKey != null) {
+            player.sendMessage(messages.format(player, reasonKey, Map.of("run", String.valueOf(completedRuns + 1))));
+        }
+        if (completedRuns > 0) {
+            Map<String, String> summary = new HashMap<>();
+            summary.put("runs", String.valueOf(completedRuns));
+            summary.put("species", options.species().configKey());
+            summary.put("logs", String.valueOf(shape.logs()));
+            summary.put("leaves", String.valueOf(shape.leaves()));
+            summary.put("seconds", String.format(Locale.ROOT, "%.1f", (System.nanoTime() - startedAt) / 1e9));
+            player.sendMessage(messages.format(player, "bench.summary", summary));
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram.Snapshot snapshot = stats.snapshot(phase).since(baseline.get(phase));
+                if (snapshot.count() == 0) continue;
+                Map<String, String> rep = new HashMap<>();
+                rep.put("phase", phase.label());
+                rep.put("count", String.valueOf(snapshot.count()));
+                rep.put("p50", formatNanos(snapshot.percentile(50)));
+                rep.put("p99", formatNanos(snapshot.percentile(99)));
+                rep.put("max", formatNanos(snapshot.max()));
+                player.sendMessage(messages.format(player, "stats.phase", rep));
+            }
+            LatencyHistogram.Snapshot perRun = runTicks.snapshot();
+            Map<String, String> ticksRep = new HashMap<>();
+            ticksRep.put("p50", String.valueOf(perRun.percentile(50)));
+            ticksRep.put("max", String.valueOf(perRun.max()));
+            ticksRep.put("entities", String.valueOf(entitiesSpawned));
+            ticksRep.put("per_run", String.format(Locale.ROOT, "%.1f", entitiesSpawned / (double) completedRuns));
+            player.sendMessage(messages.format(player, "bench.ticks", ticksRep));
+        }
+        player.sendMessage(messages.component(player, "bench.restored"));
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000_000L) {
+            return String.format(Locale.ROOT, "%.1fµs", nanos / 1_000.0);
+        }
+        return String.format(Locale.ROOT, "%.2fms", nanos / 1_000_000.0);
+    }
+}
@@ -1,6 +1,14 @@
 package com.github.hrobasti.timberella.commands;
 
 import com.github.hrobasti.timberella.TimberellaPlugin;
+import com.github.hrobasti.timberella.bench.SyntheticTrees;
+import com.github.hrobasti.timberella.bench.TreeBench;
+import com.github.hrobasti.timberella.journal.FellingJournal;
+import com.github.hrobasti.timberella.journal.RollbackTask;
+import com.github.hrobasti.timberella.metrics.LatencyHistogram;
+import com.github.hrobasti.timberella.metrics.RuntimeStats;
+import com.github.hrobasti.timberella.metrics.SlowFellingTracer;
+import com.github.hrobasti.timberella.tree.Species;
 import io.papermc.paper.command.brigadier.BasicCommand;
 import io.papermc.paper.command.brigadier.CommandSourceStack;
 import java.util.ArrayList;
@@ -9,10 +17,18 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.Nullable;
 
 public class TimberellaCommand implements BasicCommand {
+    private static final Pattern DURATION_PART = Pattern.compile("(\\d{1,6})([smhd])");
+    private static final int DEFAULT_ROLLBACK_RADIUS = 16;
+    private static final int MAX_ROLLBACK_RADIUS = 128;
 
     private final TimberellaPlugin plugin;
 
@@ -23,7 +39,7 @@ public class TimberellaCommand implements BasicCommand {
     @Override
     public void execute(CommandSourceStack source, String[] args) {
         if (args.length == 0) {
-            source.getSender().sendMessage(plugin.messages().component("command.usage-admin"));
+            source.getSender().sendMessage(plugin.messages().component(source.getSender(), "command.usage-admin"));
             return;
         }
 
@@ -31,55 +47,385 @@ public class TimberellaCommand implements BasicCommand {
             case "reload" -> handleReload(source);
             case "toggle" -> handleToggle(source, args);
             case "version" -> handleVersion(source);
-            default -> source.getSender().sendMessage(plugin.messages().component("command.usage-admin"));
+            case "diagnostics" -> handleDiagnostics(source);
+            case "stats" -> handleStats(source, args);
+            case "trace" -> handleTrace(source, args);
+            case "bench" -> handleBench(source, args);
+            case "rollback" -> handleRollback(source, args);
+            default -> source.getSender().sendMessage(plugin.messages().component(source.getSender(), "command.usage-admin"));
         }
     }
 
     private void handleReload(CommandSourceStack source) {
         if (!source.getSender().hasPermission("timberella.admin")) {
-            source.getSender().sendMessage(plugin.messages().component("command.no-permission"));
+            source.getSender().sendMessage(plugin.messages().component(source.getSender(), "command.no-permission"));
             return;
         }
-        plugin.reloadAndMergeConfig();
-        source.getSender().sendMessage(plugin.messages().component("command.reloaded"));
+        CommandSender sender = source.getSender();
+        plugin.reloadAndMergeConfig().whenComplete((ignored, error) -> {
+            if (error == null) {
+                sender.sendMessage(plugin.messages().component(sender, "command.reloaded"));
+                return;
+            }
+            // A failed file pipeline completes on the file pool; answer from the main thread.
+            plugin.getServer().getScheduler().runTask(plugin, () ->
+                sender.sendMessage(plugin.messages().component(sender, "command.reload-failed")));
+        });
     }
 
     private void handleToggle(CommandSourceStack source, String[] args) {
         if (args.length >= 2) {
             if (!source.getSender().hasPermission("timberella.admin")) {
-                source.getSender().sendMessage(plugin.messages().component("command.no-permission"));
+                source.getSender().sendMessage(plugin.messages().component(source.getSender(), "command.no-permission"));
                 return;
             }
             String targetName = args[1];
             Player target = plugin.getServer().getPlayer(targetName);
             if (target == null) {
-                source.getSender().sendMessage(plugin.messages().component("command.player-not-found"));
+                source.getSender().sendMessage(plugin.messages().component(source.getSender(), "command.player-not-found"));
                 return;
             }
             boolean enabledNow = plugin.toggleEnabled(target.getUniqueId());
             Map<String, String> rep = new HashMap<>();
             rep.put("player", target.getName());
-            source.getSender().sendMessage(plugin.messages().format(enabledNow ? "toggle.other-enabled" : "toggle.other-disabled", rep));
-            target.sendMessage(plugin.messages().component(enabledNow ? "toggle.self-enabled" : "toggle.self-disabled"));
+            source.getSender().sendMessage(plugin.messages().format(source.getSender(), enabledNow ? "toggle.other-enabled" : "toggle.other-disabled", rep));
+            target.sendMessage(plugin.messages().component(target, enabledNow ? "toggle.self-enabled" : "toggle.self-disabled"));
             return;
         }
 
         if (!(source.getSender() instanceof Player player)) {
-            source.getSender().sendMessage(plugin.messages().component("command.player-only"));
+            source.getSender().sendMessage(plugin.messages().component(source.getSender(), "command.player-only"));
             return;
         }
         if (!source.getSender().hasPermission("timberella.toggle")) {
-            source.getSender().sendMessage(plugin.messages().component("command.no-permission"));
+            source.getSender().sendMessage(plugin.messages().component(source.getSender(), "command.no-permission"));
             return;
         }
         boolean targetState = plugin.toggleEnabled(player.getUniqueId());
-        player.sendMessage(plugin.messages().component(targetState ? "toggle.self-enabled" : "toggle.self-disabled"));
+        player.sendMessage(plugin.messages().component(player, targetState ? "toggle.self-enabled" : "toggle.self-disabled"));
     }
 
     private void handleVersion(CommandSourceStack source) {
         Map<String, String> rep = new HashMap<>();
         rep.put("current_ver", plugin.getPluginMeta().getVersion());
-        source.getSender().sendMessage(plugin.messages().format("command.version", rep));
+        source.getSender().sendMessage(plugin.messages().format(source.getSender(), "command.version", rep));
+    }
+
+    private void handleDiagnostics(CommandSourceStack source) {
+        if (!source.getSender().hasPermission("timberella.admin")) {
+            source.getSender().sendMessage(plugin.messages().component(source.getSender(), "command.no-permission"));
+            return;
+        }
+        Map<String, String> rep = new HashMap<>();
+        rep.put("sessions", String.valueOf(plugin.sessions().size()));
+        rep.put("online", String.valueOf(plugin.getServer().getOnlinePlayers().size()));
+        rep.put("active_fellings", String.valueOf(plugin.sessions().activeFellings()));
+        rep.put("toggle_cache", String.valueOf(plugin.toggleStore().cachedEntries()));
+        rep.put("locale_bundles", String.valueOf(plugin.messages().cachedBundleCount()));
+        source.getSender().sendMessage(plugin.messages().format(source.getSender(), "command.diagnostics", rep));
+    }
+
+    private void handleStats(CommandSourceStack source, String[] args) {
+        var sender = source.getSender();
+        if (!sender.hasPermission("timberella.admin")) {
+            sender.sendMessage(plugin.messages().component(sender, "command.no-permission"));
+            return;
+        }
+        RuntimeStats stats = plugin.stats();
+        if (args.length >= 2 && "reset".equalsIgnoreCase(args[1])) {
+            stats.reset();
+            sender.sendMessage(plugin.messages().component(sender, "stats.reset"));
+            return;
+        }
+        Map<String, String> header = new HashMap<>();
+        header.put("since", formatAge(System.currentTimeMillis() - stats.resetAt()));
+        header.put("timing", plugin.messages().plain(stats.isTimingEnabled() ? "log.modules-state-active" : "log.modules-state-inactive"));
+        sender.sendMessage(plugin.messages().format(sender, "stats.header", header));
+        for (RuntimeStats.Phase phase : RuntimeStats.Phase.values()) {
+            LatencyHistogram.Snapshot snapshot = stats.snapshot(phase);
+            Map<String, String> rep = new HashMap<>();
+            rep.put("phase", phase.label());
+            rep.put("count", String.valueOf(snapshot.count()));
+            rep.put("p50", formatNanos(snapshot.percentile(50)));
+            rep.put("p99", formatNanos(snapshot.percentile(99)));
+            rep.put("max", formatNanos(snapshot.max()));
+            sender.sendMessage(plugin.messages().format(sender, "stats.phase", rep));
+        }
+        Map<String, String> counters = new HashMap<>();
+        counters.put("blocks", String.valueOf(stats.count(RuntimeStats.Counter.BLOCKS_BROKEN)));
+        counters.put("leaves", String.valueOf(stats.count(RuntimeStats.Counter.LEAVES_DECAYED)));
+        counters.put("events", String.valueOf(stats.count(RuntimeStats.Counter.EVENTS_FIRED)));
+        counters.put("fellings", String.valueOf(stats.count(RuntimeStats.Counter.FELLINGS_STARTED)));
+        counters.put("aborted", String.valueOf(stats.count(RuntimeStats.Counter.FELLINGS_ABORTED)));
+        sender.sendMessage(plugin.messages().format(sender, "stats.counters", counters));
+    }
+
+    private void handleTrace(CommandSourceStack source, String[] args) {
+        var sender = source.getSender();
+        if (!sender.hasPermission("timberella.admin")) {
+            sender.sendMessage(plugin.messages().component(sender, "command.no-permission"));
+            return;
+        }
+        SlowFellingTracer tracer = plugin.tracer();
+        if (args.length >= 2 && "clear".equalsIgnoreCase(args[1])) {
+            tracer.clear();
+            sender.sendMessage(plugin.messages().component(sender, "trace.cleared"));
+            return;
+        }
+        int limit = 5;
+        if (args.length >= 2) {
+            try {
+                limit = Math.max(1, Math.min(50, Integer.parseInt(args[1])));
+            } catch (NumberFormatException ignored) {
+                // keep default
+            }
+        }
+        List<SlowFellingTracer.Record> recorded = tracer.recent();
+        if (recorded.isEmpty()) {
+            sender.sendMessage(plugin.messages().component(sender, "trace.empty"));
+            return;
+        }
+        sender.sendMessage(plugin.messages().format(sender, "trace.header", Map.of("count", String.valueOf(recorded.size()))));
+        int rank = 1;
+        long now = System.currentTimeMillis();
+        for (SlowFellingTracer.Record record : tracer.worst(limit)) {
+            Map<String, String> rep = new HashMap<>();
+            rep.put("rank", String.valueOf(rank++));
+            rep.put("total", SlowFellingTracer.millis(record.totalNanos()));
+            rep.put("species", record.species());
+            rep.put("world", record.world());
+            rep.put("x", String.valueOf(record.x()));
+            rep.put("y", String.valueOf(record.y()));
+            rep.put("z", String.valueOf(record.z()));
+            rep.put("age", formatAge(now - record.timestamp()));
+            rep.put("blocks", String.valueOf(record.blocks()));
+            rep.put("leaves", String.valueOf(record.leaves()));
+            rep.put("events", String.valueOf(record.eventsFired()));
+            sender.sendMessage(plugin.messages().format(sender, "trace.entry", rep));
+            List<String> phases = new ArrayList<>();
+            for (RuntimeStats.Phase phase : RuntimeStats.Phase.values()) {
+                if (record.phase(phase) > 0) {
+                    phases.add(phase.label() + " " + SlowFellingTracer.millis(record.phase(phase)));
+                }
+            }
+            if (record.aborted()) {
+                phases.add("aborted");
+            }
+            sender.sendMessage(plugin.messages().format(sender, "trace.phases", Map.of("phases", String.join(", ", phases))));
+        }
+    }
+
+    private void handleBench(CommandSourceStack source, String[] args) {
+        var sender = source.getSender();
+        if (!sender.hasPermission("timberella.admin")) {
+            sender.sendMessage(plugin.messages().component(sender, "command.no-permission"));
+            return;
+        }
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage(plugin.messages().component(sender, "command.player-only"));
+            return;
+        }
+        TreeBench running = plugin.activeBench();
+        if (args.length >= 2 && "cancel".equalsIgnoreCase(args[1])) {
+            if (running == null) {
+                sender.sendMessage(plugin.messages().component(sender, "bench.none"));
+            } else {
+                running.requestStop();
+                sender.sendMessage(plugin.messages().component(sender, "bench.stopping"));
+            }
+            return;
+        }
+        if (running != null) {
+            sender.sendMessage(plugin.messages().component(sender, "bench.already-running"));
+            return;
+        }
+        if (args.length < 2) {
+            sender.sendMessage(plugin.messages().component(sender, "bench.usage"));
+            return;
+        }
+        Species species = speciesByKey(args[1]);
+        if (species == null) {
+            List<String> keys = new ArrayList<>();
+            for (Species value : Species.values()) keys.add(value.configKey());
+            sender.sendMessage(plugin.messages().format(sender, "bench.unknown-species", Map.of("species", String.join(", ", keys))));
+            return;
+        }
+        var config = plugin.getConfig();
+        int height = SyntheticTrees.defaultHeight(species);
+        int runs = 10;
+        try {
+            if (args.length >= 3) height = Integer.parseInt(args[2]);
+            if (args.length >= 4) runs = Integer.parseInt(args[3]);
+        } catch (NumberFormatException ex) {
+            sender.sendMessage(plugin.messages().component(sender, "bench.usage"));
+            return;
+        }
+        height = Math.max(SyntheticTrees.MIN_HEIGHT, Math.min(SyntheticTrees.MAX_HEIGHT, height));
+        runs = Math.max(1, Math.min(Math.max(1, config.getInt("bench.max-runs", 100)), runs));
+        int timeoutTicks = Math.max(20, config.getInt("bench.run-timeout-ticks", 1200));
+
+        World world;
+        int x;
+        int y;
+        int z;
+        String worldName = config.getString("bench.world", "");
+        if (worldName != null && !worldName.isBlank()) {
+            world = plugin.getServer().getWorld(worldName);
+            if (world == null) {
+                sender.sendMessage(plugin.messages().format(sender, "bench.unknown-world", Map.of("world", worldName)));
+                return;
+            }
+            x = config.getInt("bench.x", 0);
+            y = config.getInt("bench.y", 100);
+            z = config.getInt("bench.z", 0);
+        } else {
+            // Far enough in front of the admin that the area never includes the admin.
+            var location = player.getLocation();
+            var direction = location.getDirection();
+            double length = Math.max(1e-6, Math.hypot(direction.getX(), direction.getZ()));
+            int distance = SyntheticTrees.HALF_WIDTH + 4;
+            world = location.getWorld();
+            x = location.getBlockX() + (int) Math.round(direction.getX() / length * distance);
+            y = location.getBlockY();
+            z = location.getBlockZ() + (int) Math.round(direction.getZ() / length * distance);
+        }
+
+        TreeBench bench = new TreeBench(plugin, player, world, x, y, z,
+            new TreeBench.Options(species, height, runs, timeoutTicks));
+        if (!bench.fitsWorld()) {
+            sender.sendMessage(plugin.messages().component(sender, "bench.out-of-world"));
+            return;
+        }
+        Map<String, String> rep = new HashMap<>();
+        rep.put("runs", String.valueOf(runs));
+        rep.put("species", species.configKey());
+        rep.put("height", String.valueOf(height));
+        rep.put("logs", String.valueOf(bench.shape().logs()));
+        rep.put("leaves", String.valueOf(bench.shape().leaves()));
+        rep.put("world", world.getName());
+        rep.put("x", String.valueOf(x));
+        rep.put("y", String.valueOf(y));
+        rep.put("z", String.valueOf(z));
+        sender.sendMessage(plugin.messages().format(sender, "bench.started", rep));
+        plugin.startBench(bench);
+    }
+
+    private void handleRollback(CommandSourceStack source, String[] args) {
+        var sender = source.getSender();
+        if (!sender.hasPermission("timberella.admin")) {
+            sender.sendMessage(plugin.messages().component(sender, "command.no-permission"));
+            return;
+        }
+        FellingJournal journal = plugin.journal();
+        if (journal == null || !journal.isEnabled()) {
+            sender.sendMessage(plugin.messages().component(sender, "rollback.disabled"));
+            return;
+        }
+        if (plugin.activeRollback() != null) {
+            sender.sendMessage(plugin.messages().component(sender, "rollback.running"));
+            return;
+        }
+        long duration = args.length >= 3 ? parseDurationMillis(args[2]) : -1L;
+        if (duration <= 0L) {
+            sender.sendMessage(plugin.messages().component(sender, "rollback.usage"));
+            return;
+        }
+        String target = args[1];
+        RollbackTask.Filter filter;
+        if (target.toLowerCase(Locale.ROOT).startsWith("area")) {
+            if (!(sender instanceof Player player)) {
+                sender.sendMessage(plugin.messages().component(sender, "command.player-only"));
+                return;
+            }
+            int radius = DEFAULT_ROLLBACK_RADIUS;
+            if (target.length() > 4) {
+                try {
+                    if (target.charAt(4) != ':') throw new NumberFormatException();
+                    radius = Integer.parseInt(target.substring(5));
+                } catch (NumberFormatException ex) {
+                    sender.sendMessage(plugin.messages().component(sender, "rollback.usage"));
+                    return;
+                }
+            }
+            radius = Math.max(1, Math.min(MAX_ROLLBACK_RADIUS, radius));
+            var location = player.getLocation();
+            filter = RollbackTask.Filter.area(location.getWorld(), location.getBlockX(), location.getBlockZ(), radius);
+        } else {
+            OfflinePlayer offline = plugin.getServer().getOfflinePlayerIfCached(target);
+            if (offline == null) {
+                sender.sendMessage(plugin.messages().format(sender, "rollback.unknown-player", Map.of("player", target)));
+                return;
+            }
+            filter = RollbackTask.Filter.player(offline.getUniqueId());
+        }
+        long since = System.currentTimeMillis() - duration;
+        long budgetNanos = Math.max(1, plugin.getConfig().getInt("rollback-journal.restore-budget-ms", 5)) * 1_000_000L;
+        // The journal is read on its writer thread; restoring starts back on the main thread.
+        journal.read(since)
+            .thenApply(records -> RollbackTask.plan(records, filter))
+            .whenComplete((plan, error) -> plugin.getServer().getScheduler().runTask(plugin, () -> {
+                if (error != null) {
+                    plugin.getLogger().warning("Could not read the rollback journal: " + error);
+                    sender.sendMessage(plugin.messages().component(sender, "rollback.failed"));
+                    return;
+                }
+                if (plan.changes().isEmpty()) {
+                    sender.sendMessage(plugin.messages().component(sender, "rollback.nothing"));
+                    return;
+                }
+                if (plugin.activeRollback() != null) {
+                    sender.sendMessage(plugin.messages().component(sender, "rollback.running"));
+                    return;
+                }
+                RollbackTask rollback = new RollbackTask(plugin, sender, plan.changes(), budgetNanos);
+                sender.sendMessage(plugin.messages().format(sender, "rollback.started", Map.of(
+                    "changes", String.valueOf(plan.changes().size()),
+                    "records", String.valueOf(plan.records()))));
+                plugin.startRollback(rollback);
+            }));
+    }
+
+    /** Parses durations like {@code 90s}, {@code 30m}, {@code 1h30m} or {@code 2d}; -1 when malformed. */
+    private static long parseDurationMillis(String text) {
+        Matcher matcher = DURATION_PART.matcher(text.toLowerCase(Locale.ROOT));
+        long total = 0L;
+        int end = 0;
+        while (matcher.find()) {
+            if (matcher.start() != end) return -1L;
+            long amount = Long.parseLong(matcher.group(1));
+            long unit = switch (matcher.group(2)) {
+                case "s" -> 1_000L;
+                case "m" -> 60_000L;
+                case "h" -> 3_600_000L;
+                default -> 86_400_000L;
+            };
+            total += amount * unit;
+            end = matcher.end();
+        }
+        return end == text.length() && end > 0 ? total : -1L;
+    }
+
+    private static Species speciesByKey(String key) {
+        String normalized = key.toLowerCase(Locale.ROOT).replace('-', '_');
+        for (Species species : Species.values()) {
+            if (species.configKey().equals(normalized)) return species;
+        }
+        return null;
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000_000L) {
+            return String.format(Locale.ROOT, "%.1fµs", nanos / 1_000.0);
+        }
+        return String.format(Locale.ROOT, "%.2fms", nanos / 1_000_000.0);
+    }
+
+    private static String formatAge(long millis) {
+        long seconds = Math.max(0L, millis / 1000L);
+        if (seconds < 3600L) {
+            return String.format(Locale.ROOT, "%dm %02ds", seconds / 60L, seconds % 60L);
+        }
+        return String.format(Locale.ROOT, "%dh %02dm", seconds / 3600L, (seconds % 3600L) / 60L);
     }
 
     @Override
@@ -92,9 +438,39 @@ public class TimberellaCommand implements BasicCommand {
             boolean canToggle = sender.hasPermission("timberella.toggle") || canAdmin;
             options.add("version");
             if (canAdmin) options.add("reload");
+            if (canAdmin) options.add("diagnostics");
+            if (canAdmin) options.add("stats");
+            if (canAdmin) options.add("trace");
+            if (canAdmin) options.add("bench");
+            if (canAdmin) options.add("rollback");
             if (canToggle) options.add("toggle");
             return options.stream().filter(opt -> opt.startsWith(prefix)).toList();
         }
+        if (args.length == 2 && "stats".equalsIgnoreCase(args[0]) && sender.hasPermission("timberella.admin")) {
+            return "reset".startsWith(args[1].toLowerCase(Locale.ROOT)) ? List.of("reset") : Collections.emptyList();
+        }
+        if (args.length == 2 && "trace".equalsIgnoreCase(args[0]) && sender.hasPermission("timberella.admin")) {
+            return "clear".startsWith(args[1].toLowerCase(Locale.ROOT)) ? List.of("clear") : Collections.emptyList();
+        }
+        if (args.length == 2 && "bench".equalsIgnoreCase(args[0]) && sender.hasPermission("timberella.admin")) {
+            String prefix = args[1].toLowerCase(Locale.ROOT);
+            List<String> options = new ArrayList<>();
+            options.add("cancel");
+            for (Species species : Species.values()) options.add(species.configKey());
+            return options.stream().filter(opt -> opt.startsWith(prefix)).toList();
+        }
+        if (args.length == 2 && "rollback".equalsIgnoreCase(args[0]) && sender.hasPermission("timberella.admin")) {
+            String prefix = args[1].toLowerCase(Locale.ROOT);
+            List<String> options = new ArrayList<>();
+            options.add("area");
+            options.add("area:" + DEFAULT_ROLLBACK_RADIUS);
+            for (Player online : plugin.getServer().getOnlinePlayers()) options.add(online.getName());
+            return options.stream().filter(opt -> opt.toLowerCase(Locale.ROOT).startsWith(prefix)).toList();
+        }
+        if (args.length == 3 && "rollback".equalsIgnoreCase(args[0]) && sender.hasPermission("timberella.admin")) {
+            String prefix = args[2].toLowerCase(Locale.ROOT);
+            return List.of("10m", "30m", "1h", "6h", "1d").stream().filter(opt -> opt.startsWith(prefix)).toList();
+        }
         if (args.length == 2 && "toggle".equalsIgnoreCase(args[0]) && sender.hasPermission("timberella.admin")) {
             String prefix = args[1].toLowerCase(Locale.ROOT);
             return plugin.getServer().getOnlinePlayers().stream()
@@ -0,0 +1,64 @@
+package com.github.hrobasti.timberella.i18n;
+
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * All compiled templates of one locale. The fallback chain is resolved once while building: keys missing from
+ * this locale, and keys whose text is identical to the fallback (e.g. untranslated lines), point at the
+ * fallback's template instance instead of being parsed and stored again.
+ */
+final class LocaleBundle {
+    private final String locale;
+    private final String prefixRaw;
+    private final Map<String, String> raw;
+    private final Map<String, MessageTemplate> templates;
+    private final TagResolver prefixResolver;
+
+    private LocaleBundle(String locale, String prefixRaw, Map<String, String> raw,
+                         Map<String, MessageTemplate> templates, TagResolver prefixResolver) {
+        this.locale = locale;
+        this.prefixRaw = prefixRaw;
+        this.raw = raw;
+        this.templates = templates;
+        this.prefixResolver = prefixResolver;
+    }
+
+    static LocaleBundle build(MiniMessage mini, String locale, Map<String, String> raw, String defaultPrefixRaw,
+                              String prefixLabel, LocaleBundle fallback) {
+        String prefixRaw = raw.getOrDefault("ui.prefix", fallback != null ? fallback.prefixRaw : defaultPrefixRaw);
+        TagResolver resolver = TagResolver.resolver(
+            Placeholder.parsed("prefix", prefixRaw),
+            Placeholder.unparsed("prefix_label", prefixLabel));
+        boolean samePrefix = fallback != null && fallback.prefixRaw.equals(prefixRaw);
+        Map<String, MessageTemplate> compiled = new HashMap<>(Math.max(16, raw.size() * 2));
+        for (Map.Entry<String, String> entry : raw.entrySet()) {
+            MessageTemplate shared = samePrefix && entry.getValue().equals(fallback.raw.get(entry.getKey()))
+                ? fallback.templates.get(entry.getKey())
+                : null;
+            compiled.put(entry.getKey(), shared != null ? shared : MessageTemplate.compile(mini, entry.getValue(), resolver));
+        }
+        if (fallback != null) {
+            for (Map.Entry<String, MessageTemplate> entry : fallback.templates.entrySet()) {
+                compiled.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+        return new LocaleBundle(locale, prefixRaw, raw, compiled, resolver);
+    }
+
+    String locale() {
+        return locale;
+    }
+
+    MessageTemplate get(String key) {
+        return templates.get(key);
+    }
+
+    TagResolver prefixResolver() {
+        return prefixResolver;
+    }
+}
@@ -3,29 +3,55 @@ package com.github.hrobasti.timberella.i18n;
 import com.github.hrobasti.turtlelib.helper.LangLoader;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
-import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
-import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.command.CommandSender;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class MessageService {
     private static final MiniMessage MINI = MiniMessage.miniMessage();
     private static final PlainTextComponentSerializer PLAIN = PlainTextComponentSerializer.plainText();
 
     private final JavaPlugin plugin;
-    private final Map<String, String> messages = new HashMap<>();
-    private String prefixRaw = "<light_purple>[<prefix_label>]</light_purple>";
-    private String prefixLabel = "Timberella";
+    private final String defaultPrefixRaw;
+    private final String defaultPrefixLabel;
+    // Server locale: used for console output and for every player unless per-player locales are enabled. Built on
+    // top of en_US, so keys a translation lacks render in English rather than as the raw key.
+    private volatile LocaleBundle defaultBundle;
+    private Map<String, String> serverMessages = Map.of();
+    private Map<String, String> englishMessages = Map.of();
+    // Additional player locales, least recently used first; guarded by itself.
+    private final LinkedHashMap<String, LocaleBundle> playerBundles = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, String> resolvedClientLocales = new ConcurrentHashMap<>();
+    private final AtomicLong bundleHits = new AtomicLong();
+    private final AtomicLong bundleMisses = new AtomicLong();
+    private volatile List<String> availableLocales = List.of();
+    private volatile boolean perPlayerLocales = false;
+    private volatile int maxCachedBundles = 4;
+    private String prefixLabel;
     private String currentLocale = LangLoader.DEFAULT_LOCALE;
 
     public MessageService(JavaPlugin plugin) {
+        this(plugin, "<light_purple>[<prefix_label>]</light_purple>", "Timberella");
+    }
+
+    public MessageService(JavaPlugin plugin, String defaultPrefixRaw, String defaultPrefixLabel) {
         this.plugin = plugin;
+        this.defaultPrefixRaw = defaultPrefixRaw;
+        this.defaultPrefixLabel = defaultPrefixLabel;
+        this.prefixLabel = defaultPrefixLabel;
+        this.defaultBundle = LocaleBundle.build(MINI, LangLoader.DEFAULT_LOCALE, Map.of(), defaultPrefixRaw, prefixLabel, null);
     }
 
     public static List<String> getBundledLocales(JavaPlugin plugin) {
@@ -33,12 +59,50 @@ public class MessageService {
     }
 
     public void load(String locale) {
-        messages.clear();
+        String normalized = normalize(locale);
+        Map<String, String> english = normalized.equals(LangLoader.DEFAULT_LOCALE) ? Map.of()
+            : readLocale(LangLoader.DEFAULT_LOCALE);
+        currentLocale = normalized;
+        serverMessages = readLocale(normalized);
+        englishMessages = english;
+        buildDefaultBundle();
+        List<String> bundled = getBundledLocales(plugin);
+        availableLocales = bundled == null ? List.of() : List.copyOf(bundled);
+        clearPlayerBundles();
+    }
+
+    /**
+     * Installs a server locale that was already read and flattened with {@link #messages}, e.g. by the reload
+     * pipeline; {@code english} backs the keys it lacks.
+     */
+    public void load(String locale, Map<String, String> messages, Map<String, String> english) {
         String normalized = normalize(locale);
         currentLocale = normalized;
-        FileConfiguration cfg = LangLoader.loadLocale(plugin, normalized);
-        collectMessages(cfg, "");
-        this.prefixRaw = messages.getOrDefault("ui.prefix", prefixRaw);
+        serverMessages = Map.copyOf(messages);
+        englishMessages = normalized.equals(LangLoader.DEFAULT_LOCALE) ? Map.of() : Map.copyOf(english);
+        buildDefaultBundle();
+        List<String> bundled = getBundledLocales(plugin);
+        availableLocales = bundled == null ? List.of() : List.copyOf(bundled);
+        clearPlayerBundles();
+    }
+
+    /** Every message of a parsed locale file by its dotted key. */
+    public static Map<String, String> messages(ConfigurationSection locale) {
+        Map<String, String> loaded = new HashMap<>();
+        if (locale != null) {
+            collectMessages(locale, "", loaded);
+        }
+        return loaded;
+    }
+
+    private void buildDefaultBundle() {
+        LocaleBundle english = currentLocale.equals(LangLoader.DEFAULT_LOCALE) ? null
+            : LocaleBundle.build(MINI, LangLoader.DEFAULT_LOCALE, englishMessages, defaultPrefixRaw, prefixLabel, null);
+        defaultBundle = LocaleBundle.build(MINI, currentLocale, serverMessages, defaultPrefixRaw, prefixLabel, english);
+    }
+
+    private Map<String, String> readLocale(String locale) {
+        return messages(LangLoader.loadLocale(plugin, locale));
     }
 
     private String normalize(String locale) {
@@ -52,66 +116,155 @@ public class MessageService {
         return trimmed;
     }
 
-    private void collectMessages(ConfigurationSection section, String pathPrefix) {
+    private static void collectMessages(ConfigurationSection section, String pathPrefix, Map<String, String> out) {
         for (String key : section.getKeys(false)) {
             String fullKey = pathPrefix.isBlank() ? key : pathPrefix + "." + key;
             if (section.isConfigurationSection(key)) {
-                collectMessages(section.getConfigurationSection(key), fullKey);
+                collectMessages(section.getConfigurationSection(key), fullKey, out);
                 continue;
             }
-            messages.put(fullKey, section.getString(key, fullKey));
+            out.put(fullKey, section.getString(key, fullKey));
         }
     }
 
-    public List<String> syncLocaleFile(String locale) {
-        return LangLoader.syncLocale(plugin, locale);
-    }
-
     public String getLanguage() {
         return currentLocale;
     }
 
     public void setPrefixLabel(String label) {
-        if (label == null || label.isBlank()) {
-            this.prefixLabel = "Timberella";
-        } else {
-            this.prefixLabel = label;
-        }
-    }
-
-    private TagResolver prefixResolvers(TagResolver... extra) {
-        TagResolver.Builder builder = TagResolver.builder();
-        builder.resolver(Placeholder.parsed("prefix", prefixRaw));
-        builder.resolver(Placeholder.unparsed("prefix_label", prefixLabel));
-        if (extra != null) {
-            for (TagResolver resolver : extra) {
-                if (resolver != null) {
-                    builder.resolver(resolver);
-                }
+        String next = label == null || label.isBlank() ? defaultPrefixLabel : label;
+        if (next.equals(prefixLabel)) {
+            return;
+        }
+        this.prefixLabel = next;
+        buildDefaultBundle();
+        clearPlayerBundles();
+    }
+
+    public void configurePlayerLocales(boolean enabled, int maxBundles) {
+        this.perPlayerLocales = enabled;
+        this.maxCachedBundles = Math.max(1, maxBundles);
+        clearPlayerBundles();
+    }
+
+    private void clearPlayerBundles() {
+        synchronized (playerBundles) {
+            playerBundles.clear();
+        }
+        resolvedClientLocales.clear();
+    }
+
+    /** Loads the bundle for a client locale ahead of time; safe to call off the main thread. */
+    public void prefetch(Locale clientLocale) {
+        if (perPlayerLocales && clientLocale != null) {
+            bundleForLocale(resolveClientLocale(clientLocale));
+        }
+    }
+
+    private LocaleBundle bundleFor(CommandSender recipient) {
+        if (!perPlayerLocales || !(recipient instanceof Player player)) {
+            return defaultBundle;
+        }
+        Locale clientLocale = player.locale();
+        if (clientLocale == null) {
+            return defaultBundle;
+        }
+        return bundleForLocale(resolveClientLocale(clientLocale));
+    }
+
+    private String resolveClientLocale(Locale clientLocale) {
+        return resolvedClientLocales.computeIfAbsent(clientLocale.toString(), this::matchAvailableLocale);
+    }
+
+    private String matchAvailableLocale(String clientTag) {
+        String language = clientTag.contains("_") ? clientTag.substring(0, clientTag.indexOf('_')) : clientTag;
+        String languageMatch = null;
+        for (String candidate : availableLocales) {
+            if (candidate.equalsIgnoreCase(clientTag)) {
+                return candidate;
+            }
+            if (languageMatch == null && candidate.toLowerCase(Locale.ROOT).startsWith(language.toLowerCase(Locale.ROOT) + "_")) {
+                languageMatch = candidate;
+            }
+        }
+        return languageMatch != null ? languageMatch : currentLocale;
+    }
+
+    private LocaleBundle bundleForLocale(String locale) {
+        LocaleBundle fallback = defaultBundle;
+        if (locale.equals(fallback.locale())) {
+            return fallback;
+        }
+        synchronized (playerBundles) {
+            LocaleBundle cached = playerBundles.get(locale);
+            if (cached != null) {
+                bundleHits.incrementAndGet();
+                return cached;
             }
         }
-        return builder.build();
+        bundleMisses.incrementAndGet();
+        // Parse outside the lock; two threads racing on the same locale just build it twice.
+        LocaleBundle loaded = LocaleBundle.build(MINI, locale, readLocale(locale), defaultPrefixRaw, prefixLabel, fallback);
+        synchronized (playerBundles) {
+            LocaleBundle existing = playerBundles.putIfAbsent(locale, loaded);
+            while (playerBundles.size() > maxCachedBundles) {
+                String eldest = playerBundles.keySet().iterator().next();
+                playerBundles.remove(eldest);
+            }
+            return existing != null ? existing : loaded;
+        }
+    }
+
+    public int cachedBundleCount() {
+        synchronized (playerBundles) {
+            return playerBundles.size() + 1;
+        }
+    }
+
+    public List<String> cachedBundleLocales() {
+        List<String> locales = new ArrayList<>();
+        locales.add(defaultBundle.locale());
+        synchronized (playerBundles) {
+            locales.addAll(playerBundles.keySet());
+        }
+        return locales;
+    }
+
+    public long bundleCacheHits() {
+        return bundleHits.get();
+    }
+
+    public long bundleCacheMisses() {
+        return bundleMisses.get();
+    }
+
+    private static MessageTemplate template(LocaleBundle bundle, String key) {
+        MessageTemplate cached = bundle.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        // Unknown keys render the key itself; they are rare enough not to be cached.
+        return MessageTemplate.compile(MINI, key, bundle.prefixResolver());
     }
 
     public Component component(String key) {
-        String raw = messages.getOrDefault(key, key);
-        return MINI.deserialize(raw, prefixResolvers());
+        return template(defaultBundle, key).component();
+    }
+
+    public Component component(CommandSender recipient, String key) {
+        return template(bundleFor(recipient), key).component();
     }
 
     public Component format(String key, Map<String, String> replacements) {
-        String raw = messages.getOrDefault(key, key);
-        TagResolver.Builder builder = TagResolver.builder();
-        builder.resolver(prefixResolvers());
-        if (replacements != null) {
-            for (Map.Entry<String, String> e : replacements.entrySet()) {
-                builder.resolver(Placeholder.unparsed(e.getKey(), e.getValue()));
-            }
-        }
-        return MINI.deserialize(raw, builder.build());
+        return template(defaultBundle, key).render(replacements);
+    }
+
+    public Component format(CommandSender recipient, String key, Map<String, String> replacements) {
+        return template(bundleFor(recipient), key).render(replacements);
     }
 
     public String plain(String key) {
-        return PLAIN.serialize(component(key));
+        return template(defaultBundle, key).plain();
     }
 
     public String plain(String key, Map<String, String> replacements) {
@@ -126,4 +279,3 @@ public class MessageService {
         load(lang);
     }
 }
-
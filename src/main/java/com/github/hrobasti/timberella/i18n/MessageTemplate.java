@@ -0,0 +1,131 @@
+package com.github.hrobasti.timberella.i18n;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A message parsed once by MiniMessage. Placeholders are compiled into marker characters inside the
+ * component tree, so rendering only rewrites the text nodes that contain a marker instead of parsing again.
+ */
+final class MessageTemplate {
+    private static final Pattern TAG_NAME = Pattern.compile("<([a-zA-Z0-9_\\-]+)>");
+    private static final TagResolver STANDARD_TAGS = TagResolver.standard();
+    private static final PlainTextComponentSerializer PLAIN = PlainTextComponentSerializer.plainText();
+    private static final char MARK_START = '\uE000';
+    private static final char MARK_END = '\uE001';
+
+    private final Component component;
+    private final String[] slots;
+    private final String plain;
+
+    private MessageTemplate(Component component, String[] slots) {
+        this.component = component;
+        this.slots = slots;
+        this.plain = slots.length == 0 ? PLAIN.serialize(component) : null;
+    }
+
+    static MessageTemplate compile(MiniMessage mini, String raw, TagResolver fixedResolvers) {
+        List<String> names = placeholderNames(raw, fixedResolvers);
+        if (names.isEmpty()) {
+            return new MessageTemplate(mini.deserialize(raw, fixedResolvers), new String[0]);
+        }
+        TagResolver.Builder builder = TagResolver.builder().resolver(fixedResolvers);
+        for (int i = 0; i < names.size(); i++) {
+            builder.resolver(Placeholder.component(names.get(i), Component.text(marker(i))));
+        }
+        return new MessageTemplate(mini.deserialize(raw, builder.build()), names.toArray(new String[0]));
+    }
+
+    boolean isStatic() {
+        return slots.length == 0;
+    }
+
+    Component component() {
+        return slots.length == 0 ? component : render(Map.of());
+    }
+
+    String plain() {
+        return plain != null ? plain : PLAIN.serialize(component());
+    }
+
+    Component render(Map<String, String> replacements) {
+        if (slots.length == 0) {
+            return component;
+        }
+        String[] values = new String[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            String value = replacements == null ? null : replacements.get(slots[i]);
+            // Unresolved placeholders stay visible, exactly like MiniMessage leaves unknown tags.
+            values[i] = value != null ? value : "<" + slots[i] + ">";
+        }
+        return substitute(component, values);
+    }
+
+    private static List<String> placeholderNames(String raw, TagResolver fixedResolvers) {
+        Set<String> names = new LinkedHashSet<>();
+        Matcher matcher = TAG_NAME.matcher(raw);
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            if (fixedResolvers.has(name) || STANDARD_TAGS.has(name)) continue;
+            names.add(name);
+        }
+        return new ArrayList<>(names);
+    }
+
+    private static String marker(int index) {
+        return String.valueOf(MARK_START) + index + MARK_END;
+    }
+
+    private static Component substitute(Component node, String[] values) {
+        Component result = node;
+        if (node instanceof TextComponent text && text.content().indexOf(MARK_START) >= 0) {
+            result = text.content(replaceMarkers(text.content(), values));
+        }
+        List<Component> children = node.children();
+        if (children.isEmpty()) {
+            return result;
+        }
+        List<Component> rewritten = null;
+        for (int i = 0; i < children.size(); i++) {
+            Component child = children.get(i);
+            Component replaced = substitute(child, values);
+            if (replaced != child && rewritten == null) {
+                rewritten = new ArrayList<>(children);
+            }
+            if (rewritten != null) {
+                rewritten.set(i, replaced);
+            }
+        }
+        return rewritten == null ? result : result.children(rewritten);
+    }
+
+    private static String replaceMarkers(String content, String[] values) {
+        StringBuilder out = new StringBuilder(content.length() + 16);
+        int i = 0;
+        while (i < content.length()) {
+            char c = content.charAt(i);
+            int end = c == MARK_START ? content.indexOf(MARK_END, i + 1) : -1;
+            if (end < 0) {
+                out.append(c);
+                i++;
+                continue;
+            }
+            int index = Integer.parseInt(content, i + 1, end, 10);
+            out.append(values[index]);
+            i = end + 1;
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,232 @@
+package com.github.hrobasti.timberella.journal;
+
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Optional journal of what fellings changed, for {@code /timberella rollback}. The main thread only hands finished
+ * {@link JournalBatch}es over; a single writer thread encodes them into a reused off-heap buffer and appends them to
+ * {@code journal/segment-NNNNNN.tbj}. A segment is closed at the configured size and the oldest segments beyond the
+ * configured count are deleted. Reads for a rollback run on the same thread, so they see every record queued before.
+ */
+public final class FellingJournal {
+    private static final int MAX_PENDING_RECORDS = 4096;
+    private static final int INITIAL_BUFFER_BYTES = 64 * 1024;
+    private static final String EXTENSION = ".tbj";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.tbj");
+
+    private final Logger logger;
+    private final Path directory;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean enabled;
+    private volatile long segmentBytes;
+    private volatile int maxSegments;
+    private ExecutorService writer;
+    // Only touched on the writer thread.
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(INITIAL_BUFFER_BYTES);
+    private FileChannel current;
+    private long currentBytes;
+    private long nextSegment = -1L;
+
+    public FellingJournal(Logger logger, Path dataFolder) {
+        this.logger = logger;
+        this.directory = dataFolder.resolve("journal");
+    }
+
+    public synchronized void configure(boolean enabled, int segmentSizeMb, int maxSegments) {
+        this.segmentBytes = Math.max(1, segmentSizeMb) * 1024L * 1024L;
+        this.maxSegments = Math.max(1, maxSegments);
+        this.enabled = enabled;
+        if (enabled && writer == null) {
+            writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(MAX_PENDING_RECORDS), runnable -> {
+                    Thread thread = new Thread(runnable, "Timberella-Journal");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        } else if (!enabled && writer != null) {
+            shutdownWriter();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** A batch for one felling, or null when the journal is off so callers skip collecting entirely. */
+    public JournalBatch batch(Player player, World world) {
+        if (!enabled) return null;
+        return new JournalBatch(this, player != null ? player.getUniqueId() : null, world.getName());
+    }
+
+    void append(JournalRecord record) {
+        ExecutorService log;
+        synchronized (this) {
+            log = writer;
+        }
+        if (log == null) return;
+        try {
+            log.execute(() -> write(record));
+        } catch (RejectedExecutionException ex) {
+            // Never block the main thread on the disk; a full queue costs records instead.
+            if (dropped.getAndIncrement() == 0) {
+                logger.warning("Rollback journal cannot keep up; dropping records until it catches up.");
+            }
+        }
+    }
+
+    /** Every stored record with a timestamp at or after {@code since}, oldest first. */
+    public CompletableFuture<List<JournalCodec.Stored>> read(long since) {
+        ExecutorService log;
+        synchronized (this) {
+            log = writer;
+        }
+        if (log == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Journal is disabled"));
+        }
+        CompletableFuture<List<JournalCodec.Stored>> result = new CompletableFuture<>();
+        Runnable task = () -> {
+            try {
+                result.complete(readSegments(since));
+            } catch (IOException | RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+        };
+        try {
+            // Queued behind pending appends, so the read sees all of them.
+            log.execute(task);
+        } catch (RejectedExecutionException ex) {
+            result.completeExceptionally(ex);
+        }
+        return result;
+    }
+
+    public synchronized void shutdown() {
+        enabled = false;
+        shutdownWriter();
+    }
+
+    private void shutdownWriter() {
+        if (writer == null) return;
+        ExecutorService closing = writer;
+        writer = null;
+        closing.execute(this::closeCurrent);
+        closing.shutdown();
+        try {
+            closing.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(JournalRecord record) {
+        try {
+            buffer.clear();
+            while (!JournalCodec.encode(record, buffer)) {
+                buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+            }
+            buffer.flip();
+            if (current == null || currentBytes + buffer.remaining() > segmentBytes) {
+                rotate();
+            }
+            currentBytes += buffer.remaining();
+            while (buffer.hasRemaining()) {
+                current.write(buffer);
+            }
+            dropped.set(0);
+        } catch (IOException ex) {
+            logger.fine("Could not write rollback journal: " + ex.getMessage());
+            closeCurrent();
+        }
+    }
+
+    private void rotate() throws IOException {
+        closeCurrent();
+        Files.createDirectories(directory);
+        List<Long> segments = listSegments();
+        if (nextSegment < 0) {
+            nextSegment = segments.isEmpty() ? 1L : segments.get(segments.size() - 1) + 1L;
+        }
+        long sequence = nextSegment++;
+        current = FileChannel.open(segmentPath(sequence), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(JournalCodec.HEADER_BYTES);
+        JournalCodec.writeHeader(header);
+        header.flip();
+        current.write(header);
+        currentBytes = JournalCodec.HEADER_BYTES;
+        segments.add(sequence);
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segmentPath(segments.get(i)));
+        }
+    }
+
+    private List<JournalCodec.Stored> readSegments(long since) throws IOException {
+        List<JournalCodec.Stored> records = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return records;
+        }
+        for (long sequence : listSegments()) {
+            Path file = segmentPath(sequence);
+            if (Files.getLastModifiedTime(file).toMillis() < since) continue;
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (!JournalCodec.readHeader(in)) continue;
+            try {
+                JournalCodec.Stored record;
+                while ((record = JournalCodec.read(in)) != null) {
+                    if (record.timestamp() >= since) records.add(record);
+                }
+            } catch (IOException ex) {
+                logger.warning("Skipping the rest of damaged journal segment " + file.getFileName() + ": " + ex.getMessage());
+            }
+        }
+        return records;
+    }
+
+    private List<Long> listSegments() throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "segment-*" + EXTENSION)) {
+            for (Path path : stream) {
+                Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+                if (matcher.matches()) segments.add(Long.parseLong(matcher.group(1)));
+            }
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format(Locale.ROOT, "segment-%06d%s", sequence, EXTENSION));
+    }
+
+    private void closeCurrent() {
+        if (current == null) return;
+        try {
+            current.close();
+        } catch (IOException ex) {
+            logger.fine("Could not close rollback journal segment: " + ex.getMessage());
+        }
+        current = null;
+        currentBytes = 0L;
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.hrobasti.timberella.journal;
+
+import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Collects the changes of one felling (or one leaf decay batch) on the main thread and hands them to the journal
+ * as a single record. Adding only stores references; encoding happens on the journal's writer thread.
+ */
+public final class JournalBatch {
+    private final FellingJournal journal;
+    private final UUID player;
+    private final String world;
+    private long[] positions = new long[16];
+    private BlockData[] before = new BlockData[16];
+    private Material[] after = new Material[16];
+    private int size;
+
+    JournalBatch(FellingJournal journal, UUID player, String world) {
+        this.journal = journal;
+        this.player = player;
+        this.world = world;
+    }
+
+    public void add(long pos, BlockData original, Material left) {
+        if (size == positions.length) {
+            int capacity = size * 2;
+            positions = Arrays.copyOf(positions, capacity);
+            before = Arrays.copyOf(before, capacity);
+            after = Arrays.copyOf(after, capacity);
+        }
+        positions[size] = pos;
+        before[size] = original;
+        after[size] = left;
+        size++;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Appends what was collected so far as one record and starts over. */
+    public void flush() {
+        if (size == 0) return;
+        journal.append(new JournalRecord(System.currentTimeMillis(), player, world,
+            Arrays.copyOf(positions, size), Arrays.copyOf(before, size), Arrays.copyOf(after, size)));
+        size = 0;
+        Arrays.fill(before, null);
+    }
+}
@@ -0,0 +1,202 @@
+package com.github.hrobasti.timberella.journal;
+
+import com.github.hrobasti.timberella.tree.BlockPos;
+import org.bukkit.Material;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Binary format of journal segments. A segment starts with {@link #MAGIC} and {@link #VERSION}, followed by
+ * records prefixed with their varint length.
+ * <p>
+ * A record stores its block data strings and left-behind materials once each in two palettes; every change is then
+ * a position delta to the previous change (zigzag varints, mostly one byte per axis for connected logs and leaves)
+ * plus two palette indices.
+ */
+public final class JournalCodec {
+    public static final int MAGIC = 0x54424a4c; // "TBJL"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 5;
+
+    /** A record as read back: block data is kept as strings and parsed on the main thread when restoring. */
+    public record Stored(long timestamp, UUID player, String world, long[] positions, String[] before,
+                         Material[] after) {}
+
+    private JournalCodec() {
+    }
+
+    public static void writeHeader(ByteBuffer out) {
+        out.putInt(MAGIC);
+        out.put((byte) VERSION);
+    }
+
+    /**
+     * Encodes one record including its length prefix into {@code out}, or returns false without writing anything
+     * when {@code out} is too small.
+     */
+    public static boolean encode(JournalRecord record, ByteBuffer out) {
+        Map<String, Integer> dataPalette = new HashMap<>();
+        List<byte[]> dataNames = new ArrayList<>();
+        Map<Material, Integer> materialPalette = new HashMap<>();
+        List<byte[]> materialNames = new ArrayList<>();
+        int[] dataIndex = new int[record.size()];
+        int[] materialIndex = new int[record.size()];
+        // Upper bound: fixed fields, palette strings, five bytes per varint.
+        int bound = 5 + 8 + 16 + 5 + utfLength(record.world()) + 15 + record.size() * 25;
+        for (int i = 0; i < record.size(); i++) {
+            String data = record.before()[i].getAsString();
+            Integer index = dataPalette.get(data);
+            if (index == null) {
+                index = dataNames.size();
+                dataPalette.put(data, index);
+                byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+                dataNames.add(bytes);
+                bound += 5 + bytes.length;
+            }
+            dataIndex[i] = index;
+            Material material = record.after()[i];
+            Integer left = materialPalette.get(material);
+            if (left == null) {
+                left = materialNames.size();
+                materialPalette.put(material, left);
+                byte[] bytes = material.name().getBytes(StandardCharsets.UTF_8);
+                materialNames.add(bytes);
+                bound += 5 + bytes.length;
+            }
+            materialIndex[i] = left;
+        }
+        if (out.remaining() < bound) {
+            return false;
+        }
+
+        int lengthAt = out.position();
+        out.position(lengthAt + 5); // length is patched in below as a padded five-byte varint
+        int payloadStart = out.position();
+        out.putLong(record.timestamp());
+        UUID player = record.player();
+        out.putLong(player != null ? player.getMostSignificantBits() : 0L);
+        out.putLong(player != null ? player.getLeastSignificantBits() : 0L);
+        putBytes(out, record.world().getBytes(StandardCharsets.UTF_8));
+        putVarInt(out, record.size());
+        putVarInt(out, dataNames.size());
+        for (byte[] name : dataNames) putBytes(out, name);
+        putVarInt(out, materialNames.size());
+        for (byte[] name : materialNames) putBytes(out, name);
+        int px = 0, py = 0, pz = 0;
+        for (int i = 0; i < record.size(); i++) {
+            long pos = record.positions()[i];
+            int x = BlockPos.x(pos), y = BlockPos.y(pos), z = BlockPos.z(pos);
+            putSigned(out, x - px);
+            putSigned(out, y - py);
+            putSigned(out, z - pz);
+            px = x;
+            py = y;
+            pz = z;
+            putVarInt(out, dataIndex[i]);
+            putVarInt(out, materialIndex[i]);
+        }
+        int length = out.position() - payloadStart;
+        for (int b = 0; b < 4; b++) {
+            out.put(lengthAt + b, (byte) ((length >>> (7 * b)) & 0x7F | 0x80));
+        }
+        out.put(lengthAt + 4, (byte) (length >>> 28));
+        return true;
+    }
+
+    /** Checks the segment header; returns false for files that are not journal segments. */
+    public static boolean readHeader(ByteBuffer in) {
+        return in.remaining() >= HEADER_BYTES && in.getInt() == MAGIC && (in.get() & 0xFF) <= VERSION;
+    }
+
+    /**
+     * Reads the next record, or returns null at the end of the segment, including a record cut short by a crash.
+     * Unknown materials are read as null.
+     */
+    public static Stored read(ByteBuffer in) throws IOException {
+        if (!in.hasRemaining()) return null;
+        try {
+            int length = getVarInt(in);
+            if (length <= 0 || length > in.remaining()) return null;
+            ByteBuffer payload = in.slice(in.position(), length);
+            in.position(in.position() + length);
+            long timestamp = payload.getLong();
+            long most = payload.getLong();
+            long least = payload.getLong();
+            UUID player = most == 0L && least == 0L ? null : new UUID(most, least);
+            String world = getString(payload);
+            int count = getVarInt(payload);
+            String[] dataNames = new String[getVarInt(payload)];
+            for (int i = 0; i < dataNames.length; i++) dataNames[i] = getString(payload);
+            Material[] materials = new Material[getVarInt(payload)];
+            for (int i = 0; i < materials.length; i++) materials[i] = Material.getMaterial(getString(payload));
+            long[] positions = new long[count];
+            String[] before = new String[count];
+            Material[] after = new Material[count];
+            int x = 0, y = 0, z = 0;
+            for (int i = 0; i < count; i++) {
+                x += getSigned(payload);
+                y += getSigned(payload);
+                z += getSigned(payload);
+                positions[i] = BlockPos.pack(x, y, z);
+                before[i] = dataNames[getVarInt(payload)];
+                after[i] = materials[getVarInt(payload)];
+            }
+            return new Stored(timestamp, player, world, positions, before, after);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
+            throw new IOException("Corrupt journal record", ex);
+        }
+    }
+
+    private static int utfLength(String value) {
+        return value.length() * 3 + 5;
+    }
+
+    private static void putBytes(ByteBuffer out, byte[] bytes) {
+        putVarInt(out, bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[getVarInt(in)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putVarInt(ByteBuffer out, int value) {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.put((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        out.put((byte) remaining);
+    }
+
+    private static int getVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.get() & 0xFF;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IndexOutOfBoundsException("Varint too long");
+    }
+
+    private static void putSigned(ByteBuffer out, int value) {
+        putVarInt(out, (value << 1) ^ (value >> 31));
+    }
+
+    private static int getSigned(ByteBuffer in) {
+        int raw = getVarInt(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+}
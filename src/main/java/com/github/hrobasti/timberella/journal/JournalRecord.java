@@ -0,0 +1,18 @@
+package com.github.hrobasti.timberella.journal;
+
+import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
+
+import java.util.UUID;
+
+/**
+ * Blocks one felling step changed: for each packed position the block data before Timberella touched it and the
+ * material it left behind (air for broken logs and leaves, the sapling for replanted spots).
+ */
+public record JournalRecord(long timestamp, UUID player, String world, long[] positions, BlockData[] before,
+                            Material[] after) {
+
+    public int size() {
+        return positions.length;
+    }
+}
@@ -0,0 +1,142 @@
+package com.github.hrobasti.timberella.journal;
+
+import com.github.hrobasti.timberella.TimberellaPlugin;
+import com.github.hrobasti.timberella.tree.BlockPos;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.command.CommandSender;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Restores journaled changes newest first, spending at most the configured time per tick. A block is only put back
+ * while it still is what the felling left there; anything built or changed since is skipped.
+ */
+public final class RollbackTask extends BukkitRunnable {
+    private static final int CHECK_EVERY = 32;
+
+    /** Which records (player) or which changes (area) a rollback covers. */
+    public record Filter(UUID player, String world, int minX, int maxX, int minZ, int maxZ) {
+        public static Filter player(UUID player) {
+            return new Filter(player, null, 0, 0, 0, 0);
+        }
+
+        public static Filter area(World world, int x, int z, int radius) {
+            return new Filter(null, world.getName(), x - radius, x + radius, z - radius, z + radius);
+        }
+
+        boolean matches(JournalCodec.Stored record) {
+            if (player != null) return player.equals(record.player());
+            return world.equals(record.world());
+        }
+
+        boolean matches(long pos) {
+            if (player != null) return true;
+            int x = BlockPos.x(pos);
+            int z = BlockPos.z(pos);
+            return x >= minX && x <= maxX && z >= minZ && z <= maxZ;
+        }
+    }
+
+    public record Change(String world, long pos, String before, Material after) {}
+
+    public record Plan(List<Change> changes, int records) {}
+
+    private final TimberellaPlugin plugin;
+    private final CommandSender sender;
+    private final List<Change> changes;
+    private final long budgetNanos;
+    private final Map<String, BlockData> parsed = new HashMap<>();
+    private final Map<String, World> worlds = new HashMap<>();
+    private int index;
+    private int restored;
+    private int skipped;
+
+    public RollbackTask(TimberellaPlugin plugin, CommandSender sender, List<Change> changes, long budgetNanos) {
+        this.plugin = plugin;
+        this.sender = sender;
+        this.changes = changes;
+        this.budgetNanos = Math.max(100_000L, budgetNanos);
+    }
+
+    /** Orders the matching changes newest first, so each block ends at the state before its first felling. */
+    public static Plan plan(List<JournalCodec.Stored> records, Filter filter) {
+        List<Change> changes = new ArrayList<>();
+        int matched = 0;
+        List<JournalCodec.Stored> ordered = new ArrayList<>(records);
+        ordered.sort((a, b) -> Long.compare(b.timestamp(), a.timestamp()));
+        for (JournalCodec.Stored record : ordered) {
+            if (!filter.matches(record)) continue;
+            int before = changes.size();
+            for (int i = record.positions().length - 1; i >= 0; i--) {
+                long pos = record.positions()[i];
+                if (filter.matches(pos)) {
+                    changes.add(new Change(record.world(), pos, record.before()[i], record.after()[i]));
+                }
+            }
+            if (changes.size() > before) matched++;
+        }
+        return new Plan(changes, matched);
+    }
+
+    public int size() {
+        return changes.size();
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        while (index < changes.size()) {
+            apply(changes.get(index++));
+            if (index % CHECK_EVERY == 0 && System.nanoTime() - start >= budgetNanos) {
+                return;
+            }
+        }
+        cancel();
+        plugin.rollbackFinished(this);
+        sender.sendMessage(plugin.messages().format(sender, "rollback.finished",
+            Map.of("restored", String.valueOf(restored), "skipped", String.valueOf(skipped))));
+    }
+
+    /** Stops without finishing, e.g. on plugin disable. */
+    public void abort() {
+        if (!isCancelled()) cancel();
+    }
+
+    private void apply(Change change) {
+        World world = worlds.computeIfAbsent(change.world(), Bukkit::getWorld);
+        if (world == null || change.after() == null) {
+            skipped++;
+            return;
+        }
+        Block block = world.getBlockAt(BlockPos.x(change.pos()), BlockPos.y(change.pos()), BlockPos.z(change.pos()));
+        if (block.getType() != change.after()) {
+            skipped++;
+            return;
+        }
+        BlockData data = parsed.computeIfAbsent(change.before(), RollbackTask::parse);
+        if (data == null) {
+            skipped++;
+            return;
+        }
+        // No physics: restored leaves keep their stored distance instead of reacting to half-restored trunks.
+        block.setBlockData(data, false);
+        restored++;
+    }
+
+    private static BlockData parse(String data) {
+        try {
+            return Bukkit.createBlockData(data);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
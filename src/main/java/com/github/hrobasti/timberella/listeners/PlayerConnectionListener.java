@@ -0,0 +1,60 @@
+package com.github.hrobasti.timberella.listeners;
+
+import com.destroystokyo.paper.event.player.PlayerLocaleChangeEvent;
+import com.github.hrobasti.timberella.TimberellaPlugin;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Locale;
+
+public class PlayerConnectionListener implements Listener {
+
+    private final TimberellaPlugin plugin;
+
+    public PlayerConnectionListener(TimberellaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        // Runs off the main thread: warm the toggle cache so the join itself never touches disk.
+        plugin.toggleStore().preload(event.getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            plugin.toggleStore().onQuit(event.getPlayer().getUniqueId());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        plugin.toggleStore().onJoin(event.getPlayer());
+        prefetchLocale(event.getPlayer().locale());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLocaleChange(PlayerLocaleChangeEvent event) {
+        prefetchLocale(event.locale());
+    }
+
+    private void prefetchLocale(Locale locale) {
+        // Parse a new language bundle off the main thread before the first message needs it.
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> plugin.messages().prefetch(locale));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        plugin.toggleStore().onQuit(event.getPlayer().getUniqueId());
+        plugin.sessions().remove(event.getPlayer().getUniqueId());
+    }
+}
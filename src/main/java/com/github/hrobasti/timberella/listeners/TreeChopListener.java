@@ -1,200 +1,82 @@
 package com.github.hrobasti.timberella.listeners;
 
 import com.github.hrobasti.timberella.TimberellaPlugin;
+import com.github.hrobasti.timberella.api.TreeFellEvent;
+import com.github.hrobasti.timberella.api.TreeShape;
+import com.github.hrobasti.timberella.bench.TreeBench;
+import com.github.hrobasti.timberella.journal.FellingJournal;
+import com.github.hrobasti.timberella.journal.JournalBatch;
+import com.github.hrobasti.timberella.metrics.FellingRecorder;
+import com.github.hrobasti.timberella.metrics.FellingStepEvent;
+import com.github.hrobasti.timberella.metrics.FellingTrace;
+import com.github.hrobasti.timberella.metrics.LeafDecayBatchEvent;
+import com.github.hrobasti.timberella.metrics.PerformanceCharts;
+import com.github.hrobasti.timberella.metrics.ReplantEvent;
+import com.github.hrobasti.timberella.metrics.RuntimeStats;
+import com.github.hrobasti.timberella.metrics.RuntimeStats.Counter;
+import com.github.hrobasti.timberella.metrics.RuntimeStats.Gauge;
+import com.github.hrobasti.timberella.metrics.RuntimeStats.Phase;
+import com.github.hrobasti.timberella.metrics.SlowFellingTracer;
+import com.github.hrobasti.timberella.metrics.TreeScanEvent;
+import com.github.hrobasti.timberella.session.FellingAdmission;
+import com.github.hrobasti.timberella.session.PlayerSession;
+import com.github.hrobasti.timberella.session.SessionRegistry;
+import com.github.hrobasti.timberella.tree.BlockPos;
+import com.github.hrobasti.timberella.tree.FellingCapture;
+import com.github.hrobasti.timberella.tree.LeafFrontier;
+import com.github.hrobasti.timberella.tree.ReplantPlanner;
+import com.github.hrobasti.timberella.tree.ScanStrategy;
+import com.github.hrobasti.timberella.tree.Species;
+import com.github.hrobasti.timberella.tree.TreeScanner;
+import com.github.hrobasti.timberella.tree.WorldBlockAccess;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.data.Waterlogged;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.Particle;
 import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerItemBreakEvent;
+import org.bukkit.event.player.PlayerItemDamageEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerItemMendEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+import org.bukkit.event.player.PlayerToggleSneakEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.inventory.meta.Damageable;
 
-import java.io.File;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.concurrent.atomic.LongAdder;
 
 public class TreeChopListener implements Listener {
     private final TimberellaPlugin plugin;
     private final NamespacedKey activeFellingKey;
-    private final Set<UUID> activeFellingPlayers = new HashSet<>();
-    private final Map<UUID, Long> lastFellingActionbarAt = new HashMap<>();
+    private final SessionRegistry sessions;
+    private final RuntimeStats stats;
+    private final SlowFellingTracer tracer;
+    private final PerformanceCharts charts;
+    private final FellingRecorder recorder;
+    private final FellingJournal journal;
+    private final FellingAdmission admission;
     private static final long FELLING_ACTIONBAR_COOLDOWN_MS = 900L;
 
-    private record LeafEntry(Block block, int depth, Block origin) {}
-
     private static final Set<String> AXE_MATERIALS = new HashSet<>(Arrays.asList(
             "WOODEN_AXE", "STONE_AXE", "IRON_AXE", "GOLDEN_AXE", "DIAMOND_AXE", "NETHERITE_AXE"
     ));
-    private static final Set<Material> OVERWORLD_SOILS = EnumSet.of(
-            Material.DIRT,
-            Material.GRASS_BLOCK,
-            Material.PODZOL,
-            Material.COARSE_DIRT,
-            Material.ROOTED_DIRT,
-            Material.MYCELIUM,
-            Material.MOSS_BLOCK,
-            Material.FARMLAND,
-            Material.MUD,
-            Material.MUDDY_MANGROVE_ROOTS
-    );
-        private static final Set<Material> MANGROVE_SOILS = EnumSet.of(
-            Material.MUD,
-            Material.MUDDY_MANGROVE_ROOTS,
-            Material.ROOTED_DIRT,
-            Material.DIRT,
-            Material.GRASS_BLOCK,
-            Material.PODZOL,
-            Material.MANGROVE_ROOTS
-        );
-    private static final Set<Material> FUNGUS_SOILS = EnumSet.of(
-            Material.CRIMSON_NYLIUM,
-            Material.WARPED_NYLIUM,
-            Material.NETHERRACK
-    );
-
-    private enum Species {
-        MANGROVE("mangrove", true, 128, 9, 32),
-        JUNGLE("jungle", true, -1, 8, 32),
-        SPRUCE("spruce", true, -1, 5, 30),
-        OAK("oak", true, -1, 6, 24),
-        PALE_OAK("pale_oak", true, -1, 5, 16),
-        DARK_OAK("dark_oak", true, -1, 6, 12),
-        BIRCH("birch", true, -1, 2, 12),
-        ACACIA("acacia", true, -1, 8, 12),
-        CHERRY("cherry", true, -1, 9, 12),
-        MUSHROOM_BROWN("mushroom_brown", true, -1, 4, 12),
-        MUSHROOM_RED("mushroom_red", true, -1, 2, 12),
-        WARPED("warped", true, -1, 6, 32),
-        CRIMSON("crimson", true, -1, 6, 32);
-
-        private final String configKey;
-        private final boolean defaultEnabled;
-        private final int defaultMaxBlocks;
-        private final int defaultHorizontalRadius;
-        private final int defaultVerticalRadius;
-
-        Species(String configKey, boolean defaultEnabled, int defaultMaxBlocks,
-                int defaultHorizontalRadius, int defaultVerticalRadius) {
-            this.configKey = configKey;
-            this.defaultEnabled = defaultEnabled;
-            this.defaultMaxBlocks = defaultMaxBlocks;
-            this.defaultHorizontalRadius = defaultHorizontalRadius;
-            this.defaultVerticalRadius = defaultVerticalRadius;
-        }
-
-        String configKey() {
-            return configKey;
-        }
-
-        boolean defaultEnabled() {
-            return defaultEnabled;
-        }
-
-        int defaultMaxBlocks() {
-            return defaultMaxBlocks;
-        }
-
-        int defaultHorizontalRadius() {
-            return defaultHorizontalRadius;
-        }
-
-        int defaultVerticalRadius() {
-            return defaultVerticalRadius;
-        }
-    }
-
-    private static final Map<Material, Species> MATERIAL_TO_SPECIES = new EnumMap<>(Material.class);
-
-    static {
-        registerSpeciesMaterials(Species.MANGROVE,
-                Material.MANGROVE_LOG,
-                Material.STRIPPED_MANGROVE_LOG,
-                Material.MANGROVE_WOOD,
-                Material.STRIPPED_MANGROVE_WOOD,
-                Material.MANGROVE_ROOTS,
-                Material.MUDDY_MANGROVE_ROOTS);
-        registerSpeciesMaterials(Species.JUNGLE,
-                Material.JUNGLE_LOG,
-                Material.STRIPPED_JUNGLE_LOG,
-                Material.JUNGLE_WOOD,
-                Material.STRIPPED_JUNGLE_WOOD);
-        registerSpeciesMaterials(Species.SPRUCE,
-                Material.SPRUCE_LOG,
-                Material.STRIPPED_SPRUCE_LOG,
-                Material.SPRUCE_WOOD,
-                Material.STRIPPED_SPRUCE_WOOD);
-        registerSpeciesMaterials(Species.OAK,
-            Material.OAK_LOG,
-            Material.STRIPPED_OAK_LOG,
-            Material.OAK_WOOD,
-            Material.STRIPPED_OAK_WOOD);
-        registerSpeciesMaterialsByName(Species.PALE_OAK,
-            "PALE_OAK_LOG",
-            "STRIPPED_PALE_OAK_LOG",
-            "PALE_OAK_WOOD",
-            "STRIPPED_PALE_OAK_WOOD");
-        registerSpeciesMaterials(Species.DARK_OAK,
-                Material.DARK_OAK_LOG,
-                Material.STRIPPED_DARK_OAK_LOG,
-                Material.DARK_OAK_WOOD,
-                Material.STRIPPED_DARK_OAK_WOOD);
-        registerSpeciesMaterials(Species.BIRCH,
-                Material.BIRCH_LOG,
-                Material.STRIPPED_BIRCH_LOG,
-                Material.BIRCH_WOOD,
-                Material.STRIPPED_BIRCH_WOOD);
-        registerSpeciesMaterials(Species.ACACIA,
-                Material.ACACIA_LOG,
-                Material.STRIPPED_ACACIA_LOG,
-                Material.ACACIA_WOOD,
-                Material.STRIPPED_ACACIA_WOOD);
-        registerSpeciesMaterials(Species.CHERRY,
-                Material.CHERRY_LOG,
-                Material.STRIPPED_CHERRY_LOG,
-                Material.CHERRY_WOOD,
-                Material.STRIPPED_CHERRY_WOOD);
-        registerSpeciesMaterials(Species.MUSHROOM_BROWN,
-                Material.BROWN_MUSHROOM_BLOCK);
-        registerSpeciesMaterials(Species.MUSHROOM_RED,
-                Material.RED_MUSHROOM_BLOCK);
-        registerSpeciesMaterials(Species.WARPED,
-                Material.WARPED_STEM,
-                Material.STRIPPED_WARPED_STEM,
-                Material.WARPED_HYPHAE,
-                Material.STRIPPED_WARPED_HYPHAE);
-        registerSpeciesMaterials(Species.CRIMSON,
-                Material.CRIMSON_STEM,
-                Material.STRIPPED_CRIMSON_STEM,
-                Material.CRIMSON_HYPHAE,
-                Material.STRIPPED_CRIMSON_HYPHAE);
-    }
-
-    private static void registerSpeciesMaterials(Species species, Material... materials) {
-        for (Material material : materials) {
-            if (material != null) {
-                MATERIAL_TO_SPECIES.put(material, species);
-            }
-        }
-    }
-
-    private static void registerSpeciesMaterialsByName(Species species, String... materialNames) {
-        for (String name : materialNames) {
-            if (name == null) continue;
-            Material material = Material.matchMaterial(name);
-            if (material != null) {
-                MATERIAL_TO_SPECIES.put(material, species);
-            }
-        }
-    }
-
     private static final class SpeciesLimit {
         boolean enabled;
         int maxBlocks;
@@ -202,6 +84,8 @@ public class TreeChopListener implements Listener {
         int maxVerticalRadius;
     }
 
+    private record ScanLimits(int maxBlocks, int horizontalRadius, int verticalRadius) {}
+
     private final Map<Species, SpeciesLimit> speciesLimits = new EnumMap<>(Species.class);
     private final Set<Material> normalLogs = new HashSet<>();
     private final Set<Material> strippedLogs = new HashSet<>();
@@ -212,6 +96,9 @@ public class TreeChopListener implements Listener {
     private final Set<Material> allowedAxes = new HashSet<>();
     private final Map<Material, Material> saplingMappings = new EnumMap<>(Material.class);
     private final Set<Material> allowedSaplings = EnumSet.noneOf(Material.class);
+    private final Set<Material> treeMaterials = EnumSet.noneOf(Material.class);
+    private TreeScanner scanner;
+    private ReplantPlanner replantPlanner;
     private final Map<Material, Set<Material>> leafMappings = new EnumMap<>(Material.class);
     private boolean timberEnabled = true;
     private boolean leavesDecayEnabled = true;
@@ -228,15 +115,30 @@ public class TreeChopListener implements Listener {
     private boolean durabilityModeAll = false;
     private double durabilityMultiplier = 0.5;
     private long breakIntervalTicks = 2L;
+    private boolean rateLimitEnabled = false;
+    private boolean rateLimitQueue = false;
+    private long rateLimitMaxWaitNanos = 0L;
+    private final List<RateTier> rateTiers = new ArrayList<>();
+
+    /** Token-bucket settings of one rate-limit tier; the first entry is the default without a permission. */
+    private record RateTier(String permission, double blocksPerSecond, int burst) {}
 
     public TreeChopListener(TimberellaPlugin plugin) {
         this.plugin = plugin;
         this.activeFellingKey = new NamespacedKey(plugin, "active_felling_id");
+        this.sessions = plugin.sessions();
+        this.stats = plugin.stats();
+        this.tracer = plugin.tracer();
+        this.charts = plugin.performanceCharts();
+        this.recorder = plugin.recorder();
+        this.journal = plugin.journal();
+        this.admission = plugin.admission();
         loadCategoryMaps();
     }
 
     public void refresh() {
         loadCategoryMaps();
+        sessions.invalidateCaches();
     }
     private void loadCategoryMaps() {
         normalLogs.clear();
@@ -295,6 +197,50 @@ public class TreeChopListener implements Listener {
         durabilityModeAll = mode != null && mode.equalsIgnoreCase("all");
         durabilityMultiplier = plugin.getConfig().getDouble("tools.durability-multiplier", 0.5);
         breakIntervalTicks = Math.max(1L, plugin.getConfig().getLong("break-interval-ticks", 2L));
+        loadRateLimit();
+        treeMaterials.clear();
+        treeMaterials.addAll(normalLogs);
+        treeMaterials.addAll(strippedLogs);
+        treeMaterials.addAll(woods);
+        treeMaterials.addAll(strippedWoods);
+        treeMaterials.addAll(fences);
+        treeMaterials.addAll(additions);
+        scanner = new TreeScanner(treeMaterials, includeDiagonals);
+        replantPlanner = new ReplantPlanner(saplingMappings, allowedSaplings);
+        stats.publishSettings(new RuntimeStats.Settings(breakIntervalTicks, maxBlocks, leavesDecayIntervalTicks,
+            leavesDecayBatchSize, leavesDecayRadius, leavesDecayMaxDistance));
+    }
+
+    private void loadRateLimit() {
+        rateTiers.clear();
+        ConfigurationSection section = plugin.getConfig().getConfigurationSection("rate-limit");
+        if (section == null) {
+            rateLimitEnabled = false;
+            rateTiers.add(new RateTier(null, 20.0, 256));
+            return;
+        }
+        rateLimitEnabled = section.getBoolean("enabled", false);
+        rateLimitQueue = "queue".equalsIgnoreCase(section.getString("over-limit", "downgrade"));
+        rateLimitMaxWaitNanos = TimeUnit.SECONDS.toNanos(Math.max(0, section.getInt("max-queue-seconds", 10)));
+        RateTier base = readRateTier(null, section, 20.0, 256);
+        rateTiers.add(base);
+        ConfigurationSection tiers = section.getConfigurationSection("tiers");
+        if (tiers == null) return;
+        for (String name : tiers.getKeys(false)) {
+            ConfigurationSection tier = tiers.getConfigurationSection(name);
+            if (tier == null) {
+                plugin.getLogger().fine("Ignoring rate-limit tier without settings: " + name);
+                continue;
+            }
+            rateTiers.add(readRateTier("timberella.ratelimit." + name.toLowerCase(Locale.ROOT), tier,
+                base.blocksPerSecond(), base.burst()));
+        }
+    }
+
+    private static RateTier readRateTier(String permission, ConfigurationSection source, double blocksPerSecond, int burst) {
+        return new RateTier(permission,
+            Math.max(0.1, source.getDouble("blocks-per-second", blocksPerSecond)),
+            Math.max(1, source.getInt("burst", burst)));
     }
 
     private void loadMap(String path, Set<Material> target) {
@@ -359,103 +305,301 @@ public class TreeChopListener implements Listener {
 
     @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
     public void onBreak(BlockBreakEvent event) {
-        Player player = event.getPlayer();
+        // Every block broken on the server comes through here; anything but a tree block leaves after one lookup.
         Block start = event.getBlock();
-        ItemStack tool = player.getInventory().getItemInMainHand();
-
-        if (!plugin.isEnabledFor(player.getUniqueId())) return;
         if (!isTreeMaterial(start.getType())) return;
-        if (!isAxe(tool)) return;
-        if (!hasMinDurability(tool)) return;
-        if (!sneakModeAllows(player.isSneaking())) return;
-
-        boolean hasTimberPermission = player.hasPermission("timberella.use");
+        Player player = event.getPlayer();
+        PlayerSession session = sessions.get(player);
+        if (!isEligibleToFell(session, player)) return;
+        ItemStack tool = player.getInventory().getItemInMainHand();
 
-        int treeMaxBlocks = maxBlocks;
-        int horizontalRadiusLimit = -1;
-        int verticalRadiusLimit = -1;
-        Species species = detectSpecies(start);
-        SpeciesLimit limit = species != null ? speciesLimits.get(species) : null;
-        if (limit != null && limit.enabled) {
-            int speciesCap = limit.maxBlocks;
-            if (speciesCap > 0 && speciesCap < maxBlocks) {
-                treeMaxBlocks = Math.min(treeMaxBlocks, speciesCap);
-            }
-            if (limit.maxHorizontalRadius > 0) {
-                horizontalRadiusLimit = limit.maxHorizontalRadius;
-            }
-            if (limit.maxVerticalRadius > 0) {
-                verticalRadiusLimit = limit.maxVerticalRadius;
-            }
+        boolean hasTimberPermission = hasTimberPermission(session, player);
+
+        final WorldBlockAccess access = new WorldBlockAccess(start.getWorld());
+        long speciesStart = stats.start();
+        Species species = Species.detect(access, start.getX(), start.getY(), start.getZ());
+        long speciesNanos = stats.stop(Phase.SPECIES, speciesStart);
+        FellingTrace trace = tracer.begin(start.getWorld().getName(), start.getX(), start.getY(), start.getZ(),
+                species != null ? species.configKey() : null);
+        trace.add(Phase.SPECIES, speciesNanos);
+        ScanLimits limits = limitsFor(species);
+        int treeMaxBlocks = limits.maxBlocks();
+        int horizontalRadiusLimit = limits.horizontalRadius();
+        int verticalRadiusLimit = limits.verticalRadius();
+        TreeScanEvent scanEvent = new TreeScanEvent();
+        scanEvent.begin();
+        long scanStart = stats.start();
+        ScanStrategy.Cache scanView = ScanStrategy.forSpecies(species).view(access, start.getY(), verticalRadiusLimit);
+        TreeScanner.Result scan = scanner.scan(scanView, start.getX(), start.getY(), start.getZ(), treeMaxBlocks,
+                horizontalRadiusLimit, verticalRadiusLimit);
+        countScanReads(scanView);
+        long scanNanos = stats.stop(Phase.SCAN, scanStart);
+        trace.add(Phase.SCAN, scanNanos);
+        charts.recordScan(scanNanos);
+        final boolean scanTruncated = scan.truncated();
+        scanEvent.end();
+        if (scanEvent.shouldCommit()) {
+            scanEvent.world = start.getWorld().getName();
+            scanEvent.species = species != null ? species.configKey() : "other";
+            scanEvent.blockCount = scan.size();
+            scanEvent.blockLimit = treeMaxBlocks;
+            scanEvent.worldReads = scanView.worldReads();
+            scanEvent.cachedReads = scanView.cachedReads();
+            scanEvent.commit();
+        }
+        final long startPos = BlockPos.pack(start.getX(), start.getY(), start.getZ());
+        if (scan.size() == 0) {
+            scan = scanner.single(access, start.getX(), start.getY(), start.getZ());
         }
-        List<Block> sequence = collectConnectedLogs(start, treeMaxBlocks, includeDiagonals,
+        long[] sequence = scan.positions();
+        trace.blocks(sequence.length);
+        if (recorder.sample()) {
+            recordFelling(access, start, species, sequence, scanTruncated, treeMaxBlocks,
                 horizontalRadiusLimit, verticalRadiusLimit);
-        if (sequence.isEmpty()) {
-            sequence = Collections.singletonList(start);
         }
-        final Map<Long, Material> originalMaterials = captureOriginalMaterials(sequence);
 
         if (hasTimberPermission && timberEnabled) {
-            if (activeFellingPlayers.contains(player.getUniqueId())) {
+            if (session.hasActiveFelling()) {
                 // Prevent overlapping felling tasks for the same player.
                 // Let vanilla breaking happen for this block; we just don't start a second timber task.
-                sendFellingAlreadyRunningActionbar(player);
+                sendFellingAlreadyRunningActionbar(session, player);
+                trace.release();
                 return;
             }
             try {
                 var loc = start.getLocation().add(0.5, 0.5, 0.5);
                 start.getWorld().spawnParticle(Particle.SWEEP_ATTACK, loc, 1, 0, 0, 0, 0);
             } catch (Throwable ignored) {}
-            if (sequence.size() <= 1) {
-                handlePostActions(player, tool, sequence, false, originalMaterials);
+            if (sequence.length <= 1) {
+                handlePostActions(player, tool, access, scan, false, trace);
+                trace.release();
                 return;
             }
 
+            FellingAdmission.Ticket ticket = admission.tryAdmit(sequence.length - 1);
+            if (ticket == null && admission.queueFull()) {
+                // Server-wide queue is full: vanilla breaks this block only.
+                sendFellingBusyActionbar(session, player);
+                stats.increment(Counter.FELLINGS_SHED);
+                trace.release();
+                return;
+            }
+
+            int charged = 0;
+            long rateWaitTicks = 0L;
+            if (rateLimitEnabled) {
+                rateWaitTicks = admitFelling(session, player, sequence.length);
+                if (rateWaitTicks < 0L) {
+                    // Over budget: vanilla breaks this block, the rest of the tree stays.
+                    if (ticket != null) ticket.release();
+                    sendFellingRateLimitedActionbar(session, player);
+                    stats.increment(Counter.FELLINGS_RATE_LIMITED);
+                    trace.release();
+                    return;
+                }
+                charged = sequence.length;
+            }
+
+            // Fired only once the felling holds its admission share and tokens, so listeners see fellings that
+            // will actually run; a cancelled or trimmed plan hands back what it no longer needs.
+            if (TreeFellEvent.getHandlerList().getRegisteredListeners().length > 0) {
+                TreeFellEvent fellEvent = new TreeFellEvent(player,
+                    new TreeShape(start.getWorld(), species, sequence, scanTruncated), tool);
+                plugin.getServer().getPluginManager().callEvent(fellEvent);
+                if (fellEvent.isCancelled()) {
+                    if (ticket != null) ticket.release();
+                    refundFelling(session, player, charged);
+                    trace.release();
+                    return;
+                }
+                long[] planned = plannedPositions(fellEvent);
+                if (planned.length < sequence.length) {
+                    sequence = planned;
+                    scan = scan.retain(sequence);
+                    if (sequence.length <= 1) {
+                        if (ticket != null) ticket.release();
+                        refundFelling(session, player, charged);
+                        handlePostActions(player, tool, access, scan, false, trace);
+                        trace.release();
+                        return;
+                    }
+                    if (ticket != null) ticket.shrink(sequence.length - 1);
+                    if (charged > 0) {
+                        refundFelling(session, player, charged - sequence.length);
+                        charged = sequence.length;
+                    }
+                }
+            }
+
+            long startDelay = breakIntervalTicks;
+            if (rateWaitTicks > 0L) {
+                startDelay = Math.max(startDelay, rateWaitTicks);
+                sendFellingQueuedActionbar(session, player, rateWaitTicks * 50_000_000L);
+            }
+
             UUID fellingId = markToolForFelling(tool);
             if (fellingId == null) {
                 // Tool couldn't be tagged; fall back to safe behavior (no extra durability, no overwrites)
-                handlePostActions(player, tool, sequence, false, originalMaterials);
+                if (ticket != null) ticket.release();
+                refundFelling(session, player, charged);
+                handlePostActions(player, tool, access, scan, false, trace);
+                trace.release();
                 return;
             }
 
-            activeFellingPlayers.add(player.getUniqueId());
-            final List<Block> allLogs = new ArrayList<>(sequence);
-            final List<Block> toBreak = new ArrayList<>(sequence.subList(1, sequence.size()));
+            final long[] allLogs = sequence;
             final ItemStack usedTool = tool;
             final Player p = player;
             final long interval = breakIntervalTicks;
-            final Map<Long, Material> capturedMaterials = originalMaterials;
-            new BukkitRunnable() {
-                int idx = 0;
-                @Override
-                public void run() {
-                    if (!p.isOnline()) {
-                        clearToolFellingTag(p, fellingId);
-                        activeFellingPlayers.remove(p.getUniqueId());
-                        cancel();
-                        return;
-                    }
+            final long firstDelay = startDelay;
+            final TreeScanner.Result felled = scan;
+            final LongAdder speciesBlocks = stats.speciesBlocks(species != null ? species.configKey() : "other");
+            final JournalBatch journalBatch = journalBatch(player, start.getWorld());
+            if (journalBatch != null) {
+                // Vanilla breaks this one after the event; a rollback skips it if that never happened.
+                journalBatch.add(startPos, start.getBlockData(), Material.AIR);
+            }
+            Consumer<FellingAdmission.Ticket> launch = admitted -> {
+                BukkitTask task = new BukkitRunnable() {
+                    int idx = 1; // position 0 is the block the player broke
+                    @Override
+                    public void run() {
+                        if (!p.isOnline()) {
+                            if (journalBatch != null) journalBatch.flush();
+                            clearToolFellingTag(p, fellingId);
+                            session.finishFelling(fellingId);
+                            stats.increment(Counter.FELLINGS_ABORTED);
+                            stats.adjust(Gauge.QUEUED_BLOCKS, -(allLogs.length - idx));
+                            admitted.release();
+                            trace.abort();
+                            trace.release();
+                            cancel();
+                            return;
+                        }
 
-                    if (idx >= toBreak.size()) {
-                        applyDurabilityCostForTaggedTool(p, fellingId, allLogs.size());
-                        clearToolFellingTag(p, fellingId);
-                        handlePostActions(p, usedTool, allLogs, true, capturedMaterials);
-                        activeFellingPlayers.remove(p.getUniqueId());
-                        cancel();
-                        return;
-                    }
-                    Block b = toBreak.get(idx++);
-                    if (isTreeMaterial(b.getType())) {
-                        b.breakNaturally(usedTool, true);
+                        if (idx >= allLogs.length) {
+                            if (journalBatch != null) journalBatch.flush();
+                            admitted.release();
+                            applyDurabilityCostForTaggedTool(p, fellingId, allLogs.length);
+                            clearToolFellingTag(p, fellingId);
+                            handlePostActions(p, usedTool, access, felled, true, trace);
+                            session.finishFelling(fellingId);
+                            trace.release();
+                            cancel();
+                            return;
+                        }
+                        FellingStepEvent stepEvent = new FellingStepEvent();
+                        stepEvent.begin();
+                        long tickStart = stats.start();
+                        long pos = allLogs[idx++];
+                        Block b = access.block(pos);
+                        stats.adjust(Gauge.QUEUED_BLOCKS, -1);
+                        admitted.progress(1);
+                        boolean broken = isTreeMaterial(b.getType());
+                        if (broken) {
+                            var original = journalBatch != null ? b.getBlockData() : null;
+                            b.breakNaturally(usedTool, true);
+                            if (journalBatch != null) journalBatch.add(pos, original, b.getType());
+                            stats.increment(Counter.BLOCKS_BROKEN);
+                            speciesBlocks.increment();
+                        }
+                        trace.add(Phase.FELLING_TICK, stats.stop(Phase.FELLING_TICK, tickStart));
+                        stepEvent.end();
+                        if (stepEvent.shouldCommit()) {
+                            stepEvent.species = species != null ? species.configKey() : "other";
+                            stepEvent.broken = broken;
+                            stepEvent.remaining = allLogs.length - idx;
+                            stepEvent.commit();
+                        }
                     }
-                }
-            }.runTaskTimer(plugin, interval, interval);
+                }.runTaskTimer(plugin, firstDelay, interval);
+                session.startFelling(fellingId, task);
+                charts.recordFelling(species != null ? species.configKey() : "other", allLogs.length, scanTruncated);
+                stats.increment(Counter.FELLINGS_STARTED);
+                stats.adjust(Gauge.QUEUED_BLOCKS, allLogs.length - 1);
+            };
+            if (rateWaitTicks > 0L || ticket == null) {
+                // Once per felling, whether the rate limit, the admission queue or both hold it back.
+                stats.increment(Counter.FELLINGS_QUEUED);
+            }
+            if (ticket != null) {
+                launch.accept(ticket);
+                return;
+            }
+            // Marked as running while it waits, so the player cannot queue a second felling.
+            session.startFelling(fellingId, null);
+            stats.adjust(Gauge.WAITING_FELLINGS, 1);
+            int position = admission.enqueue(player.getUniqueId(), allLogs.length - 1, admitted -> {
+                stats.adjust(Gauge.WAITING_FELLINGS, -1);
+                launch.accept(admitted);
+            }, () -> {
+                stats.adjust(Gauge.WAITING_FELLINGS, -1);
+                if (journalBatch != null) journalBatch.flush();
+                clearToolFellingTag(p, fellingId);
+                session.finishFelling(fellingId);
+                stats.increment(Counter.FELLINGS_ABORTED);
+                trace.abort();
+                trace.release();
+            });
+            sendFellingWaitingActionbar(player, position);
             return;
         }
 
         // Timber disabled: still allow optional post-actions using the initial block
-        List<Block> single = new ArrayList<>(Collections.singletonList(start));
-        handlePostActions(player, tool, single, false, originalMaterials);
+        handlePostActions(player, tool, access, scan.retain(new long[] {startPos}), false, trace);
+        trace.release();
+    }
+
+    private ScanLimits limitsFor(Species species) {
+        int treeMaxBlocks = maxBlocks;
+        int horizontalRadiusLimit = -1;
+        int verticalRadiusLimit = -1;
+        SpeciesLimit limit = species != null ? speciesLimits.get(species) : null;
+        if (limit != null && limit.enabled) {
+            int speciesCap = limit.maxBlocks;
+            if (speciesCap > 0 && speciesCap < maxBlocks) {
+                treeMaxBlocks = Math.min(treeMaxBlocks, speciesCap);
+            }
+            if (limit.maxHorizontalRadius > 0) {
+                horizontalRadiusLimit = limit.maxHorizontalRadius;
+            }
+            if (limit.maxVerticalRadius > 0) {
+                verticalRadiusLimit = limit.maxVerticalRadius;
+            }
+        }
+        return new ScanLimits(treeMaxBlocks, horizontalRadiusLimit, verticalRadiusLimit);
+    }
+
+    /** Scans the tree at {@code start} with the current settings, as a felling would; main thread only. */
+    public TreeShape scanTree(Block start) {
+        if (!isTreeMaterial(start.getType())) {
+            return TreeShape.empty(start.getWorld());
+        }
+        WorldBlockAccess access = new WorldBlockAccess(start.getWorld());
+        Species species = Species.detect(access, start.getX(), start.getY(), start.getZ());
+        ScanLimits limits = limitsFor(species);
+        ScanStrategy.Cache scanView = ScanStrategy.forSpecies(species).view(access, start.getY(), limits.verticalRadius());
+        TreeScanner.Result scan = scanner.scan(scanView, start.getX(), start.getY(), start.getZ(), limits.maxBlocks(),
+            limits.horizontalRadius(), limits.verticalRadius());
+        countScanReads(scanView);
+        long[] positions = scan.size() > 0 ? scan.positions()
+            : new long[] {BlockPos.pack(start.getX(), start.getY(), start.getZ())};
+        return new TreeShape(start.getWorld(), species, positions, scan.truncated());
+    }
+
+    private void countScanReads(ScanStrategy.Cache scanView) {
+        stats.add(RuntimeStats.Counter.SCAN_WORLD_READS, scanView.worldReads());
+        stats.add(RuntimeStats.Counter.SCAN_CACHED_READS, scanView.cachedReads());
+    }
+
+    private static long[] plannedPositions(TreeFellEvent event) {
+        List<Block> planned = event.getPlannedBlocks();
+        long[] positions = new long[planned.size()];
+        for (int i = 0; i < positions.length; i++) {
+            Block block = planned.get(i);
+            positions[i] = BlockPos.pack(block.getX(), block.getY(), block.getZ());
+        }
+        return positions;
     }
 
     private boolean sneakModeAllows(boolean sneaking) {
@@ -467,6 +611,148 @@ public class TreeChopListener implements Listener {
         }
     }
 
+    /** Toggle, tool, durability and sneak mode, cached per player until one of them changes. */
+    private boolean isEligibleToFell(PlayerSession session, Player player) {
+        long now = System.currentTimeMillis();
+        int cached = session.cachedEligibility(now, sessions.generation());
+        if (cached >= 0) return cached == 1;
+        ItemStack tool = player.getInventory().getItemInMainHand();
+        boolean eligible = plugin.isEnabledFor(player.getUniqueId())
+                && isEligibleTool(session, tool)
+                && hasMinDurability(tool)
+                && sneakModeAllows(player.isSneaking());
+        session.cacheEligibility(eligible, now, sessions.generation());
+        return eligible;
+    }
+
+    // Events that change an input of isEligibleToFell. Most fire before the change is applied, so the result is
+    // only dropped here and worked out again on the next tree break.
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onHeldItemChange(PlayerItemHeldEvent event) {
+        invalidateEligibility(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSwapHands(PlayerSwapHandItemsEvent event) {
+        invalidateEligibility(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onToggleSneak(PlayerToggleSneakEvent event) {
+        invalidateEligibility(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemDamage(PlayerItemDamageEvent event) {
+        invalidateEligibility(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemMend(PlayerItemMendEvent event) {
+        invalidateEligibility(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemBreak(PlayerItemBreakEvent event) {
+        invalidateEligibility(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDropItem(PlayerDropItemEvent event) {
+        invalidateEligibility(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPickupItem(EntityPickupItemEvent event) {
+        if (event.getEntity() instanceof Player player) {
+            invalidateEligibility(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClose(InventoryCloseEvent event) {
+        if (event.getPlayer() instanceof Player player) {
+            invalidateEligibility(player);
+        }
+    }
+
+    private void invalidateEligibility(Player player) {
+        PlayerSession session = sessions.peek(player.getUniqueId());
+        if (session != null) {
+            session.invalidateEligibility();
+        }
+    }
+
+    private boolean isEligibleTool(PlayerSession session, ItemStack stack) {
+        if (stack == null) return false;
+        Material type = stack.getType();
+        Boolean cached = session.cachedToolEligibility(type, sessions.generation());
+        if (cached != null) {
+            stats.increment(Counter.TOOL_CACHE_HITS);
+            return cached;
+        }
+        stats.increment(Counter.TOOL_CACHE_MISSES);
+        boolean eligible = isAxe(stack);
+        session.cacheToolEligibility(type, eligible, sessions.generation());
+        return eligible;
+    }
+
+    private boolean hasTimberPermission(PlayerSession session, Player player) {
+        long now = System.currentTimeMillis();
+        Boolean cached = session.cachedTimberPermission(now, sessions.generation());
+        if (cached != null) {
+            stats.increment(Counter.PERMISSION_CACHE_HITS);
+            return cached;
+        }
+        stats.increment(Counter.PERMISSION_CACHE_MISSES);
+        boolean allowed = player.hasPermission("timberella.use");
+        session.cacheTimberPermission(allowed, now, sessions.generation());
+        return allowed;
+    }
+
+    /**
+     * Charges one token per log against the player's bucket. Returns 0 when the felling may start now, the number
+     * of ticks to hold it back when it is queued, or -1 when it is downgraded to a single block.
+     */
+    private long admitFelling(PlayerSession session, Player player, int logs) {
+        RateTier tier = rateTier(session, player);
+        long now = System.nanoTime();
+        if (session.fellingBudget().tryTake(logs, tier.blocksPerSecond(), tier.burst(), now)) {
+            return 0L;
+        }
+        if (!rateLimitQueue) return -1L;
+        long waitNanos = session.fellingBudget().waitNanos(logs, tier.blocksPerSecond(), tier.burst(), now);
+        if (waitNanos > rateLimitMaxWaitNanos) return -1L;
+        // Reserve the tokens now so the felling cannot be overtaken while it waits.
+        session.fellingBudget().take(logs, tier.blocksPerSecond(), tier.burst(), now);
+        return Math.max(1L, (waitNanos + 49_999_999L) / 50_000_000L);
+    }
+
+    /** Gives back tokens charged by {@link #admitFelling} for logs that will not be felled after all. */
+    private void refundFelling(PlayerSession session, Player player, int logs) {
+        if (logs <= 0) return;
+        session.fellingBudget().give(logs, rateTier(session, player).burst());
+    }
+
+    /** The granted tier with the highest refill rate; permission lookups are cached like the timber permission. */
+    private RateTier rateTier(PlayerSession session, Player player) {
+        long now = System.currentTimeMillis();
+        int cached = session.cachedRateTier(now, sessions.generation());
+        if (cached >= 0 && cached < rateTiers.size()) {
+            return rateTiers.get(cached);
+        }
+        int best = 0;
+        for (int i = 1; i < rateTiers.size(); i++) {
+            RateTier tier = rateTiers.get(i);
+            if (tier.blocksPerSecond() > rateTiers.get(best).blocksPerSecond() && player.hasPermission(tier.permission())) {
+                best = i;
+            }
+        }
+        session.cacheRateTier(best, now, sessions.generation());
+        return rateTiers.get(best);
+    }
+
     private boolean isAxe(ItemStack stack) {
         if (stack == null) return false;
         Material type = stack.getType();
@@ -488,152 +774,86 @@ public class TreeChopListener implements Listener {
     }
 
     private boolean isTreeMaterial(Material m) {
-        if (m == null) return false;
-        // Species extraction not currently required with boolean material maps.
-        // Custom blocks always allowed
-        // Legacy global customMaterials removed in favor of per-category sets
-
-        if (normalLogs.contains(m)) return true;
-        if (strippedLogs.contains(m)) return true;
-        if (woods.contains(m)) return true;
-        if (strippedWoods.contains(m)) return true;
-        if (fences.contains(m)) return true;
-        if (additions.contains(m)) return true;
-        return false;
+        // Union of all enabled categories, rebuilt in loadCategoryMaps()
+        return scanner.isTreeMaterial(m);
     }
 
-    private Species detectSpecies(Block block) {
-        if (block == null) return null;
-        Material type = block.getType();
-        Species mapped = MATERIAL_TO_SPECIES.get(type);
-        if (mapped != null) {
-            return mapped;
-        }
-        if (type == Material.MUSHROOM_STEM) {
-            return detectMushroomSpecies(block);
-        }
-        return null;
-    }
-
-    private Species detectMushroomSpecies(Block origin) {
-        if (origin == null) return null;
-        for (int dy = 1; dy <= 6; dy++) {
-            Block candidate = origin.getRelative(0, dy, 0);
-            Material mat = candidate.getType();
-            Species species = MATERIAL_TO_SPECIES.get(mat);
-            if (species == Species.MUSHROOM_BROWN || species == Species.MUSHROOM_RED) {
-                return species;
-            }
-            if (mat != Material.MUSHROOM_STEM) {
-                break;
-            }
-        }
-        int radius = 3;
-        for (int dy = 0; dy <= 4; dy++) {
-            for (int dx = -radius; dx <= radius; dx++) {
-                for (int dz = -radius; dz <= radius; dz++) {
-                    if (dx == 0 && dz == 0 && dy == 0) continue;
-                    Block candidate = origin.getRelative(dx, dy, dz);
-                    Species species = MATERIAL_TO_SPECIES.get(candidate.getType());
-                    if (species == Species.MUSHROOM_BROWN || species == Species.MUSHROOM_RED) {
-                        return species;
-                    }
-                }
-            }
-        }
-        return null;
-    }
-
-    private List<Block> collectConnectedLogs(Block start, int maxBlocks, boolean includeDiagonals,
-                                             int maxHorizontalRadius, int maxVerticalRadius) {
-        if (start == null) {
-            return Collections.emptyList();
-        }
-        Queue<Block> queue = new ArrayDeque<>();
-        Set<Long> visited = new HashSet<>();
-        List<Block> result = new ArrayList<>();
-        queue.add(start);
-        visited.add(key(start));
-        final boolean limitHorizontal = maxHorizontalRadius > 0;
-        final boolean limitVertical = maxVerticalRadius > 0;
-        final boolean limitRadius = limitHorizontal || limitVertical;
-        final int originX = start.getX();
-        final int originY = start.getY();
-        final int originZ = start.getZ();
-        while (!queue.isEmpty() && result.size() < maxBlocks) {
-            Block b = queue.poll();
-            if (!isTreeMaterial(b.getType())) continue;
-            if (limitRadius && !withinRadius(originX, originY, originZ, b, maxHorizontalRadius, maxVerticalRadius)) continue;
-            result.add(b);
-            if (!includeDiagonals) {
-                int[][] dirs = {
-                        {1,0,0},{-1,0,0},{0,1,0},{0,-1,0},{0,0,1},{0,0,-1}
-                };
-                for (int[] d : dirs) {
-                    Block n = b.getRelative(d[0], d[1], d[2]);
-                    if (!isTreeMaterial(n.getType())) continue;
-                    if (limitRadius && !withinRadius(originX, originY, originZ, n, maxHorizontalRadius, maxVerticalRadius)) continue;
-                    long k = key(n);
-                    if (visited.add(k)) queue.add(n);
-                }
-            } else {
-                for (int dx = -1; dx <= 1; dx++) {
-                    for (int dy = -1; dy <= 1; dy++) {
-                        for (int dz = -1; dz <= 1; dz++) {
-                            if (dx == 0 && dy == 0 && dz == 0) continue;
-                            Block n = b.getRelative(dx, dy, dz);
-                            if (!isTreeMaterial(n.getType())) continue;
-                            if (limitRadius && !withinRadius(originX, originY, originZ, n, maxHorizontalRadius, maxVerticalRadius)) continue;
-                            long k = key(n);
-                            if (visited.add(k)) queue.add(n);
-                        }
-                    }
-                }
-            }
-        }
-        return result;
-    }
-
-    private void handlePostActions(Player player, ItemStack tool, List<Block> logs, boolean performedTimber, Map<Long, Material> originalMaterials) {
-        if (logs == null || logs.isEmpty()) return;
+    /** Leaf decay and replanting for the felled logs, planned from what the scan recorded. */
+    private void handlePostActions(Player player, ItemStack tool, WorldBlockAccess access, TreeScanner.Result logs,
+                                   boolean performedTimber, FellingTrace trace) {
+        if (logs == null || logs.size() == 0) return;
         if (leavesDecayEnabled) {
-            Block origin = logs.get(0);
-            scheduleLeavesDecay(player, logs, origin);
+            scheduleLeavesDecay(player, access, logs, performedTimber, trace);
         }
         if (performedTimber && replantEnabled) {
-            tryReplant(logs, originalMaterials);
+            ReplantEvent replantEvent = new ReplantEvent();
+            replantEvent.begin();
+            long replantStart = stats.start();
+            int saplings = tryReplant(player, access, logs);
+            trace.add(Phase.REPLANT, stats.stop(Phase.REPLANT, replantStart));
+            replantEvent.end();
+            if (replantEvent.shouldCommit()) {
+                replantEvent.logCount = logs.size();
+                replantEvent.saplings = saplings;
+                replantEvent.commit();
+            }
         }
     }
 
-    private void scheduleLeavesDecay(Player player, List<Block> logs, Block origin) {
+    private void scheduleLeavesDecay(Player player, WorldBlockAccess access, TreeScanner.Result logs,
+                                     boolean performedTimber, FellingTrace trace) {
         if (!leavesDecayEnabled) return;
-        if (logs.isEmpty()) return;
+        if (logs.size() == 0) return;
         if (leavesDecayRadius <= 0) return;
 
-        final Set<Material> allowedLeaves = computeAllowedLeaves(logs, origin);
-        final Deque<LeafEntry> queue = new ArrayDeque<>();
-        final Set<Long> visited = new HashSet<>();
-        final int maxDepth = leavesDecayRadius;
-        for (Block log : logs) {
-            seedLeafNeighbors(log, queue, visited, maxDepth, allowedLeaves, log);
-        }
+        final Set<Material> allowedLeaves = computeAllowedLeaves(logs, performedTimber);
+        final LeafFrontier queue = new LeafFrontier(access, allowedLeaves, includeDiagonals, leavesDecayRadius,
+                leavesDecayMaxDistanceSquared);
+        queue.seed(logs);
         if (queue.isEmpty()) return;
+        if (!admission.tryStartLeafJob()) {
+            // Leaf decay gives way first under load; vanilla decay still takes these leaves eventually.
+            stats.increment(Counter.LEAF_DECAY_SHED);
+            return;
+        }
         final int batchSize = leavesDecayBatchSize;
         final long interval = leavesDecayIntervalTicks;
         final Player sourcePlayer = player;
         final var pluginManager = plugin.getServer().getPluginManager();
 
+        stats.adjust(Gauge.PENDING_LEAVES, queue.size());
+        trace.retain();
         new BukkitRunnable() {
+            int reportedPending = queue.size();
+            long deferredSince = 0L;
+
             @Override
             public void run() {
+                if (admission.underPressure()) {
+                    long now = System.nanoTime();
+                    if (deferredSince == 0L) deferredSince = now;
+                    if (now - deferredSince < admission.maxDeferNanos()) return;
+                    stats.increment(Counter.LEAF_DECAY_SHED);
+                    stats.adjust(Gauge.PENDING_LEAVES, -reportedPending);
+                    admission.leafJobFinished();
+                    trace.release();
+                    cancel();
+                    return;
+                }
+                deferredSince = 0L;
+                LeafDecayBatchEvent batchEvent = new LeafDecayBatchEvent();
+                batchEvent.begin();
+                long batchStart = stats.start();
                 int processed = 0;
+                int skipped = 0;
+                int fired = 0;
+                JournalBatch journalBatch = journalBatch(sourcePlayer, access.world());
                 while (!queue.isEmpty() && processed < batchSize) {
-                    LeafEntry entry = queue.poll();
+                    LeafFrontier.Entry entry = queue.poll();
                     if (entry == null) break;
-                    Block b = entry.block();
-                    int depth = entry.depth();
-                    Block originBlock = entry.origin();
-                    if (!isLeafMaterial(b.getType()) || !isAllowedLeaf(b.getType(), allowedLeaves)) {
+                    Block b = access.block(entry.pos());
+                    if (!queue.accepts(b.getType())) {
+                        skipped++;
                         continue;
                     }
 
@@ -641,247 +861,138 @@ public class TreeChopListener implements Listener {
                     if (sourcePlayer != null) {
                         BlockBreakEvent leafEvent = new BlockBreakEvent(b, sourcePlayer);
                         pluginManager.callEvent(leafEvent);
+                        stats.increment(Counter.EVENTS_FIRED);
+                        trace.eventsFired(1);
+                        fired++;
                         if (leafEvent.isCancelled()) {
+                            skipped++;
                             continue;
                         }
                         allowDrops = leafEvent.isDropItems();
                     }
 
+                    var original = journalBatch != null ? b.getBlockData() : null;
                     if (allowDrops) {
                         b.breakNaturally();
                     } else {
                         b.setType(Material.AIR);
                     }
+                    if (journalBatch != null) journalBatch.add(entry.pos(), original, b.getType());
+                    stats.increment(Counter.LEAVES_DECAYED);
+                    trace.leaves(1);
 
-                    int nextDepth = depth + 1;
-                    if (nextDepth <= maxDepth) {
-                        if (includeDiagonals) {
-                            for (int dx = -1; dx <= 1; dx++) {
-                                for (int dy = -1; dy <= 1; dy++) {
-                                    for (int dz = -1; dz <= 1; dz++) {
-                                        if (dx == 0 && dy == 0 && dz == 0) continue;
-                                        Block n = b.getRelative(dx, dy, dz);
-                                        enqueueLeaf(n, nextDepth, maxDepth, queue, visited, allowedLeaves, originBlock);
-                                    }
-                                }
-                            }
-                        } else {
-                            int[][] dirs = {
-                                    {1,0,0},{-1,0,0},{0,1,0},{0,-1,0},{0,0,1},{0,0,-1}
-                            };
-                            for (int[] d : dirs) {
-                                Block n = b.getRelative(d[0], d[1], d[2]);
-                                enqueueLeaf(n, nextDepth, maxDepth, queue, visited, allowedLeaves, originBlock);
-                            }
-                        }
-                    }
+                    queue.expand(entry);
                     processed++;
                 }
-                if (queue.isEmpty()) cancel();
-            }
-        }.runTaskTimer(plugin, 0L, interval);
-    }
-
-    private void seedLeafNeighbors(Block log, Deque<LeafEntry> queue, Set<Long> visited, int maxDepth, Set<Material> allowedLeaves, Block origin) {
-        if (log == null || maxDepth <= 0) return;
-        if (includeDiagonals) {
-            for (int dx = -1; dx <= 1; dx++) {
-                for (int dy = -1; dy <= 1; dy++) {
-                    for (int dz = -1; dz <= 1; dz++) {
-                        if (dx == 0 && dy == 0 && dz == 0) continue;
-                        Block candidate = log.getRelative(dx, dy, dz);
-                        enqueueLeaf(candidate, 0, maxDepth, queue, visited, allowedLeaves, origin);
-                    }
+                if (journalBatch != null) journalBatch.flush();
+                trace.add(Phase.LEAF_BATCH, stats.stop(Phase.LEAF_BATCH, batchStart));
+                charts.recordLeaves(processed);
+                batchEvent.end();
+                if (batchEvent.shouldCommit()) {
+                    batchEvent.processed = processed;
+                    batchEvent.skipped = skipped;
+                    batchEvent.eventsFired = fired;
+                    batchEvent.remaining = queue.size();
+                    batchEvent.commit();
+                }
+                stats.adjust(Gauge.PENDING_LEAVES, queue.size() - reportedPending);
+                reportedPending = queue.size();
+                if (queue.isEmpty()) {
+                    admission.leafJobFinished();
+                    trace.release();
+                    cancel();
                 }
             }
-        } else {
-            int[][] dirs = {
-                    {1,0,0},{-1,0,0},{0,1,0},{0,-1,0},{0,0,1},{0,0,-1}
-            };
-            for (int[] d : dirs) {
-                Block candidate = log.getRelative(d[0], d[1], d[2]);
-                enqueueLeaf(candidate, 0, maxDepth, queue, visited, allowedLeaves, origin);
-            }
-        }
-    }
-
-    private void enqueueLeaf(Block block, int depth, int maxDepth, Deque<LeafEntry> queue, Set<Long> visited, Set<Material> allowedLeaves, Block origin) {
-        if (block == null) return;
-        if (depth > maxDepth) return;
-        if (!isLeafMaterial(block.getType())) return;
-        if (!isAllowedLeaf(block.getType(), allowedLeaves)) return;
-        if (!isWithinLeafDistance(origin, block)) return;
-        long key = key(block);
-        if (visited.add(key)) {
-            queue.add(new LeafEntry(block, depth, origin));
-        }
+        }.runTaskTimer(plugin, 0L, interval);
     }
 
-    private boolean isAllowedLeaf(Material material, Set<Material> allowedLeaves) {
-        return allowedLeaves == null || allowedLeaves.contains(material);
+    /**
+     * A journal batch for changes made as {@code player}, or null when the journal is off or a bench drives the
+     * player: the bench restores its area itself, and journaled bench trees would come back with a rollback.
+     */
+    private JournalBatch journalBatch(Player player, World world) {
+        TreeBench bench = plugin.activeBench();
+        if (bench != null && bench.drives(player)) return null;
+        return journal.batch(player, world);
     }
 
-    private boolean isLeafMaterial(Material material) {
-        if (material == null) return false;
-        String name = material.name();
-        return name.endsWith("_LEAVES") || name.endsWith("_LEAF");
-    }
+    private int tryReplant(Player player, WorldBlockAccess access, TreeScanner.Result logs) {
+        if (!replantEnabled) return 0;
+        if (logs == null || logs.size() == 0) return 0;
 
-    private boolean isWithinLeafDistance(Block origin, Block candidate) {
-        if (origin == null || candidate == null) return true;
-        int dx = origin.getX() - candidate.getX();
-        int dy = origin.getY() - candidate.getY();
-        int dz = origin.getZ() - candidate.getZ();
-        return (dx * dx + dy * dy + dz * dz) <= leavesDecayMaxDistanceSquared;
-    }
+        ReplantPlanner.Plan plan = replantPlanner.plan(logs);
+        if (plan == null) return 0;
 
-    private void tryReplant(List<Block> logs, Map<Long, Material> originalMaterials) {
-        if (!replantEnabled) return;
-        if (logs == null || logs.isEmpty()) return;
-
-        Block best = null;
-        Material sapling = null;
-        for (Block log : logs) {
-            Material originalType = getOriginalMaterial(log, originalMaterials);
-            Material mapped = saplingMappings.get(originalType);
-            if (mapped == null) continue;
-            if (!allowedSaplings.isEmpty() && !allowedSaplings.contains(mapped)) continue;
-            if (!canPlantAt(log, mapped)) continue;
-            if (best == null || log.getY() < best.getY()
-                    || (log.getY() == best.getY() && compareColumns(log, best) < 0)) {
-                best = log;
-                sapling = mapped;
-            }
+        final Material finalSapling = plan.sapling();
+        final List<Block> targets = new ArrayList<>(plan.spots().length);
+        for (long spot : plan.spots()) {
+            targets.add(access.block(spot));
         }
-        if (best == null || sapling == null) return;
-
-        List<Block> plantingSpots = computePlantingSpots(best, logs, originalMaterials, sapling);
-        if (plantingSpots.isEmpty()) {
-            plantingSpots = Collections.singletonList(best);
-        }
-
-        final Material finalSapling = sapling;
-        final List<Block> targets = new ArrayList<>(new LinkedHashSet<>(plantingSpots));
         plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+            JournalBatch journalBatch = journalBatch(player, access.world());
             for (Block target : targets) {
-                placeSapling(target, finalSapling);
+                var original = journalBatch != null ? target.getBlockData() : null;
+                if (placeSapling(access, target, finalSapling) && journalBatch != null) {
+                    journalBatch.add(BlockPos.pack(target.getX(), target.getY(), target.getZ()), original, target.getType());
+                }
             }
+            if (journalBatch != null) journalBatch.flush();
         }, 2L);
-    }
-
-    private boolean isSuitableSoil(Material soil, Material sapling) {
-        if (soil == null || sapling == null) return false;
-        if (sapling == Material.CRIMSON_FUNGUS || sapling == Material.WARPED_FUNGUS) {
-            return FUNGUS_SOILS.contains(soil);
-        }
-        if (sapling == Material.MANGROVE_PROPAGULE) {
-            return MANGROVE_SOILS.contains(soil);
-        }
-        return OVERWORLD_SOILS.contains(soil);
+        return targets.size();
     }
 
     private void initializeSaplingMappings() {
-        mapSapling(Material.OAK_LOG, Material.OAK_SAPLING);
-        mapSapling(Material.STRIPPED_OAK_LOG, Material.OAK_SAPLING);
-        mapSapling(Material.OAK_WOOD, Material.OAK_SAPLING);
-        mapSapling(Material.STRIPPED_OAK_WOOD, Material.OAK_SAPLING);
-        mapSapling("PALE_OAK_LOG", "PALE_OAK_SAPLING");
-        mapSapling("STRIPPED_PALE_OAK_LOG", "PALE_OAK_SAPLING");
-        mapSapling("PALE_OAK_WOOD", "PALE_OAK_SAPLING");
-        mapSapling("STRIPPED_PALE_OAK_WOOD", "PALE_OAK_SAPLING");
-
-        mapSapling(Material.SPRUCE_LOG, Material.SPRUCE_SAPLING);
-        mapSapling(Material.STRIPPED_SPRUCE_LOG, Material.SPRUCE_SAPLING);
-        mapSapling(Material.SPRUCE_WOOD, Material.SPRUCE_SAPLING);
-        mapSapling(Material.STRIPPED_SPRUCE_WOOD, Material.SPRUCE_SAPLING);
-
-        mapSapling(Material.BIRCH_LOG, Material.BIRCH_SAPLING);
-        mapSapling(Material.STRIPPED_BIRCH_LOG, Material.BIRCH_SAPLING);
-        mapSapling(Material.BIRCH_WOOD, Material.BIRCH_SAPLING);
-        mapSapling(Material.STRIPPED_BIRCH_WOOD, Material.BIRCH_SAPLING);
-
-        mapSapling(Material.JUNGLE_LOG, Material.JUNGLE_SAPLING);
-        mapSapling(Material.STRIPPED_JUNGLE_LOG, Material.JUNGLE_SAPLING);
-        mapSapling(Material.JUNGLE_WOOD, Material.JUNGLE_SAPLING);
-        mapSapling(Material.STRIPPED_JUNGLE_WOOD, Material.JUNGLE_SAPLING);
-
-        mapSapling(Material.ACACIA_LOG, Material.ACACIA_SAPLING);
-        mapSapling(Material.STRIPPED_ACACIA_LOG, Material.ACACIA_SAPLING);
-        mapSapling(Material.ACACIA_WOOD, Material.ACACIA_SAPLING);
-        mapSapling(Material.STRIPPED_ACACIA_WOOD, Material.ACACIA_SAPLING);
-
-        mapSapling(Material.DARK_OAK_LOG, Material.DARK_OAK_SAPLING);
-        mapSapling(Material.STRIPPED_DARK_OAK_LOG, Material.DARK_OAK_SAPLING);
-        mapSapling(Material.DARK_OAK_WOOD, Material.DARK_OAK_SAPLING);
-        mapSapling(Material.STRIPPED_DARK_OAK_WOOD, Material.DARK_OAK_SAPLING);
-
-        mapSapling(Material.CHERRY_LOG, Material.CHERRY_SAPLING);
-        mapSapling(Material.STRIPPED_CHERRY_LOG, Material.CHERRY_SAPLING);
-        mapSapling(Material.CHERRY_WOOD, Material.CHERRY_SAPLING);
-        mapSapling(Material.STRIPPED_CHERRY_WOOD, Material.CHERRY_SAPLING);
-
-        mapSapling(Material.MANGROVE_LOG, Material.MANGROVE_PROPAGULE);
-        mapSapling(Material.STRIPPED_MANGROVE_LOG, Material.MANGROVE_PROPAGULE);
-        mapSapling(Material.MANGROVE_WOOD, Material.MANGROVE_PROPAGULE);
-        mapSapling(Material.STRIPPED_MANGROVE_WOOD, Material.MANGROVE_PROPAGULE);
-        mapSapling(Material.MANGROVE_ROOTS, Material.MANGROVE_PROPAGULE);
-        mapSapling(Material.MUDDY_MANGROVE_ROOTS, Material.MANGROVE_PROPAGULE);
-
-        mapSapling(Material.CRIMSON_STEM, Material.CRIMSON_FUNGUS);
-        mapSapling(Material.STRIPPED_CRIMSON_STEM, Material.CRIMSON_FUNGUS);
-        mapSapling(Material.CRIMSON_HYPHAE, Material.CRIMSON_FUNGUS);
-        mapSapling(Material.STRIPPED_CRIMSON_HYPHAE, Material.CRIMSON_FUNGUS);
-
-        mapSapling(Material.WARPED_STEM, Material.WARPED_FUNGUS);
-        mapSapling(Material.STRIPPED_WARPED_STEM, Material.WARPED_FUNGUS);
-        mapSapling(Material.WARPED_HYPHAE, Material.WARPED_FUNGUS);
-        mapSapling(Material.STRIPPED_WARPED_HYPHAE, Material.WARPED_FUNGUS);
-    }
-
-    private void mapSapling(Material source, Material sapling) {
-        if (source == null || sapling == null) return;
-        saplingMappings.put(source, sapling);
-    }
-
-    private void mapSapling(String sourceName, String saplingName) {
-        if (sourceName == null || saplingName == null) return;
-        Material source = Material.matchMaterial(sourceName);
-        Material sapling = Material.matchMaterial(saplingName);
-        mapSapling(source, sapling);
+        saplingMappings.putAll(ReplantPlanner.defaultSaplingMappings());
     }
 
-    private Map<Long, Material> captureOriginalMaterials(List<Block> logs) {
-        if (logs == null || logs.isEmpty()) {
-            return Collections.emptyMap();
+    /** Copies the felling's surroundings (everything leaf decay and replanting may look at) for offline replay. */
+    private void recordFelling(WorldBlockAccess access, Block start, Species species, long[] logs, boolean truncated,
+                               int treeMaxBlocks, int horizontalRadius, int verticalRadius) {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (long log : logs) {
+            minX = Math.min(minX, BlockPos.x(log));
+            minY = Math.min(minY, BlockPos.y(log));
+            minZ = Math.min(minZ, BlockPos.z(log));
+            maxX = Math.max(maxX, BlockPos.x(log));
+            maxY = Math.max(maxY, BlockPos.y(log));
+            maxZ = Math.max(maxZ, BlockPos.z(log));
         }
-        Map<Long, Material> snapshot = new HashMap<>(logs.size());
-        for (Block log : logs) {
-            if (log == null) continue;
-            snapshot.put(key(log), log.getType());
-        }
-        return snapshot;
-    }
-
-    private Material getOriginalMaterial(Block block, Map<Long, Material> originals) {
-        if (block == null || originals == null || originals.isEmpty()) {
-            return block != null ? block.getType() : null;
-        }
-        return originals.getOrDefault(key(block), block.getType());
-    }
-
-    private boolean canPlantAt(Block target, Material sapling) {
-        if (target == null || sapling == null) return false;
-        Block soil = target.getRelative(0, -1, 0);
-        if (!isSuitableSoil(soil.getType(), sapling)) return false;
-        Material current = target.getType();
-        if (current == Material.WATER || current == Material.BUBBLE_COLUMN) {
-            return sapling == Material.MANGROVE_PROPAGULE;
+        // Leaves within the decay radius, plus the soil the replant check looks at.
+        int pad = Math.max(leavesDecayRadius, 1);
+        var world = start.getWorld();
+        minX -= pad;
+        minZ -= pad;
+        maxX += pad;
+        maxZ += pad;
+        minY = Math.max(world.getMinHeight(), minY - pad);
+        maxY = Math.min(world.getMaxHeight() - 1, maxY + pad);
+        int sizeX = maxX - minX + 1;
+        int sizeY = maxY - minY + 1;
+        int sizeZ = maxZ - minZ + 1;
+        if ((long) sizeX * sizeY * sizeZ > FellingRecorder.MAX_VOLUME) return;
+        Material[] blocks = new Material[sizeX * sizeY * sizeZ];
+        Set<Material> fellable = EnumSet.noneOf(Material.class);
+        int index = 0;
+        for (int y = minY; y <= maxY; y++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int x = minX; x <= maxX; x++) {
+                    Material type = access.type(x, y, z);
+                    blocks[index++] = type;
+                    if (isTreeMaterial(type)) fellable.add(type);
+                }
+            }
         }
-        return current.isAir() || target.isPassable();
+        recorder.record(new FellingCapture(System.currentTimeMillis(), world.getName(),
+            species != null ? species.configKey() : null, minX, minY, minZ, sizeX, sizeY, sizeZ, blocks, fellable,
+            start.getX(), start.getY(), start.getZ(),
+            new FellingCapture.Settings(includeDiagonals, treeMaxBlocks, horizontalRadius, verticalRadius,
+                leavesDecayRadius, leavesDecayMaxDistanceSquared),
+            logs.length, truncated));
     }
 
-    private void placeSapling(Block target, Material sapling) {
-        if (!canPlantAt(target, sapling)) return;
+    private boolean placeSapling(WorldBlockAccess access, Block target, Material sapling) {
+        if (!replantPlanner.canPlantAt(access, BlockPos.pack(target.getX(), target.getY(), target.getZ()), sapling)) return false;
         Material current = target.getType();
         boolean targetIsWater = current == Material.WATER || current == Material.BUBBLE_COLUMN;
         target.setType(sapling);
@@ -892,72 +1003,12 @@ public class TreeChopListener implements Listener {
                 target.setBlockData(waterlogged);
             }
         }
-    }
-
-    private List<Block> computePlantingSpots(Block reference, List<Block> logs, Map<Long, Material> originals, Material sapling) {
-        if (reference == null || logs == null) {
-            return Collections.emptyList();
-        }
-        Map<Long, Block> columns = new HashMap<>();
-        for (Block log : logs) {
-            Material mapped = saplingMappings.get(getOriginalMaterial(log, originals));
-            if (!sapling.equals(mapped)) continue;
-            if (!canPlantAt(log, sapling)) continue;
-            long colKey = columnKey(log.getWorld(), log.getX(), log.getZ());
-            Block existing = columns.get(colKey);
-            if (existing == null || log.getY() < existing.getY()) {
-                columns.put(colKey, log);
-            }
-        }
-        if (columns.isEmpty()) {
-            return Collections.singletonList(reference);
-        }
-        List<Block> footprint = findTwoByTwoFootprint(columns);
-        if (!footprint.isEmpty()) {
-            return footprint;
-        }
-        return Collections.singletonList(reference);
-    }
-
-    private List<Block> findTwoByTwoFootprint(Map<Long, Block> columns) {
-        if (columns.size() < 4) {
-            return Collections.emptyList();
-        }
-        for (Block origin : columns.values()) {
-            var world = origin.getWorld();
-            Block east = columns.get(columnKey(world, origin.getX() + 1, origin.getZ()));
-            Block south = columns.get(columnKey(world, origin.getX(), origin.getZ() + 1));
-            Block southEast = columns.get(columnKey(world, origin.getX() + 1, origin.getZ() + 1));
-            if (east == null || south == null || southEast == null) continue;
-            if (!isLevelClose(origin, east) || !isLevelClose(origin, south) || !isLevelClose(origin, southEast)) continue;
-            return Arrays.asList(origin, east, south, southEast);
-        }
-        return Collections.emptyList();
-    }
-
-    private boolean isLevelClose(Block a, Block b) {
-        if (a == null || b == null) return false;
-        return Math.abs(a.getY() - b.getY()) <= 1;
-    }
-
-    private int compareColumns(Block a, Block b) {
-        if (a == null || b == null) return 0;
-        if (!a.getWorld().equals(b.getWorld())) {
-            return a.getWorld().getUID().compareTo(b.getWorld().getUID());
-        }
-        if (a.getX() != b.getX()) {
-            return Integer.compare(a.getX(), b.getX());
-        }
-        return Integer.compare(a.getZ(), b.getZ());
+        return true;
     }
 
     private void loadLeafMappings() {
         leafMappings.clear();
-        File file = new File(plugin.getDataFolder(), "leaf_mappings.yml");
-        if (!file.exists()) {
-            plugin.saveResource("leaf_mappings.yml", false);
-        }
-        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(file);
+        YamlConfiguration yaml = plugin.leafMappingsFile();
         ConfigurationSection section = yaml.getConfigurationSection("log_to_leaves");
         if (section == null) {
             return;
@@ -982,24 +1033,19 @@ public class TreeChopListener implements Listener {
         }
     }
 
-    private Set<Material> computeAllowedLeaves(List<Block> logs, Block origin) {
-        if (logs == null || logs.isEmpty()) {
+    /**
+     * Leaf types that may decay: those mapped to the broken log, or every leaf type after a timber felling, where the
+     * origin has always been read back as already broken.
+     */
+    private Set<Material> computeAllowedLeaves(TreeScanner.Result logs, boolean performedTimber) {
+        if (performedTimber || logs.size() == 0) {
             return null;
         }
-        Material originType = origin != null ? origin.getType() : null;
-        Set<Material> originLeaves = originType != null ? leafMappings.get(originType) : null;
+        Set<Material> originLeaves = leafMappings.get(logs.type(0));
         if (originLeaves == null || originLeaves.isEmpty()) {
             return null;
         }
-        Set<Material> allowed = EnumSet.copyOf(originLeaves);
-        for (Block log : logs) {
-            if (log == null) continue;
-            Set<Material> mapped = leafMappings.get(log.getType());
-            if (mapped != null && mapped.equals(originLeaves)) {
-                allowed.addAll(mapped);
-            }
-        }
-        return allowed;
+        return EnumSet.copyOf(originLeaves);
     }
 
     private void applyDurabilityCostForTaggedTool(Player player, UUID fellingId, int brokenBlocks) {
@@ -1028,6 +1074,7 @@ public class TreeChopListener implements Listener {
         if (cappedExtra <= 0) return;
         dmg.setDamage(currentDamage + cappedExtra);
         tool.setItemMeta((org.bukkit.inventory.meta.ItemMeta) dmg);
+        invalidateEligibility(player);
 
         // Ensure the modified stack is written back to the correct slot (important if Bukkit returned copies).
         found.writeBack(player, tool);
@@ -1105,43 +1152,55 @@ public class TreeChopListener implements Listener {
         return expectedId.equals(id);
     }
 
-    private void sendFellingAlreadyRunningActionbar(Player player) {
+    private void sendFellingAlreadyRunningActionbar(PlayerSession session, Player player) {
         if (player == null || !player.isOnline()) return;
-        long now = System.currentTimeMillis();
-        UUID uuid = player.getUniqueId();
-        long last = lastFellingActionbarAt.getOrDefault(uuid, 0L);
-        if ((now - last) < FELLING_ACTIONBAR_COOLDOWN_MS) return;
-        lastFellingActionbarAt.put(uuid, now);
+        if (!session.tryFellingActionbar(System.currentTimeMillis(), FELLING_ACTIONBAR_COOLDOWN_MS)) return;
         try {
-            player.sendActionBar(plugin.messages().component("ui.felling-already-running"));
+            player.sendActionBar(plugin.messages().component(player, "ui.felling-already-running"));
         } catch (Throwable ignored) {
             // Best-effort only (compat across server APIs)
         }
     }
 
-    private long key(Block b) {
-        return key(b.getWorld(), b.getX(), b.getY(), b.getZ());
+    private void sendFellingBusyActionbar(PlayerSession session, Player player) {
+        if (player == null || !player.isOnline()) return;
+        if (!session.tryFellingActionbar(System.currentTimeMillis(), FELLING_ACTIONBAR_COOLDOWN_MS)) return;
+        try {
+            player.sendActionBar(plugin.messages().component(player, "ui.felling-busy"));
+        } catch (Throwable ignored) {
+            // Best-effort only (compat across server APIs)
+        }
     }
 
-    private long key(org.bukkit.World world, long x, long y, long z) {
-        long worldHash = (world.getUID().getMostSignificantBits() ^ world.getUID().getLeastSignificantBits()) & 0xFFFFL;
-        long coordPack = (x & 0x3FFFFFFL) << 38 | (z & 0x3FFFFFFL) << 12 | (y & 0xFFFL);
-        return (worldHash << 48) ^ coordPack;
+    private void sendFellingWaitingActionbar(Player player, int position) {
+        if (player == null || !player.isOnline()) return;
+        try {
+            player.sendActionBar(plugin.messages().format(player, "ui.felling-waiting",
+                Map.of("position", String.valueOf(position))));
+        } catch (Throwable ignored) {
+            // Best-effort only (compat across server APIs)
+        }
     }
 
-    private long columnKey(org.bukkit.World world, int x, int z) {
-        return key(world, x, 0, z);
+    private void sendFellingRateLimitedActionbar(PlayerSession session, Player player) {
+        if (player == null || !player.isOnline()) return;
+        if (!session.tryFellingActionbar(System.currentTimeMillis(), FELLING_ACTIONBAR_COOLDOWN_MS)) return;
+        try {
+            player.sendActionBar(plugin.messages().component(player, "ui.felling-rate-limited"));
+        } catch (Throwable ignored) {
+            // Best-effort only (compat across server APIs)
+        }
     }
 
-    private boolean withinRadius(int originX, int originY, int originZ, Block candidate,
-                                 int horizontalRadius, int verticalRadius) {
-        if (candidate == null) return false;
-        int dx = Math.abs(candidate.getX() - originX);
-        int dy = Math.abs(candidate.getY() - originY);
-        int dz = Math.abs(candidate.getZ() - originZ);
-        boolean horizontalOk = horizontalRadius <= 0 || Math.max(dx, dz) <= horizontalRadius;
-        boolean verticalOk = verticalRadius <= 0 || dy <= verticalRadius;
-        return horizontalOk && verticalOk;
+    private void sendFellingQueuedActionbar(PlayerSession session, Player player, long waitNanos) {
+        if (player == null || !player.isOnline()) return;
+        if (!session.tryFellingActionbar(System.currentTimeMillis(), FELLING_ACTIONBAR_COOLDOWN_MS)) return;
+        String seconds = String.format(Locale.ROOT, "%.1f", waitNanos / 1_000_000_000.0);
+        try {
+            player.sendActionBar(plugin.messages().format(player, "ui.felling-queued", Map.of("seconds", seconds)));
+        } catch (Throwable ignored) {
+            // Best-effort only (compat across server APIs)
+        }
     }
 }
 
@@ -1,7 +1,7 @@
 package com.github.hrobasti.timberella.listeners;
 
-import com.github.hrobasti.turtlelib.helper.UpdateChecker;
 import com.github.hrobasti.timberella.TimberellaPlugin;
+import com.github.hrobasti.timberella.update.UpdateSnapshot;
 import java.util.HashMap;
 import java.util.Map;
 import org.bukkit.event.EventHandler;
@@ -21,7 +21,7 @@ public class UpdateNotifyListener implements Listener {
         if (!plugin.isOpJoinUpdateNotifyEnabled()) {
             return;
         }
-        UpdateChecker.UpdateInfo info = plugin.getPendingUpdateInfo();
+        UpdateSnapshot info = plugin.getPendingUpdateInfo();
         if (info == null) {
             return;
         }
@@ -31,8 +31,8 @@ public class UpdateNotifyListener implements Listener {
         Map<String, String> placeholders = new HashMap<>();
         placeholders.put("latest_ver", info.latestVersion());
         placeholders.put("current_ver", info.currentVersion());
-        event.getPlayer().sendMessage(plugin.messages().format("update.available", placeholders));
-        event.getPlayer().sendMessage(plugin.messages().component("update.details"));
+        event.getPlayer().sendMessage(plugin.messages().format(event.getPlayer(), "update.available", placeholders));
+        event.getPlayer().sendMessage(plugin.messages().component(event.getPlayer(), "update.details"));
     }
 }
 
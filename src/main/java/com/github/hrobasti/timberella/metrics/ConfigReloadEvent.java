@@ -0,0 +1,20 @@
+package com.github.hrobasti.timberella.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("timberella.ConfigReload")
+@Label("Config Reload")
+@Category("Timberella")
+@Description("Configuration, language and listener reload.")
+@Enabled(false)
+@StackTrace(false)
+public final class ConfigReloadEvent extends Event {
+    @Label("Language")
+    public String language;
+}
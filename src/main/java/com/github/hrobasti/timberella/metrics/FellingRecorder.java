@@ -0,0 +1,159 @@
+package com.github.hrobasti.timberella.metrics;
+
+import com.github.hrobasti.timberella.tree.CaptureCodec;
+import com.github.hrobasti.timberella.tree.FellingCapture;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Opt-in recorder for production fellings. The main thread only copies the block box into a {@link FellingCapture};
+ * encoding and appending to {@code captures/*.tbc} happen on a background writer, which starts a new file once the
+ * current one reaches the size limit and deletes the oldest files beyond the configured count.
+ */
+public final class FellingRecorder {
+    /** Larger boxes (64^3) are skipped rather than copied on the main thread. */
+    public static final int MAX_VOLUME = 1 << 18;
+    private static final int MAX_PENDING_WRITES = 256;
+    private static final String EXTENSION = ".tbc";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Logger logger;
+    private final Path directory;
+    private volatile boolean enabled;
+    private volatile double sampleRate;
+    private volatile long maxFileBytes;
+    private volatile int maxFiles;
+    private ExecutorService writer;
+    // Only touched on the writer thread.
+    private OutputStream current;
+    private long currentBytes;
+    private int fileSequence;
+
+    public FellingRecorder(Logger logger, Path dataFolder) {
+        this.logger = logger;
+        this.directory = dataFolder.resolve("captures");
+    }
+
+    public synchronized void configure(boolean enabled, double sampleRate, int maxFileSizeMb, int maxFiles) {
+        this.sampleRate = Math.max(0.0, Math.min(1.0, sampleRate));
+        this.maxFileBytes = Math.max(1, maxFileSizeMb) * 1024L * 1024L;
+        this.maxFiles = Math.max(1, maxFiles);
+        this.enabled = enabled && this.sampleRate > 0.0;
+        if (this.enabled && writer == null) {
+            // Drop captures instead of piling them up if the disk cannot keep up.
+            writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(MAX_PENDING_WRITES), runnable -> {
+                    Thread thread = new Thread(runnable, "Timberella-Capture");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+        } else if (!this.enabled && writer != null) {
+            shutdownWriter();
+        }
+    }
+
+    /** Decides whether the next felling is captured; false whenever the recorder is off. */
+    public boolean sample() {
+        return enabled && (sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    public void record(FellingCapture capture) {
+        ExecutorService log;
+        synchronized (this) {
+            log = writer;
+        }
+        if (log != null) {
+            log.execute(() -> append(capture));
+        }
+    }
+
+    public synchronized void shutdown() {
+        enabled = false;
+        shutdownWriter();
+    }
+
+    private void shutdownWriter() {
+        if (writer == null) return;
+        ExecutorService closing = writer;
+        writer = null;
+        closing.execute(this::closeCurrent);
+        closing.shutdown();
+        try {
+            closing.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void append(FellingCapture capture) {
+        try {
+            byte[] record = CaptureCodec.encode(capture);
+            if (current == null || currentBytes + record.length > maxFileBytes) {
+                rotate();
+            }
+            current.write(record);
+            current.flush();
+            currentBytes += record.length;
+        } catch (IOException ex) {
+            logger.fine("Could not write felling capture: " + ex.getMessage());
+            closeCurrent();
+        }
+    }
+
+    private void rotate() throws IOException {
+        closeCurrent();
+        Files.createDirectories(directory);
+        String name = "fellings-" + LocalDateTime.now().format(FILE_TIME) + "-" + (fileSequence++) + EXTENSION;
+        current = new BufferedOutputStream(Files.newOutputStream(directory.resolve(name)));
+        CaptureCodec.writeHeader(current);
+        currentBytes = 5;
+        pruneOldFiles();
+    }
+
+    private void pruneOldFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            stream.forEach(files::add);
+        }
+        if (files.size() <= maxFiles) return;
+        files.sort(Comparator.comparingLong(FellingRecorder::lastModified).thenComparing(Path::toString));
+        for (Path old : files.subList(0, files.size() - maxFiles)) {
+            Files.deleteIfExists(old);
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException ex) {
+            return 0L;
+        }
+    }
+
+    private void closeCurrent() {
+        if (current == null) return;
+        try {
+            current.close();
+        } catch (IOException ex) {
+            logger.fine("Could not close felling capture file: " + ex.getMessage());
+        }
+        current = null;
+        currentBytes = 0L;
+    }
+}
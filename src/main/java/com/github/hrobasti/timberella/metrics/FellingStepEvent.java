@@ -0,0 +1,27 @@
+package com.github.hrobasti.timberella.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("timberella.FellingStep")
+@Label("Felling Step")
+@Category("Timberella")
+@Description("One tick of a running felling task.")
+@Enabled(false)
+@StackTrace(false)
+public final class FellingStepEvent extends Event {
+    @Label("Species")
+    public String species;
+
+    @Label("Broken")
+    @Description("False when the queued block was no longer a tree block.")
+    public boolean broken;
+
+    @Label("Remaining Blocks")
+    public int remaining;
+}
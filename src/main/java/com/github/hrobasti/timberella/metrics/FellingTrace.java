@@ -0,0 +1,92 @@
+package com.github.hrobasti.timberella.metrics;
+
+/**
+ * Collects the cost of a single felling across its scan, the felling task, leaf decay and replanting.
+ * Every part that runs later retains the trace and releases it when done; the last release hands it to the
+ * {@link SlowFellingTracer}. Only used on the main thread.
+ */
+public final class FellingTrace {
+    static final FellingTrace INACTIVE = new FellingTrace(null, null, 0, 0, 0, null);
+
+    private final SlowFellingTracer tracer;
+    private final String world;
+    private final int x;
+    private final int y;
+    private final int z;
+    private final long[] phaseNanos = new long[RuntimeStats.Phase.values().length];
+    private final long startedAt = System.currentTimeMillis();
+    private final String species;
+    private int blocks;
+    private int leaves;
+    private int eventsFired;
+    private boolean aborted;
+    private int pending = 1;
+
+    FellingTrace(SlowFellingTracer tracer, String world, int x, int y, int z, String species) {
+        this.tracer = tracer;
+        this.world = world;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.species = species;
+    }
+
+    public boolean isActive() {
+        return tracer != null;
+    }
+
+    public void add(RuntimeStats.Phase phase, long nanos) {
+        if (tracer != null) {
+            phaseNanos[phase.ordinal()] += nanos;
+        }
+    }
+
+    public void blocks(int count) {
+        if (tracer != null) {
+            blocks += count;
+        }
+    }
+
+    public void leaves(int count) {
+        if (tracer != null) {
+            leaves += count;
+        }
+    }
+
+    public void eventsFired(int count) {
+        if (tracer != null) {
+            eventsFired += count;
+        }
+    }
+
+    public void abort() {
+        if (tracer != null) {
+            aborted = true;
+        }
+    }
+
+    public void retain() {
+        if (tracer != null) {
+            pending++;
+        }
+    }
+
+    public void release() {
+        if (tracer != null && --pending == 0) {
+            tracer.complete(this);
+        }
+    }
+
+    SlowFellingTracer.Record toRecord() {
+        long total = 0L;
+        for (long nanos : phaseNanos) {
+            total += nanos;
+        }
+        return new SlowFellingTracer.Record(startedAt, world, x, y, z, species == null ? "other" : species,
+            blocks, leaves, eventsFired, aborted, phaseNanos.clone(), total);
+    }
+
+    long phase(RuntimeStats.Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+}
@@ -0,0 +1,214 @@
+package com.github.hrobasti.timberella.metrics;
+
+import com.github.hrobasti.timberella.i18n.MessageService;
+import com.github.hrobasti.timberella.session.SessionRegistry;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/** Registers the Timberella MXBeans on the platform MBean server and removes them again on disable. */
+public final class JmxExporter {
+    private static final String DOMAIN = "com.github.hrobasti.timberella";
+
+    private final Logger logger;
+    private final List<ObjectName> registered = new ArrayList<>();
+
+    public JmxExporter(Logger logger) {
+        this.logger = logger;
+    }
+
+    public void register(RuntimeStats stats, SessionRegistry sessions, Supplier<MessageService> messages) {
+        register(DOMAIN + ":type=Runtime", new RuntimeBean(stats, sessions, messages));
+        for (RuntimeStats.Phase phase : RuntimeStats.Phase.values()) {
+            register(DOMAIN + ":type=Phase,name=" + phase.label(), new PhaseBean(stats, phase));
+        }
+    }
+
+    private void register(String name, Object bean) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = new ObjectName(name);
+            // A previous instance (e.g. after a hot reload without a clean disable) may still be registered.
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(bean, objectName);
+            registered.add(objectName);
+        } catch (JMException | RuntimeException ex) {
+            logger.warning("Could not register MBean " + name + ": " + ex.getMessage());
+        }
+    }
+
+    public void unregister() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : registered) {
+            try {
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+            } catch (JMException | RuntimeException ex) {
+                logger.fine("Could not unregister MBean " + name + ": " + ex.getMessage());
+            }
+        }
+        registered.clear();
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    private static final class RuntimeBean implements TimberellaRuntimeMXBean {
+        private final RuntimeStats stats;
+        private final SessionRegistry sessions;
+        private final Supplier<MessageService> messages;
+
+        RuntimeBean(RuntimeStats stats, SessionRegistry sessions, Supplier<MessageService> messages) {
+            this.stats = stats;
+            this.sessions = sessions;
+            this.messages = messages;
+        }
+
+        @Override
+        public int getActiveFellings() {
+            return sessions.activeFellings();
+        }
+
+        @Override
+        public int getPlayerSessions() {
+            return sessions.size();
+        }
+
+        @Override
+        public long getQueuedBlocks() {
+            return stats.value(RuntimeStats.Gauge.QUEUED_BLOCKS);
+        }
+
+        @Override
+        public long getPendingLeafDecay() {
+            return stats.value(RuntimeStats.Gauge.PENDING_LEAVES);
+        }
+
+        @Override
+        public long getBlocksBroken() {
+            return stats.count(RuntimeStats.Counter.BLOCKS_BROKEN);
+        }
+
+        @Override
+        public long getLeavesDecayed() {
+            return stats.count(RuntimeStats.Counter.LEAVES_DECAYED);
+        }
+
+        @Override
+        public long getEventsFired() {
+            return stats.count(RuntimeStats.Counter.EVENTS_FIRED);
+        }
+
+        @Override
+        public long getFellingsStarted() {
+            return stats.count(RuntimeStats.Counter.FELLINGS_STARTED);
+        }
+
+        @Override
+        public long getFellingsAborted() {
+            return stats.count(RuntimeStats.Counter.FELLINGS_ABORTED);
+        }
+
+        @Override
+        public double getToolCacheHitRatio() {
+            return ratio(stats.count(RuntimeStats.Counter.TOOL_CACHE_HITS), stats.count(RuntimeStats.Counter.TOOL_CACHE_MISSES));
+        }
+
+        @Override
+        public double getPermissionCacheHitRatio() {
+            return ratio(stats.count(RuntimeStats.Counter.PERMISSION_CACHE_HITS), stats.count(RuntimeStats.Counter.PERMISSION_CACHE_MISSES));
+        }
+
+        @Override
+        public double getLocaleBundleCacheHitRatio() {
+            MessageService service = messages.get();
+            return service == null ? 0.0 : ratio(service.bundleCacheHits(), service.bundleCacheMisses());
+        }
+
+        @Override
+        public long getBreakIntervalTicks() {
+            return stats.settings().breakIntervalTicks();
+        }
+
+        @Override
+        public int getMaxBlocks() {
+            return stats.settings().maxBlocks();
+        }
+
+        @Override
+        public long getLeafBatchIntervalTicks() {
+            return stats.settings().leafBatchIntervalTicks();
+        }
+
+        @Override
+        public int getLeafBatchSize() {
+            return stats.settings().leafBatchSize();
+        }
+
+        @Override
+        public int getLeafDecayRadius() {
+            return stats.settings().leafDecayRadius();
+        }
+
+        @Override
+        public int getLeafMaxDistance() {
+            return stats.settings().leafMaxDistance();
+        }
+
+        @Override
+        public boolean isTimingEnabled() {
+            return stats.isTimingEnabled();
+        }
+
+        @Override
+        public long getStatsResetAt() {
+            return stats.resetAt();
+        }
+    }
+
+    private static final class PhaseBean implements PhaseTimingMXBean {
+        private final RuntimeStats stats;
+        private final RuntimeStats.Phase phase;
+
+        PhaseBean(RuntimeStats stats, RuntimeStats.Phase phase) {
+            this.stats = stats;
+            this.phase = phase;
+        }
+
+        @Override
+        public long getCount() {
+            return stats.snapshot(phase).count();
+        }
+
+        @Override
+        public long getMeanNanos() {
+            return stats.snapshot(phase).mean();
+        }
+
+        @Override
+        public long getP50Nanos() {
+            return stats.snapshot(phase).percentile(50);
+        }
+
+        @Override
+        public long getP99Nanos() {
+            return stats.snapshot(phase).percentile(99);
+        }
+
+        @Override
+        public long getMaxNanos() {
+            return stats.snapshot(phase).max();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.github.hrobasti.timberella.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear latency histogram in the spirit of HdrHistogram: every power of two is split into
+ * {@value #SUB_BUCKETS} linear sub-buckets, so any recorded value is reported within ~6% of its real value.
+ * Recording is a few atomic increments and never allocates; reading works on a copy and never blocks writers.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        counts.incrementAndGet(index(value));
+        total.incrementAndGet();
+        sum.addAndGet(value);
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0L);
+        }
+        total.set(0L);
+        sum.set(0L);
+        max.set(0L);
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long copiedTotal = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            copiedTotal += copy[i];
+        }
+        return new Snapshot(copy, copiedTotal, sum.get(), max.get());
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int sub = (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    /** Largest value that falls into the given bucket. */
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long sub = index % SUB_BUCKETS;
+        long lower = (SUB_BUCKETS + sub) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public long max() {
+            return max;
+        }
+
+        public long sum() {
+            return sum;
+        }
+
+        /** Number of recorded values whose bucket lies entirely at or below the given value. */
+        public long countAtOrBelow(long value) {
+            long seen = 0L;
+            for (int i = 0; i < counts.length && upperBound(i) <= value; i++) {
+                seen += counts[i];
+            }
+            return seen;
+        }
+
+        /**
+         * Values recorded between {@code earlier} and this snapshot of the same histogram. The maximum is bounded by
+         * the highest bucket that grew in between.
+         */
+        public Snapshot since(Snapshot earlier) {
+            long[] delta = new long[counts.length];
+            long deltaCount = 0L;
+            int highest = -1;
+            for (int i = 0; i < counts.length; i++) {
+                delta[i] = Math.max(0L, counts[i] - earlier.counts[i]);
+                deltaCount += delta[i];
+                if (delta[i] > 0) highest = i;
+            }
+            long deltaMax = highest < 0 ? 0L : Math.min(upperBound(highest), max);
+            return new Snapshot(delta, deltaCount, Math.max(0L, sum - earlier.sum), deltaMax);
+        }
+
+        public long mean() {
+            return count == 0 ? 0L : sum / count;
+        }
+
+        /** Value at the given percentile (0-100), capped at the recorded maximum. */
+        public long percentile(double percentile) {
+            if (count == 0) {
+                return 0L;
+            }
+            long rank = Math.max(1L, (long) Math.ceil(count * Math.min(100.0, percentile) / 100.0));
+            long seen = 0L;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
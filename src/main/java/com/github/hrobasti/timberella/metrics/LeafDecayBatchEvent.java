@@ -0,0 +1,30 @@
+package com.github.hrobasti.timberella.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("timberella.LeafDecayBatch")
+@Label("Leaf Decay Batch")
+@Category("Timberella")
+@Description("One batch of the leaf decay task.")
+@Enabled(false)
+@StackTrace(false)
+public final class LeafDecayBatchEvent extends Event {
+    @Label("Processed")
+    public int processed;
+
+    @Label("Skipped")
+    @Description("Queued leaves that were already gone or protected.")
+    public int skipped;
+
+    @Label("Events Fired")
+    public int eventsFired;
+
+    @Label("Remaining")
+    public int remaining;
+}
@@ -0,0 +1,108 @@
+package com.github.hrobasti.timberella.metrics;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Performance data for the bStats charts. The main thread only adds to the current window; each chart callable
+ * (running on the bStats thread) swaps its window for a fresh one and reports what was collected since the
+ * previous submission. Nothing here touches Bukkit state.
+ */
+public final class PerformanceCharts {
+    private static final int[] SIZE_BOUNDS = {8, 32, 64, 128, 256};
+    private static final String[] SIZE_LABELS = {"1-8", "9-32", "33-64", "65-128", "129-256", "257+"};
+    private static final long[] SCAN_BOUNDS_NANOS = {100_000L, 500_000L, 1_000_000L, 2_000_000L, 5_000_000L};
+    private static final String[] SCAN_LABELS = {"<0.1ms", "0.1-0.5ms", "0.5-1ms", "1-2ms", "2-5ms", ">5ms"};
+
+    private static final class SizeWindow {
+        final Map<String, LongAdder[]> perSpecies = new ConcurrentHashMap<>();
+    }
+
+    private static final class TruncationWindow {
+        final LongAdder complete = new LongAdder();
+        final LongAdder truncated = new LongAdder();
+    }
+
+    private final AtomicReference<SizeWindow> sizes = new AtomicReference<>(new SizeWindow());
+    private final AtomicReference<LatencyHistogram> scans = new AtomicReference<>(new LatencyHistogram());
+    private final AtomicReference<LongAdder> leaves = new AtomicReference<>(new LongAdder());
+    private final AtomicReference<TruncationWindow> truncation = new AtomicReference<>(new TruncationWindow());
+
+    public void recordFelling(String species, int blocks, boolean truncated) {
+        LongAdder[] buckets = sizes.get().perSpecies.computeIfAbsent(species, key -> newAdders(SIZE_LABELS.length));
+        buckets[bucket(blocks)].increment();
+        TruncationWindow window = truncation.get();
+        (truncated ? window.truncated : window.complete).increment();
+    }
+
+    public void recordScan(long nanos) {
+        if (nanos > 0) {
+            scans.get().record(nanos);
+        }
+    }
+
+    public void recordLeaves(int count) {
+        leaves.get().add(count);
+    }
+
+    /** Drilldown: species -> felled tree size bucket -> fellings. */
+    public Map<String, Map<String, Integer>> drainTreeSizes() {
+        SizeWindow window = sizes.getAndSet(new SizeWindow());
+        Map<String, Map<String, Integer>> out = new HashMap<>();
+        window.perSpecies.forEach((species, buckets) -> {
+            Map<String, Integer> values = new LinkedHashMap<>();
+            for (int i = 0; i < buckets.length; i++) {
+                int count = (int) Math.min(Integer.MAX_VALUE, buckets[i].sum());
+                if (count > 0) values.put(SIZE_LABELS[i], count);
+            }
+            if (!values.isEmpty()) out.put(species, values);
+        });
+        return out;
+    }
+
+    /** Bucket of the median scan time, or null (chart skipped) when nothing was scanned. */
+    public String drainMedianScanBucket() {
+        LatencyHistogram.Snapshot snapshot = scans.getAndSet(new LatencyHistogram()).snapshot();
+        if (snapshot.count() == 0) {
+            return null;
+        }
+        long median = snapshot.percentile(50);
+        for (int i = 0; i < SCAN_BOUNDS_NANOS.length; i++) {
+            if (median < SCAN_BOUNDS_NANOS[i]) return SCAN_LABELS[i];
+        }
+        return SCAN_LABELS[SCAN_LABELS.length - 1];
+    }
+
+    public int drainLeaves() {
+        return (int) Math.min(Integer.MAX_VALUE, leaves.getAndSet(new LongAdder()).sum());
+    }
+
+    public Map<String, Integer> drainTruncation() {
+        TruncationWindow window = truncation.getAndSet(new TruncationWindow());
+        Map<String, Integer> out = new HashMap<>();
+        int complete = (int) Math.min(Integer.MAX_VALUE, window.complete.sum());
+        int truncated = (int) Math.min(Integer.MAX_VALUE, window.truncated.sum());
+        if (complete > 0) out.put("complete", complete);
+        if (truncated > 0) out.put("truncated", truncated);
+        return out;
+    }
+
+    private static int bucket(int blocks) {
+        for (int i = 0; i < SIZE_BOUNDS.length; i++) {
+            if (blocks <= SIZE_BOUNDS[i]) return i;
+        }
+        return SIZE_BOUNDS.length;
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
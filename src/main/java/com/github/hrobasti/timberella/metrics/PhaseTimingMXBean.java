@@ -0,0 +1,14 @@
+package com.github.hrobasti.timberella.metrics;
+
+/** Latency of one measured phase under {@code com.github.hrobasti.timberella:type=Phase,name=<phase>}. */
+public interface PhaseTimingMXBean {
+    long getCount();
+
+    long getMeanNanos();
+
+    long getP50Nanos();
+
+    long getP99Nanos();
+
+    long getMaxNanos();
+}
@@ -0,0 +1,165 @@
+package com.github.hrobasti.timberella.metrics;
+
+import com.github.hrobasti.timberella.session.SessionRegistry;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+/**
+ * Serves {@code /metrics} in the Prometheus text exposition format. Requests are answered on a single daemon
+ * thread from the same atomic counters and histograms that back {@code /timberella stats}; the main thread is
+ * never involved.
+ */
+public final class PrometheusExporter {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    // Histogram bucket bounds in seconds, from 50µs up to 1s.
+    private static final double[] BUCKETS_SECONDS = {
+        0.00005, 0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1.0
+    };
+
+    private final Logger logger;
+    private final RuntimeStats stats;
+    private final SessionRegistry sessions;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public PrometheusExporter(Logger logger, RuntimeStats stats, SessionRegistry sessions) {
+        this.logger = logger;
+        this.stats = stats;
+        this.sessions = sessions;
+    }
+
+    public boolean start(String bindAddress, int port) {
+        try {
+            server = HttpServer.create(new InetSocketAddress(bindAddress, port), 0);
+        } catch (IOException | RuntimeException ex) {
+            logger.warning("Could not start Prometheus endpoint on " + bindAddress + ":" + port + ": " + ex.getMessage());
+            server = null;
+            return false;
+        }
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Timberella-Prometheus");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/metrics", this::handle);
+        server.start();
+        logger.info("Prometheus metrics available at http://" + bindAddress + ":" + port() + "/metrics");
+        return true;
+    }
+
+    /** The bound port, which differs from the configured one when that was 0; -1 while stopped. */
+    public int port() {
+        HttpServer current = server;
+        return current != null ? current.getAddress().getPort() : -1;
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equalsIgnoreCase(exchange.getRequestMethod()) && !"HEAD".equalsIgnoreCase(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if ("HEAD".equalsIgnoreCase(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    String render() {
+        StringBuilder out = new StringBuilder(4096);
+        counter(out, "timberella_fellings_total", "Tree fellings started.", stats.count(RuntimeStats.Counter.FELLINGS_STARTED));
+        counter(out, "timberella_fellings_aborted_total", "Fellings aborted because the player left.", stats.count(RuntimeStats.Counter.FELLINGS_ABORTED));
+        counter(out, "timberella_fellings_rate_limited_total", "Fellings downgraded to a single block by the per-player rate limit.", stats.count(RuntimeStats.Counter.FELLINGS_RATE_LIMITED));
+        counter(out, "timberella_fellings_shed_total", "Fellings downgraded to a single block because the admission queue was full.", stats.count(RuntimeStats.Counter.FELLINGS_SHED));
+        counter(out, "timberella_fellings_queued_total", "Fellings delayed by the rate limit or the admission queue.", stats.count(RuntimeStats.Counter.FELLINGS_QUEUED));
+        counter(out, "timberella_leaf_decay_shed_total", "Leaf decay jobs dropped under load.", stats.count(RuntimeStats.Counter.LEAF_DECAY_SHED));
+        counter(out, "timberella_scan_world_reads_total", "Block types read from the world by tree scans.", stats.count(RuntimeStats.Counter.SCAN_WORLD_READS));
+        counter(out, "timberella_scan_cached_reads_total", "Block type reads answered by the scan strategy caches.", stats.count(RuntimeStats.Counter.SCAN_CACHED_READS));
+        counter(out, "timberella_leaves_decayed_total", "Leaves removed by leaf decay.", stats.count(RuntimeStats.Counter.LEAVES_DECAYED));
+        counter(out, "timberella_events_fired_total", "Block break events fired for protection checks.", stats.count(RuntimeStats.Counter.EVENTS_FIRED));
+
+        header(out, "timberella_blocks_broken_total", "Blocks broken by fellings, per species.", "counter");
+        Map<String, Long> perSpecies = stats.speciesBlockCounts();
+        if (perSpecies.isEmpty()) {
+            out.append("timberella_blocks_broken_total{species=\"other\"} 0\n");
+        }
+        perSpecies.forEach((species, count) ->
+            out.append("timberella_blocks_broken_total{species=\"").append(escape(species)).append("\"} ").append(count).append('\n'));
+
+        gauge(out, "timberella_active_fellings", "Fellings currently in progress.", sessions.activeFellings());
+        gauge(out, "timberella_queued_blocks", "Blocks waiting to be broken by running fellings.", stats.value(RuntimeStats.Gauge.QUEUED_BLOCKS));
+        gauge(out, "timberella_leaf_decay_queue", "Leaves waiting in leaf decay queues.", stats.value(RuntimeStats.Gauge.PENDING_LEAVES));
+        gauge(out, "timberella_waiting_fellings", "Fellings waiting for admission.", stats.value(RuntimeStats.Gauge.WAITING_FELLINGS));
+        gauge(out, "timberella_player_sessions", "Tracked online player sessions.", sessions.size());
+
+        header(out, "timberella_phase_seconds", "Latency of Timberella work phases.", "histogram");
+        for (RuntimeStats.Phase phase : RuntimeStats.Phase.values()) {
+            histogram(out, phase.label(), stats.snapshot(phase));
+        }
+        return out.toString();
+    }
+
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        header(out, name, help, "counter");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, long value) {
+        header(out, name, help, "gauge");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void histogram(StringBuilder out, String phase, LatencyHistogram.Snapshot snapshot) {
+        String label = "phase=\"" + escape(phase) + "\"";
+        for (double bound : BUCKETS_SECONDS) {
+            long count = snapshot.countAtOrBelow((long) (bound * 1_000_000_000L));
+            out.append("timberella_phase_seconds_bucket{").append(label)
+                .append(",le=\"").append(formatDouble(bound)).append("\"} ").append(count).append('\n');
+        }
+        out.append("timberella_phase_seconds_bucket{").append(label).append(",le=\"+Inf\"} ").append(snapshot.count()).append('\n');
+        out.append("timberella_phase_seconds_sum{").append(label).append("} ").append(formatDouble(snapshot.sum() / 1e9)).append('\n');
+        out.append("timberella_phase_seconds_count{").append(label).append("} ").append(snapshot.count()).append('\n');
+    }
+
+    private static String formatDouble(double value) {
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.hrobasti.timberella.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("timberella.Replant")
+@Label("Replant")
+@Category("Timberella")
+@Description("Sapling placement search after a felling.")
+@Enabled(false)
+@StackTrace(false)
+public final class ReplantEvent extends Event {
+    @Label("Log Count")
+    public int logCount;
+
+    @Label("Saplings Scheduled")
+    public int saplings;
+}
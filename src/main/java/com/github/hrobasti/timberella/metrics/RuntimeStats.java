@@ -0,0 +1,170 @@
+package com.github.hrobasti.timberella.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-phase latency histograms and event counters for {@code /timberella stats}. Timing is skipped entirely
+ * while disabled; counters are always kept since they cost a single uncontended add.
+ */
+public final class RuntimeStats {
+
+    public enum Phase {
+        SCAN("scan"),
+        SPECIES("species"),
+        FELLING_TICK("felling-tick"),
+        LEAF_BATCH("leaf-batch"),
+        REPLANT("replant"),
+        RELOAD("reload");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    public enum Counter {
+        BLOCKS_BROKEN,
+        LEAVES_DECAYED,
+        EVENTS_FIRED,
+        FELLINGS_STARTED,
+        FELLINGS_ABORTED,
+        FELLINGS_RATE_LIMITED,
+        FELLINGS_SHED,
+        FELLINGS_QUEUED,
+        LEAF_DECAY_SHED,
+        SCAN_WORLD_READS,
+        SCAN_CACHED_READS,
+        TOOL_CACHE_HITS,
+        TOOL_CACHE_MISSES,
+        PERMISSION_CACHE_HITS,
+        PERMISSION_CACHE_MISSES
+    }
+
+    /** Current amount of queued work; goes up and down, never reset. */
+    public enum Gauge {
+        QUEUED_BLOCKS,
+        PENDING_LEAVES,
+        WAITING_FELLINGS
+    }
+
+    /** Effective felling and leaf settings after clamping, republished on every reload. */
+    public record Settings(long breakIntervalTicks, int maxBlocks, long leafBatchIntervalTicks, int leafBatchSize,
+                           int leafDecayRadius, int leafMaxDistance) {}
+
+    private final Map<Phase, LatencyHistogram> histograms = new EnumMap<>(Phase.class);
+    private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+    private final Map<Gauge, LongAdder> gauges = new EnumMap<>(Gauge.class);
+    private final Map<String, LongAdder> speciesBlocks = new ConcurrentHashMap<>();
+    private volatile Settings settings = new Settings(2L, 1024, 2L, 20, 5, 4);
+    private volatile boolean timingEnabled = true;
+    private volatile long resetAt = System.currentTimeMillis();
+
+    public RuntimeStats() {
+        for (Phase phase : Phase.values()) {
+            histograms.put(phase, new LatencyHistogram());
+        }
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, new LongAdder());
+        }
+        for (Gauge gauge : Gauge.values()) {
+            gauges.put(gauge, new LongAdder());
+        }
+    }
+
+    public void setTimingEnabled(boolean enabled) {
+        this.timingEnabled = enabled;
+    }
+
+    public boolean isTimingEnabled() {
+        return timingEnabled;
+    }
+
+    /** Start timestamp for {@link #stop}; 0 when timing is disabled. */
+    public long start() {
+        return timingEnabled ? System.nanoTime() : 0L;
+    }
+
+    /** Records the phase and returns its duration in nanoseconds (0 when timing is disabled). */
+    public long stop(Phase phase, long startedAt) {
+        if (startedAt == 0L) {
+            return 0L;
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        histograms.get(phase).record(elapsed);
+        return elapsed;
+    }
+
+    /** Records a phase even while timing is disabled; for rare, coarse operations such as reloads. */
+    public void record(Phase phase, long nanos) {
+        histograms.get(phase).record(nanos);
+    }
+
+    public void increment(Counter counter) {
+        counters.get(counter).increment();
+    }
+
+    public void add(Counter counter, long amount) {
+        counters.get(counter).add(amount);
+    }
+
+    public long count(Counter counter) {
+        return counters.get(counter).sum();
+    }
+
+    /** Counter of broken blocks for one species; fetch once per felling and increment per block. */
+    public LongAdder speciesBlocks(String species) {
+        return speciesBlocks.computeIfAbsent(species, key -> new LongAdder());
+    }
+
+    public Map<String, Long> speciesBlockCounts() {
+        Map<String, Long> copy = new TreeMap<>();
+        speciesBlocks.forEach((species, adder) -> copy.put(species, adder.sum()));
+        return copy;
+    }
+
+    public void adjust(Gauge gauge, long delta) {
+        gauges.get(gauge).add(delta);
+    }
+
+    public long value(Gauge gauge) {
+        return Math.max(0L, gauges.get(gauge).sum());
+    }
+
+    public void publishSettings(Settings settings) {
+        this.settings = settings;
+    }
+
+    public Settings settings() {
+        return settings;
+    }
+
+    public LatencyHistogram.Snapshot snapshot(Phase phase) {
+        return histograms.get(phase).snapshot();
+    }
+
+    public long resetAt() {
+        return resetAt;
+    }
+
+    public void reset() {
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+        for (LongAdder counter : counters.values()) {
+            counter.reset();
+        }
+        for (LongAdder counter : speciesBlocks.values()) {
+            counter.reset();
+        }
+        resetAt = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,215 @@
+package com.github.hrobasti.timberella.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the fellings that exceeded a configured time budget. Outliers go to a fixed-size ring buffer for
+ * {@code /timberella trace} and are appended to {@code traces/slow-fellings.log} by a background writer, which
+ * rotates it to {@code slow-fellings.log.1}, {@code .2}, ... once it reaches the configured size.
+ */
+public final class SlowFellingTracer {
+    private static final int MAX_PENDING_WRITES = 1024;
+
+    public record Record(long timestamp, String world, int x, int y, int z, String species, int blocks, int leaves,
+                         int eventsFired, boolean aborted, long[] phaseNanos, long totalNanos) {
+        public long phase(RuntimeStats.Phase phase) {
+            return phaseNanos[phase.ordinal()];
+        }
+    }
+
+    private final Logger logger;
+    private final Path logFile;
+    private volatile boolean enabled;
+    private volatile long scanThresholdNanos;
+    private volatile long totalThresholdNanos;
+    private volatile long maxLogBytes;
+    private volatile int maxLogFiles;
+    private Record[] ring = new Record[1];
+    private int next;
+    private int size;
+    private ExecutorService writer;
+    // Only touched on the writer thread; -1 until the size of an existing log has been read.
+    private long logBytes = -1;
+
+    public SlowFellingTracer(Logger logger, Path dataFolder) {
+        this.logger = logger;
+        this.logFile = dataFolder.resolve("traces").resolve("slow-fellings.log");
+    }
+
+    public synchronized void configure(boolean enabled, double scanThresholdMs, double totalThresholdMs,
+                                       int bufferSize, boolean writeLog, int maxLogSizeMb, int maxLogFiles) {
+        this.enabled = enabled;
+        this.maxLogBytes = Math.max(1, maxLogSizeMb) * 1024L * 1024L;
+        this.maxLogFiles = Math.max(1, maxLogFiles);
+        this.scanThresholdNanos = (long) (Math.max(0.0, scanThresholdMs) * 1_000_000L);
+        this.totalThresholdNanos = (long) (Math.max(0.0, totalThresholdMs) * 1_000_000L);
+        int capacity = Math.max(1, bufferSize);
+        if (ring.length != capacity) {
+            List<Record> kept = recent();
+            ring = new Record[capacity];
+            next = 0;
+            size = 0;
+            for (Record record : kept.subList(Math.max(0, kept.size() - capacity), kept.size())) {
+                push(record);
+            }
+        }
+        if (enabled && writeLog && writer == null) {
+            // Drop log lines instead of piling them up if the disk cannot keep up.
+            writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(MAX_PENDING_WRITES), runnable -> {
+                    Thread thread = new Thread(runnable, "Timberella-TraceLog");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+        } else if ((!enabled || !writeLog) && writer != null) {
+            shutdownWriter();
+        }
+    }
+
+    /** Starts a trace for a felling at the given block; returns an inert trace while the tracer is disabled. */
+    public FellingTrace begin(String world, int x, int y, int z, String species) {
+        return enabled ? new FellingTrace(this, world, x, y, z, species) : FellingTrace.INACTIVE;
+    }
+
+    void complete(FellingTrace trace) {
+        if (!enabled) return;
+        boolean slowScan = scanThresholdNanos > 0 && trace.phase(RuntimeStats.Phase.SCAN) > scanThresholdNanos;
+        Record record = trace.toRecord();
+        boolean slowTotal = totalThresholdNanos > 0 && record.totalNanos() > totalThresholdNanos;
+        if (!slowScan && !slowTotal) return;
+        ExecutorService log;
+        synchronized (this) {
+            push(record);
+            log = writer;
+        }
+        if (log != null) {
+            log.execute(() -> append(record));
+        }
+    }
+
+    private void push(Record record) {
+        ring[next] = record;
+        next = (next + 1) % ring.length;
+        size = Math.min(size + 1, ring.length);
+    }
+
+    /** Recorded outliers, oldest first. */
+    public synchronized List<Record> recent() {
+        List<Record> out = new ArrayList<>(size);
+        int oldest = (next - size + ring.length) % ring.length;
+        for (int i = 0; i < size; i++) {
+            out.add(ring[(oldest + i) % ring.length]);
+        }
+        return out;
+    }
+
+    public List<Record> worst(int limit) {
+        List<Record> all = recent();
+        all.sort(Comparator.comparingLong(Record::totalNanos).reversed());
+        return all.subList(0, Math.min(Math.max(0, limit), all.size()));
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(ring, null);
+        next = 0;
+        size = 0;
+    }
+
+    public synchronized void shutdown() {
+        enabled = false;
+        shutdownWriter();
+    }
+
+    private void shutdownWriter() {
+        if (writer == null) return;
+        writer.shutdown();
+        try {
+            writer.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+    }
+
+    private void append(Record record) {
+        try {
+            Files.createDirectories(logFile.getParent());
+            byte[] line = (format(record) + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+            if (logBytes < 0) {
+                logBytes = Files.exists(logFile) ? Files.size(logFile) : 0L;
+            }
+            if (logBytes > 0 && logBytes + line.length > maxLogBytes) {
+                rotate();
+            }
+            Files.write(logFile, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            logBytes += line.length;
+        } catch (IOException ex) {
+            logBytes = -1;
+            logger.fine("Could not write slow felling trace: " + ex.getMessage());
+        }
+    }
+
+    /** Shifts the rotated logs up by one, dropping the oldest beyond the file limit (the live log counts). */
+    private void rotate() throws IOException {
+        int kept = maxLogFiles - 1;
+        if (kept == 0) {
+            Files.deleteIfExists(logFile);
+        } else {
+            Files.deleteIfExists(rotated(kept));
+            for (int i = kept - 1; i >= 1; i--) {
+                Path from = rotated(i);
+                if (Files.exists(from)) {
+                    Files.move(from, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(logFile, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        logBytes = 0L;
+    }
+
+    private Path rotated(int index) {
+        return logFile.resolveSibling(logFile.getFileName() + "." + index);
+    }
+
+    static String format(Record record) {
+        StringBuilder line = new StringBuilder(192);
+        line.append(Instant.ofEpochMilli(record.timestamp()))
+            .append(" total=").append(millis(record.totalNanos()))
+            .append(" species=").append(record.species())
+            .append(" at=").append(record.world()).append(' ')
+            .append(record.x()).append(',').append(record.y()).append(',').append(record.z())
+            .append(" blocks=").append(record.blocks())
+            .append(" leaves=").append(record.leaves())
+            .append(" events=").append(record.eventsFired());
+        for (RuntimeStats.Phase phase : RuntimeStats.Phase.values()) {
+            long nanos = record.phase(phase);
+            if (nanos > 0) {
+                line.append(' ').append(phase.label()).append('=').append(millis(nanos));
+            }
+        }
+        if (record.aborted()) {
+            line.append(" aborted");
+        }
+        return line.toString();
+    }
+
+    public static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2fms", nanos / 1_000_000.0);
+    }
+}
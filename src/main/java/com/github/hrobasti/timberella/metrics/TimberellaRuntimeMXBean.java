@@ -0,0 +1,47 @@
+package com.github.hrobasti.timberella.metrics;
+
+/**
+ * Live runtime numbers under {@code com.github.hrobasti.timberella:type=Runtime}. Every attribute reads
+ * atomics or volatile snapshots, so polling never waits on the main thread.
+ */
+public interface TimberellaRuntimeMXBean {
+    int getActiveFellings();
+
+    int getPlayerSessions();
+
+    long getQueuedBlocks();
+
+    long getPendingLeafDecay();
+
+    long getBlocksBroken();
+
+    long getLeavesDecayed();
+
+    long getEventsFired();
+
+    long getFellingsStarted();
+
+    long getFellingsAborted();
+
+    double getToolCacheHitRatio();
+
+    double getPermissionCacheHitRatio();
+
+    double getLocaleBundleCacheHitRatio();
+
+    long getBreakIntervalTicks();
+
+    int getMaxBlocks();
+
+    long getLeafBatchIntervalTicks();
+
+    int getLeafBatchSize();
+
+    int getLeafDecayRadius();
+
+    int getLeafMaxDistance();
+
+    boolean isTimingEnabled();
+
+    long getStatsResetAt();
+}
@@ -0,0 +1,35 @@
+package com.github.hrobasti.timberella.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("timberella.TreeScan")
+@Label("Tree Scan")
+@Category("Timberella")
+@Description("Connected-log scan started by a broken tree block.")
+@Enabled(false)
+@StackTrace(false)
+public final class TreeScanEvent extends Event {
+    @Label("World")
+    public String world;
+
+    @Label("Species")
+    public String species;
+
+    @Label("Block Count")
+    public int blockCount;
+
+    @Label("Block Limit")
+    public int blockLimit;
+
+    @Label("World Reads")
+    public int worldReads;
+
+    @Label("Cached Reads")
+    public int cachedReads;
+}
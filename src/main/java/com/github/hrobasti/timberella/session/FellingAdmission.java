@@ -0,0 +1,227 @@
+package com.github.hrobasti.timberella.session;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Server-wide admission for fellings and leaf decay. A felling runs while fewer than the configured number are
+ * active and its blocks fit the global block budget; the rest wait first come, first served, one entry per player,
+ * and are started as running fellings release their share. Leaf decay gives way first: new jobs are shed and running
+ * ones pause while the heap or the tick time is over its threshold. Only touched from the main thread.
+ */
+public final class FellingAdmission {
+    // The old generation: the heap pool with usage thresholds (eden and survivors have none). Null on JVMs without.
+    private static final MemoryPoolMXBean TENURED = findTenuredPool();
+
+    public record Settings(boolean enabled, int maxFellings, int maxQueuedBlocks, int maxWaiting, int maxLeafJobs,
+                           double memoryThreshold, double tickMillisThreshold, long maxDeferNanos) {
+        public static Settings of(boolean enabled, int maxFellings, int maxQueuedBlocks, int maxWaiting,
+                                  int maxLeafJobs, int memoryPercent, double tickMillis, int maxDeferSeconds) {
+            return new Settings(enabled, Math.max(1, maxFellings), Math.max(1, maxQueuedBlocks),
+                Math.max(0, maxWaiting), Math.max(1, maxLeafJobs),
+                Math.max(1, Math.min(100, memoryPercent)) / 100.0, Math.max(0.0, tickMillis),
+                TimeUnit.SECONDS.toNanos(Math.max(0, maxDeferSeconds)));
+        }
+    }
+
+    /** Share of the global budget held by one running felling; released block by block and when it ends. */
+    public final class Ticket {
+        private int remaining;
+        private boolean released;
+
+        private Ticket(int blocks) {
+            this.remaining = blocks;
+        }
+
+        public void progress(int blocks) {
+            int done = Math.min(blocks, remaining);
+            remaining -= done;
+            queuedBlocks -= done;
+        }
+
+        /** Lowers the share to {@code blocks}, e.g. when the felling was trimmed before it started. */
+        public void shrink(int blocks) {
+            if (released || blocks >= remaining) return;
+            queuedBlocks -= remaining - Math.max(0, blocks);
+            remaining = Math.max(0, blocks);
+            drain();
+        }
+
+        public void release() {
+            if (released) return;
+            released = true;
+            queuedBlocks -= remaining;
+            remaining = 0;
+            activeFellings--;
+            drain();
+        }
+    }
+
+    private record Waiter(UUID playerId, int blocks, Consumer<Ticket> start, Runnable dropped) {}
+
+    private final DoubleSupplier averageTickMillis;
+    private final ArrayDeque<Waiter> waiting = new ArrayDeque<>();
+    private Settings settings = Settings.of(false, 1, 1, 0, 1, 100, 0.0, 0);
+    private int activeFellings;
+    private long queuedBlocks;
+    private int leafJobs;
+
+    public FellingAdmission(DoubleSupplier averageTickMillis) {
+        this.averageTickMillis = averageTickMillis;
+    }
+
+    public void configure(Settings settings) {
+        this.settings = settings;
+        drain();
+    }
+
+    /** Admits a felling of {@code blocks} right away, or returns null when it has to wait. */
+    public Ticket tryAdmit(int blocks) {
+        if (!waiting.isEmpty() || !fits(blocks)) return null;
+        return admit(blocks);
+    }
+
+    public boolean queueFull() {
+        return waiting.size() >= settings.maxWaiting();
+    }
+
+    /**
+     * Queues a felling that {@link #tryAdmit} turned away. {@code start} runs once it is admitted, {@code dropped}
+     * if it is cancelled while waiting. Returns the 1-based queue position.
+     */
+    public int enqueue(UUID playerId, int blocks, Consumer<Ticket> start, Runnable dropped) {
+        waiting.addLast(new Waiter(playerId, blocks, start, dropped));
+        return waiting.size();
+    }
+
+    /** 1-based queue position of the player's waiting felling, or 0 when there is none. */
+    public int position(UUID playerId) {
+        int position = 1;
+        for (Waiter waiter : waiting) {
+            if (waiter.playerId().equals(playerId)) return position;
+            position++;
+        }
+        return 0;
+    }
+
+    public List<UUID> waitingPlayers() {
+        List<UUID> players = new ArrayList<>(waiting.size());
+        for (Waiter waiter : waiting) {
+            players.add(waiter.playerId());
+        }
+        return players;
+    }
+
+    public int waitingCount() {
+        return waiting.size();
+    }
+
+    /** Removes the player's waiting felling and runs its drop callback. */
+    public void cancel(UUID playerId) {
+        Iterator<Waiter> it = waiting.iterator();
+        while (it.hasNext()) {
+            Waiter waiter = it.next();
+            if (waiter.playerId().equals(playerId)) {
+                it.remove();
+                waiter.dropped().run();
+                break;
+            }
+        }
+        drain();
+    }
+
+    /** Drops every waiting felling, e.g. on disable. */
+    public void cancelAll() {
+        Waiter waiter;
+        while ((waiter = waiting.pollFirst()) != null) {
+            waiter.dropped().run();
+        }
+    }
+
+    /** Registers a new leaf decay job unless the job cap is reached or the server is under pressure. */
+    public boolean tryStartLeafJob() {
+        if (settings.enabled() && (leafJobs >= settings.maxLeafJobs() || underPressure())) return false;
+        leafJobs++;
+        return true;
+    }
+
+    public void leafJobFinished() {
+        if (leafJobs > 0) leafJobs--;
+    }
+
+    /** How long a running leaf decay job may stay paused under pressure before it is dropped. */
+    public long maxDeferNanos() {
+        return settings.maxDeferNanos();
+    }
+
+    public boolean underPressure() {
+        Settings current = settings;
+        if (!current.enabled()) return false;
+        if (current.tickMillisThreshold() > 0.0 && averageTickMillis.getAsDouble() >= current.tickMillisThreshold()) {
+            return true;
+        }
+        return current.memoryThreshold() < 1.0 && retainedHeapRatio() >= current.memoryThreshold();
+    }
+
+    /**
+     * Share of the old generation still in use right after its last collection. Live heap usage also counts garbage
+     * that has not been collected yet, and G1 heaps routinely sit near full between collections.
+     */
+    static double retainedHeapRatio() {
+        if (TENURED == null) return 0.0;
+        MemoryUsage retained = TENURED.getCollectionUsage();
+        if (retained == null) return 0.0;
+        long max = retained.getMax() > 0 ? retained.getMax() : Runtime.getRuntime().maxMemory();
+        return max > 0 ? (double) retained.getUsed() / max : 0.0;
+    }
+
+    private static MemoryPoolMXBean findTenuredPool() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported()
+                    && pool.isCollectionUsageThresholdSupported()) {
+                return pool;
+            }
+        }
+        return null;
+    }
+
+    public int activeFellings() {
+        return activeFellings;
+    }
+
+    public long queuedBlocks() {
+        return queuedBlocks;
+    }
+
+    private boolean fits(int blocks) {
+        Settings current = settings;
+        if (!current.enabled()) return true;
+        if (activeFellings >= current.maxFellings()) return false;
+        // A single felling larger than the whole budget still runs, just alone.
+        return activeFellings == 0 || queuedBlocks + blocks <= current.maxQueuedBlocks();
+    }
+
+    private Ticket admit(int blocks) {
+        activeFellings++;
+        queuedBlocks += blocks;
+        return new Ticket(blocks);
+    }
+
+    private void drain() {
+        // Strict FIFO: a large felling at the head is not overtaken by smaller ones behind it.
+        while (!waiting.isEmpty() && fits(waiting.peekFirst().blocks())) {
+            Waiter next = waiting.pollFirst();
+            next.start().accept(admit(next.blocks()));
+        }
+    }
+}
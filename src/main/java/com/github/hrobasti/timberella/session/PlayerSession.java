@@ -0,0 +1,142 @@
+package com.github.hrobasti.timberella.session;
+
+import org.bukkit.Material;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.UUID;
+
+/**
+ * Runtime state of one online player. Everything here is derived or transient and is dropped when the
+ * player quits; persistent state (the toggle) lives in the toggle store. Only touched from the main thread.
+ */
+public final class PlayerSession {
+    private static final long PERMISSION_CACHE_MS = 1000L;
+    private static final byte ELIGIBILITY_UNKNOWN = -1;
+
+    private final UUID playerId;
+    private long lastFellingActionbarAt;
+    private volatile UUID activeFellingId;
+    private BukkitTask activeFellingTask;
+    private boolean timberPermission;
+    private long timberPermissionCheckedAt = Long.MIN_VALUE;
+    private long permissionGeneration = -1L;
+    private Material lastTool;
+    private boolean lastToolEligible;
+    private long toolGeneration = -1L;
+    private byte eligibility = ELIGIBILITY_UNKNOWN;
+    private long eligibilityCheckedAt = Long.MIN_VALUE;
+    private long eligibilityGeneration = -1L;
+    private final TokenBucket fellingBudget = new TokenBucket();
+    private int rateTier;
+    private long rateTierCheckedAt = Long.MIN_VALUE;
+    private long rateTierGeneration = -1L;
+
+    PlayerSession(UUID playerId) {
+        this.playerId = playerId;
+    }
+
+    public UUID playerId() {
+        return playerId;
+    }
+
+    /** Returns true and records the time when the cooldown since the last notice has elapsed. */
+    public boolean tryFellingActionbar(long now, long cooldownMs) {
+        if ((now - lastFellingActionbarAt) < cooldownMs) return false;
+        lastFellingActionbarAt = now;
+        return true;
+    }
+
+    public boolean hasActiveFelling() {
+        return activeFellingId != null;
+    }
+
+    public UUID activeFellingId() {
+        return activeFellingId;
+    }
+
+    public void startFelling(UUID fellingId, BukkitTask task) {
+        this.activeFellingId = fellingId;
+        this.activeFellingTask = task;
+    }
+
+    public void finishFelling(UUID fellingId) {
+        if (fellingId != null && fellingId.equals(activeFellingId)) {
+            activeFellingId = null;
+            activeFellingTask = null;
+        }
+    }
+
+    public Boolean cachedTimberPermission(long now, long generation) {
+        if (generation != permissionGeneration || now - timberPermissionCheckedAt >= PERMISSION_CACHE_MS) {
+            return null;
+        }
+        return timberPermission;
+    }
+
+    public void cacheTimberPermission(boolean allowed, long now, long generation) {
+        this.timberPermission = allowed;
+        this.timberPermissionCheckedAt = now;
+        this.permissionGeneration = generation;
+    }
+
+    public Boolean cachedToolEligibility(Material tool, long generation) {
+        if (generation != toolGeneration || tool != lastTool) {
+            return null;
+        }
+        return lastToolEligible;
+    }
+
+    public void cacheToolEligibility(Material tool, boolean eligible, long generation) {
+        this.lastTool = tool;
+        this.lastToolEligible = eligible;
+        this.toolGeneration = generation;
+    }
+
+    /**
+     * Whether the player may start a felling at all (toggle, tool, durability, sneak mode): 1 yes, 0 no, -1 when
+     * it has to be worked out again. Dropped by {@link #invalidateEligibility()} whenever one of the inputs changes
+     * and, like the permission cache, after a second for changes that raise no event.
+     */
+    public int cachedEligibility(long now, long generation) {
+        if (generation != eligibilityGeneration || now - eligibilityCheckedAt >= PERMISSION_CACHE_MS) {
+            return ELIGIBILITY_UNKNOWN;
+        }
+        return eligibility;
+    }
+
+    public void cacheEligibility(boolean eligible, long now, long generation) {
+        this.eligibility = (byte) (eligible ? 1 : 0);
+        this.eligibilityCheckedAt = now;
+        this.eligibilityGeneration = generation;
+    }
+
+    public void invalidateEligibility() {
+        this.eligibility = ELIGIBILITY_UNKNOWN;
+        this.eligibilityGeneration = -1L;
+    }
+
+    public TokenBucket fellingBudget() {
+        return fellingBudget;
+    }
+
+    /** Index of the player's rate-limit tier, or -1 when it has to be resolved again. */
+    public int cachedRateTier(long now, long generation) {
+        if (generation != rateTierGeneration || now - rateTierCheckedAt >= PERMISSION_CACHE_MS) {
+            return -1;
+        }
+        return rateTier;
+    }
+
+    public void cacheRateTier(int tier, long now, long generation) {
+        this.rateTier = tier;
+        this.rateTierCheckedAt = now;
+        this.rateTierGeneration = generation;
+    }
+
+    void close() {
+        // The felling task notices the offline player on its next tick and clears the tool tag itself,
+        // so it is only forgotten here, not cancelled.
+        activeFellingTask = null;
+        activeFellingId = null;
+    }
+}
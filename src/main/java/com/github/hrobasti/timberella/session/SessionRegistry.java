@@ -0,0 +1,71 @@
+package com.github.hrobasti.timberella.session;
+
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Owns the {@link PlayerSession} of every online player. Sessions are created on first use and removed on
+ * quit, so the registry never outgrows the online player count.
+ */
+public final class SessionRegistry {
+    private final Map<UUID, PlayerSession> sessions = new ConcurrentHashMap<>();
+    private volatile long generation = 0L;
+
+    public PlayerSession get(Player player) {
+        return sessions.computeIfAbsent(player.getUniqueId(), PlayerSession::new);
+    }
+
+    public PlayerSession peek(UUID playerId) {
+        return sessions.get(playerId);
+    }
+
+    public void remove(UUID playerId) {
+        PlayerSession session = sessions.remove(playerId);
+        if (session != null) {
+            session.close();
+        }
+    }
+
+    /** Drops sessions whose player is gone, in case a quit event was missed (e.g. after a plugin reload). */
+    public int prune(Predicate<UUID> online) {
+        int removed = 0;
+        for (UUID id : sessions.keySet()) {
+            if (!online.test(id)) {
+                remove(id);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /** Invalidates cached permission and tool results, e.g. after a config reload. */
+    public void invalidateCaches() {
+        generation++;
+    }
+
+    public long generation() {
+        return generation;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public int activeFellings() {
+        int count = 0;
+        for (PlayerSession session : sessions.values()) {
+            if (session.hasActiveFelling()) count++;
+        }
+        return count;
+    }
+
+    public void clear() {
+        for (UUID id : sessions.keySet()) {
+            remove(id);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.hrobasti.timberella.session;
+
+/**
+ * Felling budget of one player: refills continuously at a fixed rate up to the burst size and starts full.
+ * A felling larger than the burst is admitted once the bucket is full and leaves it in debt, so big trees
+ * are slowed down rather than refused forever. Only touched from the main thread.
+ */
+public final class TokenBucket {
+    private double tokens = Double.NaN;
+    private long refilledAt;
+
+    /** Takes {@code cost} tokens if at least {@code min(cost, burst)} are available. */
+    public boolean tryTake(int cost, double perSecond, int burst, long nowNanos) {
+        refill(perSecond, burst, nowNanos);
+        if (tokens < Math.min(cost, burst)) return false;
+        tokens -= cost;
+        return true;
+    }
+
+    /** Takes {@code cost} tokens unconditionally, e.g. to reserve them for a queued felling. */
+    public void take(int cost, double perSecond, int burst, long nowNanos) {
+        refill(perSecond, burst, nowNanos);
+        tokens -= cost;
+    }
+
+    /** Returns {@code amount} previously taken tokens, e.g. when a felling shrank or did not start. */
+    public void give(int amount, int burst) {
+        if (Double.isNaN(tokens)) return;
+        tokens = Math.min(burst, tokens + amount);
+    }
+
+    /** Nanoseconds until {@link #tryTake} would succeed for {@code cost}. */
+    public long waitNanos(int cost, double perSecond, int burst, long nowNanos) {
+        refill(perSecond, burst, nowNanos);
+        double missing = Math.min(cost, burst) - tokens;
+        if (missing <= 0.0) return 0L;
+        return (long) Math.ceil(missing / perSecond * 1_000_000_000.0);
+    }
+
+    private void refill(double perSecond, int burst, long nowNanos) {
+        if (Double.isNaN(tokens)) {
+            tokens = burst;
+        } else if (tokens < burst) {
+            tokens = Math.min(burst, tokens + (nowNanos - refilledAt) * perSecond / 1_000_000_000.0);
+        } else {
+            // A lowered burst (reload or lost tier) takes effect immediately.
+            tokens = burst;
+        }
+        refilledAt = nowNanos;
+    }
+}
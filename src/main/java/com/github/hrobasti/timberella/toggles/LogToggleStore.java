@@ -0,0 +1,325 @@
+package com.github.hrobasti.timberella.toggles;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sharded append-only storage under {@code toggles/}.
+ * <p>
+ * Each shard consists of a sorted, compacted file ({@code shard-NN.dat}, binary-searched on lookup) and an
+ * append-only change log ({@code shard-NN.log}). Only the uncompacted tail of a shard and the states of
+ * online players are kept in memory, so startup cost does not depend on how many players ever opted out.
+ * Appends, compaction and reading the change logs run on a single background writer.
+ * <p>
+ * A player's shard follows from the shard count, so the count the files were written with is kept in
+ * {@code toggles/store.properties} and wins over a changed {@code toggles.log.shards}.
+ */
+public class LogToggleStore implements ToggleStore {
+    public static final String ID = "log";
+    private static final int LOG_RECORD_BYTES = 17;
+    private static final String META_FILE = "store.properties";
+
+    private final JavaPlugin plugin;
+    private final Path directory;
+    private final int configuredShards;
+    private final int compactThreshold;
+    private final Map<UUID, Boolean> online = new ConcurrentHashMap<>();
+    private Shard[] shards;
+    private ExecutorService writer;
+
+    public LogToggleStore(JavaPlugin plugin, int shardCount, int compactThreshold) {
+        this.plugin = plugin;
+        this.directory = plugin.getDataFolder().toPath().resolve("toggles");
+        this.configuredShards = clampShards(shardCount);
+        this.compactThreshold = Math.max(16, compactThreshold);
+    }
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public void open() {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not create toggle storage directory: " + e.getMessage());
+        }
+        int count = storedShardCount();
+        shards = new Shard[count];
+        for (int i = 0; i < shards.length; i++) {
+            String name = String.format("shard-%02x", i);
+            shards[i] = new Shard(new SortedUuidFile(directory.resolve(name + ".dat")), directory.resolve(name + ".log"));
+        }
+        writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "Timberella-ToggleLog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Shard shard : shards) {
+            writer.execute(shard::loadTail);
+        }
+    }
+
+    /** The shard count the existing files use; written on first start so later config changes cannot move players. */
+    private int storedShardCount() {
+        Path meta = directory.resolve(META_FILE);
+        Properties properties = new Properties();
+        if (Files.exists(meta)) {
+            try (InputStream in = Files.newInputStream(meta)) {
+                properties.load(in);
+                int stored = clampShards(Integer.parseInt(properties.getProperty("shards", "").trim()));
+                if (stored != configuredShards) {
+                    plugin.getLogger().warning("toggles.log.shards is " + configuredShards + " but the files in toggles/ use "
+                        + stored + " shards; keeping " + stored + ". Delete toggles/ to start over with the new count.");
+                }
+                return stored;
+            } catch (IOException | NumberFormatException e) {
+                plugin.getLogger().warning("Could not read toggles/" + META_FILE + ", using " + configuredShards + " shards: " + e.getMessage());
+                return configuredShards;
+            }
+        }
+        properties.setProperty("shards", Integer.toString(configuredShards));
+        try (OutputStream out = Files.newOutputStream(meta)) {
+            properties.store(out, "Timberella toggle log layout. Do not edit: players are assigned to shards by this count.");
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not write toggles/" + META_FILE + ": " + e.getMessage());
+        }
+        return configuredShards;
+    }
+
+    private static int clampShards(int count) {
+        return Math.max(1, Math.min(256, count));
+    }
+
+    @Override
+    public boolean isDisabled(UUID uuid) {
+        Boolean cached = online.get(uuid);
+        if (cached != null) return cached;
+        return shardFor(uuid).lookup(uuid);
+    }
+
+    @Override
+    public void setDisabled(UUID uuid, boolean disabled) {
+        online.computeIfPresent(uuid, (id, previous) -> disabled);
+        shardFor(uuid).record(uuid, disabled);
+    }
+
+    @Override
+    public void preload(UUID uuid) {
+        online.put(uuid, shardFor(uuid).lookup(uuid));
+    }
+
+    @Override
+    public void onJoin(Player player) {
+        UUID uuid = player.getUniqueId();
+        online.computeIfAbsent(uuid, id -> shardFor(id).lookup(id));
+    }
+
+    @Override
+    public void onQuit(UUID uuid) {
+        online.remove(uuid);
+    }
+
+    @Override
+    public boolean importDisabled(Collection<UUID> uuids) {
+        boolean ok = true;
+        Map<Integer, Map<UUID, Boolean>> byShard = new HashMap<>();
+        for (UUID uuid : uuids) {
+            byShard.computeIfAbsent(shardIndex(uuid), i -> new HashMap<>()).put(uuid, Boolean.TRUE);
+        }
+        for (Map.Entry<Integer, Map<UUID, Boolean>> entry : byShard.entrySet()) {
+            Shard shard = shards[entry.getKey()];
+            synchronized (shard.compacted) {
+                try {
+                    shard.compacted.merge(entry.getValue());
+                } catch (IOException e) {
+                    plugin.getLogger().warning("Failed to import toggles into " + shard.compacted.path().getFileName() + ": " + e.getMessage());
+                    ok = false;
+                }
+            }
+        }
+        return ok;
+    }
+
+    @Override
+    public boolean hasAnyDisabled() {
+        if (online.containsValue(Boolean.TRUE)) return true;
+        for (Shard shard : shards) {
+            if (shard.compacted.records() > 0) return true;
+            synchronized (shard) {
+                if (shard.tail.containsValue(Boolean.TRUE) || shard.merging.containsValue(Boolean.TRUE)) return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int cachedEntries() {
+        int total = online.size();
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                total += shard.tail.size() + shard.merging.size();
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public void close() {
+        online.clear();
+        if (writer == null) return;
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Toggle log writer did not finish within 5s; pending changes may be lost.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int shardIndex(UUID uuid) {
+        return (uuid.hashCode() & 0x7FFFFFFF) % shards.length;
+    }
+
+    private Shard shardFor(UUID uuid) {
+        return shards[shardIndex(uuid)];
+    }
+
+    private final class Shard {
+        final SortedUuidFile compacted;
+        final Path log;
+        /** Changes not yet merged into {@code compacted}; starts empty and is filled from the log by {@link #loadTail()}. */
+        Map<UUID, Boolean> tail = new HashMap<>();
+        /** Changes being merged by a running compaction, still answered from memory until the new file is in place. */
+        Map<UUID, Boolean> merging = Map.of();
+        boolean tailLoaded;
+        boolean compactQueued;
+
+        Shard(SortedUuidFile compacted, Path log) {
+            this.compacted = compacted;
+            this.log = log;
+        }
+
+        synchronized boolean lookup(UUID uuid) {
+            // Normally done by the writer right after open(); only a lookup that comes first reads the log here.
+            loadTail();
+            Boolean recent = tail.get(uuid);
+            if (recent == null) recent = merging.get(uuid);
+            if (recent != null) return recent;
+            try {
+                return compacted.contains(uuid);
+            } catch (IOException e) {
+                plugin.getLogger().fine("Failed to read " + compacted.path().getFileName() + ": " + e.getMessage());
+                return false;
+            }
+        }
+
+        /** Never touches the disk; {@link #loadTail()} keeps changes recorded before the log was read. */
+        synchronized void record(UUID uuid, boolean disabled) {
+            tail.put(uuid, disabled);
+            writer.execute(() -> append(uuid, disabled));
+            if (!compactQueued && tail.size() >= compactThreshold) {
+                compactQueued = true;
+                writer.execute(this::compact);
+            }
+        }
+
+        synchronized void loadTail() {
+            if (tailLoaded) return;
+            tailLoaded = true;
+            if (!Files.exists(log)) return;
+            Map<UUID, Boolean> logged = new HashMap<>();
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(log)))) {
+                while (true) {
+                    long msb;
+                    long lsb;
+                    byte flag;
+                    try {
+                        msb = in.readLong();
+                        lsb = in.readLong();
+                        flag = in.readByte();
+                    } catch (EOFException eof) {
+                        break; // a torn trailing record from a crash is simply dropped
+                    }
+                    logged.put(new UUID(msb, lsb), flag != 0);
+                }
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to read " + log.getFileName() + ": " + e.getMessage());
+            }
+            logged.forEach(tail::putIfAbsent);
+        }
+
+        private void append(UUID uuid, boolean disabled) {
+            ByteBuffer record = ByteBuffer.allocate(LOG_RECORD_BYTES);
+            record.putLong(uuid.getMostSignificantBits());
+            record.putLong(uuid.getLeastSignificantBits());
+            record.put((byte) (disabled ? 1 : 0));
+            record.flip();
+            try (FileChannel channel = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to append to " + log.getFileName() + ": " + e.getMessage());
+            }
+        }
+
+        /**
+         * Runs on the writer. The tail is swapped for a fresh map under the lock and merged outside it, so toggles
+         * and lookups never wait for the file rewrite. Appends queued behind this task land in the new log.
+         */
+        private void compact() {
+            Map<UUID, Boolean> snapshot;
+            synchronized (this) {
+                compactQueued = false;
+                loadTail();
+                if (tail.isEmpty()) return;
+                snapshot = tail;
+                merging = snapshot;
+                tail = new HashMap<>();
+            }
+            boolean merged = false;
+            try {
+                synchronized (compacted) {
+                    compacted.merge(snapshot);
+                }
+                merged = true;
+                Files.deleteIfExists(log);
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to compact " + log.getFileName() + ": " + e.getMessage());
+            }
+            synchronized (this) {
+                if (!merged) {
+                    // The log still holds everything; newer changes win over the snapshot.
+                    snapshot.putAll(tail);
+                    tail = snapshot;
+                }
+                merging = Map.of();
+            }
+        }
+    }
+}
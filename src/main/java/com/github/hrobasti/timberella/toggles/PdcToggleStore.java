@@ -0,0 +1,174 @@
+package com.github.hrobasti.timberella.toggles;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Player;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stores the opt-out flag in the player's own {@link PersistentDataContainer}; the server saves it with the
+ * player data. Only online players are cached.
+ * <p>
+ * Opt-outs migrated from {@code toggles.yml} cannot be written into offline player data, so they are kept in a
+ * sorted on-disk index and moved into the container the first time the player joins. Moved entries are removed
+ * from the index in batches off the main thread.
+ */
+public class PdcToggleStore implements ToggleStore {
+    public static final String ID = "pdc";
+
+    private final JavaPlugin plugin;
+    private final NamespacedKey disabledKey;
+    private final SortedUuidFile legacyIndex;
+    private final Map<UUID, Boolean> online = new ConcurrentHashMap<>();
+    private final Set<UUID> pendingLegacy = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> migratedLegacy = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean pruneScheduled = new AtomicBoolean();
+
+    public PdcToggleStore(JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.disabledKey = new NamespacedKey(plugin, "timber_disabled");
+        this.legacyIndex = new SortedUuidFile(plugin.getDataFolder().toPath().resolve("toggles").resolve("legacy-disabled.dat"));
+    }
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public void open() {
+        online.clear();
+        pendingLegacy.clear();
+    }
+
+    @Override
+    public boolean isDisabled(UUID uuid) {
+        Boolean cached = online.get(uuid);
+        if (cached != null) return cached;
+        Player player = plugin.getServer().getPlayer(uuid);
+        if (player == null) return false;
+        onJoin(player);
+        return online.getOrDefault(uuid, Boolean.FALSE);
+    }
+
+    @Override
+    public void setDisabled(UUID uuid, boolean disabled) {
+        Player player = plugin.getServer().getPlayer(uuid);
+        if (player == null) {
+            plugin.getLogger().fine("Cannot store toggle for offline player " + uuid + " in pdc storage.");
+            return;
+        }
+        player.getPersistentDataContainer().set(disabledKey, PersistentDataType.BYTE, (byte) (disabled ? 1 : 0));
+        online.put(uuid, disabled);
+    }
+
+    @Override
+    public void preload(UUID uuid) {
+        if (legacyIndex.records() == 0) return;
+        try {
+            if (legacyIndex.contains(uuid)) pendingLegacy.add(uuid);
+        } catch (IOException e) {
+            plugin.getLogger().fine("Failed to read legacy toggle index: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void onJoin(Player player) {
+        UUID uuid = player.getUniqueId();
+        PersistentDataContainer container = player.getPersistentDataContainer();
+        Byte stored = container.get(disabledKey, PersistentDataType.BYTE);
+        boolean legacy = pendingLegacy.remove(uuid);
+        boolean disabled;
+        if (stored != null) {
+            disabled = stored != 0;
+        } else {
+            disabled = legacy;
+            if (disabled) {
+                container.set(disabledKey, PersistentDataType.BYTE, (byte) 1);
+            }
+        }
+        online.put(uuid, disabled);
+        if (legacy) {
+            // The container is authoritative from now on.
+            migratedLegacy.add(uuid);
+            schedulePrune();
+        }
+    }
+
+    private void schedulePrune() {
+        if (!pruneScheduled.compareAndSet(false, true)) return;
+        try {
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+                pruneScheduled.set(false);
+                pruneLegacy();
+            });
+        } catch (RuntimeException e) {
+            // Plugin disabling: close() prunes what is left.
+            pruneScheduled.set(false);
+        }
+    }
+
+    private void pruneLegacy() {
+        Map<UUID, Boolean> removals = new HashMap<>();
+        for (UUID uuid : migratedLegacy) {
+            if (migratedLegacy.remove(uuid)) removals.put(uuid, Boolean.FALSE);
+        }
+        if (removals.isEmpty()) return;
+        synchronized (legacyIndex) {
+            try {
+                legacyIndex.merge(removals);
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to prune legacy toggle index: " + e.getMessage());
+                migratedLegacy.addAll(removals.keySet());
+            }
+        }
+    }
+
+    @Override
+    public void onQuit(UUID uuid) {
+        online.remove(uuid);
+        pendingLegacy.remove(uuid);
+    }
+
+    @Override
+    public boolean importDisabled(Collection<UUID> uuids) {
+        Map<UUID, Boolean> changes = new HashMap<>(uuids.size() * 2);
+        for (UUID uuid : uuids) changes.put(uuid, Boolean.TRUE);
+        try {
+            synchronized (legacyIndex) {
+                legacyIndex.merge(changes);
+            }
+            return true;
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to write legacy toggle index: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean hasAnyDisabled() {
+        return online.containsValue(Boolean.TRUE) || legacyIndex.records() > 0;
+    }
+
+    @Override
+    public int cachedEntries() {
+        return online.size() + pendingLegacy.size();
+    }
+
+    @Override
+    public void close() {
+        pruneLegacy();
+        online.clear();
+        pendingLegacy.clear();
+    }
+}
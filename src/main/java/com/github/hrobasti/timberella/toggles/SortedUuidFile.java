@@ -0,0 +1,136 @@
+package com.github.hrobasti.timberella.toggles;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Sorted, fixed-width (16 byte) file of UUIDs. Lookups are a binary search on disk, so nothing has
+ * to be held in memory regardless of how many entries the file contains.
+ */
+final class SortedUuidFile {
+    static final int RECORD_BYTES = 16;
+
+    private final Path path;
+
+    SortedUuidFile(Path path) {
+        this.path = path;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long records() {
+        try {
+            return Files.exists(path) ? Files.size(path) / RECORD_BYTES : 0L;
+        } catch (IOException ex) {
+            return 0L;
+        }
+    }
+
+    boolean contains(UUID uuid) throws IOException {
+        if (!Files.exists(path)) return false;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long low = 0;
+            long high = channel.size() / RECORD_BYTES - 1;
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES);
+            while (low <= high) {
+                long mid = (low + high) >>> 1;
+                buffer.clear();
+                readFully(channel, buffer, mid * RECORD_BYTES);
+                buffer.flip();
+                int cmp = compare(buffer.getLong(), buffer.getLong(), uuid);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Streams the current file and merges {@code changes} into it (true = present, false = absent).
+     * The result replaces the file atomically.
+     */
+    void merge(Map<UUID, Boolean> changes) throws IOException {
+        NavigableMap<UUID, Boolean> sorted = new TreeMap<>(SortedUuidFile::compare);
+        sorted.putAll(changes);
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            Iterator<Map.Entry<UUID, Boolean>> pending = sorted.entrySet().iterator();
+            Map.Entry<UUID, Boolean> next = pending.hasNext() ? pending.next() : null;
+            if (Files.exists(path)) {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                    while (true) {
+                        long msb;
+                        long lsb;
+                        try {
+                            msb = in.readLong();
+                            lsb = in.readLong();
+                        } catch (EOFException eof) {
+                            break;
+                        }
+                        while (next != null && compare(msb, lsb, next.getKey()) > 0) {
+                            if (next.getValue()) write(out, next.getKey());
+                            next = pending.hasNext() ? pending.next() : null;
+                        }
+                        if (next != null && compare(msb, lsb, next.getKey()) == 0) {
+                            if (next.getValue()) write(out, next.getKey());
+                            next = pending.hasNext() ? pending.next() : null;
+                            continue;
+                        }
+                        out.writeLong(msb);
+                        out.writeLong(lsb);
+                    }
+                }
+            }
+            while (next != null) {
+                if (next.getValue()) write(out, next.getKey());
+                next = pending.hasNext() ? pending.next() : null;
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static int compare(UUID a, UUID b) {
+        return compare(a.getMostSignificantBits(), a.getLeastSignificantBits(), b);
+    }
+
+    private static int compare(long msb, long lsb, UUID other) {
+        int cmp = Long.compare(msb, other.getMostSignificantBits());
+        return cmp != 0 ? cmp : Long.compare(lsb, other.getLeastSignificantBits());
+    }
+
+    private static void write(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) throw new EOFException();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.github.hrobasti.timberella.toggles;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One-way migration from the legacy {@code toggles.yml} into a scalable backend. The source file is renamed to
+ * {@code toggles.yml.migrated} afterwards so the import never runs twice.
+ */
+public final class ToggleMigration {
+
+    private ToggleMigration() {
+    }
+
+    public static void migrateLegacyYaml(JavaPlugin plugin, ToggleStore target) {
+        if (target == null || YamlToggleStore.ID.equals(target.id())) return;
+        File legacy = YamlToggleStore.togglesFile(plugin);
+        if (!legacy.exists()) return;
+        List<UUID> disabled = YamlToggleStore.readLegacyFile(plugin);
+        if (!disabled.isEmpty() && !target.importDisabled(disabled)) {
+            plugin.getLogger().warning("Could not migrate toggles.yml to '" + target.id() + "' storage; keeping the file for the next attempt.");
+            return;
+        }
+        File done = new File(legacy.getParentFile(), YamlToggleStore.FILE_NAME + ".migrated");
+        if (!legacy.renameTo(done)) {
+            plugin.getLogger().warning("Migrated toggles.yml but could not rename it; remove it manually to avoid a second import.");
+        }
+        plugin.getLogger().info("Migrated " + disabled.size() + " player toggles from toggles.yml to '" + target.id() + "' storage.");
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.hrobasti.timberella.toggles;
+
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Backend for per-player Timberella opt-outs.
+ * <p>
+ * Implementations must answer {@link #isDisabled(UUID)} in O(1) for online players; how (and whether)
+ * offline players are kept in memory is up to the backend.
+ */
+public interface ToggleStore {
+
+    /** Identifier used in {@code toggles.storage}. */
+    String id();
+
+    void open();
+
+    boolean isDisabled(UUID uuid);
+
+    void setDisabled(UUID uuid, boolean disabled);
+
+    /** Called off the main thread before a player joins; backends may warm their cache here. */
+    default void preload(UUID uuid) {}
+
+    default void onJoin(Player player) {}
+
+    default void onQuit(UUID uuid) {}
+
+    /** Bulk import of legacy {@code toggles.yml} opt-outs; returns false if nothing could be persisted. */
+    boolean importDisabled(Collection<UUID> uuids);
+
+    boolean hasAnyDisabled();
+
+    /** Number of player states currently held in memory. */
+    int cachedEntries();
+
+    void close();
+}
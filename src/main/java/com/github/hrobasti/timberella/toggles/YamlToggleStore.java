@@ -0,0 +1,108 @@
+package com.github.hrobasti.timberella.toggles;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Classic storage: every opt-out lives in one {@code toggles.yml} that is loaded at startup.
+ * Fine for small servers, but memory and startup time grow with the number of players who ever opted out.
+ */
+public class YamlToggleStore implements ToggleStore {
+    public static final String ID = "yaml";
+    static final String FILE_NAME = "toggles.yml";
+
+    private final JavaPlugin plugin;
+    private final Set<UUID> disabledPlayers = Collections.synchronizedSet(new HashSet<>());
+
+    public YamlToggleStore(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public void open() {
+        disabledPlayers.clear();
+        disabledPlayers.addAll(readLegacyFile(plugin));
+    }
+
+    static File togglesFile(JavaPlugin plugin) {
+        return new File(plugin.getDataFolder(), FILE_NAME);
+    }
+
+    static List<UUID> readLegacyFile(JavaPlugin plugin) {
+        List<UUID> result = new ArrayList<>();
+        try {
+            File f = togglesFile(plugin);
+            if (!f.exists()) return result;
+            YamlConfiguration cfg = YamlConfiguration.loadConfiguration(f);
+            for (String s : cfg.getStringList("disabled")) {
+                try { result.add(UUID.fromString(s)); } catch (Exception ignored) {}
+            }
+        } catch (Exception e) {
+            plugin.getLogger().fine("Failed to load toggles.yml: " + e.getMessage());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isDisabled(UUID uuid) {
+        return disabledPlayers.contains(uuid);
+    }
+
+    @Override
+    public void setDisabled(UUID uuid, boolean disabled) {
+        if (disabled) disabledPlayers.add(uuid); else disabledPlayers.remove(uuid);
+        save();
+    }
+
+    @Override
+    public boolean importDisabled(Collection<UUID> uuids) {
+        disabledPlayers.addAll(uuids);
+        save();
+        return true;
+    }
+
+    @Override
+    public boolean hasAnyDisabled() {
+        return !disabledPlayers.isEmpty();
+    }
+
+    @Override
+    public int cachedEntries() {
+        return disabledPlayers.size();
+    }
+
+    @Override
+    public void close() {
+        // Every change is written immediately.
+    }
+
+    private void save() {
+        try {
+            File f = togglesFile(plugin);
+            if (!f.getParentFile().exists()) f.getParentFile().mkdirs();
+            YamlConfiguration cfg = new YamlConfiguration();
+            List<String> list = new ArrayList<>();
+            synchronized (disabledPlayers) {
+                for (UUID u : disabledPlayers) list.add(u.toString());
+            }
+            cfg.set("disabled", list);
+            cfg.save(f);
+        } catch (Exception e) {
+            plugin.getLogger().fine("Failed to save toggles.yml: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.hrobasti.timberella.tree;
+
+import org.bukkit.Material;
+
+/**
+ * Read-only view of block types used by the tree logic. {@link WorldBlockAccess} reads a live world; {@link VoxelGrid}
+ * is an in-memory stand-in so scans, leaf decay and replanting can run and be benchmarked without a server.
+ */
+public interface BlockAccess {
+    Material type(int x, int y, int z);
+
+    /** Whether entities can move through the block (saplings may be placed into it). */
+    boolean isPassable(int x, int y, int z);
+
+    default Material type(long pos) {
+        return type(BlockPos.x(pos), BlockPos.y(pos), BlockPos.z(pos));
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.hrobasti.timberella.tree;
+
+/**
+ * Packs block coordinates of a single world into one {@code long}: 26 bits for x and z, 12 bits for y.
+ */
+public final class BlockPos {
+    private BlockPos() {
+    }
+
+    public static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFFL);
+    }
+
+    public static int x(long pos) {
+        return (int) (pos >> 38);
+    }
+
+    public static int y(long pos) {
+        return (int) (pos << 52 >> 52);
+    }
+
+    public static int z(long pos) {
+        return (int) (pos << 26 >> 38);
+    }
+
+    public static long offset(long pos, int dx, int dy, int dz) {
+        return pack(x(pos) + dx, y(pos) + dy, z(pos) + dz);
+    }
+
+    /** Key of the column the position belongs to (y dropped). */
+    public static long column(long pos) {
+        return pos & ~0xFFFL;
+    }
+}
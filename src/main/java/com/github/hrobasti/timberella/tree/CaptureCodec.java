@@ -0,0 +1,215 @@
+package com.github.hrobasti.timberella.tree;
+
+import org.bukkit.Material;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Binary format of {@link FellingCapture} files. A file starts with {@link #MAGIC} and {@link #VERSION}, followed by
+ * records that are each prefixed with their varint length, so a reader can skip what it does not understand.
+ * <p>
+ * A record stores its materials once in a palette (name plus a tree-material flag) and the box as run-length encoded
+ * palette indices: mostly air and leaves, a typical felling neighbourhood shrinks to a few hundred bytes.
+ * Materials unknown to the reading server version are read as air.
+ */
+public final class CaptureCodec {
+    public static final int MAGIC = 0x54424350; // "TBCP"
+    public static final int VERSION = 1;
+
+    private static final int FLAG_DIAGONALS = 1;
+    private static final int FLAG_TRUNCATED = 2;
+    private static final int PALETTE_TREE = 1;
+
+    private CaptureCodec() {
+    }
+
+    public static void writeHeader(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.flush();
+    }
+
+    /** Reads and checks the file header; returns the format version. */
+    public static int readHeader(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a Timberella capture file");
+        }
+        int version = data.readUnsignedByte();
+        if (version > VERSION) {
+            throw new IOException("Capture format version " + version + " is newer than supported (" + VERSION + ")");
+        }
+        return version;
+    }
+
+    /** Encodes one record including its length prefix. */
+    public static byte[] encode(FellingCapture capture) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeLong(capture.timestamp());
+        out.writeUTF(capture.world() == null ? "" : capture.world());
+        out.writeUTF(capture.species() == null ? "" : capture.species());
+        writeSigned(out, capture.minX());
+        writeSigned(out, capture.minY());
+        writeSigned(out, capture.minZ());
+        writeVarInt(out, capture.sizeX());
+        writeVarInt(out, capture.sizeY());
+        writeVarInt(out, capture.sizeZ());
+        writeSigned(out, capture.startX());
+        writeSigned(out, capture.startY());
+        writeSigned(out, capture.startZ());
+        FellingCapture.Settings settings = capture.settings();
+        out.writeByte((settings.includeDiagonals() ? FLAG_DIAGONALS : 0) | (capture.truncated() ? FLAG_TRUNCATED : 0));
+        writeSigned(out, settings.maxBlocks());
+        writeSigned(out, settings.horizontalRadius());
+        writeSigned(out, settings.verticalRadius());
+        writeVarInt(out, settings.leafRadius());
+        writeVarInt(out, settings.leafMaxDistanceSquared());
+        writeVarInt(out, capture.logs());
+
+        Material[] blocks = capture.blocks();
+        Map<Material, Integer> palette = new IdentityHashMap<>();
+        List<Material> order = new ArrayList<>();
+        for (Material material : blocks) {
+            if (!palette.containsKey(material)) {
+                palette.put(material, order.size());
+                order.add(material);
+            }
+        }
+        writeVarInt(out, order.size());
+        for (Material material : order) {
+            out.writeUTF(material.name());
+            out.writeByte(capture.treeMaterials().contains(material) ? PALETTE_TREE : 0);
+        }
+        int i = 0;
+        while (i < blocks.length) {
+            Material material = blocks[i];
+            int run = 1;
+            while (i + run < blocks.length && blocks[i + run] == material) {
+                run++;
+            }
+            writeVarInt(out, palette.get(material));
+            writeVarInt(out, run);
+            i += run;
+        }
+        out.flush();
+
+        ByteArrayOutputStream record = new ByteArrayOutputStream(buffer.size() + 5);
+        writeVarInt(record, buffer.size());
+        buffer.writeTo(record);
+        return record.toByteArray();
+    }
+
+    /** Reads the next record, or returns null at the end of the stream. */
+    public static FellingCapture read(InputStream in) throws IOException {
+        int length;
+        try {
+            length = readVarInt(in);
+        } catch (EOFException end) {
+            return null;
+        }
+        byte[] payload = in.readNBytes(length);
+        if (payload.length < length) {
+            throw new EOFException("Truncated capture record");
+        }
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(payload));
+        long timestamp = data.readLong();
+        String world = data.readUTF();
+        String species = data.readUTF();
+        int minX = readSigned(data);
+        int minY = readSigned(data);
+        int minZ = readSigned(data);
+        int sizeX = readVarInt(data);
+        int sizeY = readVarInt(data);
+        int sizeZ = readVarInt(data);
+        int startX = readSigned(data);
+        int startY = readSigned(data);
+        int startZ = readSigned(data);
+        int flags = data.readUnsignedByte();
+        int maxBlocks = readSigned(data);
+        int horizontalRadius = readSigned(data);
+        int verticalRadius = readSigned(data);
+        int leafRadius = readVarInt(data);
+        int leafMaxDistanceSquared = readVarInt(data);
+        int logs = readVarInt(data);
+
+        int paletteSize = readVarInt(data);
+        Material[] palette = new Material[paletteSize];
+        Set<Material> treeMaterials = EnumSet.noneOf(Material.class);
+        for (int p = 0; p < paletteSize; p++) {
+            Material material = Material.matchMaterial(data.readUTF());
+            palette[p] = material != null ? material : Material.AIR;
+            if ((data.readUnsignedByte() & PALETTE_TREE) != 0 && material != null) {
+                treeMaterials.add(material);
+            }
+        }
+        long volume = (long) sizeX * sizeY * sizeZ;
+        if (volume > Integer.MAX_VALUE) {
+            throw new IOException("Capture box too large: " + volume);
+        }
+        Material[] blocks = new Material[(int) volume];
+        int filled = 0;
+        while (filled < blocks.length) {
+            int index = readVarInt(data);
+            int run = readVarInt(data);
+            if (index >= paletteSize || run <= 0 || filled + run > blocks.length) {
+                throw new IOException("Corrupt capture record");
+            }
+            Arrays.fill(blocks, filled, filled + run, palette[index]);
+            filled += run;
+        }
+        FellingCapture.Settings settings = new FellingCapture.Settings((flags & FLAG_DIAGONALS) != 0, maxBlocks,
+            horizontalRadius, verticalRadius, leafRadius, leafMaxDistanceSquared);
+        return new FellingCapture(timestamp, world.isEmpty() ? null : world, species.isEmpty() ? null : species,
+            minX, minY, minZ, sizeX, sizeY, sizeZ, blocks, treeMaterials, startX, startY, startZ,
+            settings, logs, (flags & FLAG_TRUNCATED) != 0);
+    }
+
+    static void writeVarInt(OutputStream out, int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.write((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.write(remaining);
+    }
+
+    static int readVarInt(InputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint too long");
+    }
+
+    private static void writeSigned(OutputStream out, int value) throws IOException {
+        writeVarInt(out, (value << 1) ^ (value >> 31));
+    }
+
+    private static int readSigned(InputStream in) throws IOException {
+        int raw = readVarInt(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.hrobasti.timberella.tree;
+
+import org.bukkit.Material;
+
+import java.util.Set;
+
+/**
+ * The blocks around one production felling plus the settings it ran with, enough to run scan, leaf decay and
+ * replant planning on it again offline. {@code blocks} covers the box at {@code minX, minY, minZ} in y, z, x order;
+ * {@code treeMaterials} are the materials of that box the server treated as fellable.
+ */
+public record FellingCapture(long timestamp, String world, String species,
+                             int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ, Material[] blocks,
+                             Set<Material> treeMaterials, int startX, int startY, int startZ,
+                             Settings settings, int logs, boolean truncated) {
+
+    public record Settings(boolean includeDiagonals, int maxBlocks, int horizontalRadius, int verticalRadius,
+                           int leafRadius, int leafMaxDistanceSquared) {}
+
+    public int volume() {
+        return sizeX * sizeY * sizeZ;
+    }
+
+    /** A fresh grid holding the captured blocks at their original coordinates. */
+    public VoxelGrid toGrid() {
+        VoxelGrid grid = new VoxelGrid(minX, minY, minZ, sizeX, sizeY, sizeZ);
+        int index = 0;
+        for (int y = 0; y < sizeY; y++) {
+            for (int z = 0; z < sizeZ; z++) {
+                for (int x = 0; x < sizeX; x++) {
+                    Material material = blocks[index++];
+                    if (material != Material.AIR) {
+                        grid.set(minX + x, minY + y, minZ + z, material);
+                    }
+                }
+            }
+        }
+        return grid;
+    }
+}
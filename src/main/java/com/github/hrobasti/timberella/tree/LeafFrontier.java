@@ -0,0 +1,127 @@
+package com.github.hrobasti.timberella.tree;
+
+import org.bukkit.Material;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Breadth-first leaf frontier around felled logs. Leaves are seeded from those the tree scan saw next to each
+ * log, then every removed leaf expands the search by one step until {@code maxDepth} is reached. Leaves further
+ * than the configured distance from the log they were found at are never queued.
+ */
+public final class LeafFrontier {
+    public record Entry(long pos, int depth, long origin) {}
+
+    private static final Set<Material> LEAVES = EnumSet.noneOf(Material.class);
+
+    static {
+        for (Material material : Material.values()) {
+            String name = material.name();
+            if (name.endsWith("_LEAVES") || name.endsWith("_LEAF")) {
+                LEAVES.add(material);
+            }
+        }
+    }
+
+    private final BlockAccess access;
+    private final Set<Material> allowedLeaves;
+    private final boolean includeDiagonals;
+    private final int maxDepth;
+    private final int maxDistanceSquared;
+    private final Deque<Entry> queue = new ArrayDeque<>();
+    private final Set<Long> visited = new HashSet<>();
+
+    /**
+     * @param allowedLeaves leaf types that may decay, or {@code null} to accept every leaf
+     */
+    public LeafFrontier(BlockAccess access, Set<Material> allowedLeaves, boolean includeDiagonals,
+                        int maxDepth, int maxDistanceSquared) {
+        this.access = access;
+        this.allowedLeaves = allowedLeaves;
+        this.includeDiagonals = includeDiagonals;
+        this.maxDepth = maxDepth;
+        this.maxDistanceSquared = maxDistanceSquared;
+    }
+
+    public static boolean isLeafMaterial(Material material) {
+        return material != null && LEAVES.contains(material);
+    }
+
+    /** Whether a block of this type may still be removed when its entry is polled. */
+    public boolean accepts(Material material) {
+        return isLeafMaterial(material) && (allowedLeaves == null || allowedLeaves.contains(material));
+    }
+
+    /** Queues the leaves the scan saw next to its logs, in the order probing each log again would. */
+    public void seed(TreeScanner.Result scan) {
+        if (maxDepth <= 0) return;
+        long[] leaves = scan.leaves();
+        Material[] types = scan.leafTypes();
+        int[] owners = scan.leafOwners();
+        for (int i = 0; i < scan.leafCount(); i++) {
+            long leaf = leaves[i];
+            enqueue(BlockPos.x(leaf), BlockPos.y(leaf), BlockPos.z(leaf), types[i], 0, scan.positions()[owners[i]]);
+        }
+    }
+
+    /** Queues the neighbours of a removed leaf one step deeper. */
+    public void expand(Entry entry) {
+        int nextDepth = entry.depth() + 1;
+        if (nextDepth <= maxDepth) {
+            enqueueNeighbours(entry.pos(), nextDepth, entry.origin());
+        }
+    }
+
+    public Entry poll() {
+        return queue.poll();
+    }
+
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    private void enqueueNeighbours(long pos, int depth, long origin) {
+        int x = BlockPos.x(pos);
+        int y = BlockPos.y(pos);
+        int z = BlockPos.z(pos);
+        if (includeDiagonals) {
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    for (int dz = -1; dz <= 1; dz++) {
+                        if (dx == 0 && dy == 0 && dz == 0) continue;
+                        enqueue(x + dx, y + dy, z + dz, depth, origin);
+                    }
+                }
+            }
+        } else {
+            for (int[] d : TreeScanner.FACES) {
+                enqueue(x + d[0], y + d[1], z + d[2], depth, origin);
+            }
+        }
+    }
+
+    private void enqueue(int x, int y, int z, int depth, long origin) {
+        if (depth > maxDepth) return;
+        enqueue(x, y, z, access.type(x, y, z), depth, origin);
+    }
+
+    private void enqueue(int x, int y, int z, Material type, int depth, long origin) {
+        if (!accepts(type)) return;
+        int dx = BlockPos.x(origin) - x;
+        int dy = BlockPos.y(origin) - y;
+        int dz = BlockPos.z(origin) - z;
+        if (dx * dx + dy * dy + dz * dz > maxDistanceSquared) return;
+        long key = BlockPos.pack(x, y, z);
+        if (visited.add(key)) {
+            queue.add(new Entry(key, depth, origin));
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.github.hrobasti.timberella.tree;
+
+import org.bukkit.Material;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Picks where saplings go after a felling: the lowest plantable log position, widened to a 2x2 footprint when four
+ * neighbouring columns of the same sapling type can all be planted (mega spruce, jungle, dark oak).
+ */
+public final class ReplantPlanner {
+    private static final Set<Material> OVERWORLD_SOILS = EnumSet.of(
+        Material.DIRT, Material.GRASS_BLOCK, Material.PODZOL, Material.COARSE_DIRT, Material.ROOTED_DIRT,
+        Material.MYCELIUM, Material.MOSS_BLOCK, Material.FARMLAND, Material.MUD, Material.MUDDY_MANGROVE_ROOTS
+    );
+    private static final Set<Material> MANGROVE_SOILS = EnumSet.of(
+        Material.MUD, Material.MUDDY_MANGROVE_ROOTS, Material.ROOTED_DIRT, Material.DIRT, Material.GRASS_BLOCK,
+        Material.PODZOL, Material.MANGROVE_ROOTS
+    );
+    private static final Set<Material> FUNGUS_SOILS = EnumSet.of(
+        Material.CRIMSON_NYLIUM, Material.WARPED_NYLIUM, Material.NETHERRACK
+    );
+
+    /** Sapling to place and the positions to place it at. */
+    public record Plan(Material sapling, long[] spots) {}
+
+    private final Map<Material, Material> saplingMappings;
+    private final Set<Material> allowedSaplings;
+
+    /**
+     * @param allowedSaplings saplings that may be planted; empty allows every mapped sapling
+     */
+    public ReplantPlanner(Map<Material, Material> saplingMappings, Set<Material> allowedSaplings) {
+        this.saplingMappings = saplingMappings;
+        this.allowedSaplings = allowedSaplings;
+    }
+
+    /**
+     * Plans replanting for the felled logs from their scanned types and soils, or returns {@code null} when no log
+     * position can take a sapling. Felled positions are taken to be clear; placing a sapling checks the spot again.
+     */
+    public Plan plan(TreeScanner.Result scan) {
+        long[] logs = scan.positions();
+        long best = 0L;
+        boolean found = false;
+        Material sapling = null;
+        for (int i = 0; i < logs.length; i++) {
+            Material mapped = plantable(scan, i);
+            if (mapped == null) continue;
+            long log = logs[i];
+            if (!found || BlockPos.y(log) < BlockPos.y(best)
+                    || (BlockPos.y(log) == BlockPos.y(best) && compareColumns(log, best) < 0)) {
+                best = log;
+                sapling = mapped;
+                found = true;
+            }
+        }
+        if (!found) return null;
+        return new Plan(sapling, plantingSpots(scan, best, sapling));
+    }
+
+    private long[] plantingSpots(TreeScanner.Result scan, long reference, Material sapling) {
+        long[] logs = scan.positions();
+        Map<Long, Long> columns = new HashMap<>();
+        long claimed = 0L;
+        boolean hasClaimed = false;
+        // Column order runs from each column's lowest log up, so the first plantable log of a column wins.
+        for (int index : scan.columnOrder()) {
+            long column = BlockPos.column(logs[index]);
+            if (hasClaimed && column == claimed) continue;
+            if (!sapling.equals(plantable(scan, index))) continue;
+            columns.put(column, logs[index]);
+            claimed = column;
+            hasClaimed = true;
+        }
+        long[] footprint = findTwoByTwoFootprint(columns);
+        return footprint != null ? footprint : new long[] {reference};
+    }
+
+    /** The sapling the log maps to if it may be planted on the log's soil, otherwise null. */
+    private Material plantable(TreeScanner.Result scan, int index) {
+        Material mapped = saplingMappings.get(scan.type(index));
+        if (mapped == null) return null;
+        if (!allowedSaplings.isEmpty() && !allowedSaplings.contains(mapped)) return null;
+        return isSuitableSoil(scan.soils()[index], mapped) ? mapped : null;
+    }
+
+    private static long[] findTwoByTwoFootprint(Map<Long, Long> columns) {
+        if (columns.size() < 4) {
+            return null;
+        }
+        for (long origin : columns.values()) {
+            int x = BlockPos.x(origin);
+            int z = BlockPos.z(origin);
+            Long east = columns.get(BlockPos.pack(x + 1, 0, z));
+            Long south = columns.get(BlockPos.pack(x, 0, z + 1));
+            Long southEast = columns.get(BlockPos.pack(x + 1, 0, z + 1));
+            if (east == null || south == null || southEast == null) continue;
+            if (!isLevelClose(origin, east) || !isLevelClose(origin, south) || !isLevelClose(origin, southEast)) continue;
+            return new long[] {origin, east, south, southEast};
+        }
+        return null;
+    }
+
+    /** Built-in log to sapling mapping. */
+    public static Map<Material, Material> defaultSaplingMappings() {
+        Map<Material, Material> mappings = new EnumMap<>(Material.class);
+        map(mappings, Material.OAK_LOG, Material.OAK_SAPLING);
+        map(mappings, Material.STRIPPED_OAK_LOG, Material.OAK_SAPLING);
+        map(mappings, Material.OAK_WOOD, Material.OAK_SAPLING);
+        map(mappings, Material.STRIPPED_OAK_WOOD, Material.OAK_SAPLING);
+        map(mappings, "PALE_OAK_LOG", "PALE_OAK_SAPLING");
+        map(mappings, "STRIPPED_PALE_OAK_LOG", "PALE_OAK_SAPLING");
+        map(mappings, "PALE_OAK_WOOD", "PALE_OAK_SAPLING");
+        map(mappings, "STRIPPED_PALE_OAK_WOOD", "PALE_OAK_SAPLING");
+
+        map(mappings, Material.SPRUCE_LOG, Material.SPRUCE_SAPLING);
+        map(mappings, Material.STRIPPED_SPRUCE_LOG, Material.SPRUCE_SAPLING);
+        map(mappings, Material.SPRUCE_WOOD, Material.SPRUCE_SAPLING);
+        map(mappings, Material.STRIPPED_SPRUCE_WOOD, Material.SPRUCE_SAPLING);
+
+        map(mappings, Material.BIRCH_LOG, Material.BIRCH_SAPLING);
+        map(mappings, Material.STRIPPED_BIRCH_LOG, Material.BIRCH_SAPLING);
+        map(mappings, Material.BIRCH_WOOD, Material.BIRCH_SAPLING);
+        map(mappings, Material.STRIPPED_BIRCH_WOOD, Material.BIRCH_SAPLING);
+
+        map(mappings, Material.JUNGLE_LOG, Material.JUNGLE_SAPLING);
+        map(mappings, Material.STRIPPED_JUNGLE_LOG, Material.JUNGLE_SAPLING);
+        map(mappings, Material.JUNGLE_WOOD, Material.JUNGLE_SAPLING);
+        map(mappings, Material.STRIPPED_JUNGLE_WOOD, Material.JUNGLE_SAPLING);
+
+        map(mappings, Material.ACACIA_LOG, Material.ACACIA_SAPLING);
+        map(mappings, Material.STRIPPED_ACACIA_LOG, Material.ACACIA_SAPLING);
+        map(mappings, Material.ACACIA_WOOD, Material.ACACIA_SAPLING);
+        map(mappings, Material.STRIPPED_ACACIA_WOOD, Material.ACACIA_SAPLING);
+
+        map(mappings, Material.DARK_OAK_LOG, Material.DARK_OAK_SAPLING);
+        map(mappings, Material.STRIPPED_DARK_OAK_LOG, Material.DARK_OAK_SAPLING);
+        map(mappings, Material.DARK_OAK_WOOD, Material.DARK_OAK_SAPLING);
+        map(mappings, Material.STRIPPED_DARK_OAK_WOOD, Material.DARK_OAK_SAPLING);
+
+        map(mappings, Material.CHERRY_LOG, Material.CHERRY_SAPLING);
+        map(mappings, Material.STRIPPED_CHERRY_LOG, Material.CHERRY_SAPLING);
+        map(mappings, Material.CHERRY_WOOD, Material.CHERRY_SAPLING);
+        map(mappings, Material.STRIPPED_CHERRY_WOOD, Material.CHERRY_SAPLING);
+
+        map(mappings, Material.MANGROVE_LOG, Material.MANGROVE_PROPAGULE);
+        map(mappings, Material.STRIPPED_MANGROVE_LOG, Material.MANGROVE_PROPAGULE);
+        map(mappings, Material.MANGROVE_WOOD, Material.MANGROVE_PROPAGULE);
+        map(mappings, Material.STRIPPED_MANGROVE_WOOD, Material.MANGROVE_PROPAGULE);
+        map(mappings, Material.MANGROVE_ROOTS, Material.MANGROVE_PROPAGULE);
+        map(mappings, Material.MUDDY_MANGROVE_ROOTS, Material.MANGROVE_PROPAGULE);
+
+        map(mappings, Material.CRIMSON_STEM, Material.CRIMSON_FUNGUS);
+        map(mappings, Material.STRIPPED_CRIMSON_STEM, Material.CRIMSON_FUNGUS);
+        map(mappings, Material.CRIMSON_HYPHAE, Material.CRIMSON_FUNGUS);
+        map(mappings, Material.STRIPPED_CRIMSON_HYPHAE, Material.CRIMSON_FUNGUS);
+
+        map(mappings, Material.WARPED_STEM, Material.WARPED_FUNGUS);
+        map(mappings, Material.STRIPPED_WARPED_STEM, Material.WARPED_FUNGUS);
+        map(mappings, Material.WARPED_HYPHAE, Material.WARPED_FUNGUS);
+        map(mappings, Material.STRIPPED_WARPED_HYPHAE, Material.WARPED_FUNGUS);
+        return mappings;
+    }
+
+    private static void map(Map<Material, Material> mappings, Material source, Material sapling) {
+        if (source == null || sapling == null) return;
+        mappings.put(source, sapling);
+    }
+
+    private static void map(Map<Material, Material> mappings, String sourceName, String saplingName) {
+        map(mappings, Material.matchMaterial(sourceName), Material.matchMaterial(saplingName));
+    }
+
+    public boolean canPlantAt(BlockAccess access, long pos, Material sapling) {
+        if (sapling == null) return false;
+        int x = BlockPos.x(pos);
+        int y = BlockPos.y(pos);
+        int z = BlockPos.z(pos);
+        if (!isSuitableSoil(access.type(x, y - 1, z), sapling)) return false;
+        Material current = access.type(x, y, z);
+        if (current == Material.WATER || current == Material.BUBBLE_COLUMN) {
+            return sapling == Material.MANGROVE_PROPAGULE;
+        }
+        return isAir(current) || access.isPassable(x, y, z);
+    }
+
+    static boolean isSuitableSoil(Material soil, Material sapling) {
+        if (soil == null || sapling == null) return false;
+        if (sapling == Material.CRIMSON_FUNGUS || sapling == Material.WARPED_FUNGUS) {
+            return FUNGUS_SOILS.contains(soil);
+        }
+        if (sapling == Material.MANGROVE_PROPAGULE) {
+            return MANGROVE_SOILS.contains(soil);
+        }
+        return OVERWORLD_SOILS.contains(soil);
+    }
+
+    private static boolean isAir(Material material) {
+        return material == Material.AIR || material == Material.CAVE_AIR || material == Material.VOID_AIR;
+    }
+
+    private static boolean isLevelClose(long a, long b) {
+        return Math.abs(BlockPos.y(a) - BlockPos.y(b)) <= 1;
+    }
+
+    private static int compareColumns(long a, long b) {
+        if (BlockPos.x(a) != BlockPos.x(b)) {
+            return Integer.compare(BlockPos.x(a), BlockPos.x(b));
+        }
+        return Integer.compare(BlockPos.z(a), BlockPos.z(b));
+    }
+}
@@ -0,0 +1,175 @@
+package com.github.hrobasti.timberella.tree;
+
+import org.bukkit.Material;
+
+/**
+ * How a tree scan reads the world for a species. The scan needs the type of every neighbour of every log (tree
+ * blocks to follow, leaves and soil to record), and neighbourhoods of adjacent logs overlap heavily: a straight
+ * column shares two thirds of each log's neighbours with the next one. Every strategy therefore returns exactly the
+ * blocks a direct scan does and only differs in how it remembers what was already read.
+ */
+public enum ScanStrategy {
+    /** Straight and 2x2 trunks: reads are kept per column over the scan's vertical range. */
+    COLUMN,
+    /** Branching crowns, roots, caps and anything unknown: reads are kept in a position hash. */
+    SPARSE;
+
+    private static final int UNLIMITED_BAND = 32;
+
+    public static ScanStrategy forSpecies(Species species) {
+        return species != null ? species.scanStrategy() : SPARSE;
+    }
+
+    /**
+     * A read-through view of {@code world} for one scan around {@code startY}. Only valid while the world does not
+     * change, i.e. within a single scan on the main thread.
+     */
+    public Cache view(BlockAccess world, int startY, int verticalRadius) {
+        if (this == SPARSE) return new SparseCache(world);
+        // Logs stay within the vertical radius, their neighbours one block beyond it. Without a limit, reads
+        // outside the default band still go to the world, they are just not remembered.
+        int band = verticalRadius > 0 ? verticalRadius : UNLIMITED_BAND;
+        return new ColumnCache(world, startY - band - 1, 2 * band + 3);
+    }
+
+    /** Memoizing view of the world; counts how many reads reached the world and how many were answered from memory. */
+    public abstract static sealed class Cache implements BlockAccess permits ColumnCache, SparseCache {
+        final BlockAccess world;
+        int worldReads;
+        int cachedReads;
+
+        Cache(BlockAccess world) {
+            this.world = world;
+        }
+
+        public int worldReads() {
+            return worldReads;
+        }
+
+        public int cachedReads() {
+            return cachedReads;
+        }
+
+        @Override
+        public boolean isPassable(int x, int y, int z) {
+            return world.isPassable(x, y, z);
+        }
+
+        Material read(int x, int y, int z) {
+            worldReads++;
+            return world.type(x, y, z);
+        }
+
+        static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+    /** One array per column covering the vertical range; columns are found through a small open-addressing table. */
+    static final class ColumnCache extends Cache {
+        private final int minY;
+        private final int height;
+        private long[] columns = new long[16];
+        private Material[][] cells = new Material[16][];
+        private int count;
+
+        ColumnCache(BlockAccess world, int minY, int height) {
+            super(world);
+            this.minY = minY;
+            this.height = height;
+        }
+
+        @Override
+        public Material type(int x, int y, int z) {
+            int dy = y - minY;
+            if (dy < 0 || dy >= height) return read(x, y, z);
+            long column = BlockPos.pack(x, 0, z);
+            int mask = columns.length - 1;
+            int slot = mix(column) & mask;
+            while (cells[slot] != null && columns[slot] != column) {
+                slot = (slot + 1) & mask;
+            }
+            Material[] cell = cells[slot];
+            if (cell == null) {
+                cell = new Material[height];
+                cells[slot] = cell;
+                columns[slot] = column;
+                if (++count * 2 > columns.length) grow();
+            }
+            Material type = cell[dy];
+            if (type != null) {
+                cachedReads++;
+                return type;
+            }
+            type = read(x, y, z);
+            cell[dy] = type;
+            return type;
+        }
+
+        private void grow() {
+            long[] oldColumns = columns;
+            Material[][] oldCells = cells;
+            columns = new long[oldColumns.length * 2];
+            cells = new Material[oldCells.length * 2][];
+            int mask = columns.length - 1;
+            for (int i = 0; i < oldCells.length; i++) {
+                if (oldCells[i] == null) continue;
+                int slot = mix(oldColumns[i]) & mask;
+                while (cells[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                columns[slot] = oldColumns[i];
+                cells[slot] = oldCells[i];
+            }
+        }
+    }
+
+    /** Open-addressing map from packed position to type. */
+    static final class SparseCache extends Cache {
+        private long[] keys = new long[256];
+        private Material[] values = new Material[256];
+        private int count;
+
+        SparseCache(BlockAccess world) {
+            super(world);
+        }
+
+        @Override
+        public Material type(int x, int y, int z) {
+            long key = BlockPos.pack(x, y, z);
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (values[slot] != null) {
+                if (keys[slot] == key) {
+                    cachedReads++;
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            Material type = read(x, y, z);
+            if (type == null) return null;
+            keys[slot] = key;
+            values[slot] = type;
+            if (++count * 2 > keys.length) grow();
+            return type;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            Material[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new Material[oldValues.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] == null) continue;
+                int slot = mix(oldKeys[i]) & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.github.hrobasti.timberella.tree;
+
+import org.bukkit.Material;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Tree species with their built-in safety limits; {@code species-limits.<key>} in the config overrides them.
+ */
+public enum Species {
+    MANGROVE("mangrove", true, 128, 9, 32, ScanStrategy.SPARSE),
+    JUNGLE("jungle", true, -1, 8, 32, ScanStrategy.COLUMN),
+    SPRUCE("spruce", true, -1, 5, 30, ScanStrategy.COLUMN),
+    OAK("oak", true, -1, 6, 24, ScanStrategy.SPARSE),
+    PALE_OAK("pale_oak", true, -1, 5, 16, ScanStrategy.COLUMN),
+    DARK_OAK("dark_oak", true, -1, 6, 12, ScanStrategy.COLUMN),
+    BIRCH("birch", true, -1, 2, 12, ScanStrategy.COLUMN),
+    ACACIA("acacia", true, -1, 8, 12, ScanStrategy.SPARSE),
+    CHERRY("cherry", true, -1, 9, 12, ScanStrategy.SPARSE),
+    MUSHROOM_BROWN("mushroom_brown", true, -1, 4, 12, ScanStrategy.SPARSE),
+    MUSHROOM_RED("mushroom_red", true, -1, 2, 12, ScanStrategy.SPARSE),
+    WARPED("warped", true, -1, 6, 32, ScanStrategy.COLUMN),
+    CRIMSON("crimson", true, -1, 6, 32, ScanStrategy.COLUMN);
+
+    private static final Map<Material, Species> MATERIAL_TO_SPECIES = new EnumMap<>(Material.class);
+
+    static {
+        register(MANGROVE,
+                Material.MANGROVE_LOG,
+                Material.STRIPPED_MANGROVE_LOG,
+                Material.MANGROVE_WOOD,
+                Material.STRIPPED_MANGROVE_WOOD,
+                Material.MANGROVE_ROOTS,
+                Material.MUDDY_MANGROVE_ROOTS);
+        register(JUNGLE,
+                Material.JUNGLE_LOG,
+                Material.STRIPPED_JUNGLE_LOG,
+                Material.JUNGLE_WOOD,
+                Material.STRIPPED_JUNGLE_WOOD);
+        register(SPRUCE,
+                Material.SPRUCE_LOG,
+                Material.STRIPPED_SPRUCE_LOG,
+                Material.SPRUCE_WOOD,
+                Material.STRIPPED_SPRUCE_WOOD);
+        register(OAK,
+                Material.OAK_LOG,
+                Material.STRIPPED_OAK_LOG,
+                Material.OAK_WOOD,
+                Material.STRIPPED_OAK_WOOD);
+        registerByName(PALE_OAK,
+                "PALE_OAK_LOG",
+                "STRIPPED_PALE_OAK_LOG",
+                "PALE_OAK_WOOD",
+                "STRIPPED_PALE_OAK_WOOD");
+        register(DARK_OAK,
+                Material.DARK_OAK_LOG,
+                Material.STRIPPED_DARK_OAK_LOG,
+                Material.DARK_OAK_WOOD,
+                Material.STRIPPED_DARK_OAK_WOOD);
+        register(BIRCH,
+                Material.BIRCH_LOG,
+                Material.STRIPPED_BIRCH_LOG,
+                Material.BIRCH_WOOD,
+                Material.STRIPPED_BIRCH_WOOD);
+        register(ACACIA,
+                Material.ACACIA_LOG,
+                Material.STRIPPED_ACACIA_LOG,
+                Material.ACACIA_WOOD,
+                Material.STRIPPED_ACACIA_WOOD);
+        register(CHERRY,
+                Material.CHERRY_LOG,
+                Material.STRIPPED_CHERRY_LOG,
+                Material.CHERRY_WOOD,
+                Material.STRIPPED_CHERRY_WOOD);
+        register(MUSHROOM_BROWN,
+                Material.BROWN_MUSHROOM_BLOCK);
+        register(MUSHROOM_RED,
+                Material.RED_MUSHROOM_BLOCK);
+        register(WARPED,
+                Material.WARPED_STEM,
+                Material.STRIPPED_WARPED_STEM,
+                Material.WARPED_HYPHAE,
+                Material.STRIPPED_WARPED_HYPHAE);
+        register(CRIMSON,
+                Material.CRIMSON_STEM,
+                Material.STRIPPED_CRIMSON_STEM,
+                Material.CRIMSON_HYPHAE,
+                Material.STRIPPED_CRIMSON_HYPHAE);
+    }
+
+    private final String configKey;
+    private final boolean defaultEnabled;
+    private final int defaultMaxBlocks;
+    private final int defaultHorizontalRadius;
+    private final int defaultVerticalRadius;
+    private final ScanStrategy scanStrategy;
+
+    Species(String configKey, boolean defaultEnabled, int defaultMaxBlocks,
+            int defaultHorizontalRadius, int defaultVerticalRadius, ScanStrategy scanStrategy) {
+        this.configKey = configKey;
+        this.defaultEnabled = defaultEnabled;
+        this.defaultMaxBlocks = defaultMaxBlocks;
+        this.defaultHorizontalRadius = defaultHorizontalRadius;
+        this.defaultVerticalRadius = defaultVerticalRadius;
+        this.scanStrategy = scanStrategy;
+    }
+
+    public String configKey() {
+        return configKey;
+    }
+
+    public boolean defaultEnabled() {
+        return defaultEnabled;
+    }
+
+    public int defaultMaxBlocks() {
+        return defaultMaxBlocks;
+    }
+
+    public int defaultHorizontalRadius() {
+        return defaultHorizontalRadius;
+    }
+
+    public int defaultVerticalRadius() {
+        return defaultVerticalRadius;
+    }
+
+    /** How scans of this species share neighbour reads; see {@link ScanStrategy}. */
+    public ScanStrategy scanStrategy() {
+        return scanStrategy;
+    }
+
+    public static Species of(Material material) {
+        return material == null ? null : MATERIAL_TO_SPECIES.get(material);
+    }
+
+    /** Species of the block at the given position; mushroom stems are resolved by looking for a cap nearby. */
+    public static Species detect(BlockAccess access, int x, int y, int z) {
+        Material type = access.type(x, y, z);
+        Species mapped = of(type);
+        if (mapped != null) {
+            return mapped;
+        }
+        if (type == Material.MUSHROOM_STEM) {
+            return detectMushroom(access, x, y, z);
+        }
+        return null;
+    }
+
+    private static Species detectMushroom(BlockAccess access, int x, int y, int z) {
+        for (int dy = 1; dy <= 6; dy++) {
+            Material mat = access.type(x, y + dy, z);
+            Species species = of(mat);
+            if (species == MUSHROOM_BROWN || species == MUSHROOM_RED) {
+                return species;
+            }
+            if (mat != Material.MUSHROOM_STEM) {
+                break;
+            }
+        }
+        int radius = 3;
+        for (int dy = 0; dy <= 4; dy++) {
+            for (int dx = -radius; dx <= radius; dx++) {
+                for (int dz = -radius; dz <= radius; dz++) {
+                    if (dx == 0 && dz == 0 && dy == 0) continue;
+                    Species species = of(access.type(x + dx, y + dy, z + dz));
+                    if (species == MUSHROOM_BROWN || species == MUSHROOM_RED) {
+                        return species;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void register(Species species, Material... materials) {
+        for (Material material : materials) {
+            if (material != null) {
+                MATERIAL_TO_SPECIES.put(material, species);
+            }
+        }
+    }
+
+    private static void registerByName(Species species, String... materialNames) {
+        for (String name : materialNames) {
+            if (name == null) continue;
+            Material material = Material.matchMaterial(name);
+            if (material != null) {
+                MATERIAL_TO_SPECIES.put(material, species);
+            }
+        }
+    }
+}
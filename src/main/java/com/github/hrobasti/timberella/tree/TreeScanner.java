@@ -0,0 +1,339 @@
+package com.github.hrobasti.timberella.tree;
+
+import org.bukkit.Material;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Breadth-first search over connected tree blocks, starting at the broken block. Neighbours are the six faces or,
+ * with diagonals enabled, all 26 surrounding blocks.
+ * <p>
+ * Every neighbour type read by the search is kept if the follow-up phases need it: the type below each log (replant
+ * soil) and the leaves next to each log (leaf decay seeds). After the scan, leaf decay and replant planning work
+ * from the {@link Result} without reading the world again.
+ */
+public final class TreeScanner {
+    static final int[][] FACES = {
+        {1, 0, 0}, {-1, 0, 0}, {0, 1, 0}, {0, -1, 0}, {0, 0, 1}, {0, 0, -1}
+    };
+
+    /**
+     * Scanned logs in visiting order (the start block first) with their type and the type below them before the
+     * felling, the leaves seen next to them (first {@code leafCount} entries; {@code leafOwners} is the index of the
+     * log each was found at, duplicates included), the log indices grouped by column from the lowest log up, and
+     * whether a limit cut the tree off.
+     */
+    public record Result(long[] positions, Material[] types, Material[] soils,
+                         long[] leaves, Material[] leafTypes, int[] leafOwners, int leafCount,
+                         int[] columnOrder, boolean truncated) {
+        public int size() {
+            return positions.length;
+        }
+
+        public Material type(int index) {
+            return types[index];
+        }
+
+        /**
+         * Narrows the result to {@code planned}, which must list scanned positions in scan order (as
+         * {@code TreeFellEvent} trims them). Leaves seen only at dropped logs are dropped as well.
+         */
+        public Result retain(long[] planned) {
+            if (planned.length == positions.length) return this;
+            int[] remap = new int[positions.length];
+            Arrays.fill(remap, -1);
+            int[] kept = new int[planned.length];
+            int size = 0;
+            for (int i = 0; i < positions.length && size < planned.length; i++) {
+                if (positions[i] == planned[size]) {
+                    remap[i] = size;
+                    kept[size++] = i;
+                }
+            }
+            long[] keptPositions = new long[size];
+            Material[] keptTypes = new Material[size];
+            Material[] keptSoils = new Material[size];
+            for (int i = 0; i < size; i++) {
+                keptPositions[i] = positions[kept[i]];
+                keptTypes[i] = types[kept[i]];
+                keptSoils[i] = soils[kept[i]];
+            }
+            long[] keptLeaves = new long[leafCount];
+            Material[] keptLeafTypes = new Material[leafCount];
+            int[] keptOwners = new int[leafCount];
+            int leaves = 0;
+            for (int i = 0; i < leafCount; i++) {
+                int owner = remap[leafOwners[i]];
+                if (owner < 0) continue;
+                keptLeaves[leaves] = this.leaves[i];
+                keptLeafTypes[leaves] = leafTypes[i];
+                keptOwners[leaves++] = owner;
+            }
+            int[] keptColumns = new int[size];
+            int columns = 0;
+            for (int index : columnOrder) {
+                if (remap[index] >= 0) keptColumns[columns++] = remap[index];
+            }
+            return new Result(keptPositions, keptTypes, keptSoils, keptLeaves, keptLeafTypes, keptOwners, leaves,
+                keptColumns, truncated);
+        }
+    }
+
+    /** Tree materials by ordinal; every block break is checked against it first. */
+    private final boolean[] treeMaterials;
+    private final boolean includeDiagonals;
+
+    public TreeScanner(Set<Material> treeMaterials, boolean includeDiagonals) {
+        this.treeMaterials = new boolean[Material.values().length];
+        for (Material material : treeMaterials) {
+            this.treeMaterials[material.ordinal()] = true;
+        }
+        this.includeDiagonals = includeDiagonals;
+    }
+
+    public boolean isTreeMaterial(Material material) {
+        return material != null && treeMaterials[material.ordinal()];
+    }
+
+    public boolean includeDiagonals() {
+        return includeDiagonals;
+    }
+
+    /**
+     * Collects up to {@code maxBlocks} connected tree blocks. Radius limits are measured from the start block;
+     * values of zero or below disable them.
+     */
+    public Result scan(BlockAccess access, int startX, int startY, int startZ, int maxBlocks,
+                       int maxHorizontalRadius, int maxVerticalRadius) {
+        Walk walk = new Walk(access, startX, startY, startZ, maxHorizontalRadius, maxVerticalRadius);
+        long start = BlockPos.pack(startX, startY, startZ);
+        walk.queue[walk.tail++] = start;
+        walk.markVisited(start);
+        while (walk.head < walk.tail && walk.size < maxBlocks) {
+            long pos = walk.queue[walk.head++];
+            int x = BlockPos.x(pos);
+            int y = BlockPos.y(pos);
+            int z = BlockPos.z(pos);
+            Material type = access.type(x, y, z);
+            if (!isTreeMaterial(type)) continue;
+            if (walk.limitRadius && !withinRadius(startX, startY, startZ, x, y, z, maxHorizontalRadius, maxVerticalRadius)) continue;
+            walk.visit(pos, type, x, y, z, true);
+        }
+        if (walk.head < walk.tail && walk.size >= maxBlocks) {
+            walk.truncated = true;
+        }
+        return walk.result();
+    }
+
+    /**
+     * A result holding just the given block, whatever its type, with its soil and neighbouring leaves. Used when
+     * the post-felling phases run for a single block.
+     */
+    public Result single(BlockAccess access, int x, int y, int z) {
+        Walk walk = new Walk(access, x, y, z, -1, -1);
+        walk.visit(BlockPos.pack(x, y, z), access.type(x, y, z), x, y, z, false);
+        return walk.result();
+    }
+
+    static boolean withinRadius(int originX, int originY, int originZ, int x, int y, int z,
+                                int horizontalRadius, int verticalRadius) {
+        int dx = Math.abs(x - originX);
+        int dy = Math.abs(y - originY);
+        int dz = Math.abs(z - originZ);
+        boolean horizontalOk = horizontalRadius <= 0 || Math.max(dx, dz) <= horizontalRadius;
+        boolean verticalOk = verticalRadius <= 0 || dy <= verticalRadius;
+        return horizontalOk && verticalOk;
+    }
+
+    /** Mutable state of one scan. */
+    private final class Walk {
+        final BlockAccess access;
+        final int startX;
+        final int startY;
+        final int startZ;
+        final int maxHorizontalRadius;
+        final int maxVerticalRadius;
+        final boolean limitRadius;
+        // Queued positions in an open-addressing set, kept at most half full. Every long is a valid packed
+        // position, so 0 marks a free slot and position 0 itself is tracked by visitedZero.
+        long[] visited = new long[32];
+        int visitedCount;
+        boolean visitedZero;
+        long[] queue = new long[64];
+        int head;
+        int tail;
+        long[] positions = new long[16];
+        Material[] types = new Material[16];
+        Material[] soils = new Material[16];
+        int size;
+        long[] leaves = new long[32];
+        Material[] leafTypes = new Material[32];
+        int[] leafOwners = new int[32];
+        int leafCount;
+        boolean truncated;
+
+        Walk(BlockAccess access, int startX, int startY, int startZ, int maxHorizontalRadius, int maxVerticalRadius) {
+            this.access = access;
+            this.startX = startX;
+            this.startY = startY;
+            this.startZ = startZ;
+            this.maxHorizontalRadius = maxHorizontalRadius;
+            this.maxVerticalRadius = maxVerticalRadius;
+            this.limitRadius = maxHorizontalRadius > 0 || maxVerticalRadius > 0;
+        }
+
+        /** Records a log and reads its neighbours once: tree blocks are queued if {@code expand}, leaves kept. */
+        void visit(long pos, Material type, int x, int y, int z, boolean expand) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                types = Arrays.copyOf(types, size * 2);
+                soils = Arrays.copyOf(soils, size * 2);
+            }
+            int owner = size++;
+            positions[owner] = pos;
+            types[owner] = type;
+            if (!includeDiagonals) {
+                for (int[] d : FACES) {
+                    neighbour(owner, x + d[0], y + d[1], z + d[2], expand);
+                }
+            } else {
+                for (int dx = -1; dx <= 1; dx++) {
+                    for (int dy = -1; dy <= 1; dy++) {
+                        for (int dz = -1; dz <= 1; dz++) {
+                            if (dx == 0 && dy == 0 && dz == 0) continue;
+                            neighbour(owner, x + dx, y + dy, z + dz, expand);
+                        }
+                    }
+                }
+            }
+        }
+
+        private void neighbour(int owner, int nx, int ny, int nz, boolean expand) {
+            Material type = access.type(nx, ny, nz);
+            long origin = positions[owner];
+            if (nx == BlockPos.x(origin) && nz == BlockPos.z(origin) && ny == BlockPos.y(origin) - 1) {
+                soils[owner] = type;
+            }
+            if (!isTreeMaterial(type)) {
+                if (LeafFrontier.isLeafMaterial(type)) {
+                    addLeaf(owner, BlockPos.pack(nx, ny, nz), type);
+                }
+                return;
+            }
+            if (!expand) return;
+            if (limitRadius && !withinRadius(startX, startY, startZ, nx, ny, nz, maxHorizontalRadius, maxVerticalRadius)) {
+                truncated = true;
+                return;
+            }
+            long key = BlockPos.pack(nx, ny, nz);
+            if (markVisited(key)) {
+                if (tail == queue.length) {
+                    queue = Arrays.copyOf(queue, tail * 2);
+                }
+                queue[tail++] = key;
+            }
+        }
+
+        /** Adds the position to the visited set; false when it was already there. */
+        boolean markVisited(long key) {
+            if (key == 0L) {
+                if (visitedZero) return false;
+                visitedZero = true;
+                return true;
+            }
+            int mask = visited.length - 1;
+            int slot = mix(key) & mask;
+            long current;
+            while ((current = visited[slot]) != 0L) {
+                if (current == key) return false;
+                slot = (slot + 1) & mask;
+            }
+            visited[slot] = key;
+            if (++visitedCount * 2 > visited.length) growVisited();
+            return true;
+        }
+
+        private void growVisited() {
+            long[] old = visited;
+            visited = new long[old.length * 2];
+            int mask = visited.length - 1;
+            for (long key : old) {
+                if (key == 0L) continue;
+                int slot = mix(key) & mask;
+                while (visited[slot] != 0L) {
+                    slot = (slot + 1) & mask;
+                }
+                visited[slot] = key;
+            }
+        }
+
+        private void addLeaf(int owner, long pos, Material type) {
+            if (leafCount == leaves.length) {
+                leaves = Arrays.copyOf(leaves, leafCount * 2);
+                leafTypes = Arrays.copyOf(leafTypes, leafCount * 2);
+                leafOwners = Arrays.copyOf(leafOwners, leafCount * 2);
+            }
+            leaves[leafCount] = pos;
+            leafTypes[leafCount] = type;
+            leafOwners[leafCount++] = owner;
+        }
+
+        Result result() {
+            long[] logs = Arrays.copyOf(positions, size);
+            return new Result(logs, Arrays.copyOf(types, size), Arrays.copyOf(soils, size),
+                leaves, leafTypes, leafOwners, leafCount, columnOrder(logs), truncated);
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Log indices grouped by column, each column from its lowest log up. Columns are chained in a small
+     * open-addressing table instead of a map of boxed keys.
+     */
+    static int[] columnOrder(long[] positions) {
+        int size = positions.length;
+        int capacity = Integer.highestOneBit(Math.max(2, size) * 2 - 1) << 1;
+        int mask = capacity - 1;
+        long[] columns = new long[capacity];
+        int[] heads = new int[capacity]; // index + 1 of the column's lowest log, 0 = free slot
+        int[] next = new int[size];      // index + 1 of the next log up in the same column, 0 = end
+        for (int i = 0; i < size; i++) {
+            long column = BlockPos.column(positions[i]);
+            int slot = (int) (column ^ (column >>> 29) ^ (column >>> 41)) & mask;
+            while (heads[slot] != 0 && columns[slot] != column) {
+                slot = (slot + 1) & mask;
+            }
+            if (heads[slot] == 0) {
+                columns[slot] = column;
+                heads[slot] = i + 1;
+                continue;
+            }
+            int y = BlockPos.y(positions[i]);
+            int previous = 0;
+            int current = heads[slot];
+            while (current != 0 && BlockPos.y(positions[current - 1]) <= y) {
+                previous = current;
+                current = next[current - 1];
+            }
+            next[i] = current;
+            if (previous == 0) {
+                heads[slot] = i + 1;
+            } else {
+                next[previous - 1] = i + 1;
+            }
+        }
+        int[] order = new int[size];
+        int filled = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            for (int link = heads[slot]; link != 0; link = next[link - 1]) {
+                order[filled++] = link - 1;
+            }
+        }
+        return order;
+    }
+}
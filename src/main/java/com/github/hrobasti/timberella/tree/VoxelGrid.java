@@ -0,0 +1,134 @@
+package com.github.hrobasti.timberella.tree;
+
+import org.bukkit.Material;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * In-memory box of blocks implementing {@link BlockAccess}. Everything outside the box reads as air.
+ * Used to build synthetic trees for benchmarks; it never touches Bukkit beyond the {@link Material} enum.
+ */
+public final class VoxelGrid implements BlockAccess {
+    // Close enough to the vanilla collision shapes for the blocks trees grow around.
+    private static final Set<Material> PASSABLE = EnumSet.of(
+        Material.AIR, Material.CAVE_AIR, Material.VOID_AIR, Material.WATER, Material.BUBBLE_COLUMN,
+        Material.SHORT_GRASS, Material.TALL_GRASS, Material.FERN, Material.LARGE_FERN, Material.DEAD_BUSH,
+        Material.SNOW, Material.VINE, Material.MOSS_CARPET
+    );
+
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final Material[] blocks;
+    private long reads;
+
+    public VoxelGrid(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ) {
+        if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0) {
+            throw new IllegalArgumentException("Grid size must be positive");
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.blocks = new Material[sizeX * sizeY * sizeZ];
+        Arrays.fill(blocks, Material.AIR);
+    }
+
+    private int index(int x, int y, int z) {
+        int lx = x - minX;
+        int ly = y - minY;
+        int lz = z - minZ;
+        if (lx < 0 || ly < 0 || lz < 0 || lx >= sizeX || ly >= sizeY || lz >= sizeZ) {
+            return -1;
+        }
+        return (ly * sizeZ + lz) * sizeX + lx;
+    }
+
+    @Override
+    public Material type(int x, int y, int z) {
+        reads++;
+        int index = index(x, y, z);
+        return index < 0 ? Material.AIR : blocks[index];
+    }
+
+    @Override
+    public boolean isPassable(int x, int y, int z) {
+        return PASSABLE.contains(type(x, y, z));
+    }
+
+    public void set(int x, int y, int z, Material material) {
+        int index = index(x, y, z);
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Outside grid: " + x + "," + y + "," + z);
+        }
+        blocks[index] = material;
+    }
+
+    /** Fills the inclusive box between both corners. */
+    public void fill(int x1, int y1, int z1, int x2, int y2, int z2, Material material) {
+        for (int y = Math.min(y1, y2); y <= Math.max(y1, y2); y++) {
+            for (int z = Math.min(z1, z2); z <= Math.max(z1, z2); z++) {
+                for (int x = Math.min(x1, x2); x <= Math.max(x1, x2); x++) {
+                    set(x, y, z, material);
+                }
+            }
+        }
+    }
+
+    /** Sets the block only if it is currently air, e.g. to wrap leaves around logs. */
+    public void setIfAir(int x, int y, int z, Material material) {
+        int index = index(x, y, z);
+        if (index >= 0 && blocks[index] == Material.AIR) {
+            blocks[index] = material;
+        }
+    }
+
+    public VoxelGrid copy() {
+        VoxelGrid copy = new VoxelGrid(minX, minY, minZ, sizeX, sizeY, sizeZ);
+        System.arraycopy(blocks, 0, copy.blocks, 0, blocks.length);
+        return copy;
+    }
+
+    /** Copies all blocks of a grid with the same bounds into this one. */
+    public void restore(VoxelGrid source) {
+        if (source.blocks.length != blocks.length) {
+            throw new IllegalArgumentException("Grid bounds differ");
+        }
+        System.arraycopy(source.blocks, 0, blocks, 0, blocks.length);
+    }
+
+    /** Receives every non-air block of a grid. */
+    public interface Visitor {
+        void visit(int x, int y, int z, Material material);
+    }
+
+    /** Visits every non-air block in y, z, x order without counting as reads. */
+    public void forEachBlock(Visitor visitor) {
+        for (int ly = 0; ly < sizeY; ly++) {
+            for (int lz = 0; lz < sizeZ; lz++) {
+                for (int lx = 0; lx < sizeX; lx++) {
+                    Material material = blocks[(ly * sizeZ + lz) * sizeX + lx];
+                    if (material != Material.AIR) {
+                        visitor.visit(minX + lx, minY + ly, minZ + lz, material);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Number of {@link #type} calls so far; lets benchmarks report world reads per block. */
+    public long reads() {
+        return reads;
+    }
+
+    public void resetReads() {
+        reads = 0L;
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.hrobasti.timberella.tree;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+/** {@link BlockAccess} backed by a live world. Main thread only. */
+public final class WorldBlockAccess implements BlockAccess {
+    private final World world;
+
+    public WorldBlockAccess(World world) {
+        this.world = world;
+    }
+
+    public World world() {
+        return world;
+    }
+
+    public Block block(long pos) {
+        return world.getBlockAt(BlockPos.x(pos), BlockPos.y(pos), BlockPos.z(pos));
+    }
+
+    @Override
+    public Material type(int x, int y, int z) {
+        return world.getType(x, y, z);
+    }
+
+    @Override
+    public boolean isPassable(int x, int y, int z) {
+        return world.getBlockAt(x, y, z).isPassable();
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.hrobasti.timberella.update;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Conditional HEAD against a provider's version feed. Sends the validators of the previous response
+ * ({@code If-None-Match}/{@code If-Modified-Since}) so an unchanged feed costs a 304, and never downloads the body:
+ * a changed feed is fetched once, by the update checker. Blocking; call it off the main thread.
+ */
+public final class ConditionalFeed {
+    public enum Status { CHANGED, UNCHANGED, FAILED }
+
+    public record Validators(String etag, String lastModified) {
+        public static final Validators NONE = new Validators(null, null);
+
+        public boolean isEmpty() {
+            return etag == null && lastModified == null;
+        }
+    }
+
+    public record Probe(Status status, Validators validators) {}
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient client;
+    private final String userAgent;
+
+    public ConditionalFeed(String userAgent) {
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+        this.userAgent = userAgent;
+    }
+
+    public Probe probe(String url, Validators previous) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+            .timeout(TIMEOUT)
+            .header("User-Agent", userAgent)
+            .method("HEAD", HttpRequest.BodyPublishers.noBody());
+        if (previous.etag() != null) {
+            request.header("If-None-Match", previous.etag());
+        }
+        if (previous.lastModified() != null) {
+            request.header("If-Modified-Since", previous.lastModified());
+        }
+        try {
+            HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() == 304) {
+                return new Probe(Status.UNCHANGED, previous);
+            }
+            if (response.statusCode() == 405 || response.statusCode() == 501) {
+                // No HEAD support: report a change without validators so the checker does the one full fetch.
+                return new Probe(Status.CHANGED, Validators.NONE);
+            }
+            if (response.statusCode() / 100 != 2) {
+                return new Probe(Status.FAILED, previous);
+            }
+            Validators validators = new Validators(
+                response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null));
+            return new Probe(Status.CHANGED, validators);
+        } catch (IOException | IllegalArgumentException ex) {
+            return new Probe(Status.FAILED, previous);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return new Probe(Status.FAILED, previous);
+        }
+    }
+}
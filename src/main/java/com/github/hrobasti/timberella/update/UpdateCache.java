@@ -0,0 +1,112 @@
+package com.github.hrobasti.timberella.update;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Last update check result plus the feed validators it was based on, kept in {@code update-cache.yml} so restarts
+ * and reloads can serve it right away instead of querying the providers again.
+ */
+public final class UpdateCache {
+    private final File file;
+    private final Logger logger;
+    private UpdateSnapshot snapshot;
+    private final Map<String, ConditionalFeed.Validators> validators = new HashMap<>();
+
+    public UpdateCache(File file, Logger logger) {
+        this.file = file;
+        this.logger = logger;
+    }
+
+    public synchronized UpdateCache load() {
+        snapshot = null;
+        validators.clear();
+        if (!file.exists()) {
+            return this;
+        }
+        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(file);
+        ConfigurationSection feeds = yaml.getConfigurationSection("feeds");
+        if (feeds != null) {
+            for (String key : feeds.getKeys(false)) {
+                ConfigurationSection feed = feeds.getConfigurationSection(key);
+                if (feed == null || feed.getString("url") == null) continue;
+                validators.put(feed.getString("url"),
+                    new ConditionalFeed.Validators(feed.getString("etag"), feed.getString("last-modified")));
+            }
+        }
+        String fingerprint = yaml.getString("fingerprint");
+        if (fingerprint == null) {
+            return this;
+        }
+        List<UpdateSnapshot.ProviderStatus> providers = new ArrayList<>();
+        ConfigurationSection section = yaml.getConfigurationSection("providers");
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                ConfigurationSection provider = section.getConfigurationSection(key);
+                if (provider == null) continue;
+                providers.add(new UpdateSnapshot.ProviderStatus(provider.getString("name"),
+                    provider.getBoolean("success"), provider.getString("version"), provider.getString("url")));
+            }
+        }
+        snapshot = new UpdateSnapshot(fingerprint, yaml.getLong("checked-at"), yaml.getString("current-version"),
+            yaml.getString("latest-version"), yaml.getBoolean("has-update"), List.copyOf(providers));
+        return this;
+    }
+
+    /** The cached result if it was produced with the given fingerprint, otherwise null. */
+    public synchronized UpdateSnapshot snapshot(String fingerprint) {
+        return snapshot != null && snapshot.fingerprint().equals(fingerprint) ? snapshot : null;
+    }
+
+    public synchronized ConditionalFeed.Validators validators(String url) {
+        return validators.getOrDefault(url, ConditionalFeed.Validators.NONE);
+    }
+
+    /** Replaces the cached result and the validators of the feeds it was checked against, then writes the file. */
+    public synchronized void store(UpdateSnapshot snapshot, Map<String, ConditionalFeed.Validators> feeds) {
+        this.snapshot = snapshot;
+        validators.putAll(feeds);
+        save();
+    }
+
+    private void save() {
+        YamlConfiguration yaml = new YamlConfiguration();
+        if (snapshot != null) {
+            yaml.set("fingerprint", snapshot.fingerprint());
+            yaml.set("checked-at", snapshot.checkedAt());
+            yaml.set("current-version", snapshot.currentVersion());
+            yaml.set("latest-version", snapshot.latestVersion());
+            yaml.set("has-update", snapshot.hasUpdate());
+            int index = 0;
+            for (UpdateSnapshot.ProviderStatus provider : snapshot.providers()) {
+                String path = "providers." + index++;
+                yaml.set(path + ".name", provider.provider());
+                yaml.set(path + ".success", provider.success());
+                yaml.set(path + ".version", provider.latestVersion());
+                yaml.set(path + ".url", provider.url());
+            }
+        }
+        // Keyed by index: feed URLs contain dots, which YAML paths would split on.
+        int index = 0;
+        for (Map.Entry<String, ConditionalFeed.Validators> entry : validators.entrySet()) {
+            if (entry.getValue().isEmpty()) continue;
+            String path = "feeds." + index++;
+            yaml.set(path + ".url", entry.getKey());
+            yaml.set(path + ".etag", entry.getValue().etag());
+            yaml.set(path + ".last-modified", entry.getValue().lastModified());
+        }
+        try {
+            yaml.save(file);
+        } catch (IOException ex) {
+            logger.fine("Could not write update cache: " + ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.hrobasti.timberella.update;
+
+import com.github.hrobasti.turtlelib.helper.UpdateChecker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of one update check, detached from the checker so it can be persisted in {@link UpdateCache} and served
+ * again after a restart. {@code fingerprint} identifies the settings and versions the check ran with.
+ */
+public record UpdateSnapshot(String fingerprint, long checkedAt, String currentVersion, String latestVersion,
+                             boolean hasUpdate, List<ProviderStatus> providers) {
+
+    public record ProviderStatus(String provider, boolean success, String latestVersion, String url) {}
+
+    public static UpdateSnapshot of(UpdateChecker.UpdateInfo info, String fingerprint, long checkedAt) {
+        List<ProviderStatus> providers = new ArrayList<>();
+        if (info.providers() != null) {
+            for (UpdateChecker.ProviderResult result : info.providers()) {
+                if (result == null) continue;
+                providers.add(new ProviderStatus(result.provider().displayName(), result.success(),
+                    result.latestVersion(), result.url()));
+            }
+        }
+        return new UpdateSnapshot(fingerprint, checkedAt, info.currentVersion(), info.latestVersion(),
+            info.hasUpdate(), List.copyOf(providers));
+    }
+
+    /** True when at least one provider answered; results of a check where every provider failed are not cached. */
+    public boolean anySuccess() {
+        for (ProviderStatus provider : providers) {
+            if (provider.success()) return true;
+        }
+        return false;
+    }
+
+    public UpdateSnapshot confirmedAt(long time) {
+        return new UpdateSnapshot(fingerprint, time, currentVersion, latestVersion, hasUpdate, providers);
+    }
+}
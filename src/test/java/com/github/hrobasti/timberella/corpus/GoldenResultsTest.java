@@ -0,0 +1,25 @@
+package com.github.hrobasti.timberella.corpus;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GoldenResultsTest {
+    @Test
+    void corpusMatchesGoldenResults() throws IOException {
+        List<String> expected = GoldenResults.readGolden();
+        List<String> actual = GoldenResults.compute();
+        List<String> differences = GoldenResults.compare(expected, actual);
+        assertTrue(differences.isEmpty(), () -> "tree corpus differs from corpus/golden.txt; run ./gradlew "
+            + "updateTreeCorpus if the change is intended\n" + String.join("\n", differences));
+    }
+
+    @Test
+    void everyFixtureHasAResultPerVariant() throws IOException {
+        assertEquals(TreeCorpus.fixtures().size() * CorpusSettings.VARIANTS.size(), GoldenResults.readGolden().size());
+    }
+}
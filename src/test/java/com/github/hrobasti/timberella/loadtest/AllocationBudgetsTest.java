@@ -0,0 +1,189 @@
+package com.github.hrobasti.timberella.loadtest;
+
+import com.github.hrobasti.timberella.TimberellaPlugin;
+import com.github.hrobasti.timberella.corpus.CorpusSettings;
+import com.github.hrobasti.timberella.corpus.TreeCorpus;
+import com.github.hrobasti.timberella.corpus.TreeFixture;
+import com.github.hrobasti.timberella.listeners.TreeChopListener;
+import com.github.hrobasti.timberella.tree.BlockPos;
+import com.github.hrobasti.timberella.tree.LeafFrontier;
+import com.github.hrobasti.timberella.tree.TreeScanner;
+import com.github.hrobasti.timberella.tree.VoxelGrid;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Measures allocated bytes per operation on the hot paths with
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)} and fails when one exceeds its budget in
+ * {@code allocation-budgets.properties}. Every operation is warmed up first so the JIT has settled on its final
+ * code (including escape analysis) before counting starts.
+ */
+class AllocationBudgetsTest {
+    private static final int WARMUP = 20_000;
+    private static final int MEASURED = 5_000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static Properties budgets;
+
+    /** One measured operation; returns the bytes it allocated itself, excluding its setup. */
+    private interface Operation {
+        long run();
+    }
+
+    @BeforeAll
+    static void loadBudgets() throws IOException {
+        assumeTrue(THREADS.isThreadAllocatedMemorySupported(), "this JVM does not report per-thread allocations");
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        budgets = new Properties();
+        try (InputStream in = AllocationBudgetsTest.class.getResourceAsStream("/allocation-budgets.properties")) {
+            assertNotNull(in, "allocation-budgets.properties is on the test classpath");
+            budgets.load(in);
+        }
+    }
+
+    @Test
+    void scanOak() {
+        assertWithinBudget("scan.oak", scan("oak"));
+    }
+
+    @Test
+    void scanMegaJungle() {
+        assertWithinBudget("scan.jungle_mega", scan("jungle_mega"));
+    }
+
+    @Test
+    void leafBatch() {
+        assertWithinBudget("leaf-batch.oak", leafBatch("oak"));
+    }
+
+    @Nested
+    class OnBreak {
+        private ServerMock server;
+
+        @BeforeEach
+        void startServer() {
+            server = MockBukkit.mock();
+        }
+
+        @AfterEach
+        void stopServer() {
+            MockBukkit.unmock();
+        }
+
+        @Test
+        void nonTree() {
+            assertWithinBudget("on-break.non-tree", breakWith(Material.STONE, Material.NETHERITE_AXE, false));
+        }
+
+        /** A log broken with a stick: rejected by the cached eligibility once the first break has filled it. */
+        @Test
+        void ineligible() {
+            assertWithinBudget("on-break.ineligible", breakWith(Material.OAK_LOG, Material.STICK, true));
+        }
+
+        private Operation breakWith(Material block, Material tool, boolean primeEligibility) {
+            TimberellaPlugin plugin = MockBukkit.load(TimberellaPlugin.class);
+            LoadTest.configure(plugin, Map.of(), true);
+            Block target = server.addSimpleWorld("budgets").getBlockAt(0, Forest.GROUND_Y + 1, 0);
+            target.setType(block);
+            PlayerMock player = server.addPlayer("budget");
+            player.setSneaking(true);
+            player.getInventory().setItemInMainHand(new ItemStack(tool));
+            TreeChopListener listener = new TreeChopListener(plugin);
+            BlockBreakEvent event = new BlockBreakEvent(target, player);
+            if (primeEligibility) {
+                listener.onBreak(event);
+            }
+            return () -> {
+                long before = allocated();
+                listener.onBreak(event);
+                return allocated() - before;
+            };
+        }
+    }
+
+    private static void assertWithinBudget(String key, Operation operation) {
+        String budgetValue = budgets.getProperty(key);
+        assertNotNull(budgetValue, () -> "no budget set for " + key);
+        long budget = Long.parseLong(budgetValue.trim());
+        long measured = measure(operation);
+        assertTrue(measured <= budget, () -> key + " allocates " + measured + " B/op, budget " + budget);
+    }
+
+    private static long measure(Operation operation) {
+        for (int i = 0; i < WARMUP; i++) {
+            operation.run();
+        }
+        long total = 0L;
+        for (int i = 0; i < MEASURED; i++) {
+            total += operation.run();
+        }
+        return total / MEASURED;
+    }
+
+    private static long allocated() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static Operation scan(String fixtureName) {
+        TreeFixture fixture = TreeCorpus.fixture(fixtureName);
+        TreeScanner scanner = new TreeScanner(CorpusSettings.TREE_MATERIALS, true);
+        VoxelGrid grid = fixture.grid();
+        return () -> {
+            long before = allocated();
+            scanner.scan(grid, fixture.startX(), fixture.startY(), fixture.startZ(), CorpusSettings.MAX_BLOCKS, -1, -1);
+            return allocated() - before;
+        };
+    }
+
+    private static Operation leafBatch(String fixtureName) {
+        TreeFixture fixture = TreeCorpus.fixture(fixtureName);
+        TreeScanner scanner = new TreeScanner(CorpusSettings.TREE_MATERIALS, true);
+        TreeScanner.Result scan = scanner.scan(fixture.grid(), fixture.startX(), fixture.startY(), fixture.startZ(),
+            CorpusSettings.MAX_BLOCKS, -1, -1);
+        VoxelGrid felled = fixture.grid().copy();
+        for (long log : scan.positions()) {
+            felled.set(BlockPos.x(log), BlockPos.y(log), BlockPos.z(log), Material.AIR);
+        }
+        VoxelGrid work = felled.copy();
+        return () -> {
+            work.restore(felled);
+            LeafFrontier frontier = new LeafFrontier(work, null, true, CorpusSettings.LEAF_DECAY_RADIUS,
+                CorpusSettings.LEAF_MAX_DISTANCE_SQUARED);
+            frontier.seed(scan);
+            long before = allocated();
+            int processed = 0;
+            LeafFrontier.Entry entry;
+            while (processed < 20 && (entry = frontier.poll()) != null) {
+                long pos = entry.pos();
+                if (!frontier.accepts(work.type(pos))) continue;
+                work.set(BlockPos.x(pos), BlockPos.y(pos), BlockPos.z(pos), Material.AIR);
+                frontier.expand(entry);
+                processed++;
+            }
+            return allocated() - before;
+        };
+    }
+}
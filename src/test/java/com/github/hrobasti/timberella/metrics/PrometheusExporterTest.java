@@ -0,0 +1,133 @@
+package com.github.hrobasti.timberella.metrics;
+
+import com.github.hrobasti.timberella.session.SessionRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Starts the exporter on a free loopback port, fetches {@code /metrics} with a plain HTTP client and checks the
+ * exposition format: content type, a {@code # TYPE} line before every family, cumulative histogram buckets in
+ * ascending order and a {@code +Inf} bucket equal to {@code _count}.
+ */
+class PrometheusExporterTest {
+    private static final Pattern SAMPLE = Pattern.compile("^([a-zA-Z_:][a-zA-Z0-9_:]*)(\\{([^}]*)})? (\\S+)$");
+    private static final Pattern LE = Pattern.compile("le=\"([^\"]+)\"");
+    private static final long[] SAMPLES = {20_000L, 80_000L, 300_000L, 2_000_000L, 40_000_000L, 3_000_000_000L};
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private PrometheusExporter exporter;
+    private URI uri;
+
+    @BeforeEach
+    void start() {
+        RuntimeStats stats = new RuntimeStats();
+        stats.increment(RuntimeStats.Counter.FELLINGS_STARTED);
+        stats.add(RuntimeStats.Counter.BLOCKS_BROKEN, 42);
+        stats.speciesBlocks("oak").add(42);
+        for (RuntimeStats.Phase phase : RuntimeStats.Phase.values()) {
+            for (long nanos : SAMPLES) {
+                stats.record(phase, nanos);
+            }
+        }
+        exporter = new PrometheusExporter(Logger.getLogger("PrometheusExporterTest"), stats, new SessionRegistry());
+        assertTrue(exporter.start("127.0.0.1", 0), "exporter starts on a free port");
+        uri = URI.create("http://127.0.0.1:" + exporter.port() + "/metrics");
+    }
+
+    @AfterEach
+    void stop() {
+        exporter.stop();
+    }
+
+    @Test
+    void servesTextExpositionFormat() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).GET().build(),
+            HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        assertTrue(contentType.startsWith("text/plain") && contentType.contains("version=0.0.4"),
+            () -> "content type is the text exposition format, got " + contentType);
+        checkBody(response.body());
+    }
+
+    @Test
+    void rejectsPost() throws IOException, InterruptedException {
+        HttpResponse<String> post = client.send(HttpRequest.newBuilder(uri)
+            .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(405, post.statusCode());
+    }
+
+    private static void checkBody(String body) {
+        Map<String, String> types = new HashMap<>();
+        Map<String, Double> previousBucket = new HashMap<>();
+        Map<String, Double> previousBound = new HashMap<>();
+        Map<String, Double> infBuckets = new HashMap<>();
+        Map<String, Double> counts = new HashMap<>();
+        Set<String> families = new HashSet<>();
+        for (String line : body.split("\n")) {
+            if (line.isEmpty()) continue;
+            if (line.startsWith("# TYPE ")) {
+                String[] parts = line.split(" ");
+                assertEquals(4, parts.length, () -> "TYPE line has a name and a type: " + line);
+                assertNull(types.put(parts[2], parts[3]), () -> "family declared once: " + parts[2]);
+                continue;
+            }
+            if (line.startsWith("#")) continue;
+            Matcher sample = SAMPLE.matcher(line);
+            if (!sample.matches()) fail("unparseable sample line: " + line);
+            String name = sample.group(1);
+            String labels = sample.group(3) != null ? sample.group(3) : "";
+            double value = Double.parseDouble(sample.group(4));
+            String family = name.replaceFirst("_(bucket|sum|count)$", "");
+            assertTrue(types.containsKey(name) || types.containsKey(family),
+                () -> "sample without a preceding # TYPE line: " + line);
+            families.add(types.containsKey(name) ? name : family);
+            if (!name.endsWith("_bucket")) {
+                if (name.endsWith("_count")) counts.put(family + '{' + labels + '}', value);
+                continue;
+            }
+            Matcher le = LE.matcher(labels);
+            assertTrue(le.find(), () -> "bucket without le label: " + line);
+            String series = family + '{' + labels.replaceAll(",?le=\"[^\"]+\"", "") + '}';
+            double bound = le.group(1).equals("+Inf") ? Double.POSITIVE_INFINITY : Double.parseDouble(le.group(1));
+            Double lastBound = previousBound.put(series, bound);
+            Double lastValue = previousBucket.put(series, value);
+            if (lastBound != null) {
+                assertTrue(bound > lastBound, () -> "bucket bounds ascend in " + series + ": " + lastBound + " then " + bound);
+                assertTrue(value >= lastValue, () -> "buckets are cumulative in " + series + ": " + lastValue + " then " + value);
+            }
+            if (Double.isInfinite(bound)) infBuckets.put(series, value);
+        }
+        assertEquals("histogram", types.get("timberella_phase_seconds"), "phase latency type");
+        assertEquals("counter", types.get("timberella_fellings_total"), "fellings type");
+        assertTrue(families.contains("timberella_blocks_broken_total"), "per-species block counter is exported");
+        assertFalse(infBuckets.isEmpty(), "histogram buckets are exported");
+        for (Map.Entry<String, Double> inf : infBuckets.entrySet()) {
+            Double count = counts.get(inf.getKey());
+            assertNotNull(count, () -> "_count exported for " + inf.getKey());
+            assertEquals(count, inf.getValue(), () -> "+Inf bucket equals _count for " + inf.getKey());
+            assertEquals(SAMPLES.length, inf.getValue(), () -> "every recorded sample is counted for " + inf.getKey());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.hrobasti.timberella.tree;
+
+import com.github.hrobasti.timberella.corpus.CorpusSettings;
+import com.github.hrobasti.timberella.corpus.TreeCorpus;
+import com.github.hrobasti.timberella.corpus.TreeFixture;
+import org.bukkit.Material;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Scans every corpus tree under every {@link CorpusSettings.Variant} twice, straight from the grid and through the
+ * species' {@link ScanStrategy}: both must return the same logs, soils, leaves and column order, and the strategy
+ * must not read the world more often than the direct scan.
+ */
+class ScanStrategyTest {
+    /** Counts reads that reach the grid. */
+    private static final class CountingAccess implements BlockAccess {
+        private final BlockAccess grid;
+        long reads;
+
+        CountingAccess(BlockAccess grid) {
+            this.grid = grid;
+        }
+
+        @Override
+        public Material type(int x, int y, int z) {
+            reads++;
+            return grid.type(x, y, z);
+        }
+
+        @Override
+        public boolean isPassable(int x, int y, int z) {
+            return grid.isPassable(x, y, z);
+        }
+    }
+
+    @TestFactory
+    Stream<DynamicTest> strategyMatchesDirectScan() {
+        return TreeCorpus.fixtures().stream().flatMap(fixture -> CorpusSettings.VARIANTS.stream()
+            .map(variant -> DynamicTest.dynamicTest(fixture.name() + ' ' + variant.name(), () -> check(fixture, variant))));
+    }
+
+    private static void check(TreeFixture fixture, CorpusSettings.Variant variant) {
+        int x = fixture.startX();
+        int y = fixture.startY();
+        int z = fixture.startZ();
+        Species species = Species.detect(fixture.grid(), x, y, z);
+        ScanStrategy strategy = ScanStrategy.forSpecies(species);
+        TreeScanner scanner = variant.scanner();
+        int maxBlocks = variant.maxBlocks(species);
+        int horizontal = variant.horizontalRadius(species);
+        int vertical = variant.verticalRadius(species);
+
+        CountingAccess direct = new CountingAccess(fixture.grid());
+        TreeScanner.Result expected = scanner.scan(direct, x, y, z, maxBlocks, horizontal, vertical);
+        CountingAccess counted = new CountingAccess(fixture.grid());
+        TreeScanner.Result actual = scanner.scan(strategy.view(counted, y, vertical), x, y, z, maxBlocks, horizontal, vertical);
+
+        assertArrayEquals(expected.positions(), actual.positions(), "logs");
+        assertArrayEquals(expected.types(), actual.types(), "log types");
+        assertArrayEquals(expected.soils(), actual.soils(), "soils");
+        assertEquals(expected.leafCount(), actual.leafCount(), "leaf count");
+        for (int i = 0; i < expected.leafCount(); i++) {
+            assertEquals(expected.leaves()[i], actual.leaves()[i], "leaf " + i);
+            assertEquals(expected.leafOwners()[i], actual.leafOwners()[i], "owner of leaf " + i);
+        }
+        assertArrayEquals(expected.columnOrder(), actual.columnOrder(), "column order");
+        assertEquals(expected.truncated(), actual.truncated(), "truncation");
+        assertTrue(counted.reads <= direct.reads,
+            () -> strategy + " read the world " + counted.reads + " times, the direct scan " + direct.reads);
+    }
+}
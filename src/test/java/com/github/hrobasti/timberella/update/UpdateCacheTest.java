@@ -0,0 +1,123 @@
+package com.github.hrobasti.timberella.update;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Runs the conditional update feed and the persisted update cache against a local HTTP stub that honours
+ * {@code If-None-Match}: an unchanged feed must come back as a 304, a cached result must survive a reload from
+ * disk, and a changed feed or different settings must force a full check again. Probes never download a body;
+ * the feed itself is fetched only by the update checker.
+ */
+class UpdateCacheTest {
+    private final AtomicInteger revision = new AtomicInteger(1);
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private final ConditionalFeed feed = new ConditionalFeed("Timberella/test");
+    private final Logger logger = Logger.getLogger("UpdateCacheTest");
+    private HttpServer server;
+    private String url;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/versions", this::serve);
+        server.createContext("/no-head", exchange -> {
+            exchange.sendResponseHeaders(exchange.getRequestMethod().equals("HEAD") ? 405 : 200, -1);
+            exchange.close();
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/versions";
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void cachedResultSurvivesReload(@TempDir Path dir) {
+        File file = dir.resolve("update-cache.yml").toFile();
+        ConditionalFeed.Probe first = feed.probe(url, ConditionalFeed.Validators.NONE);
+        UpdateSnapshot snapshot = new UpdateSnapshot("fp", 1_000L, "1.0.0", "1.1.0", true,
+            List.of(new UpdateSnapshot.ProviderStatus("Modrinth", true, "1.1.0", "https://example.invalid")));
+        new UpdateCache(file, logger).store(snapshot, Map.of(url, first.validators()));
+
+        UpdateCache reloaded = new UpdateCache(file, logger).load();
+        assertEquals(snapshot, reloaded.snapshot("fp"));
+        assertNull(reloaded.snapshot("other"), "a different fingerprint does not use the cached result");
+        assertEquals(first.validators(), reloaded.validators(url));
+    }
+
+    @Test
+    void unchangedFeedIsNotDownloaded() {
+        ConditionalFeed.Probe first = feed.probe(url, ConditionalFeed.Validators.NONE);
+        assertEquals(ConditionalFeed.Status.CHANGED, first.status());
+        assertEquals("\"v1\"", first.validators().etag());
+
+        ConditionalFeed.Probe second = feed.probe(url, first.validators());
+        assertEquals(ConditionalFeed.Status.UNCHANGED, second.status());
+        assertEquals(0, fullResponses.get(), "probes never download the feed");
+    }
+
+    @Test
+    void changedFeedReturnsNewValidators() {
+        ConditionalFeed.Probe first = feed.probe(url, ConditionalFeed.Validators.NONE);
+        revision.set(2);
+        ConditionalFeed.Probe changed = feed.probe(url, first.validators());
+        assertEquals(ConditionalFeed.Status.CHANGED, changed.status());
+        assertEquals("\"v2\"", changed.validators().etag());
+    }
+
+    @Test
+    void missingFeedFails() {
+        ConditionalFeed.Probe missing = feed.probe(url.replace("/versions", "/missing"), ConditionalFeed.Validators.NONE);
+        assertEquals(ConditionalFeed.Status.FAILED, missing.status());
+    }
+
+    @Test
+    void feedWithoutHeadSupportCountsAsChanged() {
+        ConditionalFeed.Probe noHead = feed.probe(url.replace("/versions", "/no-head"), ConditionalFeed.Validators.NONE);
+        assertEquals(ConditionalFeed.Status.CHANGED, noHead.status());
+        assertEquals(0, fullResponses.get(), "no probe downloaded a body");
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        String etag = "\"v" + revision.get() + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        if (exchange.getRequestMethod().equals("HEAD")) {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            return;
+        }
+        fullResponses.incrementAndGet();
+        byte[] body = ("[{\"version_number\":\"1." + revision.get() + ".0\"}]").getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}